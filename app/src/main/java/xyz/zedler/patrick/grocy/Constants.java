@@ -87,39 +87,6 @@ public final class Constants {
     public final static String MASTER_OBJECTS_SORT_MODE = "master_objects_sort_mode";
     public final static String MASTER_OBJECTS_SORT_ASCENDING = "master_objects_sort_ascending";
 
-    public final static String DB_LAST_TIME_STOCK_ITEMS = "db_last_time_stock_items";
-    public final static String DB_LAST_TIME_STOCK_ENTRIES = "db_last_time_stock_entries";
-    public final static String DB_LAST_TIME_STORES = "db_last_time_stores";
-    public final static String DB_LAST_TIME_LOCATIONS = "db_last_time_locations";
-    public final static String DB_LAST_TIME_STOCK_LOCATIONS = "db_last_time_stock_locations";
-    public final static String DB_LAST_TIME_SHOPPING_LIST_ITEMS = "db_last_time_shopping_list_items";
-    public final static String DB_LAST_TIME_SHOPPING_LISTS = "db_last_time_shopping_lists";
-    public final static String DB_LAST_TIME_PRODUCT_GROUPS = "db_last_time_product_groups";
-    public final static String DB_LAST_TIME_QUANTITY_UNITS = "db_last_time_quantity_units";
-    public final static String DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS = "db_last_time_quantity_unit_conversions";
-    public final static String DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED = "db_last_time_quantity_unit_conversions_resolved";
-    public final static String DB_LAST_TIME_PRODUCTS = "db_last_time_products";
-    public final static String DB_LAST_TIME_PRODUCTS_LAST_PURCHASED = "db_last_time_products_last_purchased";
-    public final static String DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE = "db_last_time_products_average_price";
-    public final static String DB_LAST_TIME_PRODUCT_BARCODES = "db_last_time_product_barcodes";
-    public final static String DB_LAST_TIME_VOLATILE = "db_last_time_volatile";
-    public final static String DB_LAST_TIME_VOLATILE_MISSING = "db_last_time_volatile_missing";
-    public final static String DB_LAST_TIME_TASKS = "db_last_time_tasks";
-    public final static String DB_LAST_TIME_TASK_CATEGORIES = "db_last_time_task_categories";
-    public final static String DB_LAST_TIME_CHORES = "db_last_time_chores";
-    public final static String DB_LAST_TIME_CHORE_ENTRIES = "db_last_time_chore_entries";
-    public final static String DB_LAST_TIME_USERS = "db_last_time_users";
-    public final static String DB_LAST_TIME_RECIPES = "db_last_time_recipes";
-    public final static String DB_LAST_TIME_RECIPE_FULFILLMENTS = "db_last_time_recipe_fulfillments";
-    public final static String DB_LAST_TIME_RECIPE_POSITIONS = "db_last_time_recipe_positions";
-    public final static String DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED = "db_last_time_recipe_positions_resolved";
-    public final static String DB_LAST_TIME_RECIPE_NESTINGS = "db_last_time_recipe_nestings";
-    public final static String DB_LAST_TIME_USERFIELDS = "db_last_time_userfields";
-    public final static String DB_LAST_TIME_MEAL_PLAN_ENTRIES = "db_last_time_meal_plan_entries";
-    public final static String DB_LAST_TIME_MEAL_PLAN_SECTIONS = "db_last_time_meal_plan_sections";
-    // when adding new constant for DB, also add it to clearCachingRelatedSharedPreferences()
-    // in PrefsUtil
-
     public final static String QUICK_MODE_ACTIVE_CONSUME = "quick_mode_active_consume";
     public final static String QUICK_MODE_ACTIVE_PURCHASE = "quick_mode_active_purchase";
     public final static String QUICK_MODE_ACTIVE_SHOPPING_ITEM = "quick_mode_active_shopping_item";
@@ -131,6 +98,12 @@ public final class Constants {
     public final static String CAMERA_SCANNER_VISIBLE_TRANSFER = "camera_scanner_visible_transfer";
     public final static String CAMERA_SCANNER_VISIBLE_INVENTORY = "camera_scanner_visible_inventory";
     public final static String CAMERA_SCANNER_VISIBLE_RECIPE = "camera_scanner_visible_recipe";
+    public final static String SCANNER_FORMAT_STATS = "scanner_format_stats";
+    public final static String INFO_LAST_TIME = "info_last_time";
+    public final static String REMINDER_STOCK_LAST_TRIGGER = "reminder_stock_last_trigger";
+    public final static String REMINDER_CHORES_LAST_TRIGGER = "reminder_chores_last_trigger";
+    public final static String DATABASE_PER_SERVER = "database_per_server";
+    public final static String SERVER_URLS = "server_urls";
 
     public final static String INTRO_SHOWN = "intro_shown";
     public final static String VERSION_COMPATIBILITY_IGNORED = "version_ignored_compatibility";
@@ -162,6 +135,9 @@ public final class Constants {
       public final static String PROXY = "proxy";
       public final static String PROXY_HOST = "proxy_host";
       public final static String PROXY_PORT = "proxy_port";
+      public final static String BACKGROUND_SYNC = "background_sync";
+      public final static String BACKGROUND_SYNC_UNMETERED = "background_sync_unmetered";
+      public final static String BACKGROUND_SYNC_CHARGING = "background_sync_charging";
     }
 
     public final static class BEHAVIOR {
@@ -266,6 +242,9 @@ public final class Constants {
       public final static boolean PROXY = false;
       public final static String PROXY_HOST = "127.0.0.1";
       public final static int PROXY_PORT = 8118;
+      public final static boolean BACKGROUND_SYNC = false;
+      public final static boolean BACKGROUND_SYNC_UNMETERED = true;
+      public final static boolean BACKGROUND_SYNC_CHARGING = false;
     }
 
     public final static class BEHAVIOR {
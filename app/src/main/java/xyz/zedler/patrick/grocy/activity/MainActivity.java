@@ -66,6 +66,7 @@ import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.snackbar.Snackbar;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Field;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.ARGUMENT;
@@ -85,6 +86,7 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.FeedbackBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.HapticUtil;
 import xyz.zedler.patrick.grocy.util.LocaleUtil;
 import xyz.zedler.patrick.grocy.util.NavUtil;
@@ -92,9 +94,12 @@ import xyz.zedler.patrick.grocy.util.NetUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.util.ShortcutUtil;
+import xyz.zedler.patrick.grocy.util.StartupUtil;
+import xyz.zedler.patrick.grocy.util.SyncUtil;
 import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
+import xyz.zedler.patrick.grocy.web.CircuitBreaker;
 import xyz.zedler.patrick.grocy.web.OrbotHelper;
 
 public class MainActivity extends AppCompatActivity {
@@ -112,6 +117,7 @@ public class MainActivity extends AppCompatActivity {
   private BroadcastReceiver networkReceiver;
   private BottomScrollBehavior scrollBehavior;
   private UiUtil uiUtil;
+  private StartupUtil startupUtil;
   private boolean runAsSuperClass;
   private boolean debug;
 
@@ -128,6 +134,9 @@ public class MainActivity extends AppCompatActivity {
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(this);
     PrefsUtil.migratePrefs(sharedPrefs);
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    DebugLog.init(sharedPrefs);
+    startupUtil = new StartupUtil(debug);
+    StartupUtil.beginSection("MainActivity.onCreate");
 
     // DARK MODE AND THEME
 
@@ -152,7 +161,7 @@ public class MainActivity extends AppCompatActivity {
     hapticUtil.setEnabled(PrefsUtil.areHapticsEnabled(sharedPrefs, this));
     netUtil = new NetUtil(this, sharedPrefs, debug, TAG);
     netUtil.insertConscrypt();
-    netUtil.createWebSocketClient();
+    netUtil.startIngressSession();
 
     // LANGUAGE
 
@@ -177,6 +186,7 @@ public class MainActivity extends AppCompatActivity {
     networkReceiver = new BroadcastReceiver() {
       @Override
       public void onReceive(Context context, Intent intent) {
+        CircuitBreaker.getInstance().reset(); // servers could be reachable in the new network
         Fragment navHostFragment = fragmentManager.findFragmentById(R.id.fragment_main_nav_host);
         assert navHostFragment != null;
         if (navHostFragment.getChildFragmentManager().getFragments().isEmpty()) {
@@ -203,6 +213,7 @@ public class MainActivity extends AppCompatActivity {
     // VIEWS
     binding = ActivityMainBinding.inflate(getLayoutInflater());
     setContentView(binding.getRoot());
+    startupUtil.observeFirstFrame(this);
 
     // NAVIGATION
     fragmentManager = getSupportFragmentManager();
@@ -248,28 +259,43 @@ public class MainActivity extends AppCompatActivity {
     );
 
     // UPDATE CONFIG | CHECK GROCY COMPATIBILITY
-    if (!PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
-      ConfigUtil.loadInfo(
-          new DownloadHelper(this, TAG),
-          grocyApi,
-          sharedPrefs,
-          () -> VersionUtil.showCompatibilityBottomSheetIfNecessary(this, sharedPrefs),
-          null
-      );
-    }
+    // stored config is used for the first frame, so it is only revalidated after it
+    startupUtil.runAfterFirstFrame("loadInfo", () -> {
+      if (!PrefsUtil.isServerUrlEmpty(sharedPrefs) && ConfigUtil.isInfoOutdated(sharedPrefs)) {
+        ConfigUtil.loadInfo(
+            new DownloadHelper(this, TAG),
+            grocyApi,
+            sharedPrefs,
+            () -> VersionUtil.showCompatibilityBottomSheetIfNecessary(this, sharedPrefs),
+            null
+        );
+      }
+    });
+
+    // BACKGROUND SYNC
+
+    startupUtil.runAfterFirstFrame(
+        "scheduleSync", () -> SyncUtil.updateBackgroundSync(getApplication())
+    );
 
     if (VersionUtil.isAppUpdated(sharedPrefs)) {
       // Show changelog if app was updated
       VersionUtil.showChangelogBottomSheet(this);
       PrefsUtil.clearCachingRelatedSharedPreferences(sharedPrefs);
+      AppDatabase.getAppDatabase(getApplication()).syncStateDao().invalidateAllSyncStates()
+          .subscribeOn(Schedulers.io())
+          .onErrorComplete()
+          .subscribe();
     } else {
       // Check if database scheme was updated and clear caching data if necessary
+      // (sync states are dropped together with the other tables)
       AppDatabase.getAppDatabase(getApplication()).getVersion(version -> {
         if (VersionUtil.isDatabaseUpdated(sharedPrefs, version)) {
           PrefsUtil.clearCachingRelatedSharedPreferences(sharedPrefs);
         }
       });
     }
+    StartupUtil.endSection();
   }
 
   @Override
@@ -278,7 +304,7 @@ public class MainActivity extends AppCompatActivity {
       unregisterReceiver(networkReceiver);
     }
     if (netUtil != null) {
-      netUtil.closeWebSocketClient("fragment destroyed");
+      netUtil.stopIngressSession();
     }
     super.onDestroy();
   }
@@ -286,7 +312,7 @@ public class MainActivity extends AppCompatActivity {
   @Override
   protected void onPause() {
     if (netUtil != null) {
-      netUtil.cancelHassSessionTimer();
+      netUtil.pauseIngressSession();
     }
     super.onPause();
   }
@@ -297,8 +323,7 @@ public class MainActivity extends AppCompatActivity {
     if (runAsSuperClass) {
       return;
     }
-    netUtil.createWebSocketClient();
-    netUtil.resetHassSessionTimer();
+    netUtil.startIngressSession();
     if (!sharedPrefs.contains(Constants.SETTINGS.BEHAVIOR.HAPTIC)) {
       hapticUtil.setEnabled(HapticUtil.areSystemHapticsTurnedOn(this));
     }
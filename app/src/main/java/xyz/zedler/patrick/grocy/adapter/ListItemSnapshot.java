@@ -0,0 +1,183 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.adapter;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Immutable snapshot of one row of a grouped list, taken once when an adapter gets new data.
+ * It holds the row id and a hash over everything the row displays, so the diff compares
+ * numbers instead of products, hash maps and id lists for every pair of rows.
+ * The version is taken over from the previous snapshot of the same row if its content has not
+ * changed, otherwise it is the version of the update which created the snapshot.
+ * Adapters can attach a display model with the prepared texts of the row, which is only created
+ * again when the content of the row has changed.
+ */
+final class ListItemSnapshot {
+
+  private static final long HASH_PRIME = 0x100000001b3L;
+
+  final int type;
+  final long id;
+  final long contentHash;
+  final int version;
+  @Nullable final Object displayModel;
+
+  private ListItemSnapshot(
+      int type,
+      long id,
+      long contentHash,
+      int version,
+      @Nullable Object displayModel
+  ) {
+    this.type = type;
+    this.id = id;
+    this.contentHash = contentHash;
+    this.version = version;
+    this.displayModel = displayModel;
+  }
+
+  private static long getKey(int type, long id) {
+    return id * 31 + type;
+  }
+
+  static long hash(long hash, long value) {
+    return (hash ^ value) * HASH_PRIME;
+  }
+
+  static long hash(long hash, double value) {
+    return hash(hash, Double.doubleToLongBits(value));
+  }
+
+  static long hash(long hash, boolean value) {
+    return hash(hash, value ? 1231 : 1237);
+  }
+
+  static long hash(long hash, @Nullable Object value) {
+    return hash(hash, value != null ? value.hashCode() : 0);
+  }
+
+  /**
+   * Hash of a collection which does not depend on the order of its elements.
+   */
+  static long hashIgnoreOrder(@Nullable Collection<?> values) {
+    if (values == null) return 0;
+    long hash = 0;
+    for (Object value : values) {
+      hash += value != null ? value.hashCode() : 0;
+    }
+    return hash;
+  }
+
+  /**
+   * Collects snapshots of a new list and stamps them with versions.
+   */
+  static class Builder {
+
+    private final HashMap<Long, ListItemSnapshot> oldSnapshots;
+    private final ArrayList<ListItemSnapshot> snapshots;
+    private final int version;
+
+    Builder(List<ListItemSnapshot> oldSnapshots, int version, int expectedSize) {
+      this.oldSnapshots = new HashMap<>(oldSnapshots.size() * 2);
+      for (ListItemSnapshot snapshot : oldSnapshots) {
+        this.oldSnapshots.put(getKey(snapshot.type, snapshot.id), snapshot);
+      }
+      this.snapshots = new ArrayList<>(expectedSize);
+      this.version = version;
+    }
+
+    void add(int type, long id, long contentHash) {
+      add(type, id, contentHash, null);
+    }
+
+    void add(
+        int type,
+        long id,
+        long contentHash,
+        @Nullable DisplayModelFactory displayModelFactory
+    ) {
+      ListItemSnapshot oldSnapshot = oldSnapshots.get(getKey(type, id));
+      if (oldSnapshot != null && oldSnapshot.type == type && oldSnapshot.id == id
+          && oldSnapshot.contentHash == contentHash) {
+        snapshots.add(oldSnapshot);
+        return;
+      }
+      snapshots.add(new ListItemSnapshot(
+          type,
+          id,
+          contentHash,
+          version,
+          displayModelFactory != null ? displayModelFactory.create() : null
+      ));
+    }
+
+    ArrayList<ListItemSnapshot> build() {
+      return snapshots;
+    }
+  }
+
+  interface DisplayModelFactory {
+
+    Object create();
+  }
+
+  static class DiffCallback extends DiffUtil.Callback {
+
+    private final List<ListItemSnapshot> oldSnapshots;
+    private final List<ListItemSnapshot> newSnapshots;
+
+    DiffCallback(List<ListItemSnapshot> oldSnapshots, List<ListItemSnapshot> newSnapshots) {
+      this.oldSnapshots = oldSnapshots;
+      this.newSnapshots = newSnapshots;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return oldSnapshots.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return newSnapshots.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      ListItemSnapshot oldSnapshot = oldSnapshots.get(oldItemPosition);
+      ListItemSnapshot newSnapshot = newSnapshots.get(newItemPosition);
+      return oldSnapshot.type == newSnapshot.type && oldSnapshot.id == newSnapshot.id;
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      ListItemSnapshot oldSnapshot = oldSnapshots.get(oldItemPosition);
+      ListItemSnapshot newSnapshot = newSnapshots.get(newItemPosition);
+      return oldSnapshot.version == newSnapshot.version
+          && oldSnapshot.contentHash == newSnapshot.contentHash;
+    }
+  }
+}
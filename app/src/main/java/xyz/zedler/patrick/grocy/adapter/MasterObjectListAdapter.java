@@ -29,14 +29,12 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.load.model.LazyHeaders;
 import java.util.ArrayList;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowMasterItemBinding;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.util.ObjectUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class MasterObjectListAdapter extends
     RecyclerView.Adapter<MasterObjectListAdapter.ViewHolder> {
@@ -47,7 +45,6 @@ public class MasterObjectListAdapter extends
   private final MasterObjectListAdapterListener listener;
   private final String entity;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private boolean containsPictures;
 
   public MasterObjectListAdapter(
@@ -59,7 +56,6 @@ public class MasterObjectListAdapter extends
     this.listener = listener;
     this.entity = entity;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
-    this.grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(context);
   }
 
   public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -97,12 +93,10 @@ public class MasterObjectListAdapter extends
     if (pictureFileName != null && !pictureFileName.isEmpty()) {
       holder.binding.picture.layout(0, 0, 0, 0);
 
-      PictureUtil.loadPicture(
+      PictureUtil.loadThumbnail(
           holder.binding.picture,
-          null,
           holder.binding.picturePlaceholder,
           grocyApi.getProductPictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
           false
       );
     } else if (containsPictures) {
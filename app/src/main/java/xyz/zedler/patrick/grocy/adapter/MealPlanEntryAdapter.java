@@ -33,7 +33,6 @@ import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.color.ColorRoles;
 import java.util.ArrayList;
@@ -60,6 +59,7 @@ import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.ChipUtil;
+import xyz.zedler.patrick.grocy.util.InfoChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
@@ -82,8 +82,8 @@ public class MealPlanEntryAdapter extends
   private final HashMap<String, Userfield> userfieldHashMap;
   private final List<String> activeFields;
   private final PluralUtil pluralUtil;
+  private final InfoChipPool chipPool;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private final String date;
   private final String energyUnit;
   private final int maxDecimalPlacesAmount;
@@ -93,7 +93,6 @@ public class MealPlanEntryAdapter extends
   public MealPlanEntryAdapter(
       Context context,
       GrocyApi grocyApi,
-      LazyHeaders grocyAuthHeaders,
       String date
   ) {
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
@@ -117,8 +116,8 @@ public class MealPlanEntryAdapter extends
     this.userfieldHashMap = new HashMap<>();
     this.activeFields = new ArrayList<>();
     this.pluralUtil = new PluralUtil(context);
+    this.chipPool = InfoChipPool.getInstance(context);
     this.grocyApi = grocyApi;
-    this.grocyAuthHeaders = grocyAuthHeaders;
     this.groupedListItems = new ArrayList<>();
   }
 
@@ -273,8 +272,8 @@ public class MealPlanEntryAdapter extends
     binding.picture.setVisibility(View.GONE);
     binding.picturePlaceholder.setVisibility(View.GONE);
     binding.flexboxLayout.setVisibility(View.GONE);
-    ChipUtil chipUtil = new ChipUtil(context);
-    binding.flexboxLayout.removeAllViews();
+    ChipUtil chipUtil = new ChipUtil(context, chipPool);
+    chipPool.recycle(binding.flexboxLayout);
 
     switch (entry.getType()) {
       case MealPlanEntry.TYPE_RECIPE: {
@@ -343,12 +342,10 @@ public class MealPlanEntryAdapter extends
             && pictureFileName != null && !pictureFileName.isEmpty()) {
           binding.picture.layout(0, 0, 0, 0);
 
-          PictureUtil.loadPicture(
+          PictureUtil.loadThumbnail(
               binding.picture,
-              null,
               binding.picturePlaceholder,
               grocyApi.getRecipePictureServeSmall(pictureFileName),
-              grocyAuthHeaders,
               false
           );
         } else if (activeFields.contains(MealPlanViewModel.FIELD_PICTURE)) {
@@ -494,12 +491,10 @@ public class MealPlanEntryAdapter extends
             && pictureFileName != null && !pictureFileName.isEmpty()) {
           binding.picture.layout(0, 0, 0, 0);
 
-          PictureUtil.loadPicture(
+          PictureUtil.loadThumbnail(
               binding.picture,
-              null,
               binding.picturePlaceholder,
               grocyApi.getProductPictureServeSmall(pictureFileName),
-              grocyAuthHeaders,
               false
           );
         } else if (activeFields.contains(MealPlanViewModel.FIELD_PICTURE)) {
@@ -517,6 +512,13 @@ public class MealPlanEntryAdapter extends
 
   }
 
+  @Override
+  public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+    if (viewHolder instanceof MealPlanEntryViewHolder) {
+      chipPool.recycle(((MealPlanEntryViewHolder) viewHolder).binding.flexboxLayout);
+    }
+  }
+
   @Override
   public int getItemCount() {
     return groupedListItems.size();
@@ -37,7 +37,6 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.RecyclerView.LayoutManager;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.flexbox.FlexboxLayout;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
@@ -56,10 +55,10 @@ import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.ChipUtil;
+import xyz.zedler.patrick.grocy.util.InfoChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.viewmodel.RecipesViewModel;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class RecipeEntryAdapter extends
     RecyclerView.Adapter<RecipeEntryAdapter.ViewHolder> {
@@ -74,7 +73,7 @@ public class RecipeEntryAdapter extends
   private final HashMap<String, Userfield> userfieldHashMap;
   private final RecipesItemAdapterListener listener;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
+  private final InfoChipPool chipPool;
   private String sortMode;
   private boolean sortAscending;
   private final List<String> activeFields;
@@ -94,7 +93,7 @@ public class RecipeEntryAdapter extends
     this.userfieldHashMap = new HashMap<>();
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
-    this.grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(context);
+    this.chipPool = InfoChipPool.getInstance(context);
     this.activeFields = new ArrayList<>();
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
     maxDecimalPlacesAmount = sharedPrefs.getInt(
@@ -190,8 +189,8 @@ public class RecipeEntryAdapter extends
 
     title.setText(recipe.getName());
 
-    ChipUtil chipUtil = new ChipUtil(context);
-    chips.removeAllViews();
+    ChipUtil chipUtil = new ChipUtil(context, chipPool);
+    chipPool.recycle(chips);
 
     if (activeFields.contains(RecipesViewModel.FIELD_DUE_SCORE)
         && recipeFulfillment != null) {
@@ -237,12 +236,10 @@ public class RecipeEntryAdapter extends
         && pictureFileName != null && !pictureFileName.isEmpty()) {
       picture.layout(0, 0, 0, 0);
 
-      PictureUtil.loadPicture(
+      PictureUtil.loadThumbnail(
           picture,
-          null,
           picturePlaceholder,
           grocyApi.getRecipePictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
           viewHolder instanceof RecipeGridViewHolder
       );
     } else if (activeFields.contains(RecipesViewModel.FIELD_PICTURE)
@@ -261,6 +258,15 @@ public class RecipeEntryAdapter extends
     );
   }
 
+  @Override
+  public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+    if (viewHolder instanceof RecipeViewHolder) {
+      chipPool.recycle(((RecipeViewHolder) viewHolder).binding.flexboxLayout);
+    } else if (viewHolder instanceof RecipeGridViewHolder) {
+      chipPool.recycle(((RecipeGridViewHolder) viewHolder).binding.flexboxLayout);
+    }
+  }
+
   @Override
   public int getItemCount() {
     return recipes.size();
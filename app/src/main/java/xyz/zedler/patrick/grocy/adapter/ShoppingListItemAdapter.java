@@ -29,19 +29,25 @@ import android.graphics.Paint;
 import android.text.Html;
 import android.text.Spanned;
 import android.text.SpannedString;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
@@ -61,35 +67,35 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
-import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.InfoChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.TextUtil;
+import xyz.zedler.patrick.grocy.util.ThumbnailPreloader.PictureUrlProvider;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingListViewModel;
 import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class ShoppingListItemAdapter extends
-    RecyclerView.Adapter<ShoppingListItemAdapter.ViewHolder> {
+    RecyclerView.Adapter<ShoppingListItemAdapter.ViewHolder> implements PictureUrlProvider {
 
   private final static String TAG = ShoppingListItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private ArrayList<ListItemSnapshot> snapshots;
+  private int snapshotVersion;
+  private Disposable updateDisposable;
+  private HashMap<Integer, Product> productHashMap;
   private final ShoppingListItemAdapterListener listener;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
-  private String groupingMode;
-  private final List<String> activeFields;
+  private final InfoChipPool chipPool;
+  private final ColorStateList colorBlueContainer;
+  private final int colorOnBlueContainer;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
@@ -112,17 +118,17 @@ public class ShoppingListItemAdapter extends
     this.priceTrackingEnabled = sharedPrefs
         .getBoolean(PREF.FEATURE_STOCK_PRICE_TRACKING, true);
     this.productHashMap = new HashMap<>();
-    this.productLastPurchasedHashMap = new HashMap<>();
-    this.quantityUnitHashMap = new HashMap<>();
-    this.unitConversions = new ArrayList<>();
-    this.shoppingListItemAmountsHashMap = new HashMap<>();
-    this.missingProductIds = new ArrayList<>();
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
-    this.grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(context);
     this.pluralUtil = new PluralUtil(context);
+    this.chipPool = InfoChipPool.getInstance(context);
+    this.colorBlueContainer = ColorStateList.valueOf(
+        ResUtil.getColor(context, R.attr.colorCustomBlueContainer)
+    );
+    this.colorOnBlueContainer = ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
+    this.snapshots = new ArrayList<>();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -435,46 +441,18 @@ public class ShoppingListItemAdapter extends
       binding.noteAsName.setText(null);
     }
 
-    binding.flexboxLayout.removeAllViews();
+    chipPool.recycle(binding.flexboxLayout);
+
+    ShoppingListItemDisplayModel model = (ShoppingListItemDisplayModel) snapshots
+        .get(viewHolder.getAdapterPosition()).displayModel;
 
     // AMOUNT
 
-    Double amountInItemUnit = shoppingListItemAmountsHashMap.get(item.getId());
-    if (activeFields.contains(ShoppingListViewModel.FIELD_AMOUNT)) {
-      StringBuilder stringBuilderAmount = new StringBuilder();
-      if (product != null && amountInItemUnit != null) {
-        QuantityUnit quantityUnit = quantityUnitHashMap.get(item.getQuIdInt());
-        String quStr = pluralUtil.getQuantityUnitPlural(quantityUnit, amountInItemUnit);
-        if (quStr != null) {
-          stringBuilderAmount.append(context.getString(
-              R.string.subtitle_amount,
-              NumUtil.trimAmount(amountInItemUnit, maxDecimalPlacesAmount),
-              quStr
-          ));
-        } else {
-          stringBuilderAmount.append(NumUtil.trimAmount(amountInItemUnit, maxDecimalPlacesAmount));
-        }
-      } else if (product != null) {
-        QuantityUnit quantityUnit = quantityUnitHashMap.get(product.getQuIdStockInt());
-        String quStr = pluralUtil.getQuantityUnitPlural(quantityUnit, item.getAmountDouble());
-        if (quStr != null) {
-          stringBuilderAmount.append(context.getString(
-              R.string.subtitle_amount,
-              NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount),
-              quStr
-          ));
-        } else {
-          stringBuilderAmount.append(NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount));
-        }
-      } else {
-        stringBuilderAmount.append(NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount));
-      }
-      Chip chipAmount = createChip(context, stringBuilderAmount.toString());
-      if (item.hasProduct() && missingProductIds.contains(item.getProductIdInt())) {
-        chipAmount.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer));
-        chipAmount.setChipBackgroundColor(ColorStateList.valueOf(
-            ResUtil.getColor(context, R.attr.colorCustomBlueContainer)
-        ));
+    if (model.amount != null) {
+      Chip chipAmount = obtainChip(context, model.amount);
+      if (model.isMissing) {
+        chipAmount.setTextColor(colorOnBlueContainer);
+        chipAmount.setChipBackgroundColor(colorBlueContainer);
       }
       if (item.isUndone()) {
         chipAmount.setPaintFlags(chipAmount.getPaintFlags() & (~Paint.STRIKE_THRU_TEXT_FLAG));
@@ -488,17 +466,17 @@ public class ShoppingListItemAdapter extends
 
     // NOTE
 
-    if (item.getNote() != null && !item.getNote().trim().isEmpty()) {
+    if (model.note != null) {
       if (binding.name.getVisibility() == View.VISIBLE) {
         if (activeFields.contains(ShoppingListViewModel.FIELD_NOTES)) {
           binding.note.setVisibility(View.VISIBLE);
-          binding.note.setText(item.getNote().trim());
+          binding.note.setText(model.note);
         } else {
           binding.note.setVisibility(View.GONE);
         }
       } else {
         binding.noteAsName.setVisibility(View.VISIBLE);
-        binding.noteAsName.setText(item.getNote().trim());
+        binding.noteAsName.setText(model.note);
         binding.note.setVisibility(View.GONE);
         binding.note.setText(null);
       }
@@ -534,49 +512,11 @@ public class ShoppingListItemAdapter extends
       }
     }
 
-    double conversionFactor = 1.0;
-    if ((activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)
-        || activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)) && product != null) {
-      QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-          unitConversions,
-          product.getId(),
-          item.getQuIdInt(),
-          product.getQuIdStockInt()
-      );
-      if (c != null) {
-        conversionFactor = c.getFactor();
-      }
-    }
-    if (activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)) {
-      ProductLastPurchased p = product != null
-          ? productLastPurchasedHashMap.get(product.getId()) : null;
-      if (p != null && p.getPrice() != null && !p.getPrice().isEmpty()) {
-        double amount = item.getAmountDouble();
-        String price = NumUtil.isStringDouble(p.getPrice())
-            ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * amount,
-            decimalPlacesPriceDisplay)
-            : p.getPrice();
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_total,
-            context.getString(R.string.property_price_with_currency, price, currency)
-        ));
-        binding.flexboxLayout.addView(chipValue);
-      }
+    if (model.priceTotal != null) {
+      binding.flexboxLayout.addView(obtainChip(context, model.priceTotal));
     }
-    if (activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)) {
-      ProductLastPurchased p = product != null
-          ? productLastPurchasedHashMap.get(product.getId()) : null;
-      if (p != null && p.getPrice() != null && !p.getPrice().isEmpty()) {
-        String price = NumUtil.isStringDouble(p.getPrice())
-            ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * conversionFactor,
-            decimalPlacesPriceDisplay)
-            : p.getPrice();
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_per_unit,
-            context.getString(R.string.property_price_with_currency, price, currency)
-        ));
-        binding.flexboxLayout.addView(chipValue);
-      }
+    if (model.priceUnit != null) {
+      binding.flexboxLayout.addView(obtainChip(context, model.priceUnit));
     }
 
     binding.flexboxLayout.setVisibility(
@@ -588,12 +528,10 @@ public class ShoppingListItemAdapter extends
         && pictureFileName != null && !pictureFileName.isEmpty()) {
       binding.picture.layout(0, 0, 0, 0);
 
-      PictureUtil.loadPicture(
+      PictureUtil.loadThumbnail(
           binding.picture,
           null,
-          null,
           grocyApi.getProductPictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
           false
       );
     } else {
@@ -608,18 +546,43 @@ public class ShoppingListItemAdapter extends
 
   }
 
+  private Chip obtainChip(Context ctx, CharSequence text) {
+    return disableChip(chipPool.obtain(ctx, text));
+  }
+
   private static Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
+    return disableChip(InfoChipPool.createChip(ctx, text));
+  }
+
+  private static Chip disableChip(Chip chip) {
     chip.setEnabled(false);
     chip.setClickable(false);
     chip.setFocusable(false);
     return chip;
   }
 
+  @Override
+  public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+    if (viewHolder instanceof ShoppingListItemViewHolder) {
+      chipPool.recycle(((ShoppingListItemViewHolder) viewHolder).binding.flexboxLayout);
+    }
+  }
+
+  @Nullable
+  @Override
+  public String getThumbnailUrl(int position) {
+    if (position < 0 || position >= groupedListItems.size()
+        || !(groupedListItems.get(position) instanceof ShoppingListItem)
+        || !activeFields.contains(StockOverviewViewModel.FIELD_PICTURE)) {
+      return null;
+    }
+    ShoppingListItem item = (ShoppingListItem) groupedListItems.get(position);
+    Product product = item.hasProduct() ? productHashMap.get(item.getProductIdInt()) : null;
+    String pictureFileName = product != null ? product.getPictureFileName() : null;
+    if (pictureFileName == null || pictureFileName.isEmpty()) return null;
+    return grocyApi.getProductPictureServeSmall(pictureFileName);
+  }
+
   @Override
   public int getItemCount() {
     return groupedListItems.size();
@@ -778,236 +741,269 @@ public class ShoppingListItemAdapter extends
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-        shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay, currency);
-    ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.unitConversions,
-        unitConversions,
-        this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
-        this.missingProductIds,
-        missingProductIds,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
-    );
+    ListUpdate update = new ListUpdate(context, productHashMap, productLastPurchasedHashMap,
+        quantityUnitHashMap, unitConversions, shoppingListItemAmountsHashMap, missingProductIds,
+        activeFields);
+    ArrayList<ListItemSnapshot> oldSnapshots = snapshots;
+    int version = ++snapshotVersion;
+
+    // a newer update replaces the pending one, so results can't be applied out of order
+    if (updateDisposable != null) updateDisposable.dispose();
+    updateDisposable = Single.fromCallable(() -> {
+          // the list is sorted in place, the one of the view model stays untouched
+          update.build(new ArrayList<>(shoppingListItems), productNamesHashMap,
+              productGroupHashMap, storeHashMap, shoppingListNotes, groupingMode, oldSnapshots,
+              version);
+          return update;
+        })
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            result -> applyUpdate(result, onListFilled),
+            throwable -> Log.e(TAG, "updateData: " + throwable)
+        );
+  }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+  private void applyUpdate(ListUpdate update, Runnable onListFilled) {
+    if (onListFilled != null && !update.groupedListItems.isEmpty()
+        && groupedListItems.isEmpty()) {
       onListFilled.run();
     }
+    this.productHashMap = update.productHashMap;
+    this.activeFields = update.activeFields;
+    this.groupedListItems = update.groupedListItems;
+    this.snapshots = update.snapshots;
+    update.diffResult.dispatchUpdatesTo(this);
+  }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+  static ArrayList<ListItemSnapshot> getSnapshots(
+      ArrayList<GroupedListItem> items,
+      ArrayList<ListItemSnapshot> oldSnapshots,
+      int version,
+      HashMap<Integer, Product> productHashMap,
+      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
+      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+      QuantityUnitConversionIndex unitConversionIndex,
+      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
+      HashSet<Integer> missingProductIds,
+      List<String> activeFields,
+      boolean showPrices,
+      @Nullable ItemDisplayModelFactory displayModelFactory
+  ) {
+    ListItemSnapshot.Builder builder = new ListItemSnapshot.Builder(
+        oldSnapshots, version, items.size()
+    );
+    long activeFieldsHash = ListItemSnapshot.hashIgnoreOrder(activeFields);
+    // display models contain localized texts
+    activeFieldsHash = ListItemSnapshot.hash(activeFieldsHash, Locale.getDefault());
+    for (GroupedListItem groupedListItem : items) {
+      int type = GroupedListItem.getType(groupedListItem, GroupedListItem.CONTEXT_SHOPPING_LIST);
+      if (type != GroupedListItem.TYPE_ENTRY) {
+        // headers and bottom notes are identified by their content like before
+        builder.add(type, groupedListItem.hashCode(), groupedListItem.hashCode());
+        continue;
+      }
+      ShoppingListItem item = (ShoppingListItem) groupedListItem;
+      Product product = item.hasProduct() ? productHashMap.get(item.getProductIdInt()) : null;
+      long hash = ListItemSnapshot.hash(activeFieldsHash, item);
+      hash = ListItemSnapshot.hash(hash, product);
+      hash = ListItemSnapshot.hash(hash, quantityUnitHashMap.get(item.getQuIdInt()));
+      if (product != null) {
+        hash = ListItemSnapshot.hash(hash, quantityUnitHashMap.get(product.getQuIdStockInt()));
+        hash = ListItemSnapshot.hash(hash, missingProductIds.contains(product.getId()));
+      }
+      hash = ListItemSnapshot.hash(hash, shoppingListItemAmountsHashMap.get(item.getId()));
+      if (showPrices && product != null) {
+        hash = ListItemSnapshot.hash(hash, productLastPurchasedHashMap.get(product.getId()));
+        hash = ListItemSnapshot.hash(
+            hash, getConversionFactor(unitConversionIndex, product, item.getQuIdInt())
+        );
+      }
+      builder.add(
+          type,
+          item.getId(),
+          hash,
+          displayModelFactory != null
+              ? () -> displayModelFactory.create(item, product)
+              : null
+      );
+    }
+    return builder.build();
   }
 
-  static class DiffCallback extends DiffUtil.Callback {
-
-    ArrayList<GroupedListItem> oldItems;
-    ArrayList<GroupedListItem> newItems;
-    HashMap<Integer, Product> productHashMapOld;
-    HashMap<Integer, Product> productHashMapNew;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    List<QuantityUnitConversionResolved> unitConversionsOld;
-    List<QuantityUnitConversionResolved> unitConversionsNew;
-    HashMap<Integer, Double> shoppingListItemAmountsHashMapOld;
-    HashMap<Integer, Double> shoppingListItemAmountsHashMapNew;
-    ArrayList<Integer> missingProductIdsOld;
-    ArrayList<Integer> missingProductIdsNew;
-    String groupingModeOld;
-    String groupingModeNew;
-    List<String> activeFieldsOld;
-    List<String> activeFieldsNew;
-
-    public DiffCallback(
-        ArrayList<GroupedListItem> oldItems,
-        ArrayList<GroupedListItem> newItems,
-        HashMap<Integer, Product> productHashMapOld,
-        HashMap<Integer, Product> productHashMapNew,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        List<QuantityUnitConversionResolved> unitConversionsOld,
-        List<QuantityUnitConversionResolved> unitConversionsNew,
-        HashMap<Integer, Double> shoppingListItemAmountsHashMapOld,
-        HashMap<Integer, Double> shoppingListItemAmountsHashMapNew,
-        ArrayList<Integer> missingProductIdsOld,
-        ArrayList<Integer> missingProductIdsNew,
-        String groupingModeOld,
-        String groupingModeNew,
-        List<String> activeFieldsOld,
-        List<String> activeFieldsNew
+  /**
+   * Groups and diffs new data and prepares the display models of changed rows on a background
+   * thread, without touching the adapter until the result is applied.
+   */
+  private class ListUpdate {
+
+    private final Context context;
+    private final HashMap<Integer, Product> productHashMap;
+    private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+    private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+    private final QuantityUnitConversionIndex unitConversionIndex;
+    private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+    private final HashSet<Integer> missingProductIds;
+    private final List<String> activeFields;
+    private ArrayList<GroupedListItem> groupedListItems;
+    private ArrayList<ListItemSnapshot> snapshots;
+    private DiffUtil.DiffResult diffResult;
+
+    ListUpdate(
+        Context context,
+        HashMap<Integer, Product> productHashMap,
+        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
+        HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+        List<QuantityUnitConversionResolved> unitConversions,
+        HashMap<Integer, Double> shoppingListItemAmountsHashMap,
+        ArrayList<Integer> missingProductIds,
+        List<String> activeFields
     ) {
-      this.oldItems = oldItems;
-      this.newItems = newItems;
-      this.productHashMapOld = productHashMapOld;
-      this.productHashMapNew = productHashMapNew;
-      this.productLastPurchasedHashMapOld = productLastPurchasedHashMapOld;
-      this.productLastPurchasedHashMapNew = productLastPurchasedHashMapNew;
-      this.quantityUnitHashMapOld = quantityUnitHashMapOld;
-      this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.unitConversionsOld = unitConversionsOld;
-      this.unitConversionsNew = unitConversionsNew;
-      this.shoppingListItemAmountsHashMapOld = shoppingListItemAmountsHashMapOld;
-      this.shoppingListItemAmountsHashMapNew = shoppingListItemAmountsHashMapNew;
-      this.missingProductIdsOld = missingProductIdsOld;
-      this.missingProductIdsNew = missingProductIdsNew;
-      this.groupingModeOld = groupingModeOld;
-      this.groupingModeNew = groupingModeNew;
-      this.activeFieldsOld = activeFieldsOld;
-      this.activeFieldsNew = activeFieldsNew;
-    }
-
-    @Override
-    public int getOldListSize() {
-      return oldItems.size();
-    }
-
-    @Override
-    public int getNewListSize() {
-      return newItems.size();
-    }
-
-    @Override
-    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, false);
-    }
-
-    @Override
-    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, true);
-    }
-
-    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
-      int oldItemType = GroupedListItem.getType(
-          oldItems.get(oldItemPos),
-          GroupedListItem.CONTEXT_SHOPPING_LIST
+      // references are swapped instead of copied, the view model creates new ones on every load
+      this.context = context;
+      this.productHashMap = productHashMap;
+      this.productLastPurchasedHashMap = productLastPurchasedHashMap;
+      this.quantityUnitHashMap = quantityUnitHashMap;
+      this.unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
+      this.shoppingListItemAmountsHashMap = shoppingListItemAmountsHashMap;
+      this.missingProductIds = new HashSet<>(missingProductIds);
+      this.activeFields = activeFields;
+    }
+
+    void build(
+        ArrayList<ShoppingListItem> shoppingListItems,
+        HashMap<Integer, String> productNamesHashMap,
+        HashMap<Integer, ProductGroup> productGroupHashMap,
+        HashMap<Integer, Store> storeHashMap,
+        String shoppingListNotes,
+        String groupingMode,
+        ArrayList<ListItemSnapshot> oldSnapshots,
+        int version
+    ) {
+      groupedListItems = getGroupedListItems(context, shoppingListItems,
+          productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
+          productLastPurchasedHashMap, shoppingListItemAmountsHashMap, shoppingListNotes,
+          groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay, currency);
+      snapshots = getSnapshots(
+          groupedListItems,
+          oldSnapshots,
+          version,
+          productHashMap,
+          productLastPurchasedHashMap,
+          quantityUnitHashMap,
+          unitConversionIndex,
+          shoppingListItemAmountsHashMap,
+          missingProductIds,
+          activeFields,
+          activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)
+              || activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT),
+          this::createDisplayModel
       );
-      int newItemType = GroupedListItem.getType(
-          newItems.get(newItemPos),
-          GroupedListItem.CONTEXT_SHOPPING_LIST
+      diffResult = DiffUtil.calculateDiff(
+          new ListItemSnapshot.DiffCallback(oldSnapshots, snapshots)
       );
-      if (oldItemType != newItemType) {
-        return false;
+    }
+
+    /**
+     * Prepares all texts of the row, so that binding only has to set them.
+     */
+    private ShoppingListItemDisplayModel createDisplayModel(
+        ShoppingListItem item,
+        @Nullable Product product
+    ) {
+      ShoppingListItemDisplayModel model = new ShoppingListItemDisplayModel();
+      model.isMissing = item.hasProduct() && missingProductIds.contains(item.getProductIdInt());
+      if (item.getNote() != null && !item.getNote().trim().isEmpty()) {
+        model.note = item.getNote().trim();
       }
-      if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        ShoppingListItem newItem = (ShoppingListItem) newItems.get(newItemPos);
-        ShoppingListItem oldItem = (ShoppingListItem) oldItems.get(oldItemPos);
-        if (!compareContent) {
-          return newItem.getId() == oldItem.getId();
-        }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
-          return false;
-        }
 
-        Integer productIdOld =
-            NumUtil.isStringInt(oldItem.getProductId()) ? Integer.parseInt(oldItem.getProductId())
-                : null;
-        Product productOld = productIdOld != null ? productHashMapOld.get(productIdOld) : null;
-
-        Integer productIdNew =
-            NumUtil.isStringInt(newItem.getProductId()) ? Integer.parseInt(newItem.getProductId())
-                : null;
-        Product productNew = productIdNew != null ? productHashMapNew.get(productIdNew) : null;
-
-        Integer quIdOld =
-            NumUtil.isStringInt(oldItem.getQuId()) ? Integer.parseInt(oldItem.getQuId()) : null;
-        QuantityUnit quOld = quIdOld != null ? quantityUnitHashMapOld.get(quIdOld) : null;
-
-        Integer quIdNew =
-            NumUtil.isStringInt(newItem.getQuId()) ? Integer.parseInt(newItem.getQuId()) : null;
-        QuantityUnit quNew = quIdNew != null ? quantityUnitHashMapNew.get(quIdNew) : null;
-
-        Double amountOld = shoppingListItemAmountsHashMapOld.get(oldItem.getId());
-        Double amountNew = shoppingListItemAmountsHashMapNew.get(newItem.getId());
-
-        Boolean missingOld =
-            productIdOld != null ? missingProductIdsOld.contains(productIdOld) : null;
-        Boolean missingNew =
-            productIdNew != null ? missingProductIdsNew.contains(productIdNew) : null;
-
-        if (activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)
-            || activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)) {
-          ProductLastPurchased purchasedOld = productIdOld != null
-              ? productLastPurchasedHashMapOld.get(productIdOld) : null;
-          ProductLastPurchased purchasedNew = productIdNew != null
-              ? productLastPurchasedHashMapNew.get(productIdNew) : null;
-          if (purchasedOld == null && purchasedNew != null
-              || purchasedOld != null && purchasedNew != null && !purchasedOld.equals(purchasedNew)) {
-            return false;
+      Double amountInItemUnit = shoppingListItemAmountsHashMap.get(item.getId());
+      if (activeFields.contains(ShoppingListViewModel.FIELD_AMOUNT)) {
+        StringBuilder stringBuilderAmount = new StringBuilder();
+        if (product != null && amountInItemUnit != null) {
+          QuantityUnit quantityUnit = quantityUnitHashMap.get(item.getQuIdInt());
+          String quStr = pluralUtil.getQuantityUnitPlural(quantityUnit, amountInItemUnit);
+          if (quStr != null) {
+            stringBuilderAmount.append(context.getString(
+                R.string.subtitle_amount,
+                NumUtil.trimAmount(amountInItemUnit, maxDecimalPlacesAmount),
+                quStr
+            ));
+          } else {
+            stringBuilderAmount.append(NumUtil.trimAmount(amountInItemUnit, maxDecimalPlacesAmount));
           }
-
-          if (productOld != null && productNew != null) {
-            QuantityUnitConversionResolved oldCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsOld,
-                productOld.getId(),
-                oldItem.getQuIdInt(),
-                productOld.getQuIdStockInt()
-            );
-            QuantityUnitConversionResolved newCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsNew,
-                productNew.getId(),
-                newItem.getQuIdInt(),
-                productNew.getQuIdStockInt()
-            );
-            if (oldCon == null && newCon != null || newCon != null && !newCon.equals(oldCon)) {
-              return false;
-            }
+        } else if (product != null) {
+          QuantityUnit quantityUnit = quantityUnitHashMap.get(product.getQuIdStockInt());
+          String quStr = pluralUtil.getQuantityUnitPlural(quantityUnit, item.getAmountDouble());
+          if (quStr != null) {
+            stringBuilderAmount.append(context.getString(
+                R.string.subtitle_amount,
+                NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount),
+                quStr
+            ));
+          } else {
+            stringBuilderAmount.append(NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount));
           }
+        } else {
+          stringBuilderAmount.append(NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount));
         }
+        model.amount = stringBuilderAmount.toString();
+      }
 
-        if (productOld == null && productNew != null
-            || productOld != null && productNew != null && productOld.getId() != productNew.getId()
-            || quOld == null && quNew != null
-            || quOld != null && quNew != null && quOld.getId() != quNew.getId()
-            || !Objects.equals(amountOld, amountNew)
-            || missingOld == null && missingNew != null
-            || missingOld != null && missingNew != null && missingOld != missingNew
-        ) {
-          return false;
-        }
-
-        return newItem.equals(oldItem);
-      } else if (oldItemType == GroupedListItem.TYPE_HEADER) {
-        GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
-        GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
-        return newGroup.equals(oldGroup);
-      } else { // Type: Bottom notes
-        ShoppingListBottomNotes newNotes = (ShoppingListBottomNotes) newItems.get(newItemPos);
-        ShoppingListBottomNotes oldNotes = (ShoppingListBottomNotes) oldItems.get(oldItemPos);
-        return newNotes.equals(oldNotes);
+      double conversionFactor = 1.0;
+      if ((activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)
+          || activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)) && product != null) {
+        conversionFactor = getConversionFactor(unitConversionIndex, product, item.getQuIdInt());
       }
+      ProductLastPurchased p = product != null
+          ? productLastPurchasedHashMap.get(product.getId()) : null;
+      if (activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)
+          && p != null && p.getPrice() != null && !p.getPrice().isEmpty()) {
+        double amount = item.getAmountDouble();
+        String price = NumUtil.isStringDouble(p.getPrice())
+            ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * amount,
+            decimalPlacesPriceDisplay)
+            : p.getPrice();
+        model.priceTotal = context.getString(
+            R.string.property_insert_total,
+            context.getString(R.string.property_price_with_currency, price, currency)
+        );
+      }
+      if (activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)
+          && p != null && p.getPrice() != null && !p.getPrice().isEmpty()) {
+        String price = NumUtil.isStringDouble(p.getPrice())
+            ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * conversionFactor,
+            decimalPlacesPriceDisplay)
+            : p.getPrice();
+        model.priceUnit = context.getString(
+            R.string.property_insert_per_unit,
+            context.getString(R.string.property_price_with_currency, price, currency)
+        );
+      }
+      return model;
     }
   }
+
+  static double getConversionFactor(
+      QuantityUnitConversionIndex unitConversionIndex,
+      Product product,
+      int quId
+  ) {
+    double factor = unitConversionIndex.getFactor(product.getId(), quId, product.getQuIdStockInt());
+    return factor != QuantityUnitConversionIndex.NO_FACTOR ? factor : 1.0;
+  }
+
+  interface ItemDisplayModelFactory {
+
+    Object create(ShoppingListItem item, @Nullable Product product);
+  }
+
+  private static class ShoppingListItemDisplayModel {
+
+    boolean isMissing;
+    CharSequence amount;
+    CharSequence note;
+    CharSequence priceTotal;
+    CharSequence priceUnit;
+  }
 }
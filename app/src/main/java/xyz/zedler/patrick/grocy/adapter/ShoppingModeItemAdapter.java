@@ -39,10 +39,10 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -65,37 +65,39 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.InfoChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.TextUtil;
 import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingListViewModel;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingModeViewModel;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class ShoppingModeItemAdapter extends
     RecyclerView.Adapter<ShoppingModeItemAdapter.ViewHolder> {
 
   private final Context context;
   private final LinearLayoutManager linearLayoutManager;
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private ArrayList<ListItemSnapshot> snapshots;
+  private int snapshotVersion;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private QuantityUnitConversionIndex unitConversionIndex;
+  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+  private HashSet<Integer> missingProductIds;
   private final ShoppingModeItemClickListener listener;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
-  private String groupingMode;
+  private final InfoChipPool chipPool;
   private final boolean useSmallerFonts;
   private final boolean showDoneItems;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
@@ -112,13 +114,12 @@ public class ShoppingModeItemAdapter extends
     this.productHashMap = new HashMap<>();
     this.productLastPurchasedHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
-    this.unitConversions = new ArrayList<>();
+    this.unitConversionIndex = new QuantityUnitConversionIndex(null);
     this.shoppingListItemAmountsHashMap = new HashMap<>();
-    this.missingProductIds = new ArrayList<>();
+    this.missingProductIds = new HashSet<>();
     this.activeFields = new ArrayList<>();
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
-    this.grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(context);
     this.useSmallerFonts = sharedPrefs.getBoolean(
         SHOPPING_MODE.USE_SMALLER_FONT,
         SETTINGS_DEFAULT.SHOPPING_MODE.USE_SMALLER_FONT
@@ -139,7 +140,9 @@ public class ShoppingModeItemAdapter extends
     this.priceTrackingEnabled = sharedPrefs
         .getBoolean(PREF.FEATURE_STOCK_PRICE_TRACKING, true);
     this.pluralUtil = new PluralUtil(context);
+    this.chipPool = InfoChipPool.getInstance(context);
     this.groupedListItems = new ArrayList<>();
+    this.snapshots = new ArrayList<>();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -401,7 +404,7 @@ public class ShoppingModeItemAdapter extends
       binding.noteAsName.setText(null);
     }
 
-    binding.flexboxLayout.removeAllViews();
+    chipPool.recycle(binding.flexboxLayout);
 
     // AMOUNT
 
@@ -518,12 +521,10 @@ public class ShoppingModeItemAdapter extends
         && pictureFileName != null && !pictureFileName.isEmpty()) {
       binding.picture.layout(0, 0, 0, 0);
 
-      PictureUtil.loadPicture(
+      PictureUtil.loadThumbnail(
           binding.picture,
           null,
-          null,
           grocyApi.getProductPictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
           false
       );
     } else {
@@ -533,15 +534,9 @@ public class ShoppingModeItemAdapter extends
     double conversionFactor = 1.0;
     if ((activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_TOTAL)
         || activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_UNIT)) && product != null) {
-      QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-          unitConversions,
-          product.getId(),
-          item.getQuIdInt(),
-          product.getQuIdStockInt()
+      conversionFactor = ShoppingListItemAdapter.getConversionFactor(
+          unitConversionIndex, product, item.getQuIdInt()
       );
-      if (c != null) {
-        conversionFactor = c.getFactor();
-      }
     }
     if (activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_TOTAL)) {
       ProductLastPurchased p = product != null
@@ -585,11 +580,7 @@ public class ShoppingModeItemAdapter extends
   }
 
   private Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
+    Chip chip = chipPool.obtain(ctx, text);
     chip.setEnabled(false);
     chip.setClickable(false);
     chip.setFocusable(false);
@@ -625,50 +616,49 @@ public class ShoppingModeItemAdapter extends
         productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
         shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay,
         currency, showDoneItems);
-    ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
-        this.groupedListItems,
+
+    // references are swapped instead of copied, the view model creates new ones on every load
+    this.productHashMap = productHashMap;
+    this.quantityUnitHashMap = quantityUnitHashMap;
+    this.unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
+    this.productLastPurchasedHashMap = productLastPurchasedHashMap;
+    this.shoppingListItemAmountsHashMap = shoppingListItemAmountsHashMap;
+    this.missingProductIds = new HashSet<>(missingProductIds);
+    this.activeFields = activeFields;
+
+    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+      onListFilled.run();
+    }
+
+    snapshotVersion++;
+    ArrayList<ListItemSnapshot> newSnapshots = ShoppingListItemAdapter.getSnapshots(
         newGroupedListItems,
-        this.productHashMap,
+        snapshots,
+        snapshotVersion,
         productHashMap,
-        this.productLastPurchasedHashMap,
         productLastPurchasedHashMap,
-        this.quantityUnitHashMap,
         quantityUnitHashMap,
-        this.unitConversions,
-        unitConversions,
-        this.shoppingListItemAmountsHashMap,
+        unitConversionIndex,
         shoppingListItemAmountsHashMap,
         this.missingProductIds,
-        missingProductIds,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
+        activeFields,
+        activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_TOTAL)
+            || activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_UNIT),
+        null
     );
+    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
+        new ListItemSnapshot.DiffCallback(snapshots, newSnapshots)
+    );
+    this.groupedListItems = newGroupedListItems;
+    this.snapshots = newSnapshots;
+    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+  }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
-      onListFilled.run();
+  @Override
+  public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+    if (viewHolder instanceof ShoppingItemViewHolder) {
+      chipPool.recycle(((ShoppingItemViewHolder) viewHolder).binding.flexboxLayout);
     }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   @Override
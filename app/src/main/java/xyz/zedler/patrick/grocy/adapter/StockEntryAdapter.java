@@ -23,16 +23,25 @@ package xyz.zedler.patrick.grocy.adapter;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.graphics.Typeface;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Locale;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -63,18 +72,19 @@ public class StockEntryAdapter extends
 
   private final static String TAG = StockEntryAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final HashMap<Integer, Location> locationHashMap;
-  private final HashMap<Integer, Store> storeHashMap;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private ArrayList<ListItemSnapshot> snapshots;
+  private int snapshotVersion;
+  private Disposable updateDisposable;
   private final PluralUtil pluralUtil;
   private final StockEntryAdapterListener listener;
   private final boolean showDateTracking;
-  private String sortMode;
-  private boolean sortAscending;
-  private String groupingMode;
-  private final DateUtil dateUtil;
+  private final Typeface fontDueDate;
+  private final Typeface fontDueDateColored;
+  private final int colorDueDate;
+  private final int colorDueSoon;
+  private final int colorOverdue;
+  private final int colorExpired;
   private final String currency;
   private final int dueSoonDays;
   private final int maxDecimalPlacesAmount;
@@ -101,14 +111,16 @@ public class StockEntryAdapter extends
     } else {
       this.dueSoonDays = Integer.parseInt(SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
     }
-    this.productHashMap = new HashMap<>();
-    this.quantityUnitHashMap = new HashMap<>();
-    this.locationHashMap = new HashMap<>();
-    this.storeHashMap = new HashMap<>();
     this.pluralUtil = new PluralUtil(context);
     this.listener = listener;
-    this.dateUtil = new DateUtil(context);
+    this.fontDueDate = ResourcesCompat.getFont(context, R.font.jost_book);
+    this.fontDueDateColored = ResourcesCompat.getFont(context, R.font.jost_medium);
+    this.colorDueDate = ResUtil.getColor(context, R.attr.colorOnSurfaceVariant);
+    this.colorDueSoon = ResUtil.getColor(context, R.attr.colorCustomYellow);
+    this.colorOverdue = ResUtil.getColor(context, R.attr.colorCustomOrange);
+    this.colorExpired = ResUtil.getColor(context, R.attr.colorError);
     this.groupedListItems = new ArrayList<>();
+    this.snapshots = new ArrayList<>();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -283,155 +295,28 @@ public class StockEntryAdapter extends
 
     StockEntry stockEntry = (StockEntry) groupedListItem;
     StockItemViewHolder holder = (StockItemViewHolder) viewHolder;
-    Product product = productHashMap.get(stockEntry.getProductId());
-    Context context = holder.binding.amount.getContext();
+    StockEntryDisplayModel model = (StockEntryDisplayModel) snapshots
+        .get(viewHolder.getAdapterPosition()).displayModel;
 
-    // NAME
+    holder.binding.productName.setText(model.productName);
+    holder.binding.amount.setText(model.amount);
 
-    holder.binding.productName.setText(product != null ? product.getName()
-        : context.getString(R.string.subtitle_unknown));
-
-    // AMOUNT
-
-    QuantityUnit quantityUnitStock = product != null
-        ? quantityUnitHashMap.get(product.getQuIdStockInt()) : null;
-    holder.binding.amount.setText(context.getString(
-        R.string.property_amount_insert,
-        AmountUtil.getStockEntryAmountInfo(context, pluralUtil, stockEntry, quantityUnitStock, maxDecimalPlacesAmount)
-    ));
-
-    // BEST BEFORE
-
-    String date = stockEntry.getBestBeforeDate();
-    int daysInt = DateUtil.getDaysFromNow(date);
-    String days = date != null ? String.valueOf(DateUtil.getDaysFromNow(date)) : null;
-    boolean colorDays = false;
-
-    if (!showDateTracking) {
-      holder.binding.dueDate.setVisibility(View.GONE);
-    } else if (days != null) {
-      holder.binding.dueDate.setText(context.getString(
-          R.string.property_due_date_fill,
-          dateUtil.getLocalizedDate(date, DateUtil.FORMAT_SHORT) + "  "
-              + dateUtil.getHumanForDaysFromNow(date)
-      ));
+    if (model.dueDate != null) {
+      holder.binding.dueDate.setText(model.dueDate);
       holder.binding.dueDate.setVisibility(View.VISIBLE);
-      if (daysInt <= dueSoonDays) {
-        colorDays = true;
-      }
     } else {
       holder.binding.dueDate.setVisibility(View.GONE);
     }
+    holder.binding.dueDate.setTypeface(
+        model.dueDateColor != colorDueDate ? fontDueDateColored : fontDueDate
+    );
+    holder.binding.dueDate.setTextColor(model.dueDateColor);
 
-    if (colorDays) {
-      holder.binding.dueDate.setTypeface(
-          ResourcesCompat.getFont(context, R.font.jost_medium)
-      );
-
-      int color;
-      if (Integer.parseInt(days) >= 0) {
-        color = ResUtil.getColor(context, R.attr.colorCustomYellow);
-      } else if (product != null && product.getDueDateTypeInt() == StockItem.DUE_TYPE_EXPIRATION) {
-        color = ResUtil.getColor(context, R.attr.colorError);
-      } else {
-        color = ResUtil.getColor(context, R.attr.colorCustomOrange);
-      }
-      holder.binding.dueDate.setTextColor(color);
-    } else {
-      holder.binding.dueDate.setTypeface(
-          ResourcesCompat.getFont(context, R.font.jost_book)
-      );
-      holder.binding.dueDate.setTextColor(
-          ResUtil.getColor(context, R.attr.colorOnSurfaceVariant)
-      );
-    }
-
-    // LOCATION
-
-    Location location = locationHashMap.get(stockEntry.getLocationIdInt());
-    if (location != null) {
-      holder.binding.location.setText(
-          context.getString(R.string.property_location_insert, location.getName())
-      );
-      holder.binding.location.setVisibility(View.VISIBLE);
-    } else {
-      holder.binding.location.setVisibility(View.GONE);
-    }
-
-    // STORE
-
-    Integer storeId = NumUtil.isStringInt(stockEntry.getShoppingLocationId())
-        ? Integer.parseInt(stockEntry.getShoppingLocationId()) : null;
-    Store store = storeId != null ? storeHashMap.get(storeId) : null;
-    if (store != null) {
-      holder.binding.store.setText(
-          context.getString(R.string.property_store_insert, store.getName())
-      );
-      holder.binding.store.setVisibility(View.VISIBLE);
-    } else {
-      holder.binding.store.setVisibility(View.GONE);
-    }
-
-    // PRICE
-
-    if (NumUtil.isStringDouble(stockEntry.getPrice())) {
-      QuantityUnit quPurchase = product != null
-          ? quantityUnitHashMap.get(product.getQuIdPurchaseInt()) : null;
-      if (product == null) {
-        holder.binding.price.setText(context.getString(
-            R.string.property_price_insert,
-            NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice()), decimalPlacesPriceDisplay) + " " + currency
-        ));
-      } else if (product.getQuIdStockInt() == product.getQuIdPurchaseInt() || quPurchase == null) {
-        holder.binding.price.setText(context.getString(
-            R.string.property_price_insert,
-            NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice())
-                * product.getQuFactorPurchaseToStockDouble(), decimalPlacesPriceDisplay) + " " + currency
-        ));
-      } else {
-        holder.binding.price.setText(context.getString(
-            R.string.property_price_unit_insert,
-            context.getString(
-                R.string.property_price_insert,
-                NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice())
-                    * product.getQuFactorPurchaseToStockDouble(), decimalPlacesPriceDisplay) + " " + currency
-            ),
-            quPurchase.getName()
-        ));
-      }
-
-      holder.binding.price.setVisibility(View.VISIBLE);
-    } else {
-      holder.binding.price.setVisibility(View.GONE);
-    }
-
-    // PURCHASED DATE
-
-    String purchaseDate = stockEntry.getPurchasedDate();
-    String purchaseDays = null;
-    if (purchaseDate != null) {
-      purchaseDays = String.valueOf(DateUtil.getDaysFromNow(purchaseDate));
-    }
-    if (purchaseDays != null && !purchaseDate.equals(Constants.DATE.NEVER_OVERDUE)) {
-      holder.binding.purchasedDate.setVisibility(View.VISIBLE);
-      holder.binding.purchasedDate.setText(context.getString(
-          R.string.property_purchased_date_fill,
-          dateUtil.getLocalizedDate(purchaseDate, DateUtil.FORMAT_SHORT) + "  "
-              + dateUtil.getHumanForDaysFromNow(purchaseDate)
-      ));
-    } else {
-      holder.binding.purchasedDate.setVisibility(View.GONE);
-      holder.binding.purchasedDate.setText(null);
-    }
-
-    // NOTE
-
-    if (stockEntry.getNote() != null && !stockEntry.getNote().isEmpty()) {
-      holder.binding.note.setText(stockEntry.getNote());
-      holder.binding.note.setVisibility(View.VISIBLE);
-    } else {
-      holder.binding.note.setVisibility(View.GONE);
-    }
+    setTextOrHide(holder.binding.location, model.location);
+    setTextOrHide(holder.binding.store, model.store);
+    setTextOrHide(holder.binding.price, model.price);
+    setTextOrHide(holder.binding.purchasedDate, model.purchasedDate);
+    setTextOrHide(holder.binding.note, model.note);
 
     // CONTAINER
 
@@ -440,6 +325,11 @@ public class StockEntryAdapter extends
     );
   }
 
+  private static void setTextOrHide(TextView textView, @Nullable CharSequence text) {
+    textView.setText(text);
+    textView.setVisibility(text != null ? View.VISIBLE : View.GONE);
+  }
+
   @Override
   public int getItemCount() {
     return groupedListItems.size();
@@ -470,177 +360,247 @@ public class StockEntryAdapter extends
       String groupingMode,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productHashMap, locationHashMap, storeHashMap, this.currency, this.dateUtil,
-        sortMode, sortAscending, groupingMode);
-    StockEntryAdapter.DiffCallback diffCallback = new StockEntryAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.locationHashMap,
-        locationHashMap,
-        this.storeHashMap,
-        storeHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode
+    ListUpdate update = new ListUpdate(
+        context, quantityUnitHashMap, productHashMap, locationHashMap, storeHashMap
     );
+    ArrayList<ListItemSnapshot> oldSnapshots = snapshots;
+    int version = ++snapshotVersion;
+
+    // a newer update replaces the pending one, so results can't be applied out of order
+    if (updateDisposable != null) updateDisposable.dispose();
+    updateDisposable = Single.fromCallable(() -> {
+          // the list is sorted in place, the one of the view model stays untouched
+          update.build(
+              new ArrayList<>(newList), sortMode, sortAscending, groupingMode, oldSnapshots, version
+          );
+          return update;
+        })
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            result -> applyUpdate(result, onListFilled),
+            throwable -> Log.e(TAG, "updateData: " + throwable)
+        );
+  }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+  private void applyUpdate(ListUpdate update, Runnable onListFilled) {
+    if (onListFilled != null && !update.groupedListItems.isEmpty()
+        && groupedListItems.isEmpty()) {
       onListFilled.run();
     }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.locationHashMap.clear();
-    this.locationHashMap.putAll(locationHashMap);
-    this.storeHashMap.clear();
-    this.storeHashMap.putAll(storeHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    diffResult.dispatchUpdatesTo(this);
+    this.groupedListItems = update.groupedListItems;
+    this.snapshots = update.snapshots;
+    update.diffResult.dispatchUpdatesTo(this);
   }
 
-  static class DiffCallback extends DiffUtil.Callback {
-
-    ArrayList<GroupedListItem> oldItems;
-    ArrayList<GroupedListItem> newItems;
-    HashMap<Integer, Product> productHashMapOld;
-    HashMap<Integer, Product> productHashMapNew;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    HashMap<Integer, Location> locationHashMapOld;
-    HashMap<Integer, Location> locationHashMapNew;
-    HashMap<Integer, Store> storeHashMapOld;
-    HashMap<Integer, Store> storeHashMapNew;
-    String sortModeOld;
-    String sortModeNew;
-    boolean sortAscendingOld;
-    boolean sortAscendingNew;
-    String groupingModeOld;
-    String groupingModeNew;
-
-    public DiffCallback(
-        ArrayList<GroupedListItem> oldItems,
-        ArrayList<GroupedListItem> newItems,
-        HashMap<Integer, Product> productHashMapOld,
-        HashMap<Integer, Product> productHashMapNew,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        HashMap<Integer, Location> locationHashMapOld,
-        HashMap<Integer, Location> locationHashMapNew,
-        HashMap<Integer, Store> storeHashMapOld,
-        HashMap<Integer, Store> storeHashMapNew,
-        String sortModeOld,
-        String sortModeNew,
-        boolean sortAscendingOld,
-        boolean sortAscendingNew,
-        String groupingModeOld,
-        String groupingModeNew
+  /**
+   * Sorts, groups and diffs new data and prepares the display models of changed rows on a
+   * background thread, without touching the adapter until the result is applied.
+   */
+  private class ListUpdate {
+
+    private final Context context;
+    private final DateUtil dateUtil;
+    private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+    private final HashMap<Integer, Product> productHashMap;
+    private final HashMap<Integer, Location> locationHashMap;
+    private final HashMap<Integer, Store> storeHashMap;
+    private ArrayList<GroupedListItem> groupedListItems;
+    private ArrayList<ListItemSnapshot> snapshots;
+    private DiffUtil.DiffResult diffResult;
+
+    ListUpdate(
+        Context context,
+        HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+        HashMap<Integer, Product> productHashMap,
+        HashMap<Integer, Location> locationHashMap,
+        HashMap<Integer, Store> storeHashMap
     ) {
-      this.newItems = newItems;
-      this.oldItems = oldItems;
-      this.productHashMapOld = productHashMapOld;
-      this.productHashMapNew = productHashMapNew;
-      this.quantityUnitHashMapOld = quantityUnitHashMapOld;
-      this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.locationHashMapOld = locationHashMapOld;
-      this.locationHashMapNew = locationHashMapNew;
-      this.storeHashMapOld = storeHashMapOld;
-      this.storeHashMapNew = storeHashMapNew;
-      this.sortModeOld = sortModeOld;
-      this.sortModeNew = sortModeNew;
-      this.sortAscendingOld = sortAscendingOld;
-      this.sortAscendingNew = sortAscendingNew;
-      this.groupingModeOld = groupingModeOld;
-      this.groupingModeNew = groupingModeNew;
-    }
-
-    @Override
-    public int getOldListSize() {
-      return oldItems.size();
-    }
-
-    @Override
-    public int getNewListSize() {
-      return newItems.size();
-    }
-
-    @Override
-    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, false);
+      this.context = context;
+      // every pass gets its own DateUtil as it runs on a worker thread
+      this.dateUtil = new DateUtil(context);
+      this.quantityUnitHashMap = quantityUnitHashMap;
+      this.productHashMap = productHashMap;
+      this.locationHashMap = locationHashMap;
+      this.storeHashMap = storeHashMap;
     }
 
-    @Override
-    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, true);
+    void build(
+        ArrayList<StockEntry> newList,
+        String sortMode,
+        boolean sortAscending,
+        String groupingMode,
+        ArrayList<ListItemSnapshot> oldSnapshots,
+        int version
+    ) {
+      groupedListItems = getGroupedListItems(context, newList,
+          productHashMap, locationHashMap, storeHashMap, currency, dateUtil,
+          sortMode, sortAscending, groupingMode);
+      snapshots = getSnapshots(oldSnapshots, version);
+      diffResult = DiffUtil.calculateDiff(
+          new ListItemSnapshot.DiffCallback(oldSnapshots, snapshots)
+      );
     }
 
-    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
-      int oldItemType = GroupedListItem.getType(
-          oldItems.get(oldItemPos),
-          GroupedListItem.CONTEXT_STOCK_ENTRIES
+    private ArrayList<ListItemSnapshot> getSnapshots(
+        ArrayList<ListItemSnapshot> oldSnapshots,
+        int version
+    ) {
+      ListItemSnapshot.Builder builder = new ListItemSnapshot.Builder(
+          oldSnapshots, version, groupedListItems.size()
       );
-      int newItemType = GroupedListItem.getType(
-          newItems.get(newItemPos),
-          GroupedListItem.CONTEXT_STOCK_ENTRIES
+      // display models contain localized texts and days from today
+      long listHash = ListItemSnapshot.hash(
+          Locale.getDefault().hashCode(), DateUtil.getDateStringToday()
       );
-      if (oldItemType != newItemType) {
-        return false;
-      }
-      if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        StockEntry newEntry = (StockEntry) newItems.get(newItemPos);
-        StockEntry oldEntry = (StockEntry) oldItems.get(oldItemPos);
-        if (!compareContent) {
-          return newEntry.getProductId() == oldEntry.getProductId();
+      for (GroupedListItem item : groupedListItems) {
+        if (!(item instanceof StockEntry)) {
+          builder.add(GroupedListItem.TYPE_HEADER, item.hashCode(), item.hashCode());
+          continue;
         }
-        Product productNew = productHashMapNew.get(newEntry.getProductId());
-        Product productOld = productHashMapOld.get(oldEntry.getProductId());
-        if (productNew == null || !productNew.equals(productOld)) {
-          return false;
+        StockEntry stockEntry = (StockEntry) item;
+        Product product = productHashMap.get(stockEntry.getProductId());
+        long hash = ListItemSnapshot.hash(listHash, stockEntry);
+        hash = ListItemSnapshot.hash(hash, product);
+        if (product != null) {
+          hash = ListItemSnapshot.hash(hash, quantityUnitHashMap.get(product.getQuIdStockInt()));
+          hash = ListItemSnapshot.hash(hash, quantityUnitHashMap.get(product.getQuIdPurchaseInt()));
         }
-        QuantityUnit quOld = quantityUnitHashMapOld.get(productOld.getQuIdStockInt());
-        QuantityUnit quNew = quantityUnitHashMapNew.get(productNew.getQuIdStockInt());
-        if (quOld == null && quNew != null
-            || quOld != null && quNew != null && quOld.getId() != quNew.getId()
-        ) {
-          return false;
+        hash = ListItemSnapshot.hash(hash, locationHashMap.get(stockEntry.getLocationIdInt()));
+        if (NumUtil.isStringInt(stockEntry.getShoppingLocationId())) {
+          hash = ListItemSnapshot.hash(
+              hash, storeHashMap.get(Integer.parseInt(stockEntry.getShoppingLocationId()))
+          );
         }
-        Location locOld = locationHashMapOld.get(oldEntry.getLocationIdInt());
-        Location locNew = locationHashMapNew.get(newEntry.getLocationIdInt());
-        if (locOld == null && locNew != null
-            || locOld != null && locNew != null && locOld.getId() != locNew.getId()
-        ) {
-          return false;
+        builder.add(
+            GroupedListItem.TYPE_ENTRY,
+            stockEntry.getId(),
+            hash,
+            () -> createDisplayModel(stockEntry)
+        );
+      }
+      return builder.build();
+    }
+
+    /**
+     * Prepares all texts and colors of the row, so that binding only has to set them.
+     */
+    private StockEntryDisplayModel createDisplayModel(StockEntry stockEntry) {
+      StockEntryDisplayModel model = new StockEntryDisplayModel();
+      Product product = productHashMap.get(stockEntry.getProductId());
+
+      // NAME
+
+      model.productName = product != null ? product.getName()
+          : context.getString(R.string.subtitle_unknown);
+
+      // AMOUNT
+
+      QuantityUnit quantityUnitStock = product != null
+          ? quantityUnitHashMap.get(product.getQuIdStockInt()) : null;
+      model.amount = context.getString(
+          R.string.property_amount_insert,
+          AmountUtil.getStockEntryAmountInfo(context, pluralUtil, stockEntry, quantityUnitStock, maxDecimalPlacesAmount)
+      );
+
+      // BEST BEFORE
+
+      String date = stockEntry.getBestBeforeDate();
+      model.dueDateColor = colorDueDate;
+      if (showDateTracking && date != null) {
+        int days = DateUtil.getDaysFromNow(date);
+        model.dueDate = context.getString(
+            R.string.property_due_date_fill,
+            dateUtil.getLocalizedDate(date, DateUtil.FORMAT_SHORT) + "  "
+                + dateUtil.getHumanForDaysFromNow(date)
+        );
+        if (days <= dueSoonDays) {
+          if (days >= 0) {
+            model.dueDateColor = colorDueSoon;
+          } else if (product != null
+              && product.getDueDateTypeInt() == StockItem.DUE_TYPE_EXPIRATION) {
+            model.dueDateColor = colorExpired;
+          } else {
+            model.dueDateColor = colorOverdue;
+          }
         }
-        Store storeOld = NumUtil.isStringInt(oldEntry.getShoppingLocationId())
-            ? storeHashMapOld.get(Integer.parseInt(oldEntry.getShoppingLocationId())) : null;
-        Store storeNew = NumUtil.isStringInt(newEntry.getShoppingLocationId())
-            ? storeHashMapNew.get(Integer.parseInt(newEntry.getShoppingLocationId())) : null;
-        if (storeOld == null && storeNew != null
-            || storeOld != null && storeNew != null && storeOld.getId() != storeNew.getId()
-        ) {
-          return false;
+      }
+
+      // LOCATION
+
+      Location location = locationHashMap.get(stockEntry.getLocationIdInt());
+      if (location != null) {
+        model.location = context.getString(R.string.property_location_insert, location.getName());
+      }
+
+      // STORE
+
+      Integer storeId = NumUtil.isStringInt(stockEntry.getShoppingLocationId())
+          ? Integer.parseInt(stockEntry.getShoppingLocationId()) : null;
+      Store store = storeId != null ? storeHashMap.get(storeId) : null;
+      if (store != null) {
+        model.store = context.getString(R.string.property_store_insert, store.getName());
+      }
+
+      // PRICE
+
+      if (NumUtil.isStringDouble(stockEntry.getPrice())) {
+        QuantityUnit quPurchase = product != null
+            ? quantityUnitHashMap.get(product.getQuIdPurchaseInt()) : null;
+        if (product == null) {
+          model.price = context.getString(
+              R.string.property_price_insert,
+              NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice()), decimalPlacesPriceDisplay) + " " + currency
+          );
+        } else if (product.getQuIdStockInt() == product.getQuIdPurchaseInt() || quPurchase == null) {
+          model.price = context.getString(
+              R.string.property_price_insert,
+              NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice())
+                  * product.getQuFactorPurchaseToStockDouble(), decimalPlacesPriceDisplay) + " " + currency
+          );
+        } else {
+          model.price = context.getString(
+              R.string.property_price_unit_insert,
+              context.getString(
+                  R.string.property_price_insert,
+                  NumUtil.trimPrice(NumUtil.toDouble(stockEntry.getPrice())
+                      * product.getQuFactorPurchaseToStockDouble(), decimalPlacesPriceDisplay) + " " + currency
+              ),
+              quPurchase.getName()
+          );
         }
-        return newEntry.equals(oldEntry);
-      } else {
-        GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
-        GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
-        return newGroup.getGroupName().equals(oldGroup.getGroupName())
-            && newGroup.getDisplayDivider() == oldGroup.getDisplayDivider();
       }
+
+      // PURCHASED DATE
+
+      String purchaseDate = stockEntry.getPurchasedDate();
+      if (purchaseDate != null && !purchaseDate.equals(Constants.DATE.NEVER_OVERDUE)) {
+        model.purchasedDate = context.getString(
+            R.string.property_purchased_date_fill,
+            dateUtil.getLocalizedDate(purchaseDate, DateUtil.FORMAT_SHORT) + "  "
+                + dateUtil.getHumanForDaysFromNow(purchaseDate)
+        );
+      }
+
+      // NOTE
+
+      if (stockEntry.getNote() != null && !stockEntry.getNote().isEmpty()) {
+        model.note = stockEntry.getNote();
+      }
+      return model;
     }
   }
+
+  private static class StockEntryDisplayModel {
+
+    CharSequence productName;
+    CharSequence amount;
+    CharSequence dueDate;
+    int dueDateColor;
+    CharSequence location;
+    CharSequence store;
+    CharSequence price;
+    CharSequence purchasedDate;
+    CharSequence note;
+  }
 }
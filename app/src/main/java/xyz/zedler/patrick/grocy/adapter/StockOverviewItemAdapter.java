@@ -25,18 +25,25 @@ import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.ColorStateList;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -57,46 +64,49 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
-import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.InfoChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
+import xyz.zedler.patrick.grocy.util.ThumbnailPreloader.PictureUrlProvider;
 import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class StockOverviewItemAdapter extends
-    RecyclerView.Adapter<StockOverviewItemAdapter.ViewHolder> {
+    RecyclerView.Adapter<StockOverviewItemAdapter.ViewHolder> implements PictureUrlProvider {
 
   private final static String TAG = StockOverviewItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final ArrayList<String> shoppingListItemsProductIds;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
-  private final HashMap<Integer, String> productAveragePriceHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private ArrayList<ListItemSnapshot> snapshots;
+  private int snapshotVersion;
+  private Disposable updateDisposable;
   private final PluralUtil pluralUtil;
-  private final ArrayList<Integer> missingItemsProductIds;
-  private final HashMap<String, Userfield> userfieldHashMap;
+  private final InfoChipPool chipPool;
+  private HashMap<String, Userfield> userfieldHashMap;
   private final StockOverviewItemAdapterListener listener;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private final boolean showDateTracking;
   private final boolean shoppingListFeatureEnabled;
   private final int daysExpiringSoon;
-  private String sortMode;
-  private boolean sortAscending;
-  private String groupingMode;
-  private final List<String> activeFields;
-  private final DateUtil dateUtil;
+  private List<String> activeFields;
   private final String currency;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String energyUnit;
   private boolean containsPictures;
+  private final ColorStateList colorBlue;
+  private final ColorStateList colorBlueContainer;
+  private final int colorOnBlueContainer;
+  private final ColorStateList colorYellowContainer;
+  private final int colorOnYellowContainer;
+  private final ColorStateList colorOrangeContainer;
+  private final int colorOnOrangeContainer;
+  private final ColorStateList colorErrorContainer;
+  private final int colorOnErrorContainer;
 
   public StockOverviewItemAdapter(
       Context context,
@@ -106,17 +116,11 @@ public class StockOverviewItemAdapter extends
       int daysExpiringSoon,
       String currency
   ) {
-    this.shoppingListItemsProductIds = new ArrayList<>();
-    this.quantityUnitHashMap = new HashMap<>();
-    this.quantityUnitConversions = new ArrayList<>();
-    this.productAveragePriceHashMap = new HashMap<>();
-    this.productLastPurchasedHashMap = new HashMap<>();
     this.pluralUtil = new PluralUtil(context);
-    this.missingItemsProductIds = new ArrayList<>();
+    this.chipPool = InfoChipPool.getInstance(context);
     this.userfieldHashMap = new HashMap<>();
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
-    this.grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(context);
     this.showDateTracking = showDateTracking;
     this.shoppingListFeatureEnabled = shoppingListFeatureEnabled;
     this.daysExpiringSoon = daysExpiringSoon;
@@ -131,9 +135,26 @@ public class StockOverviewItemAdapter extends
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
     );
     energyUnit = sharedPrefs.getString(PREF.ENERGY_UNIT, PREF.ENERGY_UNIT_DEFAULT);
-    this.dateUtil = new DateUtil(context);
+    colorBlue = ColorStateList.valueOf(ResUtil.getColor(context, R.attr.colorCustomBlue));
+    colorBlueContainer = ColorStateList.valueOf(
+        ResUtil.getColor(context, R.attr.colorCustomBlueContainer)
+    );
+    colorOnBlueContainer = ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer);
+    colorYellowContainer = ColorStateList.valueOf(
+        ResUtil.getColor(context, R.attr.colorCustomYellowContainer)
+    );
+    colorOnYellowContainer = ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer);
+    colorOrangeContainer = ColorStateList.valueOf(
+        ResUtil.getColor(context, R.attr.colorCustomOrangeContainer)
+    );
+    colorOnOrangeContainer = ResUtil.getColor(context, R.attr.colorOnCustomOrangeContainer);
+    colorErrorContainer = ColorStateList.valueOf(
+        ResUtil.getColor(context, R.attr.colorErrorContainer)
+    );
+    colorOnErrorContainer = ResUtil.getColor(context, R.attr.colorOnErrorContainer);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
+    this.snapshots = new ArrayList<>();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -349,7 +370,7 @@ public class StockOverviewItemAdapter extends
 
     Context context = holder.binding.getRoot().getContext();
 
-    holder.binding.flexboxLayout.removeAllViews();
+    chipPool.recycle(holder.binding.flexboxLayout);
 
     // NAME
 
@@ -357,147 +378,60 @@ public class StockOverviewItemAdapter extends
 
     // IS ON SHOPPING LIST
 
-    if (shoppingListItemsProductIds.contains(String.valueOf(stockItem.getProduct().getId()))
-        && shoppingListFeatureEnabled) {
+    StockItemDisplayModel model = (StockItemDisplayModel) snapshots
+        .get(viewHolder.getAdapterPosition()).displayModel;
+
+    if (model.isOnShoppingList) {
       holder.binding.viewOnShoppingList.setVisibility(View.VISIBLE);
-      holder.binding.viewOnShoppingList.setBackgroundTintList(
-          ColorStateList.valueOf(ResUtil.getColor(context, R.attr.colorCustomBlue))
-      );
+      holder.binding.viewOnShoppingList.setBackgroundTintList(colorBlue);
     } else {
       holder.binding.viewOnShoppingList.setVisibility(View.GONE);
     }
 
     // AMOUNT
 
-    QuantityUnit quantityUnitStock = quantityUnitHashMap.get(
-        stockItem.getProduct().getQuIdStockInt()
-    );
-
-    if (activeFields.contains(StockOverviewViewModel.FIELD_AMOUNT)) {
-      int colorBlueContainer = ResUtil.getColor(context, R.attr.colorCustomBlueContainer);
-      int colorOnBlueContainer = ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer);
-      StringBuilder stringBuilderAmount = new StringBuilder();
-      if (!stockItem.getProduct().getNoOwnStockBoolean()) {
-        AmountUtil.addStockAmountNormalInfo(context, pluralUtil, stringBuilderAmount, stockItem,
-            quantityUnitStock, maxDecimalPlacesAmount);
-        Chip chipAmount = createChip(context, stringBuilderAmount.toString());
-        if (missingItemsProductIds.contains(stockItem.getProductId())) {
-          chipAmount.setTextColor(colorOnBlueContainer);
-          chipAmount.setChipBackgroundColor(ColorStateList.valueOf(colorBlueContainer));
-        }
-        holder.binding.flexboxLayout.addView(chipAmount);
+    if (model.amount != null) {
+      Chip chipAmount = createChip(context, model.amount);
+      if (model.isMissing) {
+        chipAmount.setTextColor(colorOnBlueContainer);
+        chipAmount.setChipBackgroundColor(colorBlueContainer);
       }
-      StringBuilder stringBuilderAmountAggregated = new StringBuilder();
-      AmountUtil.addStockAmountAggregatedInfo(context, pluralUtil, stringBuilderAmountAggregated,
-          stockItem, quantityUnitStock, maxDecimalPlacesAmount, false);
-      if (!stringBuilderAmountAggregated.toString().isBlank()) {
-        Chip chipAmountAggregated = createChip(context, stringBuilderAmountAggregated.toString());
-        if (missingItemsProductIds.contains(stockItem.getProductId())) {
-          chipAmountAggregated.setTextColor(colorOnBlueContainer);
-          chipAmountAggregated.setChipBackgroundColor(ColorStateList.valueOf(colorBlueContainer));
-        }
-        holder.binding.flexboxLayout.addView(chipAmountAggregated);
+      holder.binding.flexboxLayout.addView(chipAmount);
+    }
+    if (model.amountAggregated != null) {
+      Chip chipAmountAggregated = createChip(context, model.amountAggregated);
+      if (model.isMissing) {
+        chipAmountAggregated.setTextColor(colorOnBlueContainer);
+        chipAmountAggregated.setChipBackgroundColor(colorBlueContainer);
       }
+      holder.binding.flexboxLayout.addView(chipAmountAggregated);
     }
 
     // BEST BEFORE
 
-    String date = stockItem.getBestBeforeDate();
-    String days = null;
-    if (date != null) {
-      days = String.valueOf(DateUtil.getDaysFromNow(date));
-    }
-
-    if (activeFields.contains(StockOverviewViewModel.FIELD_DUE_DATE) && showDateTracking
-        && days != null && (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)
-        || Integer.parseInt(days) <= daysExpiringSoon
-        && !date.equals(Constants.DATE.NEVER_OVERDUE))
-    ) {
-      Chip chipDate = createChip(context, dateUtil.getHumanForDaysFromNow(date));
-      if (Integer.parseInt(days) <= daysExpiringSoon
-          && !stockItem.getProduct().getNoOwnStockBoolean()) {  // don't color days text if product has no own stock (children will be colored)
-        if (Integer.parseInt(days) >= 0) {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer));
-          chipDate.setChipBackgroundColor(ColorStateList.valueOf(
-              ResUtil.getColor(context, R.attr.colorCustomYellowContainer)
-          ));
-        } else if (stockItem.getDueTypeInt() == StockItem.DUE_TYPE_BEST_BEFORE) {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomOrangeContainer));
-          chipDate.setChipBackgroundColor(ColorStateList.valueOf(
-              ResUtil.getColor(context, R.attr.colorCustomOrangeContainer)
-          ));
-        } else {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnErrorContainer));
-          chipDate.setChipBackgroundColor(
-              ColorStateList.valueOf(ResUtil.getColor(context, R.attr.colorErrorContainer))
-          );
-        }
+    if (model.dueDate != null) {
+      Chip chipDate = createChip(context, model.dueDate);
+      if (model.dueDateBackgroundColor != null) {
+        chipDate.setTextColor(model.dueDateTextColor);
+        chipDate.setChipBackgroundColor(model.dueDateBackgroundColor);
       }
       holder.binding.flexboxLayout.addView(chipDate);
     }
 
-    if (activeFields.contains(StockOverviewViewModel.FIELD_VALUE)
-        && NumUtil.isStringDouble(stockItem.getValue())) {
-      String value = NumUtil.trimPrice(
-          NumUtil.toDouble(stockItem.getValue()), decimalPlacesPriceDisplay
-      );
-      if (currency != null && !currency.isEmpty()) {
-        value = context.getString(R.string.property_price_with_currency, value, currency);
-      }
-      Chip chipValue = createChip(context, value);
-      holder.binding.flexboxLayout.addView(chipValue);
+    if (model.value != null) {
+      holder.binding.flexboxLayout.addView(createChip(context, model.value));
     }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_UNIT)
-        && NumUtil.isStringDouble(stockItem.getProduct().getCalories())) {
-      Chip chipValue = createChip(context, context.getString(
-          R.string.property_insert_per_unit,
-          stockItem.getProduct().getCalories() + " " + energyUnit
-      ));
-      holder.binding.flexboxLayout.addView(chipValue);
+    if (model.caloriesUnit != null) {
+      holder.binding.flexboxLayout.addView(createChip(context, model.caloriesUnit));
     }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_TOTAL)
-        && NumUtil.isStringDouble(stockItem.getProduct().getCalories())) {
-      Chip chipValue = createChip(context, context.getString(
-          R.string.property_insert_total,
-          NumUtil.trimAmount(NumUtil.toDouble(stockItem.getProduct()
-              .getCalories()) * stockItem.getAmountDouble(), maxDecimalPlacesAmount)
-              + " " + energyUnit
-      ));
-      holder.binding.flexboxLayout.addView(chipValue);
+    if (model.caloriesTotal != null) {
+      holder.binding.flexboxLayout.addView(createChip(context, model.caloriesTotal));
     }
-    double factorPriceToStock = 1.0;
-    QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-            quantityUnitConversions,
-            stockItem.getProduct().getId(),
-            stockItem.getProduct().getQuIdPriceInt(),
-            stockItem.getProduct().getQuIdStockInt()
-    );
-    if (c != null) {
-      factorPriceToStock = c.getFactor();
+    if (model.averagePrice != null) {
+      holder.binding.flexboxLayout.addView(createChip(context, model.averagePrice));
     }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
-      String avg = productAveragePriceHashMap.get(stockItem.getProductId());
-      if (NumUtil.isStringDouble(avg)) {
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_average,
-            context.getString(R.string.property_price_with_currency, NumUtil.trimPrice(
-                NumUtil.toDouble(avg) * factorPriceToStock, decimalPlacesPriceDisplay
-            ), currency)
-        ));
-        holder.binding.flexboxLayout.addView(chipValue);
-      }
-    }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
-      ProductLastPurchased p = productLastPurchasedHashMap.get(stockItem.getProductId());
-      if (p != null && NumUtil.isStringDouble(p.getPrice())) {
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_last,
-            context.getString(R.string.property_price_with_currency,
-                NumUtil.trimPrice(NumUtil.toDouble(p.getPrice())
-                * factorPriceToStock, decimalPlacesPriceDisplay), currency)
-        ));
-        holder.binding.flexboxLayout.addView(chipValue);
-      }
+    if (model.lastPrice != null) {
+      holder.binding.flexboxLayout.addView(createChip(context, model.lastPrice));
     }
     for (String activeField : activeFields) {
       if (activeField.startsWith(Userfield.NAME_PREFIX)) {
@@ -525,12 +459,10 @@ public class StockOverviewItemAdapter extends
         && pictureFileName != null && !pictureFileName.isEmpty()) {
       holder.binding.picture.layout(0, 0, 0, 0);
 
-      PictureUtil.loadPicture(
+      PictureUtil.loadThumbnail(
           holder.binding.picture,
-          null,
           holder.binding.picturePlaceholder,
           grocyApi.getProductPictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
           false
       );
     } else if (activeFields.contains(StockOverviewViewModel.FIELD_PICTURE) && containsPictures) {
@@ -548,18 +480,35 @@ public class StockOverviewItemAdapter extends
     );
   }
 
-  private static Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
+  private Chip createChip(Context ctx, CharSequence text) {
+    Chip chip = chipPool.obtain(ctx, text);
     chip.setEnabled(false);
     chip.setClickable(false);
     chip.setFocusable(false);
     return chip;
   }
 
+  @Override
+  public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+    if (viewHolder instanceof StockItemViewHolder) {
+      chipPool.recycle(((StockItemViewHolder) viewHolder).binding.flexboxLayout);
+    }
+  }
+
+  @Nullable
+  @Override
+  public String getThumbnailUrl(int position) {
+    if (position < 0 || position >= groupedListItems.size()
+        || !(groupedListItems.get(position) instanceof StockItem)
+        || !activeFields.contains(StockOverviewViewModel.FIELD_PICTURE)) {
+      return null;
+    }
+    Product product = ((StockItem) groupedListItems.get(position)).getProduct();
+    String pictureFileName = product != null ? product.getPictureFileName() : null;
+    if (pictureFileName == null || pictureFileName.isEmpty()) return null;
+    return grocyApi.getProductPictureServeSmall(pictureFileName);
+  }
+
   @Override
   public int getItemCount() {
     return groupedListItems.size();
@@ -597,266 +546,297 @@ public class StockOverviewItemAdapter extends
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productGroupHashMap, productHashMap, locationHashMap, userfieldHashMap, this.currency,
-        this.dateUtil, sortMode, sortAscending, groupingMode, maxDecimalPlacesAmount,
-        decimalPlacesPriceDisplay);
-    StockOverviewItemAdapter.DiffCallback diffCallback = new StockOverviewItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.shoppingListItemsProductIds,
-        shoppingListItemsProductIds,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.quantityUnitConversions,
-        quantityUnitConversions,
-        this.productAveragePriceHashMap,
-        productAveragePriceHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.missingItemsProductIds,
-        missingItemsProductIds,
-        this.userfieldHashMap,
-        userfieldHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
-    );
-
-    containsPictures = false;
-    for (StockItem stockItem : newList) {
-      if (stockItem.getProduct() == null) continue;
-      String pictureFileName = stockItem.getProduct().getPictureFileName();
-      if (pictureFileName != null && !pictureFileName.isEmpty()) {
-        containsPictures = true;
-        break;
-      }
-    }
+    ListUpdate update = new ListUpdate(context, shoppingListItemsProductIds, quantityUnitHashMap,
+        quantityUnitConversions, productAveragePriceHashMap, productLastPurchasedHashMap,
+        missingItemsProductIds, userfieldHashMap, sortMode, activeFields);
+    ArrayList<ListItemSnapshot> oldSnapshots = snapshots;
+    int version = ++snapshotVersion;
+
+    // a newer update replaces the pending one, so results can't be applied out of order
+    if (updateDisposable != null) updateDisposable.dispose();
+    updateDisposable = Single.fromCallable(() -> {
+          // the list is sorted in place, the one of the view model stays untouched
+          update.build(new ArrayList<>(newList), productGroupHashMap, productHashMap,
+              locationHashMap, sortAscending, groupingMode, oldSnapshots, version);
+          return update;
+        })
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            result -> applyUpdate(result, onListFilled),
+            throwable -> Log.e(TAG, "updateData: " + throwable)
+        );
+  }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+  private void applyUpdate(ListUpdate update, Runnable onListFilled) {
+    if (onListFilled != null && !update.groupedListItems.isEmpty()
+        && groupedListItems.isEmpty()) {
       onListFilled.run();
     }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.shoppingListItemsProductIds.clear();
-    this.shoppingListItemsProductIds.addAll(shoppingListItemsProductIds);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(quantityUnitConversions);
-    this.productAveragePriceHashMap.clear();
-    this.productAveragePriceHashMap.putAll(productAveragePriceHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.missingItemsProductIds.clear();
-    this.missingItemsProductIds.addAll(missingItemsProductIds);
-    this.userfieldHashMap.clear();
-    this.userfieldHashMap.putAll(userfieldHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+    this.userfieldHashMap = update.userfieldHashMap;
+    this.activeFields = update.activeFields;
+    this.containsPictures = update.containsPictures;
+    this.groupedListItems = update.groupedListItems;
+    this.snapshots = update.snapshots;
+    update.diffResult.dispatchUpdatesTo(this);
   }
 
-  static class DiffCallback extends DiffUtil.Callback {
-
-    ArrayList<GroupedListItem> oldItems;
-    ArrayList<GroupedListItem> newItems;
-    ArrayList<String> shoppingListItemsProductIdsOld;
-    ArrayList<String> shoppingListItemsProductIdsNew;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    List<QuantityUnitConversionResolved> unitConversionsOld;
-    List<QuantityUnitConversionResolved> unitConversionsNew;
-    HashMap<Integer, String> productAveragePriceHashMapOld;
-    HashMap<Integer, String> productAveragePriceHashMapNew;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew;
-    ArrayList<Integer> missingProductIdsOld;
-    ArrayList<Integer> missingProductIdsNew;
-    HashMap<String, Userfield> userfieldHashMapOld;
-    HashMap<String, Userfield> userfieldHashMapNew;
-    String sortModeOld;
-    String sortModeNew;
-    boolean sortAscendingOld;
-    boolean sortAscendingNew;
-    String groupingModeOld;
-    String groupingModeNew;
-    List<String> activeFieldsOld;
-    List<String> activeFieldsNew;
-
-    public DiffCallback(
-        ArrayList<GroupedListItem> oldItems,
-        ArrayList<GroupedListItem> newItems,
-        ArrayList<String> shoppingListItemsProductIdsOld,
-        ArrayList<String> shoppingListItemsProductIdsNew,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        List<QuantityUnitConversionResolved> unitConversionsOld,
-        List<QuantityUnitConversionResolved> unitConversionsNew,
-        HashMap<Integer, String> productAveragePriceHashMapOld,
-        HashMap<Integer, String> productAveragePriceHashMapNew,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew,
-        ArrayList<Integer> missingProductIdsOld,
-        ArrayList<Integer> missingProductIdsNew,
-        HashMap<String, Userfield> userfieldHashMapOld,
-        HashMap<String, Userfield> userfieldHashMapNew,
-        String sortModeOld,
-        String sortModeNew,
-        boolean sortAscendingOld,
-        boolean sortAscendingNew,
-        String groupingModeOld,
-        String groupingModeNew,
-        List<String> activeFieldsOld,
-        List<String> activeFieldsNew
+  /**
+   * Sorts, groups and diffs new data and prepares the display models of changed rows on a
+   * background thread. It only reads the data it was created with, so the adapter stays
+   * untouched until the result is applied on the main thread.
+   */
+  private class ListUpdate {
+
+    private final Context context;
+    private final DateUtil dateUtil;
+    private final HashSet<Integer> shoppingListItemsProductIds;
+    private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+    private final QuantityUnitConversionIndex unitConversionIndex;
+    private final HashMap<Integer, String> productAveragePriceHashMap;
+    private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+    private final HashSet<Integer> missingItemsProductIds;
+    private final HashMap<String, Userfield> userfieldHashMap;
+    private final String sortMode;
+    private final List<String> activeFields;
+    private ArrayList<GroupedListItem> groupedListItems;
+    private ArrayList<ListItemSnapshot> snapshots;
+    private DiffUtil.DiffResult diffResult;
+    private boolean containsPictures;
+
+    ListUpdate(
+        Context context,
+        ArrayList<String> shoppingListItemsProductIds,
+        HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+        List<QuantityUnitConversionResolved> quantityUnitConversions,
+        HashMap<Integer, String> productAveragePriceHashMap,
+        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
+        ArrayList<Integer> missingItemsProductIds,
+        HashMap<String, Userfield> userfieldHashMap,
+        String sortMode,
+        List<String> activeFields
     ) {
-      this.newItems = newItems;
-      this.oldItems = oldItems;
-      this.shoppingListItemsProductIdsOld = shoppingListItemsProductIdsOld;
-      this.shoppingListItemsProductIdsNew = shoppingListItemsProductIdsNew;
-      this.quantityUnitHashMapOld = quantityUnitHashMapOld;
-      this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.unitConversionsOld = unitConversionsOld;
-      this.unitConversionsNew = unitConversionsNew;
-      this.productAveragePriceHashMapOld = productAveragePriceHashMapOld;
-      this.productAveragePriceHashMapNew = productAveragePriceHashMapNew;
-      this.productLastPurchasedHashMapOld = productLastPurchasedHashMapOld;
-      this.productLastPurchasedHashMapNew = productLastPurchasedHashMapNew;
-      this.missingProductIdsOld = missingProductIdsOld;
-      this.missingProductIdsNew = missingProductIdsNew;
-      this.userfieldHashMapOld = userfieldHashMapOld;
-      this.userfieldHashMapNew = userfieldHashMapNew;
-      this.sortModeOld = sortModeOld;
-      this.sortModeNew = sortModeNew;
-      this.sortAscendingOld = sortAscendingOld;
-      this.sortAscendingNew = sortAscendingNew;
-      this.groupingModeOld = groupingModeOld;
-      this.groupingModeNew = groupingModeNew;
-      this.activeFieldsOld = activeFieldsOld;
-      this.activeFieldsNew = activeFieldsNew;
-    }
-
-    @Override
-    public int getOldListSize() {
-      return oldItems.size();
-    }
-
-    @Override
-    public int getNewListSize() {
-      return newItems.size();
-    }
-
-    @Override
-    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, false);
-    }
+      this.context = context;
+      // every pass gets its own DateUtil as it runs on a worker thread
+      this.dateUtil = new DateUtil(context);
+      // references are swapped instead of copied, the view model creates new ones on every load
+      this.shoppingListItemsProductIds = new HashSet<>();
+      for (String productId : shoppingListItemsProductIds) {
+        if (NumUtil.isStringInt(productId)) {
+          this.shoppingListItemsProductIds.add(Integer.parseInt(productId));
+        }
+      }
+      this.quantityUnitHashMap = quantityUnitHashMap;
+      this.unitConversionIndex = new QuantityUnitConversionIndex(quantityUnitConversions);
+      this.productAveragePriceHashMap = productAveragePriceHashMap;
+      this.productLastPurchasedHashMap = productLastPurchasedHashMap;
+      this.missingItemsProductIds = new HashSet<>(missingItemsProductIds);
+      this.userfieldHashMap = userfieldHashMap;
+      this.sortMode = sortMode;
+      this.activeFields = activeFields;
+    }
+
+    void build(
+        ArrayList<StockItem> newList,
+        HashMap<Integer, ProductGroup> productGroupHashMap,
+        HashMap<Integer, Product> productHashMap,
+        HashMap<Integer, Location> locationHashMap,
+        boolean sortAscending,
+        String groupingMode,
+        ArrayList<ListItemSnapshot> oldSnapshots,
+        int version
+    ) {
+      groupedListItems = getGroupedListItems(context, newList,
+          productGroupHashMap, productHashMap, locationHashMap, userfieldHashMap, currency,
+          dateUtil, sortMode, sortAscending, groupingMode, maxDecimalPlacesAmount,
+          decimalPlacesPriceDisplay);
+
+      containsPictures = false;
+      for (StockItem stockItem : newList) {
+        if (stockItem.getProduct() == null) continue;
+        String pictureFileName = stockItem.getProduct().getPictureFileName();
+        if (pictureFileName != null && !pictureFileName.isEmpty()) {
+          containsPictures = true;
+          break;
+        }
+      }
 
-    @Override
-    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, true);
+      snapshots = getSnapshots(oldSnapshots, version);
+      diffResult = DiffUtil.calculateDiff(
+          new ListItemSnapshot.DiffCallback(oldSnapshots, snapshots)
+      );
     }
 
-    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
-      int oldItemType = GroupedListItem.getType(
-          oldItems.get(oldItemPos),
-          GroupedListItem.CONTEXT_STOCK_OVERVIEW
+    private ArrayList<ListItemSnapshot> getSnapshots(
+        ArrayList<ListItemSnapshot> oldSnapshots,
+        int version
+    ) {
+      ListItemSnapshot.Builder builder = new ListItemSnapshot.Builder(
+          oldSnapshots, version, groupedListItems.size()
       );
-      int newItemType = GroupedListItem.getType(
-          newItems.get(newItemPos),
-          GroupedListItem.CONTEXT_STOCK_OVERVIEW
+      // parts which are the same for all rows
+      long listHash = ListItemSnapshot.hash(
+          ListItemSnapshot.hashIgnoreOrder(activeFields), userfieldHashMap
       );
-      if (oldItemType != newItemType) {
-        return false;
-      }
-      if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        if (!userfieldHashMapNew.equals(userfieldHashMapOld)) {
-          return false;
+      listHash = ListItemSnapshot.hash(listHash, sortMode);
+      // display models contain localized texts and days from today
+      listHash = ListItemSnapshot.hash(listHash, Locale.getDefault());
+      listHash = ListItemSnapshot.hash(listHash, DateUtil.getDateStringToday());
+      boolean showAveragePrice = activeFields.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE);
+      boolean showLastPrice = activeFields.contains(StockOverviewViewModel.FIELD_LAST_PRICE);
+      for (GroupedListItem item : groupedListItems) {
+        if (!(item instanceof StockItem)) {
+          builder.add(GroupedListItem.TYPE_HEADER, item.hashCode(), item.hashCode());
+          continue;
         }
-        StockItem newItem = (StockItem) newItems.get(newItemPos);
-        StockItem oldItem = (StockItem) oldItems.get(oldItemPos);
-        if (!compareContent) {
-          return newItem.getProductId() == oldItem.getProductId();
+        StockItem stockItem = (StockItem) item;
+        Product product = stockItem.getProduct();
+        int productId = stockItem.getProductId();
+        long hash = ListItemSnapshot.hash(listHash, stockItem);
+        hash = ListItemSnapshot.hash(hash, quantityUnitHashMap.get(product.getQuIdStockInt()));
+        hash = ListItemSnapshot.hash(hash, shoppingListItemsProductIds.contains(productId));
+        hash = ListItemSnapshot.hash(hash, missingItemsProductIds.contains(productId));
+        if (showAveragePrice || showLastPrice) {
+          hash = ListItemSnapshot.hash(hash, getFactorPriceToStock(product));
         }
-        if (!newItem.getProduct().equals(oldItem.getProduct())) {
-          return false;
+        if (showAveragePrice) {
+          hash = ListItemSnapshot.hash(hash, productAveragePriceHashMap.get(productId));
         }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
-          return false;
+        if (showLastPrice) {
+          hash = ListItemSnapshot.hash(hash, productLastPurchasedHashMap.get(productId));
         }
-        QuantityUnit quOld = quantityUnitHashMapOld.get(oldItem.getProduct().getQuIdStockInt());
-        QuantityUnit quNew = quantityUnitHashMapNew.get(newItem.getProduct().getQuIdStockInt());
-        if (quOld == null && quNew != null
-            || quOld != null && quNew != null && quOld.getId() != quNew.getId()
-        ) {
-          return false;
+        builder.add(
+            GroupedListItem.TYPE_ENTRY,
+            productId,
+            hash,
+            () -> createDisplayModel(stockItem)
+        );
+      }
+      return builder.build();
+    }
+
+    /**
+     * Prepares all texts and colors of the row, so that binding only has to set them.
+     */
+    private StockItemDisplayModel createDisplayModel(StockItem stockItem) {
+      StockItemDisplayModel model = new StockItemDisplayModel();
+      Product product = stockItem.getProduct();
+
+      model.isOnShoppingList = shoppingListFeatureEnabled
+          && shoppingListItemsProductIds.contains(product.getId());
+      model.isMissing = missingItemsProductIds.contains(stockItem.getProductId());
+
+      if (activeFields.contains(StockOverviewViewModel.FIELD_AMOUNT)) {
+        QuantityUnit quantityUnitStock = quantityUnitHashMap.get(product.getQuIdStockInt());
+        if (!product.getNoOwnStockBoolean()) {
+          StringBuilder stringBuilderAmount = new StringBuilder();
+          AmountUtil.addStockAmountNormalInfo(context, pluralUtil, stringBuilderAmount, stockItem,
+              quantityUnitStock, maxDecimalPlacesAmount);
+          model.amount = stringBuilderAmount.toString();
         }
-
-        boolean isOnShoppingListOld = shoppingListItemsProductIdsOld
-            .contains(String.valueOf(oldItem.getProduct().getId()));
-        boolean isOnShoppingListNew = shoppingListItemsProductIdsNew
-            .contains(String.valueOf(newItem.getProduct().getId()));
-        if (isOnShoppingListNew != isOnShoppingListOld) {
-          return false;
+        StringBuilder stringBuilderAmountAggregated = new StringBuilder();
+        AmountUtil.addStockAmountAggregatedInfo(context, pluralUtil, stringBuilderAmountAggregated,
+            stockItem, quantityUnitStock, maxDecimalPlacesAmount, false);
+        if (!stringBuilderAmountAggregated.toString().isBlank()) {
+          model.amountAggregated = stringBuilderAmountAggregated.toString();
         }
+      }
 
-        if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
-          String priceOld = productAveragePriceHashMapOld.get(oldItem.getProductId());
-          String priceNew = productAveragePriceHashMapNew.get(newItem.getProductId());
-          if (priceOld == null && priceNew != null
-              || priceOld != null && priceNew != null && !priceOld.equals(priceNew)) {
-            return false;
-          }
-        } else if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
-          ProductLastPurchased purchasedOld = productLastPurchasedHashMapOld
-              .get(oldItem.getProductId());
-          ProductLastPurchased purchasedNew = productLastPurchasedHashMapNew
-              .get(newItem.getProductId());
-          if (purchasedOld == null && purchasedNew != null
-              || purchasedOld != null && purchasedNew != null
-              && !purchasedOld.equals(purchasedNew)) {
-            return false;
+      String date = stockItem.getBestBeforeDate();
+      if (activeFields.contains(StockOverviewViewModel.FIELD_DUE_DATE) && showDateTracking
+          && date != null) {
+        int days = DateUtil.getDaysFromNow(date);
+        if (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)
+            || days <= daysExpiringSoon && !date.equals(Constants.DATE.NEVER_OVERDUE)) {
+          model.dueDate = dateUtil.getHumanForDaysFromNow(date);
+          // don't color days text if product has no own stock (children will be colored)
+          if (days <= daysExpiringSoon && !product.getNoOwnStockBoolean()) {
+            if (days >= 0) {
+              model.dueDateTextColor = colorOnYellowContainer;
+              model.dueDateBackgroundColor = colorYellowContainer;
+            } else if (stockItem.getDueTypeInt() == StockItem.DUE_TYPE_BEST_BEFORE) {
+              model.dueDateTextColor = colorOnOrangeContainer;
+              model.dueDateBackgroundColor = colorOrangeContainer;
+            } else {
+              model.dueDateTextColor = colorOnErrorContainer;
+              model.dueDateBackgroundColor = colorErrorContainer;
+            }
           }
         }
+      }
 
-        boolean missingOld = missingProductIdsOld.contains(oldItem.getProductId());
-        boolean missingNew = missingProductIdsNew.contains(newItem.getProductId());
-        if (missingOld != missingNew) {
-          return false;
+      if (activeFields.contains(StockOverviewViewModel.FIELD_VALUE)
+          && NumUtil.isStringDouble(stockItem.getValue())) {
+        String value = NumUtil.trimPrice(
+            NumUtil.toDouble(stockItem.getValue()), decimalPlacesPriceDisplay
+        );
+        if (currency != null && !currency.isEmpty()) {
+          value = context.getString(R.string.property_price_with_currency, value, currency);
         }
-
-        QuantityUnitConversionResolved oldCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsOld,
-                oldItem.getProductId(),
-                oldItem.getProduct().getQuIdPriceInt(),
-                oldItem.getProduct().getQuIdStockInt()
+        model.value = value;
+      }
+      if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_UNIT)
+          && NumUtil.isStringDouble(product.getCalories())) {
+        model.caloriesUnit = context.getString(
+            R.string.property_insert_per_unit,
+            product.getCalories() + " " + energyUnit
         );
-        QuantityUnitConversionResolved newCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsNew,
-                newItem.getProductId(),
-                newItem.getProduct().getQuIdPriceInt(),
-                newItem.getProduct().getQuIdStockInt()
+      }
+      if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_TOTAL)
+          && NumUtil.isStringDouble(product.getCalories())) {
+        model.caloriesTotal = context.getString(
+            R.string.property_insert_total,
+            NumUtil.trimAmount(NumUtil.toDouble(product.getCalories())
+                * stockItem.getAmountDouble(), maxDecimalPlacesAmount) + " " + energyUnit
         );
-        if (oldCon == null && newCon != null || newCon != null && !newCon.equals(oldCon)) {
-          return false;
+      }
+      double factorPriceToStock = getFactorPriceToStock(product);
+      if (activeFields.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
+        String avg = productAveragePriceHashMap.get(stockItem.getProductId());
+        if (NumUtil.isStringDouble(avg)) {
+          model.averagePrice = context.getString(
+              R.string.property_insert_average,
+              context.getString(R.string.property_price_with_currency, NumUtil.trimPrice(
+                  NumUtil.toDouble(avg) * factorPriceToStock, decimalPlacesPriceDisplay
+              ), currency)
+          );
         }
-
-        return newItem.equals(oldItem);
-      } else {
-        GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
-        GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
-        return newGroup.getGroupName().equals(oldGroup.getGroupName())
-            && newGroup.getDisplayDivider() == oldGroup.getDisplayDivider();
       }
+      if (activeFields.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
+        ProductLastPurchased p = productLastPurchasedHashMap.get(stockItem.getProductId());
+        if (p != null && NumUtil.isStringDouble(p.getPrice())) {
+          model.lastPrice = context.getString(
+              R.string.property_insert_last,
+              context.getString(R.string.property_price_with_currency,
+                  NumUtil.trimPrice(NumUtil.toDouble(p.getPrice())
+                      * factorPriceToStock, decimalPlacesPriceDisplay), currency)
+          );
+        }
+      }
+      return model;
     }
+
+    private double getFactorPriceToStock(Product product) {
+      double factor = unitConversionIndex.getFactor(
+          product.getId(), product.getQuIdPriceInt(), product.getQuIdStockInt()
+      );
+      return factor != QuantityUnitConversionIndex.NO_FACTOR ? factor : 1.0;
+    }
+  }
+
+  private static class StockItemDisplayModel {
+
+    boolean isOnShoppingList;
+    boolean isMissing;
+    CharSequence amount;
+    CharSequence amountAggregated;
+    CharSequence dueDate;
+    int dueDateTextColor;
+    ColorStateList dueDateBackgroundColor;
+    CharSequence value;
+    CharSequence caloriesUnit;
+    CharSequence caloriesTotal;
+    CharSequence averagePrice;
+    CharSequence lastPrice;
   }
 }
@@ -108,8 +108,13 @@ public class StoredPurchaseAdapter extends
     if (GroupedListItem.getType(item, GroupedListItem.CONTEXT_STORED_PURCHASES)
         == GroupedListItem.TYPE_ENTRY) {
       StoredPurchase pendingPurchase = (StoredPurchase) item;
-      holder.binding.textPurchaseAmount.setText(holder.binding.textPurchaseAmount.getContext()
-          .getString(R.string.subtitle_barcode_amount, pendingPurchase.getAmount()));
+      String amount = holder.binding.textPurchaseAmount.getContext()
+          .getString(R.string.subtitle_barcode_amount, pendingPurchase.getAmount());
+      if (pendingPurchase.isUncertain()) {
+        amount = holder.binding.textPurchaseAmount.getContext()
+            .getString(R.string.subtitle_batch_purchase_uncertain, amount);
+      }
+      holder.binding.textPurchaseAmount.setText(amount);
       holder.binding.textPurchaseDate.setText(holder.binding.textPurchaseDate.getContext()
           .getString(R.string.property_due_date_fill, dateUtil.getLocalizedDate(pendingPurchase.getBestBeforeDate(), DateUtil.FORMAT_MEDIUM)));
       holder.binding.containerPurchase.setVisibility(View.VISIBLE);
@@ -153,7 +158,10 @@ public class StoredPurchaseAdapter extends
 
     } else { // GroupedListItem.TYPE_INFO
       PendingProductInfo pendingProductInfo = (PendingProductInfo) item;
-      if (pendingProductInfo.getProduct() instanceof PendingProduct) {
+      if (pendingProductInfo.isBatchPurchases()) {
+        holder.binding.textInfo.setText(holder.binding.textInfo.getContext()
+            .getString(R.string.msg_stored_purchases_batch));
+      } else if (pendingProductInfo.getProduct() instanceof PendingProduct) {
         holder.binding.textInfo.setText(holder.binding.textInfo.getContext()
             .getString(R.string.msg_stored_purchases_product_offline));
       } else {
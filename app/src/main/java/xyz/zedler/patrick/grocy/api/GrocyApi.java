@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.api;
 import android.app.Application;
 import android.content.SharedPreferences;
 import android.util.Base64;
+import android.util.DisplayMetrics;
 import androidx.annotation.NonNull;
 import androidx.preference.PreferenceManager;
 import java.nio.charset.StandardCharsets;
@@ -36,7 +37,15 @@ public class GrocyApi {
 
   private final static String TAG = GrocyApi.class.getSimpleName();
 
+  // size of list thumbnails, pictures are requested in a few sizes matching the display density,
+  // so that the server, Glide and its disk cache always see the same urls on one device
+  public final static int THUMBNAIL_SIZE_DP = 56;
+  private final static int[] THUMBNAIL_HEIGHTS = {120, 240, 360};
+  private final static int[] LARGE_WIDTHS = {640, 960, 1280};
+
   private final SharedPreferences sharedPrefs;
+  private final int thumbnailHeight;
+  private final int largeWidth;
   private final String baseUrl;
 
   public final static class ENTITY {
@@ -116,11 +125,28 @@ public class GrocyApi {
             ? "https://" + demoDomain
             : application.getString(R.string.url_grocy_demo_default)
     );
+    DisplayMetrics metrics = application.getResources().getDisplayMetrics();
+    thumbnailHeight = getPictureSizeBucket(THUMBNAIL_HEIGHTS, THUMBNAIL_SIZE_DP * metrics.density);
+    largeWidth = getPictureSizeBucket(
+        LARGE_WIDTHS, Math.min(metrics.widthPixels, metrics.heightPixels)
+    );
   }
 
   public GrocyApi(Application application, String serverUrl) {
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
     baseUrl = serverUrl;
+    DisplayMetrics metrics = application.getResources().getDisplayMetrics();
+    thumbnailHeight = getPictureSizeBucket(THUMBNAIL_HEIGHTS, THUMBNAIL_SIZE_DP * metrics.density);
+    largeWidth = getPictureSizeBucket(
+        LARGE_WIDTHS, Math.min(metrics.widthPixels, metrics.heightPixels)
+    );
+  }
+
+  private static int getPictureSizeBucket(int[] buckets, float size) {
+    for (int bucket : buckets) {
+      if (bucket >= size) return bucket;
+    }
+    return buckets[buckets.length - 1];
   }
 
   public String getBaseUrl() {
@@ -304,6 +330,22 @@ public class GrocyApi {
     }
   }
 
+  /**
+   * Returns the purchases of a product which were booked after the given stock log entry
+   * and are not undone
+   */
+  public String getStockLogPurchases(int productId, int afterStockLogId) {
+    return getUrl(
+        "/objects/stock_log",
+        new COMPARISON("product_id", COMPARISON_OPERATOR.EQUAL, String.valueOf(productId)),
+        new COMPARISON("transaction_type", COMPARISON_OPERATOR.EQUAL, "purchase"),
+        new COMPARISON("undone", COMPARISON_OPERATOR.EQUAL, "0"),
+        new COMPARISON(
+            "id", COMPARISON_OPERATOR.GREATER, String.valueOf(afterStockLogId)
+        )
+    );
+  }
+
   /**
    * Returns all products which are currently in stock incl. the next due date per product
    */
@@ -494,12 +536,12 @@ public class GrocyApi {
 
   public String getRecipePictureServeSmall(String filename) {
     return getRecipePicture(filename)
-        + "?force_serve_as=picture&best_fit_height=240&best_fit_width=360";
+        + getPictureServeParams(thumbnailHeight * 3 / 2, thumbnailHeight);
   }
 
   public String getRecipePictureServeLarge(String filename) {
     return getRecipePicture(filename)
-        + "?force_serve_as=picture&best_fit_height=800&best_fit_width=1280";
+        + getPictureServeParams(largeWidth, largeWidth * 5 / 8);
   }
 
   public String getProductPicture(String filename) {
@@ -515,11 +557,15 @@ public class GrocyApi {
 
   public String getProductPictureServeSmall(String filename) {
     return getProductPicture(filename)
-        + "?force_serve_as=picture&best_fit_height=240&best_fit_width=360";
+        + getPictureServeParams(thumbnailHeight * 3 / 2, thumbnailHeight);
   }
 
   public String getProductPictureServeLarge(String filename) {
     return getProductPicture(filename)
-        + "?force_serve_as=picture&best_fit_height=800&best_fit_width=1280";
+        + getPictureServeParams(largeWidth, largeWidth * 5 / 8);
+  }
+
+  private static String getPictureServeParams(int width, int height) {
+    return "?force_serve_as=picture&best_fit_height=" + height + "&best_fit_width=" + width;
   }
 }
@@ -40,4 +40,7 @@ public interface QuantityUnitConversionDao {
   @Query("DELETE FROM quantity_unit_conversion_table")
   Single<Integer> deleteConversions();
 
+  @Query("DELETE FROM quantity_unit_conversion_table WHERE id = :conversionId")
+  Single<Integer> deleteConversion(int conversionId);
+
 }
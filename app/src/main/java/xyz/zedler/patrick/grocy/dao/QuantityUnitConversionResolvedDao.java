@@ -40,4 +40,10 @@ public interface QuantityUnitConversionResolvedDao {
   @Query("DELETE FROM quantity_unit_conversion_resolved_table")
   Single<Integer> deleteConversionsResolved();
 
+  @Query("DELETE FROM quantity_unit_conversion_resolved_table WHERE product_id = :productId")
+  Single<Integer> deleteConversionsResolvedForProduct(String productId);
+
+  @Query("SELECT COALESCE(MAX(id), -1) FROM quantity_unit_conversion_resolved_table")
+  Single<Integer> getMaxId();
+
 }
@@ -40,4 +40,13 @@ public interface StockItemDao {
   @Query("DELETE FROM stock_item_table")
   Single<Integer> deleteStockItems();
 
+  @Query("SELECT * FROM stock_item_table WHERE product_id = :productId")
+  Single<List<StockItem>> getStockItemsForProduct(int productId);
+
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  Single<Long> insertStockItem(StockItem stockItem);
+
+  @Query("DELETE FROM stock_item_table WHERE product_id = :productId")
+  Single<Integer> deleteStockItem(int productId);
+
 }
@@ -39,6 +39,13 @@ public interface StoredPurchaseDao {
     @Query("SELECT * FROM stored_purchase_table")
     Single<List<StoredPurchase>> getStoredPurchases();
 
+    @Query("SELECT * FROM stored_purchase_table WHERE product_id != 0")
+    Single<List<StoredPurchase>> getBatchPurchases();
+
+    @Query("UPDATE stored_purchase_table SET uncertain = :uncertain, stock_log_id = :stockLogId "
+        + "WHERE id = :id")
+    Single<Integer> setUncertain(long id, boolean uncertain, int stockLogId);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     Single<Long> insertStoredPurchase(StoredPurchase pendingPurchase);
 
@@ -21,6 +21,10 @@
 package xyz.zedler.patrick.grocy.database;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
@@ -28,12 +32,21 @@ import androidx.room.TypeConverters;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.dao.ChoreDao;
 import xyz.zedler.patrick.grocy.dao.ChoreEntryDao;
 import xyz.zedler.patrick.grocy.dao.LocationDao;
 import xyz.zedler.patrick.grocy.dao.MealPlanEntryDao;
 import xyz.zedler.patrick.grocy.dao.MealPlanSectionDao;
 import xyz.zedler.patrick.grocy.dao.MissingItemDao;
+import xyz.zedler.patrick.grocy.dao.OverviewSummaryDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductBarcodeDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductDao;
 import xyz.zedler.patrick.grocy.dao.ProductAveragePriceDao;
@@ -41,6 +54,7 @@ import xyz.zedler.patrick.grocy.dao.ProductBarcodeDao;
 import xyz.zedler.patrick.grocy.dao.ProductDao;
 import xyz.zedler.patrick.grocy.dao.ProductGroupDao;
 import xyz.zedler.patrick.grocy.dao.ProductLastPurchasedDao;
+import xyz.zedler.patrick.grocy.dao.ProductLookupResultDao;
 import xyz.zedler.patrick.grocy.dao.QuantityUnitConversionDao;
 import xyz.zedler.patrick.grocy.dao.QuantityUnitConversionResolvedDao;
 import xyz.zedler.patrick.grocy.dao.QuantityUnitDao;
@@ -57,6 +71,7 @@ import xyz.zedler.patrick.grocy.dao.StockItemDao;
 import xyz.zedler.patrick.grocy.dao.StockLocationDao;
 import xyz.zedler.patrick.grocy.dao.StoreDao;
 import xyz.zedler.patrick.grocy.dao.StoredPurchaseDao;
+import xyz.zedler.patrick.grocy.dao.SyncStateDao;
 import xyz.zedler.patrick.grocy.dao.TaskCategoryDao;
 import xyz.zedler.patrick.grocy.dao.TaskDao;
 import xyz.zedler.patrick.grocy.dao.UserDao;
@@ -68,6 +83,7 @@ import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MealPlanEntry;
 import xyz.zedler.patrick.grocy.model.MealPlanSection;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OverviewSummary;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -75,6 +91,7 @@ import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
@@ -92,6 +109,7 @@ import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
+import xyz.zedler.patrick.grocy.model.SyncState;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
@@ -134,17 +152,41 @@ import xyz.zedler.patrick.grocy.repository.MainRepository.OnVersionListener;
         RecipeNesting.class,
         MealPlanEntry.class,
         MealPlanSection.class,
-        Userfield.class
+        Userfield.class,
+        ProductLookupResult.class,
+        OverviewSummary.class,
+        SyncState.class
     },
     views = {
         RecipeNestingResolved.class
     },
-    version = 54
+    version = 59
 )
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
 
+  private static final String TAG = AppDatabase.class.getSimpleName();
+  private static final String NAME = "app_database";
+  private static final int MAX_INACTIVE_INSTANCES = 2;
+
   private static AppDatabase INSTANCE;
+  private static String instanceServerUrl;
+  private static final LinkedHashMap<String, AppDatabase> INACTIVE_INSTANCES = new LinkedHashMap<>(
+      MAX_INACTIVE_INSTANCES + 2, 0.75f, true
+  ) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, AppDatabase> eldest) {
+      if (size() <= MAX_INACTIVE_INSTANCES) {
+        return false;
+      }
+      evict(eldest.getKey(), eldest.getValue());
+      return true;
+    }
+  };
+  // evicted databases which are still acquired, closed when the last user releases them
+  private static final Map<String, AppDatabase> EVICTED_INSTANCES = new HashMap<>();
+
+  private int users; // guarded by AppDatabase.class
 
   public abstract ShoppingListDao shoppingListDao();
 
@@ -214,19 +256,131 @@ public abstract class AppDatabase extends RoomDatabase {
 
   public abstract ServerDao serverDao();
 
-  public static AppDatabase getAppDatabase(Context context) {
+  public abstract ProductLookupResultDao productLookupResultDao();
+
+  public abstract OverviewSummaryDao overviewSummaryDao();
+
+  public abstract SyncStateDao syncStateDao();
+
+  /**
+   * Returns the database of the server which is currently logged in. Every server has its own
+   * database file, so data of other servers is kept when switching between them.
+   * If the server has changed, the previous database stays open as inactive database.
+   */
+  public static synchronized AppDatabase getAppDatabase(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, null);
+    if (INSTANCE != null && Objects.equals(serverUrl, instanceServerUrl)) {
+      return INSTANCE;
+    }
+    String name = getDatabaseName(serverUrl);
+    if (!sharedPrefs.getBoolean(PREF.DATABASE_PER_SERVER, false)) {
+      adoptLegacyDatabase(context, name);
+      sharedPrefs.edit().putBoolean(PREF.DATABASE_PER_SERVER, true).apply();
+    }
+    if (INSTANCE != null) {
+      INACTIVE_INSTANCES.put(getDatabaseName(instanceServerUrl), INSTANCE);
+    }
+    INSTANCE = takeInactiveInstance(name);
     if (INSTANCE == null) {
-      INSTANCE = Room.databaseBuilder(
-          context.getApplicationContext(),
-          AppDatabase.class,
-          "app_database"
-      ).fallbackToDestructiveMigration().build();
+      INSTANCE = buildDatabase(context, name);
     }
+    instanceServerUrl = serverUrl;
     return INSTANCE;
   }
 
-  public static void destroyInstance() {
+  /**
+   * Returns the database of any server, e.g. to read data of an inactive server offline. It has to
+   * be released with release() after use. Databases of inactive servers are opened lazily and only
+   * the MAX_INACTIVE_INSTANCES most recently used ones are kept open. The least recently used one
+   * is closed as soon as it is not acquired anymore.
+   */
+  public static synchronized AppDatabase acquireAppDatabase(
+      Context context,
+      @Nullable String serverUrl
+  ) {
+    AppDatabase database;
+    if (INSTANCE != null && Objects.equals(serverUrl, instanceServerUrl)) {
+      database = INSTANCE;
+    } else {
+      String name = getDatabaseName(serverUrl);
+      database = takeInactiveInstance(name);
+      if (database == null) {
+        database = buildDatabase(context, name);
+      }
+      INACTIVE_INSTANCES.put(name, database);
+    }
+    database.users++;
+    return database;
+  }
+
+  /**
+   * Releases a database returned by acquireAppDatabase() and closes it if it has been evicted in
+   * the meantime and this was its last user.
+   */
+  public void release() {
+    synchronized (AppDatabase.class) {
+      users--;
+      if (users > 0 || !EVICTED_INSTANCES.values().remove(this)) {
+        return;
+      }
+    }
+    close();
+  }
+
+  private static AppDatabase takeInactiveInstance(String name) {
+    AppDatabase database = INACTIVE_INSTANCES.remove(name);
+    return database != null ? database : EVICTED_INSTANCES.remove(name);
+  }
+
+  /**
+   * Closes an evicted database right away or, if it is still acquired, when it is released. The
+   * database of the previously active server is not counted, it is only kept in fields until the
+   * app restarts after the switch.
+   */
+  private static void evict(String name, AppDatabase database) {
+    if (database.users > 0) {
+      EVICTED_INSTANCES.put(name, database);
+    } else {
+      database.close();
+    }
+  }
+
+  public static String getDatabaseName(@Nullable String serverUrl) {
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      return NAME;
+    }
+    return NAME + "_" + UUID.nameUUIDFromBytes(serverUrl.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static AppDatabase buildDatabase(Context context, String name) {
+    return Room.databaseBuilder(
+        context.getApplicationContext(),
+        AppDatabase.class,
+        name
+    ).fallbackToDestructiveMigration().build();
+  }
+
+  /**
+   * Before databases were split per server, all data was stored in the database without server
+   * suffix. It is renamed once to the database of the current server, so it is not downloaded
+   * again after the update.
+   */
+  private static void adoptLegacyDatabase(Context context, String name) {
+    if (name.equals(NAME) || context.getDatabasePath(name).exists()) {
+      return;
+    }
+    for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+      File file = context.getDatabasePath(NAME + suffix);
+      if (file.exists() && !file.renameTo(context.getDatabasePath(name + suffix))) {
+        Log.e(TAG, "adoptLegacyDatabase: could not rename " + file.getName());
+      }
+    }
+  }
+
+  public static synchronized void destroyInstance() {
     INSTANCE = null;
+    instanceServerUrl = null;
   }
 
   public void getVersion(OnVersionListener versionListener) {
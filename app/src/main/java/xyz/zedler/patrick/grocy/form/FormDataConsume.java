@@ -332,11 +332,23 @@ public class FormDataConsume {
     ProductDetails productDetails = productDetailsLive.getValue();
     QuantityUnit stock = quantityUnitStockLive.getValue();
     assert productDetails != null && stock != null;
+    return getTransactionSuccessMsg(
+        isActionOpen, amountConsumed, productDetails.getProduct(), stock
+    );
+  }
+
+  // for messages which are built after the form was already cleared
+  public String getTransactionSuccessMsg(
+      boolean isActionOpen,
+      double amountConsumed,
+      Product product,
+      QuantityUnit stock
+  ) {
     return application.getString(
         isActionOpen ? R.string.msg_opened : R.string.msg_consumed,
         NumUtil.trimAmount(amountConsumed, maxDecimalPlacesAmount),
         pluralUtil.getQuantityUnitPlural(stock, amountConsumed),
-        productDetails.getProduct().getName()
+        product.getName()
     );
   }
 
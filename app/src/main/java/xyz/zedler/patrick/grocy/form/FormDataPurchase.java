@@ -466,11 +466,24 @@ public class FormDataPurchase {
         ? productDetailsLive.getValue().getProduct().getName() : "";
     String pendingProductName = pendingProductLive.getValue() != null
         ? pendingProductLive.getValue().getName() : null;
+    return getTransactionSuccessMsg(
+        amountPurchased,
+        pendingProductName != null ? pendingProductName : productDetailsName,
+        stock
+    );
+  }
+
+  // for messages which are built after the form was already cleared
+  public String getTransactionSuccessMsg(
+      double amountPurchased,
+      String productName,
+      @Nullable QuantityUnit stock
+  ) {
     return application.getString(
         R.string.msg_purchased,
         NumUtil.trimAmount(amountPurchased, maxDecimalPlacesAmount),
         stock != null ? pluralUtil.getQuantityUnitPlural(stock, amountPurchased) : "",
-        pendingProductName != null ? pendingProductName : productDetailsName
+        productName
     );
   }
 
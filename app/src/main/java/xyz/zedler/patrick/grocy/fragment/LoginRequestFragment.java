@@ -86,8 +86,7 @@ public class LoginRequestFragment extends BaseFragment {
         activity.getScrollBehavior().setCanBottomAppBarBeVisible(true);
 
         activity.updateGrocyApi();
-        activity.netUtil.createWebSocketClient();
-        activity.netUtil.resetHassSessionTimer();
+        activity.netUtil.startIngressSession();
         new Handler().postDelayed(this::navigateToStartDestination, 500);
       } else if (event.getType() == Event.BOTTOM_SHEET) {
         BottomSheetEvent bottomSheetEvent = (BottomSheetEvent) event;
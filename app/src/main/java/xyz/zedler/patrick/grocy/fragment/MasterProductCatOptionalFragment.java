@@ -61,7 +61,6 @@ import xyz.zedler.patrick.grocy.scanner.EmbeddedFragmentScanner.BarcodeListener;
 import xyz.zedler.patrick.grocy.scanner.EmbeddedFragmentScannerBundle;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.viewmodel.MasterProductCatOptionalViewModel;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class MasterProductCatOptionalFragment extends BaseFragment implements BarcodeListener {
 
@@ -177,7 +176,7 @@ public class MasterProductCatOptionalFragment extends BaseFragment implements Ba
         new ActivityResultContracts.StartActivityForResult(),
         result -> {
           if (result.getResultCode() == Activity.RESULT_OK) {
-            viewModel.scaleAndUploadBitmap(viewModel.getCurrentFilePath(), null);
+            viewModel.scaleAndUploadPicture(viewModel.getCurrentFilePath());
           }
         });
 
@@ -341,7 +340,7 @@ public class MasterProductCatOptionalFragment extends BaseFragment implements Ba
           null,
           null,
           grocyApi.getProductPictureServeLarge(filename),
-          RequestHeaders.getGlideGrocyAuthHeaders(requireContext()),
+          true,
           true
       );
     } else {
@@ -78,7 +78,6 @@ public class MealPlanPagingFragment extends Fragment {
     MealPlanEntryAdapter adapter = new MealPlanEntryAdapter(
         requireContext(),
         viewModel.getGrocyApi(),
-        viewModel.getGrocyAuthHeaders(),
         date.format(viewModel.getDateFormatter())
     );
     binding.recycler.setAdapter(adapter);
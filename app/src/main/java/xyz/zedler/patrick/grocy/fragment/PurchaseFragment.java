@@ -270,6 +270,12 @@ public class PurchaseFragment extends BaseFragment implements BarcodeListener {
             value ? colorBlue : ResUtil.getColor(activity, R.attr.colorOnSurface)
         )
     );
+    viewModel.getBatchScanModeLive().observe(
+        getViewLifecycleOwner(), enabled -> updateBatchPurchaseSubtitle()
+    );
+    viewModel.getBatchPurchaseCountLive().observe(
+        getViewLifecycleOwner(), count -> updateBatchPurchaseSubtitle()
+    );
     binding.textInputAmount.setHelperTextColor(ColorStateList.valueOf(colorBlue));
     binding.textInputPurchasePrice.setHelperTextColor(ColorStateList.valueOf(colorBlue));
     viewModel.getFormData().getDueDateErrorLive().observe(
@@ -314,7 +320,9 @@ public class PurchaseFragment extends BaseFragment implements BarcodeListener {
         Constants.FAB.TAG.PURCHASE,
         args.getAnimateStart() && savedInstanceState == null,
         () -> {
-          if (viewModel.isQuickModeEnabled()
+          if (viewModel.isBatchScanModeEnabled()) {
+            viewModel.submitBatchPurchases();
+          } else if (viewModel.isQuickModeEnabled()
               && viewModel.getFormData().isCurrentProductFlowNotInterrupted()) {
             focusNextInvalidView();
           } else if (!viewModel.getFormData().isProductNameValid()) {
@@ -362,6 +370,11 @@ public class PurchaseFragment extends BaseFragment implements BarcodeListener {
   @Override
   public void onBarcodeRecognized(String rawValue) {
     clearInputFocus();
+    if (viewModel.isBatchScanModeEnabled()) {
+      // scanner stays open for the next product
+      viewModel.queueBatchPurchase(rawValue);
+      return;
+    }
     if (!viewModel.isQuickModeEnabled()) {
       viewModel.getFormData().toggleScannerVisibility();
     }
@@ -559,6 +572,17 @@ public class PurchaseFragment extends BaseFragment implements BarcodeListener {
       viewModel.getFormData().clearForm();
       embeddedFragmentScanner.startScannerIfVisible();
       return true;
+    } else if (item.getItemId() == R.id.action_batch_scan) {
+      clearInputFocus();
+      viewModel.toggleBatchScanMode();
+      embeddedFragmentScanner.startScannerIfVisible();
+      return true;
+    } else if (item.getItemId() == R.id.action_batch_queue) {
+      clearInputFocus();
+      activity.navUtil.navigate(
+          PurchaseFragmentDirections.actionPurchaseFragmentToPendingPurchasesFragment()
+      );
+      return true;
     } else if (item.getItemId() == R.id.action_skip) {
       ViewUtil.startIcon(item);
       clearInputFocus();
@@ -570,6 +594,18 @@ public class PurchaseFragment extends BaseFragment implements BarcodeListener {
     return false;
   }
 
+  private void updateBatchPurchaseSubtitle() {
+    Integer count = viewModel.getBatchPurchaseCountLive().getValue();
+    if (viewModel.isBatchScanModeEnabled() || (count != null && count > 0)) {
+      int queued = count != null ? count : 0;
+      binding.toolbar.setSubtitle(getResources().getQuantityString(
+          R.plurals.msg_batch_purchases_queued, queued, queued
+      ));
+    } else {
+      binding.toolbar.setSubtitle(null);
+    }
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -64,7 +64,6 @@ import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
 import xyz.zedler.patrick.grocy.viewmodel.RecipeEditViewModel;
 import xyz.zedler.patrick.grocy.viewmodel.RecipeEditViewModel.RecipeEditViewModelFactory;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class RecipeEditFragment extends BaseFragment implements EmbeddedFragmentScanner.BarcodeListener {
 
@@ -218,7 +217,7 @@ public class RecipeEditFragment extends BaseFragment implements EmbeddedFragment
         new ActivityResultContracts.StartActivityForResult(),
         result -> {
           if (result.getResultCode() == Activity.RESULT_OK) {
-            viewModel.scaleAndUploadBitmap(viewModel.getCurrentFilePath(), null);
+            viewModel.scaleAndUploadPicture(viewModel.getCurrentFilePath());
           }
         });
 
@@ -351,7 +350,7 @@ public class RecipeEditFragment extends BaseFragment implements EmbeddedFragment
           null,
           null,
           grocyApi.getRecipePictureServeLarge(filename),
-          RequestHeaders.getGlideGrocyAuthHeaders(requireContext()),
+          true,
           true
       );
     } else {
@@ -74,7 +74,6 @@ import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.viewmodel.RecipeViewModel;
 import xyz.zedler.patrick.grocy.viewmodel.RecipeViewModel.RecipeViewModelFactory;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class RecipeFragment extends BaseFragment implements
     RecipePositionAdapter.RecipePositionsItemAdapterListener,
@@ -323,7 +322,7 @@ public class RecipeFragment extends BaseFragment implements
           null,
           null,
           grocyApi.getRecipePictureServeLarge(recipe.getPictureFileName()),
-          RequestHeaders.getGlideGrocyAuthHeaders(requireContext()),
+          true,
           false
       );
     }
@@ -20,10 +20,13 @@
 
 package xyz.zedler.patrick.grocy.fragment;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
@@ -35,6 +38,8 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 import xyz.zedler.patrick.grocy.behavior.SystemBarBehavior;
 import xyz.zedler.patrick.grocy.databinding.FragmentSettingsCatBehaviorBinding;
+import xyz.zedler.patrick.grocy.helper.ProductLookupHelper;
+import xyz.zedler.patrick.grocy.helper.ProductLookupHelper.OnImportListener;
 import xyz.zedler.patrick.grocy.model.BottomSheetEvent;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
@@ -52,6 +57,30 @@ public class SettingsCatBehaviorFragment extends BaseFragment {
   private MainActivity activity;
   private SettingsViewModel viewModel;
 
+  private final ActivityResultLauncher<Intent> importLauncher = registerForActivityResult(
+      new ActivityResultContracts.StartActivityForResult(),
+      result -> {
+        if (result.getData() == null || result.getData().getData() == null) return;
+        ProductLookupHelper.getInstance(activity.getApplication()).importIndex(
+            result.getData().getData(),
+            new OnImportListener() {
+              @Override
+              public void onImported(int count) {
+                activity.showSnackbar(
+                    activity.getString(R.string.msg_offline_product_database_imported, count), false
+                );
+                updateOfflineProductDatabaseSize();
+              }
+
+              @Override
+              public void onError() {
+                activity.showSnackbar(R.string.error_offline_product_database_import, false);
+              }
+            }
+        );
+      }
+  );
+
   @Override
   public View onCreateView(
       @NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState
@@ -126,6 +155,8 @@ public class SettingsCatBehaviorFragment extends BaseFragment {
       binding.switchSpeedUpStart.jumpDrawablesToCurrentState();
     });
 
+    updateOfflineProductDatabaseSize();
+
     activity.getScrollBehavior().setNestedOverScrollFixEnabled(false);
     activity.getScrollBehavior().setUpScroll(
         binding.appBar, false, binding.scroll, false
@@ -146,6 +177,22 @@ public class SettingsCatBehaviorFragment extends BaseFragment {
     );
   }
 
+  public void importOfflineProductDatabase() {
+    Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+    intent.addCategory(Intent.CATEGORY_OPENABLE);
+    intent.setType("*/*");
+    importLauncher.launch(intent);
+  }
+
+  private void updateOfflineProductDatabaseSize() {
+    ProductLookupHelper.getInstance(activity.getApplication()).getIndexSize(size -> {
+      if (binding == null || size == 0) return;
+      binding.textOfflineProductDatabase.setText(
+          getString(R.string.setting_offline_product_database_size, size)
+      );
+    });
+  }
+
   @Override
   public void saveInput(String text, Bundle argsBundle) {
     String type = argsBundle.getString(ARGUMENT.TYPE);
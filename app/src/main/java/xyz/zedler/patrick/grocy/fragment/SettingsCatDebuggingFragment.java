@@ -21,6 +21,8 @@
 package xyz.zedler.patrick.grocy.fragment;
 
 import android.os.Bundle;
+import android.text.format.DateUtils;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -28,6 +30,8 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import org.json.JSONException;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
@@ -36,7 +40,11 @@ import xyz.zedler.patrick.grocy.databinding.FragmentSettingsCatDebuggingBinding;
 import xyz.zedler.patrick.grocy.model.BottomSheetEvent;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
+import xyz.zedler.patrick.grocy.model.SyncState;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
+import xyz.zedler.patrick.grocy.util.DebugLog;
+import xyz.zedler.patrick.grocy.util.ResUtil;
+import xyz.zedler.patrick.grocy.util.SyncTelemetry;
 import xyz.zedler.patrick.grocy.viewmodel.SettingsViewModel;
 
 public class SettingsCatDebuggingFragment extends BaseFragment {
@@ -45,6 +53,7 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
 
   private FragmentSettingsCatDebuggingBinding binding;
   private MainActivity activity;
+  private SettingsViewModel viewModel;
 
   @Override
   public View onCreateView(
@@ -65,7 +74,7 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
   @Override
   public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
     activity = (MainActivity) requireActivity();
-    SettingsViewModel viewModel = new ViewModelProvider(this).get(SettingsViewModel.class);
+    viewModel = new ViewModelProvider(this).get(SettingsViewModel.class);
     binding.setActivity(activity);
     binding.setFragment(this);
     binding.setViewModel(viewModel);
@@ -105,4 +114,122 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
 
     setForPreviousDestination(Constants.ARGUMENT.ANIMATED, false);
   }
+
+  public void showSyncStatesDialog() {
+    viewModel.loadSyncStates(syncStates -> {
+      if (binding == null) return;
+      StringBuilder message = new StringBuilder();
+      for (SyncState syncState : syncStates) {
+        if (message.length() > 0) message.append("\n\n");
+        message.append(syncState.getEntity()).append("\n");
+        message.append(syncState.getRowCount()).append(" rows, changed ")
+            .append(syncState.getChangedTime() != null ? syncState.getChangedTime() : "-")
+            .append(", hash ").append(Long.toHexString(syncState.getContentHash()));
+        if (syncState.getLastSuccessTime() > 0) {
+          message.append("\nsuccess ")
+              .append(DateUtils.getRelativeTimeSpanString(syncState.getLastSuccessTime()))
+              .append(" in ").append(syncState.getLastSuccessDuration()).append(" ms");
+        }
+        if (syncState.getLastErrorTime() > 0) {
+          message.append("\nerror ")
+              .append(DateUtils.getRelativeTimeSpanString(syncState.getLastErrorTime()))
+              .append(" after ").append(syncState.getLastErrorDuration()).append(" ms: ")
+              .append(syncState.getLastError());
+        }
+      }
+      new MaterialAlertDialogBuilder(activity)
+          .setTitle(R.string.setting_sync_state)
+          .setMessage(syncStates.isEmpty()
+              ? getString(R.string.msg_sync_state_empty) : message.toString())
+          .setPositiveButton(R.string.action_close, (dialog, which) -> performHapticClick())
+          .setOnCancelListener(dialog -> performHapticClick())
+          .create()
+          .show();
+    });
+  }
+
+  public void showSyncTelemetryDialog() {
+    SyncTelemetry telemetry = SyncTelemetry.getInstance();
+    String summary = telemetry.getSummary();
+    new MaterialAlertDialogBuilder(activity)
+        .setTitle(R.string.setting_sync_telemetry)
+        .setMessage(summary.isEmpty() ? getString(R.string.msg_sync_telemetry_empty) : summary)
+        .setPositiveButton(R.string.action_share, (dialog, which) -> {
+          performHapticClick();
+          try {
+            ResUtil.share(activity, telemetry.toJson().toString(2));
+          } catch (JSONException e) {
+            Log.e(TAG, "showSyncTelemetryDialog: " + e);
+          }
+        })
+        .setNeutralButton(R.string.action_reset, (dialog, which) -> {
+          performHapticClick();
+          telemetry.reset();
+        })
+        .setNegativeButton(R.string.action_close, (dialog, which) -> performHapticClick())
+        .setOnCancelListener(dialog -> performHapticClick())
+        .create()
+        .show();
+  }
+
+  public void showDebugLogDialog() {
+    String log = DebugLog.getBuffer();
+    new MaterialAlertDialogBuilder(activity)
+        .setTitle(R.string.setting_debug_log)
+        .setMessage(log.isEmpty() ? getString(R.string.msg_debug_log_empty) : log)
+        .setPositiveButton(R.string.action_share, (dialog, which) -> {
+          performHapticClick();
+          ResUtil.share(activity, log);
+        })
+        .setNeutralButton(R.string.action_reset, (dialog, which) -> {
+          performHapticClick();
+          DebugLog.clearBuffer();
+        })
+        .setNegativeButton(R.string.action_close, (dialog, which) -> performHapticClick())
+        .setOnCancelListener(dialog -> performHapticClick())
+        .create()
+        .show();
+  }
+
+  public void showLogLevelsDialog() {
+    int[] levels = {DebugLog.VERBOSE, DebugLog.INFO, DebugLog.ERROR};
+    String[] levelNames = {
+        getString(R.string.log_level_verbose),
+        getString(R.string.log_level_info),
+        getString(R.string.log_level_error)
+    };
+    String[] items = new String[DebugLog.CATEGORIES.length];
+    for (int i = 0; i < items.length; i++) {
+      int level = viewModel.getLogLevel(DebugLog.CATEGORIES[i]);
+      String levelName = levelNames[1];
+      for (int j = 0; j < levels.length; j++) {
+        if (levels[j] == level) levelName = levelNames[j];
+      }
+      items[i] = DebugLog.CATEGORIES[i] + ": " + levelName;
+    }
+    new MaterialAlertDialogBuilder(activity)
+        .setTitle(R.string.setting_log_levels)
+        .setItems(items, (dialog, which) -> {
+          performHapticClick();
+          String category = DebugLog.CATEGORIES[which];
+          int checkedItem = 1;
+          for (int j = 0; j < levels.length; j++) {
+            if (levels[j] == viewModel.getLogLevel(category)) checkedItem = j;
+          }
+          new MaterialAlertDialogBuilder(activity)
+              .setTitle(category)
+              .setSingleChoiceItems(levelNames, checkedItem, (levelDialog, level) -> {
+                performHapticClick();
+                viewModel.setLogLevel(category, levels[level]);
+                levelDialog.dismiss();
+              })
+              .setNegativeButton(R.string.action_cancel, (d, w) -> performHapticClick())
+              .create()
+              .show();
+        })
+        .setNegativeButton(R.string.action_close, (dialog, which) -> performHapticClick())
+        .setOnCancelListener(dialog -> performHapticClick())
+        .create()
+        .show();
+  }
 }
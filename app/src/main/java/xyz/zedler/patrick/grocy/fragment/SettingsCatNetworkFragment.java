@@ -118,11 +118,18 @@ public class SettingsCatNetworkFragment extends BaseFragment {
       }
     });
 
+    viewModel.getBackgroundSyncEnabledLive().observe(
+        getViewLifecycleOwner(), viewModel::setBackgroundSyncEnabled
+    );
+
     proxyHostLive = new MutableLiveData<>(viewModel.getProxyHost());
     proxyPortLive = new MutableLiveData<>(String.valueOf(viewModel.getProxyPort()));
 
     binding.switchLoadingCircle.post(() -> {
       binding.switchLoadingCircle.jumpDrawablesToCurrentState();
+      binding.switchBackgroundSync.jumpDrawablesToCurrentState();
+      binding.switchBackgroundSyncUnmetered.jumpDrawablesToCurrentState();
+      binding.switchBackgroundSyncCharging.jumpDrawablesToCurrentState();
       binding.switchTor.jumpDrawablesToCurrentState();
       binding.switchProxy.jumpDrawablesToCurrentState();
     });
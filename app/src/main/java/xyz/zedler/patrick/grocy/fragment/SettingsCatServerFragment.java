@@ -34,6 +34,7 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
@@ -186,6 +187,29 @@ public class SettingsCatServerFragment extends BaseFragment {
     dialogRestart.show();
   }
 
+  public void showSwitchServerDialog() {
+    List<String> serverUrls = viewModel.getOtherServerUrls();
+    String[] items = new String[serverUrls.size() + 1];
+    for (int i = 0; i < serverUrls.size(); i++) {
+      items[i] = serverUrls.get(i);
+    }
+    items[serverUrls.size()] = getString(R.string.action_add_server);
+    new MaterialAlertDialogBuilder(activity)
+        .setTitle(R.string.setting_switch_server)
+        .setItems(items, (dialog, which) -> {
+          performHapticHeavyClick();
+          if (which < serverUrls.size()) {
+            viewModel.switchServer(serverUrls.get(which));
+          } else {
+            viewModel.prepareNewServer();
+          }
+          RestartUtil.restartApp(activity);
+        }).setNegativeButton(R.string.action_cancel, (dialog, which) -> performHapticClick())
+        .setOnCancelListener(dialog -> performHapticClick())
+        .create()
+        .show();
+  }
+
   public void showLogoutDialog(boolean isDemoInstance) {
     dialogLogout = new MaterialAlertDialogBuilder(
         activity, R.style.ThemeOverlay_Grocy_AlertDialog_Caution
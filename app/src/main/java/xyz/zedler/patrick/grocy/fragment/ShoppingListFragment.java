@@ -63,6 +63,7 @@ import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
+import xyz.zedler.patrick.grocy.util.ThumbnailPreloader;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingListViewModel;
 
@@ -146,6 +147,7 @@ public class ShoppingListFragment extends BaseFragment implements
     );
     ShoppingListItemAdapter adapter = new ShoppingListItemAdapter(requireContext(), this);
     binding.recycler.setAdapter(adapter);
+    ThumbnailPreloader.attach(this, binding.recycler, adapter);
 
     if (savedInstanceState == null) {
       viewModel.resetSearch();
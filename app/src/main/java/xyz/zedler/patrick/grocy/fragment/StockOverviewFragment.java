@@ -51,6 +51,7 @@ import xyz.zedler.patrick.grocy.scanner.EmbeddedFragmentScanner;
 import xyz.zedler.patrick.grocy.scanner.EmbeddedFragmentScanner.BarcodeListener;
 import xyz.zedler.patrick.grocy.scanner.EmbeddedFragmentScannerBundle;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
+import xyz.zedler.patrick.grocy.util.ThumbnailPreloader;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
 import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
 
@@ -145,6 +146,7 @@ public class StockOverviewFragment extends BaseFragment implements
         viewModel.getCurrency()
     );
     binding.recycler.setAdapter(adapter);
+    ThumbnailPreloader.attach(this, binding.recycler, adapter);
 
     if (savedInstanceState == null) {
       binding.recycler.scrollToPosition(0);
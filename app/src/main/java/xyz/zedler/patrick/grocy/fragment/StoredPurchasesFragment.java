@@ -29,6 +29,7 @@ import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.DefaultItemAnimator;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.ACTION;
@@ -187,11 +188,16 @@ public class StoredPurchasesFragment extends BaseFragment
               .setPendingProductBarcodes(barcodeIds)
               .build().toBundle());
     } else if (item instanceof Product) {
+      if (((Product) item).getPendingProductId() == null) {
+        return; // header of batch purchases, product is not pending
+      }
       navigateDeepLinkHorizontally(R.string.deep_link_masterProductFragment,
           new MasterProductFragmentArgs.Builder(ACTION.EDIT)
               .setProductId(String.valueOf(((Product) item).getId()))
               .setPendingProductId(String.valueOf(((Product) item).getPendingProductId()))
               .build().toBundle());
+    } else if (item instanceof StoredPurchase && ((StoredPurchase) item).isBatchPurchase()) {
+      showDeleteBatchPurchaseDialog((StoredPurchase) item);
     } else if (item instanceof StoredPurchase) {
       activity.navUtil.navigate(
           StoredPurchasesFragmentDirections
@@ -202,6 +208,21 @@ public class StoredPurchasesFragment extends BaseFragment
 
   }
 
+  private void showDeleteBatchPurchaseDialog(StoredPurchase batchPurchase) {
+    new MaterialAlertDialogBuilder(activity, R.style.ThemeOverlay_Grocy_AlertDialog_Caution)
+        .setTitle(R.string.title_confirmation)
+        .setMessage(getString(
+            R.string.msg_batch_purchase_delete,
+            getString(R.string.subtitle_barcode_amount, batchPurchase.getAmount())
+        )).setPositiveButton(R.string.action_delete, (dialog, which) -> {
+          performHapticClick();
+          viewModel.deleteBatchPurchase(batchPurchase);
+        }).setNegativeButton(R.string.action_cancel, (dialog, which) -> performHapticClick())
+        .setOnCancelListener(dialog -> performHapticClick())
+        .create()
+        .show();
+  }
+
   @Override
   public void updateConnectivity(boolean online) {
     if (!online == viewModel.isOffline()) {
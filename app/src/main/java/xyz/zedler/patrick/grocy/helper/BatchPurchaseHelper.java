@@ -0,0 +1,342 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.OnStockActionListener;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.StockAction;
+import xyz.zedler.patrick.grocy.model.StoredPurchase;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.web.CircuitBreaker.OpenCircuitError;
+
+/**
+ * Submits the purchases which were queued in batch scan mode of the purchase page.
+ * A few requests run at the same time, each one as optimistic stock action, and every finished
+ * request starts the next one from the queue. Only requests which were refused by the open
+ * circuit breaker are sent again right away, because they never left the device. After any other
+ * failure the purchase may have been booked anyway, so the row is marked as uncertain and only
+ * sent again if the stock log contains no matching purchase which was booked after the submit
+ * had started. After timeouts, connection and server errors this check runs after a short delay,
+ * other failures stay in the queue for the next submit.
+ */
+public class BatchPurchaseHelper {
+
+  private static final String TAG = BatchPurchaseHelper.class.getSimpleName();
+
+  private static final int MAX_PARALLEL_REQUESTS = 4;
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long RETRY_DELAY = 1000;
+  private static final double EPSILON = 0.0001;
+
+  private static BatchPurchaseHelper instance;
+
+  private final Application application;
+  private final StockActionHelper stockActionHelper;
+  private final Handler handler;
+  private final boolean debug;
+
+  private final ArrayDeque<StoredPurchase> queue;
+  // transactions which were already assigned to an uncertain row during this submit
+  private final HashSet<String> matchedTransactionIds;
+  @Nullable private OnBatchPurchaseListener listener;
+  private DownloadHelper dlHelper;
+  private GrocyApi grocyApi;
+  private int stockLogId;
+  private int runningRequests;
+  private int total;
+  private int succeeded;
+  private int failed;
+
+  private BatchPurchaseHelper(Application application) {
+    this.application = application;
+    stockActionHelper = StockActionHelper.getInstance(application);
+    handler = new Handler(Looper.getMainLooper());
+    debug = PrefsUtil.isDebuggingEnabled(
+        PreferenceManager.getDefaultSharedPreferences(application)
+    );
+    queue = new ArrayDeque<>();
+    matchedTransactionIds = new HashSet<>();
+  }
+
+  public static synchronized BatchPurchaseHelper getInstance(Application application) {
+    if (instance == null) {
+      instance = new BatchPurchaseHelper(application);
+    }
+    return instance;
+  }
+
+  /**
+   * The database is resolved for every operation, because it belongs to the current server.
+   */
+  private AppDatabase getAppDatabase() {
+    return AppDatabase.getAppDatabase(application);
+  }
+
+  private DownloadHelper getDownloadHelper() {
+    if (dlHelper == null || dlHelper.appDatabase != getAppDatabase()) {
+      dlHelper = new DownloadHelper(application, TAG, null, null);
+    }
+    return dlHelper;
+  }
+
+  public boolean isRunning() {
+    return runningRequests > 0 || !queue.isEmpty();
+  }
+
+  /**
+   * Replaces the listener of a running submit, e.g. after the page was created again.
+   */
+  public void setListener(@Nullable OnBatchPurchaseListener listener) {
+    this.listener = listener;
+  }
+
+  public void submit(
+      @NonNull List<StoredPurchase> storedPurchases,
+      @Nullable OnBatchPurchaseListener listener
+  ) {
+    this.listener = listener;
+    if (isRunning()) return;
+    queue.clear();
+    for (StoredPurchase storedPurchase : storedPurchases) {
+      if (storedPurchase.isBatchPurchase()) queue.add(storedPurchase);
+    }
+    grocyApi = new GrocyApi(application); // server could have changed since last submit
+    total = queue.size();
+    succeeded = 0;
+    failed = 0;
+    matchedTransactionIds.clear();
+    if (total == 0) {
+      if (listener != null) listener.onFinished(0, 0);
+      return;
+    }
+    // newest stock log entry before anything of this submit is booked, so that a timed out
+    // purchase is later only compared with purchases which could have been caused by it
+    getDownloadHelper().get(
+        grocyApi.getStockLogEntries(1, 0, -1),
+        response -> {
+          try {
+            JSONArray entries = new JSONArray(response);
+            stockLogId = entries.length() > 0 ? entries.getJSONObject(0).getInt("id") : 0;
+          } catch (JSONException e) {
+            if (debug) {
+              Log.e(TAG, "submit: " + e);
+            }
+            cancelSubmit();
+            return;
+          }
+          while (runningRequests < MAX_PARALLEL_REQUESTS && !queue.isEmpty()) {
+            sendNext();
+          }
+        },
+        error -> {
+          if (debug) {
+            Log.e(TAG, "submit: " + error);
+          }
+          cancelSubmit();
+        }
+    );
+  }
+
+  private void cancelSubmit() {
+    queue.clear();
+    failed = total;
+    if (listener != null) {
+      listener.onFinished(0, failed);
+    }
+  }
+
+  private void sendNext() {
+    StoredPurchase storedPurchase = queue.poll();
+    if (storedPurchase == null) return;
+    runningRequests++;
+    if (storedPurchase.isUncertain()) {
+      verify(storedPurchase, 1);
+    } else {
+      send(storedPurchase, 1);
+    }
+  }
+
+  private void verify(StoredPurchase storedPurchase, int attempt) {
+    getDownloadHelper().get(
+        grocyApi.getStockLogPurchases(
+            storedPurchase.getProductId(), storedPurchase.getStockLogId()
+        ),
+        response -> {
+          String transactionId;
+          try {
+            transactionId = findBookedTransaction(storedPurchase, new JSONArray(response));
+          } catch (JSONException e) {
+            if (debug) {
+              Log.e(TAG, "verify: " + e);
+            }
+            failed++;
+            onRequestFinished();
+            return;
+          }
+          if (transactionId == null) {
+            // the failed request was not booked, so it can be sent again
+            storedPurchase.setUncertain(false);
+            send(storedPurchase, attempt);
+            return;
+          }
+          if (debug) {
+            Log.i(TAG, "verify: " + storedPurchase.getId() + " was booked as " + transactionId);
+          }
+          matchedTransactionIds.add(transactionId);
+          deleteStoredPurchase(storedPurchase);
+          succeeded++;
+          onRequestFinished();
+        },
+        error -> {
+          if (debug) {
+            Log.e(TAG, "verify: " + storedPurchase.getId() + " failed: " + error);
+          }
+          failed++;
+          onRequestFinished();
+        }
+    );
+  }
+
+  @Nullable
+  private String findBookedTransaction(StoredPurchase storedPurchase, JSONArray entries)
+      throws JSONException {
+    // a purchase can create several stock entries which share the transaction id
+    LinkedHashMap<String, Double> amounts = new LinkedHashMap<>();
+    for (int i = 0; i < entries.length(); i++) {
+      JSONObject entry = entries.getJSONObject(i);
+      String transactionId = entry.optString("transaction_id", null);
+      if (transactionId == null || matchedTransactionIds.contains(transactionId)) continue;
+      Double amount = amounts.get(transactionId);
+      amounts.put(transactionId, (amount != null ? amount : 0) + entry.getDouble("amount"));
+    }
+    double amountExpected = NumUtil.toDouble(storedPurchase.getAmount());
+    for (Map.Entry<String, Double> amount : amounts.entrySet()) {
+      if (Math.abs(amount.getValue() - amountExpected) < EPSILON) {
+        return amount.getKey();
+      }
+    }
+    return null;
+  }
+
+  private void deleteStoredPurchase(StoredPurchase storedPurchase) {
+    getAppDatabase().storedPurchaseDao().deleteStoredPurchase(storedPurchase.getId())
+        .subscribeOn(Schedulers.io())
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  private void send(StoredPurchase storedPurchase, int attempt) {
+    StockAction action = new StockAction(
+        StockActionHelper.TYPE_PURCHASE,
+        storedPurchase.getProductId(),
+        NumUtil.toDouble(storedPurchase.getAmount()),
+        grocyApi.purchaseProduct(storedPurchase.getProductId()),
+        StoredPurchase.getJsonFromStoredPurchase(storedPurchase, debug, TAG)
+    ).setDueDate(storedPurchase.getBestBeforeDate(), null);
+    stockActionHelper.performAction(this, action, new OnStockActionListener() {
+      @Override
+      public void onApplied() {}
+
+      @Override
+      public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+        deleteStoredPurchase(storedPurchase);
+        succeeded++;
+        onRequestFinished();
+      }
+
+      @Override
+      public void onRolledBack(VolleyError error) {
+        if (attempt < MAX_ATTEMPTS && error instanceof OpenCircuitError) {
+          // the request was not sent at all
+          handler.postDelayed(() -> send(storedPurchase, attempt + 1), RETRY_DELAY * attempt);
+          return;
+        }
+        if (debug) {
+          Log.e(TAG, "send: " + storedPurchase.getId() + " failed: " + error);
+        }
+        // could have been booked anyway, so it must not be sent again without a check
+        storedPurchase.setUncertain(true);
+        storedPurchase.setStockLogId(stockLogId);
+        getAppDatabase().storedPurchaseDao()
+            .setUncertain(storedPurchase.getId(), true, stockLogId)
+            .subscribeOn(Schedulers.io())
+            .onErrorComplete()
+            .subscribe();
+        if (attempt < MAX_ATTEMPTS && isTransient(error)) {
+          handler.postDelayed(() -> verify(storedPurchase, attempt + 1), RETRY_DELAY * attempt);
+          return;
+        }
+        failed++;
+        onRequestFinished();
+      }
+
+      @Override
+      public void onReconciled() {}
+    });
+  }
+
+  private static boolean isTransient(VolleyError error) {
+    return error instanceof TimeoutError || error instanceof NoConnectionError
+        || (error instanceof ServerError && error.networkResponse != null
+        && error.networkResponse.statusCode >= 500);
+  }
+
+  private void onRequestFinished() {
+    runningRequests--;
+    if (listener != null) {
+      listener.onProgress(succeeded + failed, total);
+    }
+    if (!queue.isEmpty()) {
+      sendNext();
+    } else if (runningRequests == 0 && listener != null) {
+      listener.onFinished(succeeded, failed);
+    }
+  }
+
+  public interface OnBatchPurchaseListener {
+
+    void onProgress(int finished, int total);
+
+    void onFinished(int succeeded, int failed);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.os.SystemClock;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import java.util.ArrayList;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
+
+/**
+ * Shares the db-changed-time of the server between all DownloadHelpers of the app.
+ * When several pages update at the same time, only the first one sends a request and the
+ * others wait for its response. A response is also used for requests in the short time after
+ * it, unless they want a fresh one, e.g. for pull to refresh.
+ * Changes of the time are posted to getDbChangedTimeLive(), so pages can observe it.
+ * Has to be used on the main thread, where Volley delivers its responses.
+ */
+public class DbChangedTimeHelper {
+
+  private static final String TAG = DbChangedTimeHelper.class.getSimpleName();
+  private static final long CACHE_WINDOW_DEFAULT = 2000;
+
+  private static DbChangedTimeHelper instance;
+
+  private final ArrayList<OnStringResponseListener> responseListeners;
+  private final ArrayList<OnMultiTypeErrorListener> errorListeners;
+  private final MutableLiveData<String> dbChangedTimeLive;
+  private long cacheWindow;
+  private String url;
+  private String dbChangedTime;
+  private long responseTime;
+  private boolean requestRunning;
+
+  private DbChangedTimeHelper() {
+    responseListeners = new ArrayList<>();
+    errorListeners = new ArrayList<>();
+    dbChangedTimeLive = new MutableLiveData<>();
+    cacheWindow = CACHE_WINDOW_DEFAULT;
+  }
+
+  public static synchronized DbChangedTimeHelper getInstance() {
+    if (instance == null) {
+      instance = new DbChangedTimeHelper();
+    }
+    return instance;
+  }
+
+  /**
+   * Sets the time in milliseconds in which a response is used again, 0 disables the cache.
+   */
+  public void setCacheWindow(long cacheWindow) {
+    this.cacheWindow = cacheWindow;
+  }
+
+  public LiveData<String> getDbChangedTimeLive() {
+    return dbChangedTimeLive;
+  }
+
+  public void getDbChangedTime(
+      DownloadHelper dlHelper,
+      boolean allowCached,
+      OnStringResponseListener onResponseListener,
+      OnMultiTypeErrorListener onErrorListener
+  ) {
+    String url = dlHelper.grocyApi.getDbChangedTime();
+    if (!url.equals(this.url)) {
+      // other server, e.g. while logging in, its response must not be shared
+      if (requestRunning) {
+        dlHelper.requestTimeDbChanged(onResponseListener, onErrorListener);
+        return;
+      }
+      this.url = url;
+      dbChangedTime = null;
+    }
+    if (allowCached && dbChangedTime != null
+        && SystemClock.elapsedRealtime() - responseTime < cacheWindow) {
+      String cached = dbChangedTime;
+      DebugLog.i(DebugLog.NETWORK, TAG, () -> "getDbChangedTime: cached " + cached);
+      onResponseListener.onResponse(cached);
+      return;
+    }
+    responseListeners.add(onResponseListener);
+    errorListeners.add(onErrorListener);
+    if (requestRunning) return;
+    requestRunning = true;
+    dlHelper.requestTimeDbChanged(response -> {
+      requestRunning = false;
+      if (!Objects.equals(response, dbChangedTime) || dbChangedTimeLive.getValue() == null) {
+        dbChangedTimeLive.setValue(response);
+      }
+      dbChangedTime = response;
+      responseTime = SystemClock.elapsedRealtime();
+      ArrayList<OnStringResponseListener> listeners = new ArrayList<>(responseListeners);
+      responseListeners.clear();
+      errorListeners.clear();
+      for (OnStringResponseListener listener : listeners) {
+        listener.onResponse(response);
+      }
+    }, error -> {
+      requestRunning = false;
+      ArrayList<OnMultiTypeErrorListener> listeners = new ArrayList<>(errorListeners);
+      responseListeners.clear();
+      errorListeners.clear();
+      for (OnMultiTypeErrorListener listener : listeners) {
+        listener.onError(error);
+      }
+    });
+  }
+}
@@ -24,6 +24,9 @@ import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
@@ -38,8 +41,12 @@ import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 import org.json.JSONArray;
@@ -73,29 +80,40 @@ import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.model.SyncState;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.repository.OverviewStartRepository;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.SyncTelemetry;
+import xyz.zedler.patrick.grocy.web.CircuitBreaker;
+import xyz.zedler.patrick.grocy.web.CircuitBreaker.OpenCircuitError;
 import xyz.zedler.patrick.grocy.web.CustomByteArrayRequest;
 import xyz.zedler.patrick.grocy.web.CustomJsonArrayRequest;
 import xyz.zedler.patrick.grocy.web.CustomJsonObjectRequest;
 import xyz.zedler.patrick.grocy.web.CustomStringRequest;
+import xyz.zedler.patrick.grocy.web.IngressSessionManager;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.OnQueueEmptyListener;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
+import xyz.zedler.patrick.grocy.web.RequestPolicy;
 import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
 
 public class DownloadHelper {
 
   private static final String TAG = DownloadHelper.class.getSimpleName();
+  private static final String TAG_DB_CHANGED_TIME = "db_changed_time";
 
   public final Application application;
   public final GrocyApi grocyApi;
   private final RequestQueue requestQueue;
+  private final IngressSessionManager ingressSessionManager;
+  private final Handler handler;
   public final Gson gson;
   private final String uuidHelper;
   private final OnLoadingListener onLoadingListener;
@@ -109,6 +127,8 @@ public class DownloadHelper {
   public final boolean debug;
   private final int timeoutSeconds;
   private int loadingRequests;
+  private HashMap<String, String> syncedChangedTimes;
+  private boolean destroyed;
 
   public DownloadHelper(
       Application application,
@@ -120,10 +140,13 @@ public class DownloadHelper {
     this.tag = tag;
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    DebugLog.init(sharedPrefs); // for workers, which start without MainActivity
     appDatabase = AppDatabase.getAppDatabase(application.getApplicationContext());
     gson = new GsonBuilder().registerTypeAdapter(Double.class, new BadDoubleDeserializer())
         .registerTypeAdapter(double.class, new BadDoubleDeserializer()).create();
     requestQueue = RequestQueueSingleton.getInstance(application).getRequestQueue();
+    ingressSessionManager = IngressSessionManager.getInstance(application);
+    handler = new Handler(Looper.getMainLooper());
     grocyApi = new GrocyApi(application);
     apiKey = sharedPrefs.getString(Constants.PREF.API_KEY, "");
     uuidHelper = UUID.randomUUID().toString();
@@ -148,10 +171,13 @@ public class DownloadHelper {
     this.tag = tag;
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    DebugLog.init(sharedPrefs);
     gson = new GsonBuilder().registerTypeAdapter(Double.class, new BadDoubleDeserializer()).create();
     appDatabase = AppDatabase.getAppDatabase(application.getApplicationContext());
     RequestQueueSingleton.getInstance(application).newRequestQueue();
     requestQueue = RequestQueueSingleton.getInstance(application).getRequestQueue();
+    ingressSessionManager = IngressSessionManager.getInstance(application);
+    handler = new Handler(Looper.getMainLooper());
     grocyApi = new GrocyApi(application, serverUrl);
     this.apiKey = apiKey;
     uuidHelper = UUID.randomUUID().toString();
@@ -179,6 +205,18 @@ public class DownloadHelper {
       queue.reset(true);
     }
     requestQueue.cancelAll(uuidHelper);
+    destroyed = true;
+  }
+
+  private void enqueue(Request<?> request) {
+    if (!CircuitBreaker.getInstance().allowRequest(request.getUrl())) {
+      // the server was unreachable just now, so don't wait for the timeout again
+      handler.post(() -> {
+        if (!request.isCanceled()) request.deliverError(new OpenCircuitError());
+      });
+      return;
+    }
+    requestQueue.add(request);
   }
 
   public String getUuid() {
@@ -191,19 +229,19 @@ public class DownloadHelper {
       OnStringResponseListener onResponse,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomStringRequest request = new CustomStringRequest(
-        Request.Method.GET,
-        url,
-        apiKey,
-        sessionKey,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        tag
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomStringRequest request = new CustomStringRequest(
+          Request.Method.GET,
+          url,
+          apiKey,
+          sessionKey,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          tag
+      );
+      enqueue(request);
+    });
   }
 
   // for requests without loading progress (set noLoadingProgress=true) TODO
@@ -214,21 +252,32 @@ public class DownloadHelper {
       OnErrorListener onError,
       boolean noLoadingProgress
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomStringRequest request = new CustomStringRequest(
-        Request.Method.GET,
-        url,
-        apiKey,
-        sessionKey,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        tag,
-        noLoadingProgress,
-        onLoadingListener
-    );
-    requestQueue.add(request);
+    get(url, tag, onResponse, onError, noLoadingProgress, true);
+  }
+
+  private void get(
+      String url,
+      String tag,
+      OnStringResponseListener onResponse,
+      OnErrorListener onError,
+      boolean noLoadingProgress,
+      boolean recordInCircuitBreaker
+  ) {
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomStringRequest request = new CustomStringRequest(
+          Request.Method.GET,
+          url,
+          apiKey,
+          sessionKey,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          tag,
+          noLoadingProgress,
+          onLoadingListener
+      ).setRecordInCircuitBreaker(recordInCircuitBreaker);
+      enqueue(request);
+    });
   }
 
   // for single requests without a queue
@@ -247,20 +296,20 @@ public class DownloadHelper {
       OnErrorListener onError,
       String userAgent
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomStringRequest request = new CustomStringRequest(
-        Request.Method.GET,
-        url,
-        apiKey,
-        sessionKey,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper,
-        userAgent
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomStringRequest request = new CustomStringRequest(
+          Request.Method.GET,
+          url,
+          apiKey,
+          sessionKey,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper,
+          userAgent
+      );
+      enqueue(request);
+    });
   }
 
   public void post(
@@ -269,20 +318,20 @@ public class DownloadHelper {
       OnJSONResponseListener onResponse,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomJsonObjectRequest request = new CustomJsonObjectRequest(
-        Request.Method.POST,
-        url,
-        apiKey,
-        sessionKey,
-        json,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomJsonObjectRequest request = new CustomJsonObjectRequest(
+          Request.Method.POST,
+          url,
+          apiKey,
+          sessionKey,
+          json,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper
+      );
+      enqueue(request);
+    });
   }
 
   public void postWithArray(
@@ -291,36 +340,36 @@ public class DownloadHelper {
       OnJSONArrayResponseListener onResponse,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomJsonArrayRequest request = new CustomJsonArrayRequest(
-        Request.Method.POST,
-        url,
-        apiKey,
-        sessionKey,
-        json,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomJsonArrayRequest request = new CustomJsonArrayRequest(
+          Request.Method.POST,
+          url,
+          apiKey,
+          sessionKey,
+          json,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper
+      );
+      enqueue(request);
+    });
   }
 
   public void post(String url, OnStringResponseListener onResponse, OnErrorListener onError) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomStringRequest request = new CustomStringRequest(
-        Request.Method.POST,
-        url,
-        apiKey,
-        sessionKey,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomStringRequest request = new CustomStringRequest(
+          Request.Method.POST,
+          url,
+          apiKey,
+          sessionKey,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper
+      );
+      enqueue(request);
+    });
   }
 
   public void put(
@@ -329,20 +378,20 @@ public class DownloadHelper {
       OnJSONResponseListener onResponse,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomJsonObjectRequest request = new CustomJsonObjectRequest(
-        Request.Method.PUT,
-        url,
-        apiKey,
-        sessionKey,
-        json,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomJsonObjectRequest request = new CustomJsonObjectRequest(
+          Request.Method.PUT,
+          url,
+          apiKey,
+          sessionKey,
+          json,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper
+      );
+      enqueue(request);
+    });
   }
 
   public void putFile(
@@ -351,20 +400,20 @@ public class DownloadHelper {
       Runnable onSuccess,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomByteArrayRequest request = new CustomByteArrayRequest(
-        Request.Method.PUT,
-        url,
-        apiKey,
-        sessionKey,
-        fileContent,
-        onSuccess,
-        onError::onError,
-        timeoutSeconds,
-        uuidHelper
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomByteArrayRequest request = new CustomByteArrayRequest(
+          Request.Method.PUT,
+          url,
+          apiKey,
+          sessionKey,
+          fileContent,
+          onSuccess,
+          onError::onError,
+          timeoutSeconds,
+          uuidHelper
+      );
+      enqueue(request);
+    });
   }
 
   public void delete(
@@ -373,19 +422,19 @@ public class DownloadHelper {
       OnStringResponseListener onResponse,
       OnErrorListener onError
   ) {
-    String sessionKey = sharedPrefs
-        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
-    CustomStringRequest request = new CustomStringRequest(
-        Request.Method.DELETE,
-        url,
-        apiKey,
-        sessionKey,
-        onResponse::onResponse,
-        onError::onError,
-        timeoutSeconds,
-        tag
-    );
-    requestQueue.add(request);
+    ingressSessionManager.getSession(sessionKey -> {
+      CustomStringRequest request = new CustomStringRequest(
+          Request.Method.DELETE,
+          url,
+          apiKey,
+          sessionKey,
+          onResponse::onResponse,
+          onError::onError,
+          timeoutSeconds,
+          tag
+      );
+      enqueue(request);
+    });
   }
 
   public void delete(
@@ -400,27 +449,82 @@ public class DownloadHelper {
       OnStringResponseListener onResponseListener,
       OnMultiTypeErrorListener onErrorListener
   ) {
-    get(
-        grocyApi.getDbChangedTime(),
-        uuidHelper,
-        response -> {
-          try {
-            JSONObject body = new JSONObject(response);
-            String dateStr = body.getString("changed_time");
-            onResponseListener.onResponse(dateStr);
-          } catch (JSONException e) {
-            Log.e(tag, "getTimeDbChanged: " + e);
-            onErrorListener.onError(e);
-          }
+    getTimeDbChanged(true, onResponseListener, onErrorListener);
+  }
+
+  /**
+   * Gets the db-changed-time of the server from the DbChangedTimeHelper, which shares one
+   * request between all helpers which ask at the same time.
+   *
+   * @param allowCached false if a response from the last seconds must not be used
+   */
+  public void getTimeDbChanged(
+      boolean allowCached,
+      OnStringResponseListener onResponseListener,
+      OnMultiTypeErrorListener onErrorListener
+  ) {
+    DbChangedTimeHelper.getInstance().getDbChangedTime(
+        this,
+        allowCached,
+        time -> {
+          if (!destroyed) onResponseListener.onResponse(time);
         },
-        onErrorListener::onError,
-        !sharedPrefs.getBoolean(
-            Constants.SETTINGS.NETWORK.LOADING_CIRCLE,
-            Constants.SETTINGS_DEFAULT.NETWORK.LOADING_CIRCLE
-        )
+        error -> {
+          if (!destroyed) onErrorListener.onError(error);
+        }
     );
   }
 
+  /**
+   * Requests the db-changed-time of the server. The request is tiny, so if it was not answered
+   * after a short delay, a second one is sent and the first response is used, except through
+   * Tor or a proxy, where every request is slow. It is shared by several helpers and therefore not cancelled when this one is destroyed.
+   */
+  void requestTimeDbChanged(
+      OnStringResponseListener onResponseListener,
+      OnMultiTypeErrorListener onErrorListener
+  ) {
+    int[] requestsRunning = {1};
+    boolean[] finished = {false};
+    Object hedgeToken = new Object();
+    String url = grocyApi.getDbChangedTime();
+    // both requests together count as one outcome for the circuit breaker, otherwise one slow
+    // answer would be recorded as two failures and open the circuit
+    OnStringResponseListener onResponse = response -> {
+      if (finished[0]) return;
+      finished[0] = true;
+      handler.removeCallbacksAndMessages(hedgeToken);
+      CircuitBreaker.getInstance().onResponse(url);
+      try {
+        JSONObject body = new JSONObject(response);
+        String dateStr = body.getString("changed_time");
+        onResponseListener.onResponse(dateStr);
+      } catch (JSONException e) {
+        Log.e(tag, "getTimeDbChanged: " + e);
+        onErrorListener.onError(e);
+      }
+    };
+    OnErrorListener onError = error -> {
+      requestsRunning[0]--;
+      if (finished[0] || requestsRunning[0] > 0) return;
+      finished[0] = true;
+      handler.removeCallbacksAndMessages(hedgeToken);
+      CircuitBreaker.getInstance().onError(url, error);
+      onErrorListener.onError(error);
+    };
+    boolean noLoadingProgress = !sharedPrefs.getBoolean(
+        Constants.SETTINGS.NETWORK.LOADING_CIRCLE,
+        Constants.SETTINGS_DEFAULT.NETWORK.LOADING_CIRCLE
+    );
+    get(url, TAG_DB_CHANGED_TIME, onResponse, onError, noLoadingProgress, false);
+    if (!RequestPolicy.isProbeHedged()) return;
+    handler.postAtTime(() -> {
+      if (finished[0]) return;
+      requestsRunning[0]++;
+      get(url, TAG_DB_CHANGED_TIME, onResponse, onError, noLoadingProgress, false);
+    }, hedgeToken, SystemClock.uptimeMillis() + RequestPolicy.PROBE_HEDGE_DELAY);
+  }
+
   public NetworkQueue newQueue(
       OnQueueEmptyListener onQueueEmptyListener,
       OnMultiTypeErrorListener onErrorListener
@@ -469,6 +573,7 @@ public class DownloadHelper {
   ) {
     if (dbChangedTime == null) {
       getTimeDbChanged(
+          !forceUpdate,
           time -> updateData(
               onFinished,
               errorListener,
@@ -489,8 +594,45 @@ public class DownloadHelper {
       return;
     }
 
+    // changed times of the stored tables are needed before the queue decides what to download
+    appDatabase.syncStateDao().getSyncStates()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .onErrorReturnItem(new ArrayList<>())
+        .subscribe(syncStates -> {
+          syncedChangedTimes = new HashMap<>();
+          for (SyncState syncState : syncStates) {
+            if (syncState.getChangedTime() == null) continue;
+            syncedChangedTimes.put(syncState.getEntity(), syncState.getChangedTime());
+          }
+          startUpdateQueue(
+              onFinished,
+              errorListener,
+              dbChangedTime,
+              forceUpdate,
+              errorsOnlyWithForceUpdate,
+              extraQueueItem,
+              types
+          );
+        });
+  }
+
+  private void startUpdateQueue(
+      OnQueueEmptyListener onFinished,
+      OnMultiTypeErrorListener errorListener,
+      String dbChangedTime,
+      boolean forceUpdate,
+      boolean errorsOnlyWithForceUpdate,
+      @Nullable QueueItem extraQueueItem,
+      Class<?>... types
+  ) {
     NetworkQueue queue = newQueue(updated -> {
       if (offlineLive != null) offlineLive.setValue(false);
+      if (updated) {
+        new OverviewStartRepository(application).updateSummary(
+            sharedPrefs.getInt(Constants.PREF.CURRENT_USER_ID, 1)
+        );
+      }
       onFinished.onQueueEmpty(updated);
     }, error -> {
       if (offlineLive != null) offlineLive.setValue(true);
@@ -567,9 +709,96 @@ public class DownloadHelper {
     }
 
     queue.append(extraQueueItem);
+    queue.setBudget(RequestPolicy.getUpdateBudget(timeoutSeconds));
     queue.start();
   }
 
+  /**
+   * Returns the db-changed-time of the server when the table of the entity was downloaded
+   * the last time, or null if it has to be downloaded (again).
+   */
+  @Nullable
+  public String getSyncedChangedTime(String entity) {
+    return syncedChangedTimes != null ? syncedChangedTimes.get(entity) : null;
+  }
+
+  /**
+   * Runs the database writes of a downloaded table in one transaction and records its duration
+   * in the SyncTelemetry. The content hash of the response is computed before, so that the
+   * transaction only contains the writes.
+   */
+  public <V> V runInSyncTransaction(
+      String entity,
+      @Nullable String response,
+      SyncTransaction<V> transaction
+  ) {
+    long contentHash = SyncState.getContentHash(response);
+    long startTime = SystemClock.elapsedRealtime();
+    V result = appDatabase.runInTransaction(() -> transaction.run(contentHash));
+    SyncTelemetry.getInstance().recordTransaction(
+        entity, SystemClock.elapsedRealtime() - startTime
+    );
+    return result;
+  }
+
+  /**
+   * Stores the sync state of a downloaded table, has to be called in the transaction which
+   * stores the table so that both are always consistent.
+   */
+  public void storeSyncState(
+      String entity,
+      String changedTime,
+      int rowCount,
+      long contentHash,
+      long startTime
+  ) {
+    SyncState syncState = appDatabase.syncStateDao().getSyncState(entity);
+    if (syncState == null) syncState = new SyncState(entity);
+    syncState.setChangedTime(changedTime);
+    syncState.setRowCount(rowCount);
+    syncState.setContentHash(contentHash);
+    syncState.setLastSuccessTime(System.currentTimeMillis());
+    syncState.setLastSuccessDuration(SystemClock.elapsedRealtime() - startTime);
+    appDatabase.syncStateDao().insertSyncState(syncState);
+    SyncTelemetry.getInstance().recordRows(entity, rowCount);
+  }
+
+  /**
+   * Makes the next update download the tables of the entities again, even if the database
+   * on the server has not changed.
+   */
+  public void invalidateSyncStates(String... entities) {
+    if (syncedChangedTimes != null) {
+      for (String entity : entities) {
+        syncedChangedTimes.remove(entity);
+      }
+    }
+    Completable.fromAction(() -> appDatabase.syncStateDao().invalidateSyncStates(entities))
+        .subscribeOn(Schedulers.io())
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public void storeSyncError(String entity, long startTime, @Nullable Throwable error) {
+    long duration = SystemClock.elapsedRealtime() - startTime;
+    Completable.fromAction(() -> {
+          SyncState syncState = appDatabase.syncStateDao().getSyncState(entity);
+          if (syncState == null) syncState = new SyncState(entity);
+          syncState.setLastError(error != null ? error.toString() : null);
+          syncState.setLastErrorTime(System.currentTimeMillis());
+          syncState.setLastErrorDuration(duration);
+          appDatabase.syncStateDao().insertSyncState(syncState);
+        })
+        .subscribeOn(Schedulers.io())
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public interface SyncTransaction<V> {
+
+    V run(long contentHash) throws Exception;
+  }
+
   public interface OnObjectsResponseListener<T> {
 
     void onResponse(List<T> objects);
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ServerError;
+import com.android.volley.VolleyError;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import xyz.zedler.patrick.grocy.Constants;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
+import xyz.zedler.patrick.grocy.util.PictureUtil;
+import xyz.zedler.patrick.grocy.util.PictureUtil.StreamOpener;
+import xyz.zedler.patrick.grocy.web.AuthHeaderProvider;
+import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
+
+/**
+ * Uploads pictures one after another on a background thread. Each picture is compressed into a
+ * temporary file first and then streamed from that file with a fixed content length, so neither
+ * the picture nor the request body is held in memory and servers or proxies which don't accept
+ * chunked requests still get the upload. The Grocy file API has no ranged uploads, so
+ * a failed upload is sent again from the temporary file, without decoding the picture again.
+ */
+public class PictureUploadHelper {
+
+  private static final String TAG = PictureUploadHelper.class.getSimpleName();
+
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long RETRY_DELAY = 2000;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static PictureUploadHelper instance;
+
+  private final Application application;
+  private final ExecutorService executor;
+  private final Handler handler;
+
+  private PictureUploadHelper(Application application) {
+    this.application = application;
+    executor = Executors.newSingleThreadExecutor();
+    handler = new Handler(Looper.getMainLooper());
+  }
+
+  public static synchronized PictureUploadHelper getInstance(Application application) {
+    if (instance == null) {
+      instance = new PictureUploadHelper(application);
+    }
+    return instance;
+  }
+
+  public void upload(
+      @NonNull StreamOpener picture,
+      @NonNull String url,
+      @NonNull Runnable onSuccess,
+      @NonNull Runnable onInvalidPicture,
+      @NonNull OnErrorListener onError
+  ) {
+    executor.execute(() -> {
+      File file = null;
+      try {
+        file = PictureUtil.createUploadFile(application);
+        if (!PictureUtil.compressPictureForUpload(picture, file)) {
+          handler.post(onInvalidPicture);
+          return;
+        }
+        VolleyError error = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+          error = send(file, url);
+          if (error == null || !isRetryable(error) || attempt == MAX_ATTEMPTS) break;
+          Thread.sleep(RETRY_DELAY * attempt);
+        }
+        VolleyError finalError = error;
+        handler.post(() -> {
+          if (finalError == null) {
+            onSuccess.run();
+          } else {
+            onError.onError(finalError);
+          }
+        });
+      } catch (IOException e) {
+        handler.post(() -> onError.onError(new NetworkError(e)));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (file != null && !file.delete()) {
+          Log.w(TAG, "upload: could not delete " + file.getName());
+        }
+      }
+    });
+  }
+
+  private VolleyError send(File file, String url) {
+    HttpURLConnection connection = null;
+    try {
+      int timeoutMillis = PreferenceManager.getDefaultSharedPreferences(application).getInt(
+          Constants.SETTINGS.NETWORK.LOADING_TIMEOUT,
+          Constants.SETTINGS_DEFAULT.NETWORK.LOADING_TIMEOUT
+      ) * 1000;
+      connection = RequestQueueSingleton.getInstance(application).openConnection(new URL(url));
+      connection.setRequestMethod("PUT");
+      connection.setDoOutput(true);
+      connection.setFixedLengthStreamingMode(file.length());
+      connection.setConnectTimeout(timeoutMillis);
+      connection.setReadTimeout(timeoutMillis);
+      Map<String, String> headers = AuthHeaderProvider.getInstance(application).getHeaders();
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        connection.setRequestProperty(header.getKey(), header.getValue());
+      }
+      connection.setRequestProperty("Content-Type", "application/octet-stream");
+
+      byte[] buffer = new byte[BUFFER_SIZE];
+      try (InputStream input = new FileInputStream(file);
+          OutputStream output = connection.getOutputStream()) {
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+          output.write(buffer, 0, read);
+        }
+      }
+      int statusCode = connection.getResponseCode();
+      if (statusCode / 100 == 2) return null;
+      return new ServerError(new NetworkResponse(
+          statusCode, new byte[0], false, 0, Collections.emptyList()
+      ));
+    } catch (IOException e) {
+      return new NetworkError(e);
+    } finally {
+      if (connection != null) connection.disconnect();
+    }
+  }
+
+  private static boolean isRetryable(VolleyError error) {
+    return error instanceof NetworkError || (error.networkResponse != null
+        && error.networkResponse.statusCode >= 500);
+  }
+}
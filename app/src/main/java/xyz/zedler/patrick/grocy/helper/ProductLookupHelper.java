@@ -0,0 +1,360 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.app.Application;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
+import com.android.volley.VolleyError;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import xyz.zedler.patrick.grocy.dao.ProductLookupResultDao;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
+import xyz.zedler.patrick.grocy.model.OpenBeautyFactsProduct;
+import xyz.zedler.patrick.grocy.model.OpenFoodFactsProduct;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.ProductLookupIndex;
+
+/**
+ * Looks up product info for unknown barcodes. Recent lookups are kept in memory, then the
+ * offline index is asked, which can be imported from an Open Food Facts export in the settings,
+ * then the stored results of earlier online lookups. Only if all of them miss, Open Food Facts
+ * and Open Beauty Facts are requested at the same time and the first product with a name wins.
+ * Lookups of the same barcode share one request, found products are stored for a long time and
+ * barcodes which are in neither database for a day. Failed requests are remembered for a short
+ * time, so scanning the same barcode again does not wait for another timeout.
+ * The index and the database are read on a background thread, results are posted to the main
+ * thread like the responses of the DownloadHelper.
+ */
+public class ProductLookupHelper {
+
+  private static final String TAG = ProductLookupHelper.class.getSimpleName();
+
+  private static final String INDEX_FILE_NAME = "product_lookup.idx";
+  private static final int MAX_RECENT_LOOKUPS = 64;
+  private static final long FOUND_TTL = 30L * 24 * 60 * 60 * 1000;
+  private static final long NOT_FOUND_TTL = 24 * 60 * 60 * 1000;
+  private static final long FAILURE_TTL = 60 * 1000;
+
+  private static ProductLookupHelper instance;
+
+  private final Application application;
+  private final DownloadHelper dlHelper;
+  private final ExecutorService executor;
+  private final ExecutorService importExecutor;
+  private final Handler handler;
+  private final LruCache<String, ProductLookupResult> recentLookups;
+  private final HashMap<String, Long> recentFailures;
+  private final HashMap<String, PendingLookup> pendingLookups;
+  private final boolean debug;
+  // only accessed on the executor thread
+  private ProductLookupIndex index;
+  private boolean indexOpened;
+
+  private ProductLookupHelper(Application application) {
+    this.application = application;
+    // own helper, requests shared by several pages must not be canceled with one of them
+    dlHelper = new DownloadHelper(application, TAG);
+    executor = Executors.newSingleThreadExecutor();
+    importExecutor = Executors.newSingleThreadExecutor();
+    handler = new Handler(Looper.getMainLooper());
+    recentLookups = new LruCache<>(MAX_RECENT_LOOKUPS);
+    recentFailures = new HashMap<>();
+    pendingLookups = new HashMap<>();
+    debug = PrefsUtil.isDebuggingEnabled(
+        PreferenceManager.getDefaultSharedPreferences(application)
+    );
+  }
+
+  public static synchronized ProductLookupHelper getInstance(Application application) {
+    if (instance == null) {
+      instance = new ProductLookupHelper(application);
+    }
+    return instance;
+  }
+
+  /**
+   * The database is resolved for every operation, because it belongs to the current server.
+   */
+  private ProductLookupResultDao getLookupResultDao() {
+    return AppDatabase.getAppDatabase(application).productLookupResultDao();
+  }
+
+  /**
+   * Must be called on the main thread. The result has no product name if the barcode is in
+   * neither database.
+   */
+  public void lookup(
+      @NonNull String barcode,
+      @NonNull OnResultListener onResult,
+      @NonNull OnErrorListener onError
+  ) {
+    ProductLookupResult recentLookup = recentLookups.get(barcode);
+    if (recentLookup != null && isValid(recentLookup)) {
+      onResult.onResult(recentLookup);
+      return;
+    }
+    Long failureTime = recentFailures.get(barcode);
+    if (failureTime != null && System.currentTimeMillis() - failureTime < FAILURE_TTL) {
+      onError.onError(null);
+      return;
+    }
+    PendingLookup pendingLookup = pendingLookups.get(barcode);
+    if (pendingLookup != null) {
+      pendingLookup.addListeners(onResult, onError);
+      return;
+    }
+    pendingLookup = new PendingLookup(barcode);
+    pendingLookup.addListeners(onResult, onError);
+    pendingLookups.put(barcode, pendingLookup);
+    PendingLookup finalPendingLookup = pendingLookup;
+    executor.execute(() -> {
+      ProductLookupResult result = lookupOffline(barcode);
+      ProductLookupResult storedResult = result == null
+          ? getLookupResultDao().getLookupResult(barcode) : null;
+      handler.post(() -> {
+        if (result != null) {
+          finalPendingLookup.finish(result);
+        } else if (storedResult != null && isValid(storedResult)) {
+          recentLookups.put(barcode, storedResult);
+          finalPendingLookup.finish(storedResult);
+        } else {
+          finalPendingLookup.storedResult = storedResult;
+          lookupOnline(finalPendingLookup);
+        }
+      });
+    });
+  }
+
+  @Nullable
+  private ProductLookupResult lookupOffline(String barcode) {
+    ProductLookupIndex index = getIndex();
+    if (index == null) return null;
+    long startTime = debug ? SystemClock.elapsedRealtimeNanos() : 0;
+    ProductLookupResult result = index.lookup(barcode);
+    if (debug) {
+      Log.i(TAG, "lookupOffline: " + barcode + " in " + index.size() + " products took "
+          + (SystemClock.elapsedRealtimeNanos() - startTime) / 1000 + " µs: " + result);
+    }
+    return result != null && result.hasProductName() ? result : null;
+  }
+
+  private void lookupOnline(PendingLookup pendingLookup) {
+    String barcode = pendingLookup.barcode;
+    OpenFoodFactsProduct.getOpenFoodFactsProduct(
+        dlHelper,
+        barcode,
+        product -> pendingLookup.onResponse(new ProductLookupResult(
+            barcode,
+            product.getLocalizedProductName(application),
+            product.getBrands(),
+            product.getQuantity(),
+            ProductLookupResult.SOURCE_OPEN_FOOD_FACTS,
+            System.currentTimeMillis()
+        )),
+        pendingLookup::onError
+    );
+    OpenBeautyFactsProduct.getOpenBeautyFactsProduct(
+        dlHelper,
+        barcode,
+        product -> pendingLookup.onResponse(new ProductLookupResult(
+            barcode,
+            product.getLocalizedProductName(application),
+            product.getBrands(),
+            product.getQuantity(),
+            ProductLookupResult.SOURCE_OPEN_BEAUTY_FACTS,
+            System.currentTimeMillis()
+        )),
+        pendingLookup::onError
+    );
+  }
+
+  private void storeResult(ProductLookupResult result) {
+    recentLookups.put(result.getBarcode(), result);
+    executor.execute(() -> {
+      getLookupResultDao().insertLookupResult(result);
+      getLookupResultDao().deleteLookupResultsBefore(System.currentTimeMillis() - FOUND_TTL);
+    });
+  }
+
+  private static boolean isValid(ProductLookupResult result) {
+    long ttl = result.hasProductName() ? FOUND_TTL : NOT_FOUND_TTL;
+    return System.currentTimeMillis() - result.getLookupTime() < ttl;
+  }
+
+  /**
+   * Open Food Facts answers unknown barcodes with a response without product, which ends up as
+   * error without VolleyError, or with status 404.
+   */
+  private static boolean isNotFound(@Nullable VolleyError error) {
+    return error == null
+        || error.networkResponse != null && error.networkResponse.statusCode == 404;
+  }
+
+  private class PendingLookup {
+
+    private final String barcode;
+    private final ArrayList<OnResultListener> resultListeners = new ArrayList<>();
+    private final ArrayList<OnErrorListener> errorListeners = new ArrayList<>();
+    @Nullable private ProductLookupResult storedResult;
+    @Nullable private VolleyError error;
+    private boolean failed;
+    private int openRequests = 2;
+
+    PendingLookup(String barcode) {
+      this.barcode = barcode;
+    }
+
+    void addListeners(OnResultListener onResult, OnErrorListener onError) {
+      resultListeners.add(onResult);
+      errorListeners.add(onError);
+    }
+
+    void onResponse(ProductLookupResult result) {
+      openRequests--;
+      if (pendingLookups.get(barcode) != this) return; // other source was faster
+      if (result.hasProductName()) {
+        storeResult(result);
+        finish(result);
+      } else if (openRequests == 0) {
+        onBothMissed();
+      }
+    }
+
+    void onError(@Nullable VolleyError error) {
+      openRequests--;
+      if (pendingLookups.get(barcode) != this) return;
+      if (!isNotFound(error)) {
+        this.error = error;
+        failed = true;
+      }
+      if (openRequests == 0) onBothMissed();
+    }
+
+    private void onBothMissed() {
+      if (!failed) {
+        ProductLookupResult result = new ProductLookupResult(
+            barcode, null, null, null, ProductLookupResult.SOURCE_NONE, System.currentTimeMillis()
+        );
+        storeResult(result);
+        finish(result);
+      } else if (storedResult != null && storedResult.hasProductName()) {
+        finish(storedResult); // expired, but better than nothing without network
+      } else {
+        if (debug) Log.e(TAG, "lookupOnline: " + barcode + " failed: " + error);
+        recentFailures.put(barcode, System.currentTimeMillis());
+        pendingLookups.remove(barcode);
+        for (OnErrorListener listener : errorListeners) {
+          listener.onError(error);
+        }
+      }
+    }
+
+    void finish(ProductLookupResult result) {
+      pendingLookups.remove(barcode);
+      recentFailures.remove(barcode);
+      for (OnResultListener listener : resultListeners) {
+        listener.onResult(result);
+      }
+    }
+  }
+
+  /**
+   * Builds a new offline index from an Open Food Facts CSV export and replaces the current one.
+   * Lookups go on with the old index while the new one is built.
+   */
+  public void importIndex(@NonNull Uri uri, @NonNull OnImportListener listener) {
+    importExecutor.execute(() -> {
+      try (InputStream inputStream = application.getContentResolver().openInputStream(uri)) {
+        if (inputStream == null) throw new IOException("could not open " + uri);
+        long startTime = SystemClock.elapsedRealtime();
+        int count = ProductLookupIndex.build(inputStream, getIndexFile());
+        if (debug) {
+          Log.i(TAG, "importIndex: " + count + " products in "
+              + (SystemClock.elapsedRealtime() - startTime) + " ms");
+        }
+        executor.execute(() -> {
+          index = ProductLookupIndex.open(getIndexFile());
+          indexOpened = true;
+          handler.post(() -> listener.onImported(count));
+        });
+      } catch (IOException | SecurityException e) {
+        Log.e(TAG, "importIndex: " + e);
+        handler.post(listener::onError);
+      }
+    });
+  }
+
+  /**
+   * Posts the number of products in the offline index, 0 if there is none.
+   */
+  public void getIndexSize(@NonNull OnIndexSizeListener listener) {
+    executor.execute(() -> {
+      ProductLookupIndex index = getIndex();
+      int size = index != null ? index.size() : 0;
+      handler.post(() -> listener.onIndexSize(size));
+    });
+  }
+
+  @Nullable
+  private ProductLookupIndex getIndex() {
+    if (!indexOpened) {
+      index = ProductLookupIndex.open(getIndexFile());
+      indexOpened = true;
+    }
+    return index;
+  }
+
+  private File getIndexFile() {
+    return new File(application.getFilesDir(), INDEX_FILE_NAME);
+  }
+
+  public interface OnResultListener {
+
+    void onResult(ProductLookupResult result);
+  }
+
+  public interface OnImportListener {
+
+    void onImported(int count);
+
+    void onError();
+  }
+
+  public interface OnIndexSizeListener {
+
+    void onIndexSize(int size);
+  }
+}
@@ -0,0 +1,534 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.annotation.SuppressLint;
+import android.app.Application;
+import android.util.Log;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.android.volley.VolleyError;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Applies the expected result of consume, open and purchase actions to the local stock table
+ * before the request is sent, so the UI does not have to wait for the server. The request runs
+ * in the background and is independent of the calling view model, so leaving the page does not
+ * cancel it. When the server answers, the local row is corrected with the amount the server
+ * actually booked; on failure the local change is rolled back. After the last pending action
+ * has finished, only the stock related tables are downloaded again to reconcile the rest.
+ * If the calling page was closed before a failure, the user is told with a toast instead.
+ */
+public class StockActionHelper {
+
+  private static final String TAG = StockActionHelper.class.getSimpleName();
+  private static final double EPSILON = 0.0001;
+
+  public static final int TYPE_CONSUME = 1;
+  public static final int TYPE_OPEN = 2;
+  public static final int TYPE_PURCHASE = 3;
+
+  private static StockActionHelper instance;
+
+  private final Application application;
+  // single thread so that local writes of quickly following actions never interleave
+  private final Scheduler dbScheduler;
+  private final ArrayList<ListenerHolder> listeners;
+  private DownloadHelper dlHelper;
+  private int pendingActions;
+
+  private StockActionHelper(Application application) {
+    this.application = application;
+    dbScheduler = Schedulers.from(Executors.newSingleThreadExecutor());
+    listeners = new ArrayList<>();
+    pendingActions = 0;
+  }
+
+  public static synchronized StockActionHelper getInstance(Application application) {
+    if (instance == null) {
+      instance = new StockActionHelper(application);
+    }
+    return instance;
+  }
+
+  /**
+   * The database is resolved for every operation, because it belongs to the current server.
+   */
+  private AppDatabase getAppDatabase() {
+    return AppDatabase.getAppDatabase(application);
+  }
+
+  /**
+   * One helper is kept for all actions and only replaced if the server has changed.
+   * It is never destroyed, because its requests must outlive the calling page.
+   */
+  private DownloadHelper getDownloadHelper() {
+    if (dlHelper == null || dlHelper.appDatabase != getAppDatabase()) {
+      dlHelper = new DownloadHelper(application, TAG, null, null);
+    }
+    return dlHelper;
+  }
+
+  public static class StockAction {
+
+    private final int type;
+    private final int productId;
+    private final double amount;
+    private final String url;
+    private final JSONObject body;
+    @Nullable private String dueDate;
+    @Nullable private String dueType;
+    @Nullable private String deleteWhenBookedUrl;
+
+    /**
+     * @param amount always positive and in the stock quantity unit of the product
+     */
+    public StockAction(int type, int productId, double amount, String url, JSONObject body) {
+      this.type = type;
+      this.productId = productId;
+      this.amount = Math.max(0, amount);
+      this.url = url;
+      this.body = body;
+    }
+
+    public StockAction setDueDate(@Nullable String dueDate, @Nullable String dueType) {
+      this.dueDate = dueDate;
+      this.dueType = dueType;
+      return this;
+    }
+
+    /**
+     * Object which is deleted on the server after the action was booked, e.g. the purchased
+     * shopping list item. It belongs to the action, so it is also deleted if the calling page
+     * was closed in between, and it is kept if the action fails.
+     */
+    public StockAction setDeleteWhenBooked(@Nullable String url) {
+      this.deleteWhenBookedUrl = url;
+      return this;
+    }
+
+    public int getType() {
+      return type;
+    }
+
+    public int getProductId() {
+      return productId;
+    }
+
+    public double getAmount() {
+      return amount;
+    }
+
+    // signed change of the stock amount which is expected for this action
+    private double getExpectedAmountDelta() {
+      if (type == TYPE_CONSUME) {
+        return -amount;
+      } else if (type == TYPE_PURCHASE) {
+        return amount;
+      }
+      return 0;
+    }
+
+    // signed change of the opened amount which is expected for this action
+    private double getExpectedOpenedDelta() {
+      return type == TYPE_OPEN ? amount : 0;
+    }
+  }
+
+  /**
+   * @param owner object the listener belongs to, usually the calling view model, which has to
+   *              call {@link #removeListeners(Object)} when it is cleared
+   */
+  public void performAction(
+      @NonNull Object owner,
+      @NonNull StockAction action,
+      @NonNull OnStockActionListener onStockActionListener
+  ) {
+    ListenerHolder listener = addListener(owner, onStockActionListener);
+    pendingActions++;
+    applyDelta(
+        action,
+        action.getExpectedAmountDelta(),
+        action.getExpectedOpenedDelta(),
+        snapshot -> {
+          listener.onApplied();
+          sendAction(action, snapshot, listener);
+        }
+    );
+  }
+
+  public void undoTransaction(
+      @NonNull Object owner,
+      @NonNull StockAction action,
+      @NonNull String transactionId,
+      double amountBooked,
+      @NonNull OnStockActionListener onStockActionListener
+  ) {
+    ListenerHolder listener = addListener(owner, onStockActionListener);
+    DownloadHelper dlHelper = getDownloadHelper();
+    // inverse of the booked action
+    double amountDelta = action.type == TYPE_OPEN ? 0 : (
+        action.type == TYPE_CONSUME ? amountBooked : -amountBooked
+    );
+    double openedDelta = action.type == TYPE_OPEN ? -amountBooked : 0;
+    pendingActions++;
+    applyDelta(action, amountDelta, openedDelta, snapshot -> {
+      listener.onApplied();
+      dlHelper.post(
+          dlHelper.grocyApi.undoStockTransaction(transactionId),
+          response -> {
+            listener.onConfirmed(null, amountBooked);
+            onActionFinished();
+          },
+          error -> rollback(action, snapshot, amountDelta, openedDelta, error, listener)
+      );
+    });
+  }
+
+  public boolean hasPendingActions() {
+    return pendingActions > 0;
+  }
+
+  /**
+   * Stops all callbacks to listeners of the given owner. The actions themselves are still sent
+   * and reconciled, only the owner is not notified anymore.
+   */
+  public void removeListeners(@NonNull Object owner) {
+    for (int i = listeners.size() - 1; i >= 0; i--) {
+      ListenerHolder holder = listeners.get(i);
+      if (holder.owner == owner) {
+        holder.listener = null;
+        listeners.remove(i);
+      }
+    }
+  }
+
+  private ListenerHolder addListener(Object owner, OnStockActionListener listener) {
+    ListenerHolder holder = new ListenerHolder(owner, listener);
+    listeners.add(holder);
+    return holder;
+  }
+
+  private void sendAction(
+      StockAction action,
+      @Nullable StockItem snapshot,
+      ListenerHolder listener
+  ) {
+    DownloadHelper dlHelper = getDownloadHelper();
+    double expectedAmountDelta = action.getExpectedAmountDelta();
+    double expectedOpenedDelta = action.getExpectedOpenedDelta();
+    dlHelper.postWithArray(
+        action.url,
+        action.body,
+        response -> {
+          String transactionId = null;
+          double amountBooked = 0;
+          try {
+            transactionId = response.getJSONObject(0).getString("transaction_id");
+            amountBooked = getAmountBooked(action, response);
+          } catch (JSONException e) {
+            if (dlHelper.debug) {
+              Log.e(TAG, "sendAction: " + e);
+            }
+            // the transaction was successful anyway, assume the expected amount
+            amountBooked = action.amount;
+          }
+          deleteWhenBooked(action);
+          double correction = amountBooked - action.amount;
+          if (Math.abs(correction) < EPSILON) {
+            listener.onConfirmed(transactionId, amountBooked);
+            onActionFinished();
+            return;
+          }
+          // server booked a different amount, e.g. because of subproduct substitution
+          String finalTransactionId = transactionId;
+          double finalAmountBooked = amountBooked;
+          applyDelta(
+              action,
+              expectedAmountDelta == 0 ? 0 : Math.signum(expectedAmountDelta) * correction,
+              expectedOpenedDelta == 0 ? 0 : correction,
+              ignored -> {
+                listener.onConfirmed(finalTransactionId, finalAmountBooked);
+                onActionFinished();
+              }
+          );
+        },
+        error -> rollback(
+            action, snapshot, expectedAmountDelta, expectedOpenedDelta, error, listener
+        )
+    );
+  }
+
+  private void deleteWhenBooked(StockAction action) {
+    if (action.deleteWhenBookedUrl == null) return;
+    DownloadHelper dlHelper = getDownloadHelper();
+    dlHelper.delete(
+        action.deleteWhenBookedUrl,
+        response -> {},
+        error -> {
+          if (dlHelper.debug) {
+            Log.e(TAG, "deleteWhenBooked: " + error);
+          }
+        }
+    );
+  }
+
+  private static double getAmountBooked(StockAction action, JSONArray response)
+      throws JSONException {
+    double amountBooked = 0;
+    for (int i = 0; i < response.length(); i++) {
+      amountBooked += response.getJSONObject(i).getDouble("amount");
+    }
+    // stock log entries of consume actions have negative amounts
+    return action.type == TYPE_CONSUME ? -amountBooked : amountBooked;
+  }
+
+  private void rollback(
+      StockAction action,
+      @Nullable StockItem snapshot,
+      double amountDelta,
+      double openedDelta,
+      VolleyError error,
+      ListenerHolder listener
+  ) {
+    runOnDatabase(() -> {
+      List<StockItem> stockItems = getAppDatabase().stockItemDao()
+          .getStockItemsForProduct(action.productId).blockingGet();
+      if (stockItems.isEmpty()) {
+        // row was removed by this action, restore it as it was before
+        if (snapshot != null) {
+          getAppDatabase().stockItemDao().insertStockItem(snapshot).blockingGet();
+        }
+      } else {
+        StockItem stockItem = stockItems.get(0);
+        applyDeltaToStockItem(stockItem, -amountDelta, -openedDelta);
+        if (stockItem.getAmountDouble() <= 0 && stockItem.getAmountAggregatedDouble() <= 0) {
+          getAppDatabase().stockItemDao().deleteStockItem(action.productId).blockingGet();
+        } else {
+          getAppDatabase().stockItemDao().insertStockItem(stockItem).blockingGet();
+        }
+      }
+      return true;
+    }, ignored -> {
+      if (listener.isRemoved()) {
+        Toast.makeText(
+            application, R.string.error_transaction_rolled_back, Toast.LENGTH_LONG
+        ).show();
+      } else {
+        listener.onRolledBack(error);
+      }
+      onActionFinished();
+    }, false);
+  }
+
+  private void applyDelta(
+      StockAction action,
+      double amountDelta,
+      double openedDelta,
+      OnSnapshotListener onApplied
+  ) {
+    runOnDatabase(() -> {
+      List<StockItem> stockItems = getAppDatabase().stockItemDao()
+          .getStockItemsForProduct(action.productId).blockingGet();
+      StockItem snapshot = stockItems.isEmpty() ? null : stockItems.get(0);
+      StockItem stockItem;
+      if (snapshot != null) {
+        stockItem = copyStockItem(snapshot);
+      } else if (amountDelta > 0) {
+        stockItem = new StockItem();
+        stockItem.setProductId(action.productId);
+        stockItem.setAmount("0");
+        stockItem.setAmountAggregated("0");
+        stockItem.setAmountOpened("0");
+        stockItem.setAmountOpenedAggregated("0");
+        stockItem.setValue("0");
+        stockItem.setIsAggregatedAmount("0");
+        stockItem.setBestBeforeDate(action.dueDate);
+        stockItem.setDueType(action.dueType);
+      } else {
+        return new Object[]{null};
+      }
+      applyDeltaToStockItem(stockItem, amountDelta, openedDelta);
+      if (stockItem.getAmountDouble() <= 0 && stockItem.getAmountAggregatedDouble() <= 0) {
+        getAppDatabase().stockItemDao().deleteStockItem(action.productId).blockingGet();
+      } else {
+        getAppDatabase().stockItemDao().insertStockItem(stockItem).blockingGet();
+      }
+      return new Object[]{snapshot};
+    }, result -> onApplied.onApplied((StockItem) result[0]), new Object[]{null});
+  }
+
+  private static void applyDeltaToStockItem(
+      StockItem stockItem,
+      double amountDelta,
+      double openedDelta
+  ) {
+    double amount = stockItem.getAmountDouble();
+    double newAmount = Math.max(0, amount + amountDelta);
+    if (amount > 0 && stockItem.getValue() != null && NumUtil.isStringDouble(stockItem.getValue())) {
+      stockItem.setValue(String.valueOf(stockItem.getValueDouble() * newAmount / amount));
+    }
+    stockItem.setAmount(String.valueOf(newAmount));
+    stockItem.setAmountAggregated(String.valueOf(
+        Math.max(0, stockItem.getAmountAggregatedDouble() + amountDelta)
+    ));
+    double newOpened = Math.min(
+        newAmount, Math.max(0, stockItem.getAmountOpenedDouble() + openedDelta)
+    );
+    stockItem.setAmountOpened(String.valueOf(newOpened));
+    stockItem.setAmountOpenedAggregated(String.valueOf(Math.min(
+        stockItem.getAmountAggregatedDouble(),
+        Math.max(0, stockItem.getAmountOpenedAggregatedDouble() + openedDelta)
+    )));
+  }
+
+  private static StockItem copyStockItem(StockItem stockItem) {
+    StockItem copy = new StockItem();
+    copy.setProductId(stockItem.getProductId());
+    copy.setAmount(stockItem.getAmount());
+    copy.setAmountAggregated(stockItem.getAmountAggregated());
+    copy.setAmountOpened(stockItem.getAmountOpened());
+    copy.setAmountOpenedAggregated(stockItem.getAmountOpenedAggregated());
+    copy.setValue(stockItem.getValue());
+    copy.setBestBeforeDate(stockItem.getBestBeforeDate());
+    copy.setIsAggregatedAmount(stockItem.getIsAggregatedAmount());
+    copy.setDueType(stockItem.getDueType());
+    return copy;
+  }
+
+  private void onActionFinished() {
+    pendingActions--;
+    if (pendingActions > 0) {
+      return;
+    }
+    // all local changes are confirmed or rolled back, now the derived stock tables
+    // (volatile, missing, locations) can be safely fetched from the server
+    ArrayList<ListenerHolder> listenersToReconcile = new ArrayList<>(listeners);
+    listeners.clear();
+    DownloadHelper dlHelper = getDownloadHelper();
+    dlHelper.updateData(
+        updated -> {
+          for (ListenerHolder listener : listenersToReconcile) {
+            listener.onReconciled();
+          }
+        },
+        error -> {
+          if (dlHelper.debug) {
+            Log.e(TAG, "onActionFinished: reconcile failed: " + error);
+          }
+        },
+        false,
+        false,
+        StockItem.class,
+        StockLocation.class,
+        VolatileItem.class,
+        MissingItem.class
+    );
+  }
+
+  // fallback is passed to onFinished if the database operation fails, so that the action
+  // is still sent and the pending counter stays consistent
+  @SuppressLint("CheckResult")
+  private <T> void runOnDatabase(Callable<T> callable, Consumer<T> onFinished, T fallback) {
+    Single.fromCallable(callable)
+        .subscribeOn(dbScheduler)
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(onFinished, throwable -> {
+          Log.e(TAG, "runOnDatabase: " + throwable);
+          onFinished.accept(fallback);
+        });
+  }
+
+  private interface OnSnapshotListener {
+
+    void onApplied(@Nullable StockItem snapshot);
+  }
+
+  // forwards callbacks only as long as the owner has not removed its listeners
+  private static class ListenerHolder implements OnStockActionListener {
+
+    private final Object owner;
+    @Nullable private OnStockActionListener listener;
+
+    private ListenerHolder(Object owner, OnStockActionListener listener) {
+      this.owner = owner;
+      this.listener = listener;
+    }
+
+    private boolean isRemoved() {
+      return listener == null;
+    }
+
+    @Override
+    public void onApplied() {
+      if (listener != null) listener.onApplied();
+    }
+
+    @Override
+    public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+      if (listener != null) listener.onConfirmed(transactionId, amountBooked);
+    }
+
+    @Override
+    public void onRolledBack(VolleyError error) {
+      if (listener != null) listener.onRolledBack(error);
+    }
+
+    @Override
+    public void onReconciled() {
+      if (listener != null) listener.onReconciled();
+    }
+  }
+
+  public interface OnStockActionListener {
+
+    // local stock table was updated, UI can be refreshed from database
+    void onApplied();
+
+    // server has booked the action, transactionId can be used for undo
+    void onConfirmed(@Nullable String transactionId, double amountBooked);
+
+    // server request failed and the local change has been reverted
+    void onRolledBack(VolleyError error);
+
+    // derived stock tables were downloaded again after all pending actions finished
+    void onReconciled();
+  }
+}
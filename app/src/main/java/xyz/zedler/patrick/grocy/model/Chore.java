@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,12 +42,12 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -431,9 +432,7 @@ public class Chore implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Chore> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_CHORES, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.CHORES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -442,6 +441,7 @@ public class Chore implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.CHORES),
               uuid,
@@ -450,15 +450,17 @@ public class Chore implements Parcelable {
                 }.getType();
                 ArrayList<Chore> chores = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Chores: " + chores);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Chores", chores);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.choreDao().deleteChores().blockingSubscribe();
-                  dlHelper.appDatabase.choreDao().insertChores(chores).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.CHORES, response, contentHash -> {
+                      dlHelper.appDatabase.choreDao().deleteChores().blockingSubscribe();
+                      dlHelper.appDatabase.choreDao().insertChores(chores).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.CHORES, dbChangedTime, chores.size(), contentHash, startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -476,6 +478,7 @@ public class Chore implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.CHORES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -42,11 +43,11 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -240,7 +241,7 @@ public class ChoreEntry implements Parcelable {
           }.getType();
           ArrayList<ChoreEntry> choreEntries = dlHelper.gson.fromJson(response, type);
           if (dlHelper.debug) {
-            Log.i(dlHelper.tag, "getChoreEntries: " + choreEntries);
+            DebugLog.list(DebugLog.SYNC, dlHelper.tag, "getChoreEntries", choreEntries);
           }
           onResponseListener.onResponse(choreEntries);
         },
@@ -255,9 +256,7 @@ public class ChoreEntry implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ChoreEntry> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_CHORE_ENTRIES, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.CHORE_ENTRIES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -266,6 +265,7 @@ public class ChoreEntry implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getChores(),
               uuid,
@@ -274,17 +274,23 @@ public class ChoreEntry implements Parcelable {
                 }.getType();
                 ArrayList<ChoreEntry> choreEntries = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ChoreEntries: " + choreEntries);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download ChoreEntries", choreEntries);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.choreEntryDao()
-                      .deleteChoreEntries().blockingSubscribe();
-                  dlHelper.appDatabase.choreEntryDao()
-                      .insertChoreEntries(choreEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORE_ENTRIES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.CHORE_ENTRIES, response, contentHash -> {
+                      dlHelper.appDatabase.choreEntryDao()
+                          .deleteChoreEntries().blockingSubscribe();
+                      dlHelper.appDatabase.choreEntryDao()
+                          .insertChoreEntries(choreEntries).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.CHORE_ENTRIES,
+                          dbChangedTime,
+                          choreEntries.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -302,6 +308,7 @@ public class ChoreEntry implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.CHORE_ENTRIES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
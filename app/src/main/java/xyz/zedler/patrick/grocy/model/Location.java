@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,8 +40,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
@@ -48,6 +47,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "location_table")
@@ -228,7 +228,7 @@ public class Location implements Parcelable {
               }.getType();
               ArrayList<Location> locations = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download Locations: " + locations);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Locations", locations);
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(locations);
@@ -257,9 +257,7 @@ public class Location implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Location> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_LOCATIONS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.LOCATIONS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -268,6 +266,7 @@ public class Location implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.LOCATIONS),
               uuid,
@@ -276,17 +275,23 @@ public class Location implements Parcelable {
                 }.getType();
                 ArrayList<Location> locations = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Locations: " + locations);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Locations", locations);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.locationDao()
-                      .deleteLocations().blockingSubscribe();
-                  dlHelper.appDatabase.locationDao()
-                      .insertLocations(locations).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_LOCATIONS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.LOCATIONS, response, contentHash -> {
+                      dlHelper.appDatabase.locationDao()
+                          .deleteLocations().blockingSubscribe();
+                      dlHelper.appDatabase.locationDao()
+                          .insertLocations(locations).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.LOCATIONS,
+                          dbChangedTime,
+                          locations.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -304,6 +309,7 @@ public class Location implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.LOCATIONS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
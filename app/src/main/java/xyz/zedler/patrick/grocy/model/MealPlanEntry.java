@@ -22,6 +22,7 @@ package xyz.zedler.patrick.grocy.model;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -38,13 +39,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "meal_plan_entry_table")
@@ -296,9 +296,7 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
       String dbChangedTime,
       OnObjectsResponseListener<MealPlanEntry> onResponseListener
   ) {
-    String lastTime = dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, null
-    );
+    String lastTime = dlHelper.getSyncedChangedTime(SyncState.MEAL_PLAN_ENTRIES);
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -307,6 +305,7 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.MEAL_PLAN),
               uuid,
@@ -315,17 +314,25 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<MealPlanEntry> mealPlanEntries = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download MealPlanEntries: " + mealPlanEntries);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download MealPlanEntries", mealPlanEntries
+                  );
                 }
-                Single.fromCallable(() -> {
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.MEAL_PLAN_ENTRIES, response, contentHash -> {
                       dlHelper.appDatabase.mealPlanEntryDao()
                           .deleteMealPlanEntries().blockingSubscribe();
                       dlHelper.appDatabase.mealPlanEntryDao()
                           .insertMealPlanEntries(mealPlanEntries).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, dbChangedTime).apply();
+                      dlHelper.storeSyncState(
+                          SyncState.MEAL_PLAN_ENTRIES,
+                          dbChangedTime,
+                          mealPlanEntries.size(),
+                          contentHash,
+                          startTime
+                      );
                       return true;
-                    })
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doOnError(throwable -> {
@@ -344,6 +351,7 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
                     .subscribe();
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.MEAL_PLAN_ENTRIES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
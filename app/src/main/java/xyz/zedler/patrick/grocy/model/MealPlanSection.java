@@ -22,6 +22,7 @@ package xyz.zedler.patrick.grocy.model;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -38,12 +39,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "meal_plan_section_table")
@@ -212,9 +213,7 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
       String dbChangedTime,
       OnObjectsResponseListener<MealPlanSection> onResponseListener
   ) {
-    String lastTime = dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS, null
-    );
+    String lastTime = dlHelper.getSyncedChangedTime(SyncState.MEAL_PLAN_SECTIONS);
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -223,6 +222,7 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.MEAL_PLAN_SECTIONS),
               uuid,
@@ -231,17 +231,25 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<MealPlanSection> mealPlanSections = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download MealPlanSections: " + mealPlanSections);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download MealPlanSections", mealPlanSections
+                  );
                 }
-                Single.fromCallable(() -> {
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.MEAL_PLAN_SECTIONS, response, contentHash -> {
                       dlHelper.appDatabase.mealPlanSectionDao()
                           .deleteMealPlanSections().blockingSubscribe();
                       dlHelper.appDatabase.mealPlanSectionDao()
                           .insertMealPlanSections(mealPlanSections).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS, dbChangedTime).apply();
+                      dlHelper.storeSyncState(
+                          SyncState.MEAL_PLAN_SECTIONS,
+                          dbChangedTime,
+                          mealPlanSections.size(),
+                          contentHash,
+                          startTime
+                      );
                       return true;
-                    })
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doOnError(throwable -> {
@@ -260,6 +268,7 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
                     .subscribe();
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.MEAL_PLAN_SECTIONS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
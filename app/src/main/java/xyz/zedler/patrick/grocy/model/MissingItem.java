@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -38,12 +39,11 @@ import java.util.ArrayList;
 import java.util.List;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -161,9 +161,8 @@ public class MissingItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<MissingItem> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_VOLATILE_MISSING, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.VOLATILE_MISSING) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -172,6 +171,7 @@ public class MissingItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getStockVolatile(),
               uuid,
@@ -189,7 +189,12 @@ public class MissingItem implements Parcelable {
                       }.getType()
                   );
                   if (dlHelper.debug) {
-                    Log.i(dlHelper.tag, "download Volatile (only missing): missing = " + missingItems);
+                    DebugLog.list(
+                        DebugLog.SYNC,
+                        dlHelper.tag,
+                        "download Volatile (only missing)",
+                        missingItems
+                    );
                   }
 
                 } catch (JSONException e) {
@@ -198,14 +203,21 @@ public class MissingItem implements Parcelable {
                   }
                 }
                 ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao()
-                      .insertMissingItems(finalMissingItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.VOLATILE_MISSING, response, contentHash -> {
+                      dlHelper.appDatabase.missingItemDao()
+                          .deleteMissingItems().blockingSubscribe();
+                      dlHelper.appDatabase.missingItemDao()
+                          .insertMissingItems(finalMissingItems).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.VOLATILE_MISSING,
+                          dbChangedTime,
+                          finalMissingItems.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -223,6 +235,7 @@ public class MissingItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.VOLATILE_MISSING, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
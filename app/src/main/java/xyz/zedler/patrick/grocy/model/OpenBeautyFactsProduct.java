@@ -44,6 +44,12 @@ public class OpenBeautyFactsProduct {
   @SerializedName("product_name")
   private String productName;
 
+  @SerializedName("brands")
+  private String brands;
+
+  @SerializedName("quantity")
+  private String quantity;
+
   public void setProductJson(JSONObject productJson) {
     this.productJson = productJson;
   }
@@ -64,6 +70,14 @@ public class OpenBeautyFactsProduct {
     this.productName = productName;
   }
 
+  public String getBrands() {
+    return brands;
+  }
+
+  public String getQuantity() {
+    return quantity;
+  }
+
   public String getLocalizedProductName(Application application) {
     String language = application.getResources().getConfiguration().locale.getLanguage();
     String country = application.getResources().getConfiguration().locale.getCountry();
@@ -44,6 +44,12 @@ public class OpenFoodFactsProduct {
   @SerializedName("product_name")
   private String productName;
 
+  @SerializedName("brands")
+  private String brands;
+
+  @SerializedName("quantity")
+  private String quantity;
+
   @Nullable
   @SerializedName("nutriments")
   private OpenFoodFactsNutriments nutriments;
@@ -68,6 +74,14 @@ public class OpenFoodFactsProduct {
     this.productName = productName;
   }
 
+  public String getBrands() {
+    return brands;
+  }
+
+  public String getQuantity() {
+    return quantity;
+  }
+
   public String getLocalizedProductName(Application application) {
     String language = application.getResources().getConfiguration().locale.getLanguage();
     String country = application.getResources().getConfiguration().locale.getCountry();
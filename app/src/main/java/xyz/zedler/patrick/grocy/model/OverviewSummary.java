@@ -0,0 +1,341 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import java.util.Objects;
+
+/**
+ * Counts which are displayed on the overview page, stored as single row after each sync and
+ * each time the overview is computed from the full tables. The overview reads only this row
+ * for its first frame and computes the counts again afterwards.
+ * Chores are counted relative to the day of the summary, so it is only valid on that day.
+ */
+@Entity(tableName = "overview_summary_table")
+public class OverviewSummary {
+
+  public final static int ID = 0;
+
+  @PrimaryKey
+  @ColumnInfo(name = "id")
+  private int id = ID;
+
+  @ColumnInfo(name = "day")
+  private String day;
+
+  @ColumnInfo(name = "current_user_id")
+  private int currentUserId;
+
+  @ColumnInfo(name = "stock_count")
+  private int stockCount;
+
+  @ColumnInfo(name = "stock_value")
+  private double stockValue;
+
+  @ColumnInfo(name = "due_soon_count")
+  private int dueSoonCount;
+
+  @ColumnInfo(name = "overdue_count")
+  private int overdueCount;
+
+  @ColumnInfo(name = "expired_count")
+  private int expiredCount;
+
+  @ColumnInfo(name = "missing_count")
+  private int missingCount;
+
+  @ColumnInfo(name = "missing_on_shopping_list_count")
+  private int missingOnShoppingListCount;
+
+  @ColumnInfo(name = "shopping_list_items_count")
+  private int shoppingListItemsCount;
+
+  @ColumnInfo(name = "shopping_lists_count")
+  private int shoppingListsCount;
+
+  @ColumnInfo(name = "products_count")
+  private int productsCount;
+
+  @ColumnInfo(name = "recipes_count")
+  private int recipesCount;
+
+  @ColumnInfo(name = "tasks_undone_count")
+  private int tasksUndoneCount;
+
+  @ColumnInfo(name = "tasks_assigned_count")
+  private int tasksAssignedCount;
+
+  @ColumnInfo(name = "chores_due_today_count")
+  private int choresDueTodayCount;
+
+  @ColumnInfo(name = "chores_due_soon_count")
+  private int choresDueSoonCount;
+
+  @ColumnInfo(name = "chores_overdue_count")
+  private int choresOverdueCount;
+
+  @ColumnInfo(name = "chores_assigned_count")
+  private int choresAssignedCount;
+
+  @ColumnInfo(name = "has_stored_purchases")
+  private boolean hasStoredPurchases;
+
+  public OverviewSummary() {
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public void setId(int id) {
+    this.id = id;
+  }
+
+  public String getDay() {
+    return day;
+  }
+
+  public void setDay(String day) {
+    this.day = day;
+  }
+
+  public int getCurrentUserId() {
+    return currentUserId;
+  }
+
+  public void setCurrentUserId(int currentUserId) {
+    this.currentUserId = currentUserId;
+  }
+
+  public int getStockCount() {
+    return stockCount;
+  }
+
+  public void setStockCount(int stockCount) {
+    this.stockCount = stockCount;
+  }
+
+  public double getStockValue() {
+    return stockValue;
+  }
+
+  public void setStockValue(double stockValue) {
+    this.stockValue = stockValue;
+  }
+
+  public int getDueSoonCount() {
+    return dueSoonCount;
+  }
+
+  public void setDueSoonCount(int dueSoonCount) {
+    this.dueSoonCount = dueSoonCount;
+  }
+
+  public int getOverdueCount() {
+    return overdueCount;
+  }
+
+  public void setOverdueCount(int overdueCount) {
+    this.overdueCount = overdueCount;
+  }
+
+  public int getExpiredCount() {
+    return expiredCount;
+  }
+
+  public void setExpiredCount(int expiredCount) {
+    this.expiredCount = expiredCount;
+  }
+
+  public int getMissingCount() {
+    return missingCount;
+  }
+
+  public void setMissingCount(int missingCount) {
+    this.missingCount = missingCount;
+  }
+
+  public int getMissingOnShoppingListCount() {
+    return missingOnShoppingListCount;
+  }
+
+  public void setMissingOnShoppingListCount(int missingOnShoppingListCount) {
+    this.missingOnShoppingListCount = missingOnShoppingListCount;
+  }
+
+  public int getShoppingListItemsCount() {
+    return shoppingListItemsCount;
+  }
+
+  public void setShoppingListItemsCount(int shoppingListItemsCount) {
+    this.shoppingListItemsCount = shoppingListItemsCount;
+  }
+
+  public int getShoppingListsCount() {
+    return shoppingListsCount;
+  }
+
+  public void setShoppingListsCount(int shoppingListsCount) {
+    this.shoppingListsCount = shoppingListsCount;
+  }
+
+  public int getProductsCount() {
+    return productsCount;
+  }
+
+  public void setProductsCount(int productsCount) {
+    this.productsCount = productsCount;
+  }
+
+  public int getRecipesCount() {
+    return recipesCount;
+  }
+
+  public void setRecipesCount(int recipesCount) {
+    this.recipesCount = recipesCount;
+  }
+
+  public int getTasksUndoneCount() {
+    return tasksUndoneCount;
+  }
+
+  public void setTasksUndoneCount(int tasksUndoneCount) {
+    this.tasksUndoneCount = tasksUndoneCount;
+  }
+
+  public int getTasksAssignedCount() {
+    return tasksAssignedCount;
+  }
+
+  public void setTasksAssignedCount(int tasksAssignedCount) {
+    this.tasksAssignedCount = tasksAssignedCount;
+  }
+
+  public int getChoresDueTodayCount() {
+    return choresDueTodayCount;
+  }
+
+  public void setChoresDueTodayCount(int choresDueTodayCount) {
+    this.choresDueTodayCount = choresDueTodayCount;
+  }
+
+  public int getChoresDueSoonCount() {
+    return choresDueSoonCount;
+  }
+
+  public void setChoresDueSoonCount(int choresDueSoonCount) {
+    this.choresDueSoonCount = choresDueSoonCount;
+  }
+
+  public int getChoresOverdueCount() {
+    return choresOverdueCount;
+  }
+
+  public void setChoresOverdueCount(int choresOverdueCount) {
+    this.choresOverdueCount = choresOverdueCount;
+  }
+
+  public int getChoresAssignedCount() {
+    return choresAssignedCount;
+  }
+
+  public void setChoresAssignedCount(int choresAssignedCount) {
+    this.choresAssignedCount = choresAssignedCount;
+  }
+
+  public boolean getHasStoredPurchases() {
+    return hasStoredPurchases;
+  }
+
+  public void setHasStoredPurchases(boolean hasStoredPurchases) {
+    this.hasStoredPurchases = hasStoredPurchases;
+  }
+
+  public boolean isValidToday(String today) {
+    return day != null && day.equals(today);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OverviewSummary that = (OverviewSummary) o;
+    return currentUserId == that.currentUserId
+        && Objects.equals(day, that.day)
+        && stockCount == that.stockCount
+        && Double.compare(that.stockValue, stockValue) == 0
+        && dueSoonCount == that.dueSoonCount
+        && overdueCount == that.overdueCount
+        && expiredCount == that.expiredCount
+        && missingCount == that.missingCount
+        && missingOnShoppingListCount == that.missingOnShoppingListCount
+        && shoppingListItemsCount == that.shoppingListItemsCount
+        && shoppingListsCount == that.shoppingListsCount
+        && productsCount == that.productsCount
+        && recipesCount == that.recipesCount
+        && tasksUndoneCount == that.tasksUndoneCount
+        && tasksAssignedCount == that.tasksAssignedCount
+        && choresDueTodayCount == that.choresDueTodayCount
+        && choresDueSoonCount == that.choresDueSoonCount
+        && choresOverdueCount == that.choresOverdueCount
+        && choresAssignedCount == that.choresAssignedCount
+        && hasStoredPurchases == that.hasStoredPurchases;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        day,
+        currentUserId,
+        stockCount,
+        stockValue,
+        dueSoonCount,
+        overdueCount,
+        expiredCount,
+        missingCount,
+        missingOnShoppingListCount,
+        shoppingListItemsCount,
+        shoppingListsCount,
+        productsCount,
+        recipesCount,
+        tasksUndoneCount,
+        tasksAssignedCount,
+        choresDueTodayCount,
+        choresDueSoonCount,
+        choresOverdueCount,
+        choresAssignedCount,
+        hasStoredPurchases
+    );
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "OverviewSummary(" + day + ", " + stockCount + " in stock)";
+  }
+}
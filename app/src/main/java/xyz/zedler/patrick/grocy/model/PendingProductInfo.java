@@ -25,15 +25,25 @@ import androidx.annotation.NonNull;
 public class PendingProductInfo extends GroupedListItem {
 
     private final Product product;
+    private final boolean batchPurchases;
 
     public PendingProductInfo(Product product) {
+        this(product, false);
+    }
+
+    public PendingProductInfo(Product product, boolean batchPurchases) {
         this.product = product;
+        this.batchPurchases = batchPurchases;
     }
 
     public Product getProduct() {
         return product;
     }
 
+    public boolean isBatchPurchases() {
+        return batchPurchases;
+    }
+
     @NonNull
     @Override
     public String toString() {
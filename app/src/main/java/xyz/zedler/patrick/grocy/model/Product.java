@@ -24,6 +24,7 @@ import android.annotation.SuppressLint;
 import android.content.SharedPreferences;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -44,7 +45,6 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
@@ -54,6 +54,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
@@ -1108,9 +1109,7 @@ public class Product extends GroupedListItem implements Parcelable {
       OnObjectsResponseListener<Product> onResponseListener,
       boolean alsoRespondIfNotUpdated
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_PRODUCTS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.PRODUCTS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -1119,6 +1118,7 @@ public class Product extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCTS),
               uuid,
@@ -1127,17 +1127,25 @@ public class Product extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<Product> products = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Products: " + products);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Products", products);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productDao()
-                      .deleteProducts().blockingSubscribe();
-                  dlHelper.appDatabase.productDao()
-                      .insertProducts(products).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.PRODUCTS, response, contentHash -> {
+                      dlHelper.appDatabase.productDao()
+                          .deleteProducts().blockingSubscribe();
+                      dlHelper.appDatabase.productDao()
+                          .insertProducts(products).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.PRODUCTS, dbChangedTime, products.size(), contentHash, startTime
+                      );
+                      if (!VersionUtil.isGrocyServerMin400(dlHelper.sharedPrefs)) {
+                        // conversions are resolved locally with the stock and purchase units
+                        // of the products, see QuantityUnitConversionResolved
+                        dlHelper.appDatabase.syncStateDao()
+                            .invalidateSyncStates(SyncState.QUANTITY_UNIT_CONVERSIONS_RESOLVED);
+                      }
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -1155,6 +1163,7 @@ public class Product extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.PRODUCTS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
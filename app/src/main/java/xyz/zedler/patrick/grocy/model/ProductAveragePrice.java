@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,12 +40,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "product_average_price_table")
@@ -139,9 +140,8 @@ public class ProductAveragePrice implements Parcelable {
       OnObjectsResponseListener<ProductAveragePrice> onResponseListener,
       boolean isOptional
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.PRODUCTS_AVERAGE_PRICE) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -150,6 +150,7 @@ public class ProductAveragePrice implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.PRODUCTS_AVERAGE_PRICE),
               uuid,
@@ -158,17 +159,28 @@ public class ProductAveragePrice implements Parcelable {
                 }.getType();
                 ArrayList<ProductAveragePrice> productsAveragePrice = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductsAveragePrice: " + productsAveragePrice);
+                  DebugLog.list(
+                      DebugLog.SYNC,
+                      dlHelper.tag,
+                      "download ProductsAveragePrice",
+                      productsAveragePrice
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productAveragePriceDao()
-                      .deleteProductsAveragePrice().blockingSubscribe();
-                  dlHelper.appDatabase.productAveragePriceDao()
-                      .insertProductsAveragePrice(productsAveragePrice).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.PRODUCTS_AVERAGE_PRICE, response, contentHash -> {
+                      dlHelper.appDatabase.productAveragePriceDao()
+                          .deleteProductsAveragePrice().blockingSubscribe();
+                      dlHelper.appDatabase.productAveragePriceDao()
+                          .insertProductsAveragePrice(productsAveragePrice).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.PRODUCTS_AVERAGE_PRICE,
+                          dbChangedTime,
+                          productsAveragePrice.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -186,6 +198,7 @@ public class ProductAveragePrice implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.PRODUCTS_AVERAGE_PRICE, startTime, error);
                 if (isOptional) {
                   if (responseListener != null) {
                     responseListener.onResponse(null);
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,8 +42,6 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
@@ -50,6 +49,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -341,9 +341,8 @@ public class ProductBarcode implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ProductBarcode> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_PRODUCT_BARCODES, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.PRODUCT_BARCODES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -352,6 +351,7 @@ public class ProductBarcode implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_BARCODES),
               uuid,
@@ -361,17 +361,23 @@ public class ProductBarcode implements Parcelable {
                 ArrayList<ProductBarcode> barcodes
                     = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Barcodes: " + barcodes);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Barcodes", barcodes);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productBarcodeDao()
-                      .deleteProductBarcodes().blockingSubscribe();
-                  dlHelper.appDatabase.productBarcodeDao()
-                      .insertProductBarcodes(barcodes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCT_BARCODES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.PRODUCT_BARCODES, response, contentHash -> {
+                      dlHelper.appDatabase.productBarcodeDao()
+                          .deleteProductBarcodes().blockingSubscribe();
+                      dlHelper.appDatabase.productBarcodeDao()
+                          .insertProductBarcodes(barcodes).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.PRODUCT_BARCODES,
+                          dbChangedTime,
+                          barcodes.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -389,6 +395,7 @@ public class ProductBarcode implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.PRODUCT_BARCODES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -468,7 +475,7 @@ public class ProductBarcode implements Parcelable {
               ArrayList<ProductBarcode> barcodes
                   = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download filtered Barcodes: " + barcodes);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download filtered Barcodes", barcodes);
               }
               if (onResponseListener != null) {
                 ProductBarcode barcode = !barcodes.isEmpty()
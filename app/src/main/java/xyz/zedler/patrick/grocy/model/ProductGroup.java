@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -40,8 +41,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
@@ -49,6 +48,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "product_group_table")
@@ -216,7 +216,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
               }.getType();
               ArrayList<ProductGroup> productGroups = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download ProductGroups: " + productGroups);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download ProductGroups", productGroups);
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(productGroups);
@@ -245,9 +245,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ProductGroup> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_PRODUCT_GROUPS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.PRODUCT_GROUPS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -256,6 +254,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_GROUPS),
               uuid,
@@ -264,17 +263,25 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<ProductGroup> productGroups = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductGroups: " + productGroups);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download ProductGroups", productGroups
+                  );
                 }
-                Single.fromCallable(() -> {
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.PRODUCT_GROUPS, response, contentHash -> {
                       dlHelper.appDatabase.productGroupDao()
                           .deleteProductGroups().blockingSubscribe();
                       dlHelper.appDatabase.productGroupDao()
                           .insertProductGroups(productGroups).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_PRODUCT_GROUPS, dbChangedTime).apply();
+                      dlHelper.storeSyncState(
+                          SyncState.PRODUCT_GROUPS,
+                          dbChangedTime,
+                          productGroups.size(),
+                          contentHash,
+                          startTime
+                      );
                       return true;
-                    })
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -292,6 +299,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.PRODUCT_GROUPS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
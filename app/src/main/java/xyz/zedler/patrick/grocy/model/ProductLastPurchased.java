@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,12 +40,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "product_last_purchased_table")
@@ -205,9 +206,8 @@ public class ProductLastPurchased implements Parcelable {
       OnObjectsResponseListener<ProductLastPurchased> onResponseListener,
       boolean isOptional
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.PRODUCTS_LAST_PURCHASED) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -216,6 +216,7 @@ public class ProductLastPurchased implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.PRODUCTS_LAST_PURCHASED),
               uuid,
@@ -224,17 +225,28 @@ public class ProductLastPurchased implements Parcelable {
                 }.getType();
                 ArrayList<ProductLastPurchased> productsLastPurchased = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductsLastPurchased: " + productsLastPurchased);
+                  DebugLog.list(
+                      DebugLog.SYNC,
+                      dlHelper.tag,
+                      "download ProductsLastPurchased",
+                      productsLastPurchased
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productLastPurchasedDao()
-                      .deleteProductsLastPurchased().blockingSubscribe();
-                  dlHelper.appDatabase.productLastPurchasedDao()
-                      .insertProductsLastPurchased(productsLastPurchased).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.PRODUCTS_LAST_PURCHASED, response, contentHash -> {
+                      dlHelper.appDatabase.productLastPurchasedDao()
+                          .deleteProductsLastPurchased().blockingSubscribe();
+                      dlHelper.appDatabase.productLastPurchasedDao()
+                          .insertProductsLastPurchased(productsLastPurchased).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.PRODUCTS_LAST_PURCHASED,
+                          dbChangedTime,
+                          productsLastPurchased.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -252,6 +264,7 @@ public class ProductLastPurchased implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.PRODUCTS_LAST_PURCHASED, startTime, error);
                 if (isOptional) {
                   if (responseListener != null) {
                     responseListener.onResponse(null);
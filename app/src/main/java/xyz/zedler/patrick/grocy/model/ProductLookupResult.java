@@ -0,0 +1,127 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Product info for a barcode from the offline index or an online lookup. Online lookups are
+ * stored with their time, also if the barcode was not found, so they can be used again until
+ * they expire.
+ */
+@Entity(tableName = "product_lookup_table")
+public class ProductLookupResult {
+
+  public final static int SOURCE_NONE = -1;
+  public final static int SOURCE_OFFLINE = 0;
+  public final static int SOURCE_OPEN_FOOD_FACTS = 1;
+  public final static int SOURCE_OPEN_BEAUTY_FACTS = 2;
+
+  @PrimaryKey
+  @NonNull
+  @ColumnInfo(name = "barcode")
+  private final String barcode;
+
+  @ColumnInfo(name = "product_name")
+  private final String productName;
+
+  @ColumnInfo(name = "brand")
+  private final String brand;
+
+  @ColumnInfo(name = "quantity")
+  private final String quantity;
+
+  @ColumnInfo(name = "source")
+  private final int source;
+
+  @ColumnInfo(name = "lookup_time")
+  private final long lookupTime;
+
+  public ProductLookupResult(
+      @NonNull String barcode,
+      @Nullable String productName,
+      @Nullable String brand,
+      @Nullable String quantity,
+      int source,
+      long lookupTime
+  ) {
+    this.barcode = barcode;
+    this.productName = productName;
+    this.brand = brand;
+    this.quantity = quantity;
+    this.source = source;
+    this.lookupTime = lookupTime;
+  }
+
+  @Ignore
+  public ProductLookupResult(
+      @NonNull String barcode,
+      @Nullable String productName,
+      @Nullable String brand,
+      @Nullable String quantity,
+      int source
+  ) {
+    this(barcode, productName, brand, quantity, source, 0);
+  }
+
+  @NonNull
+  public String getBarcode() {
+    return barcode;
+  }
+
+  @Nullable
+  public String getProductName() {
+    return productName;
+  }
+
+  @Nullable
+  public String getBrand() {
+    return brand;
+  }
+
+  @Nullable
+  public String getQuantity() {
+    return quantity;
+  }
+
+  public int getSource() {
+    return source;
+  }
+
+  public long getLookupTime() {
+    return lookupTime;
+  }
+
+  public boolean hasProductName() {
+    return productName != null && !productName.trim().isEmpty();
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "ProductLookupResult(" + barcode + ", " + productName + ", " + source + ')';
+  }
+}
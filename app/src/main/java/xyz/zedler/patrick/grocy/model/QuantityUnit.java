@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -40,8 +41,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
@@ -49,6 +48,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "quantity_unit_table")
@@ -263,7 +263,7 @@ public class QuantityUnit implements Parcelable {
               }.getType();
               ArrayList<QuantityUnit> quantityUnits = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download QuantityUnits", quantityUnits);
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(quantityUnits);
@@ -292,9 +292,7 @@ public class QuantityUnit implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<QuantityUnit> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_QUANTITY_UNITS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.QUANTITY_UNITS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -303,6 +301,7 @@ public class QuantityUnit implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.QUANTITY_UNITS),
               uuid,
@@ -311,16 +310,25 @@ public class QuantityUnit implements Parcelable {
                 }.getType();
                 ArrayList<QuantityUnit> quantityUnits = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download QuantityUnits", quantityUnits
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.quantityUnitDao().deleteQuantityUnits().blockingSubscribe();
-                  dlHelper.appDatabase.quantityUnitDao()
-                      .insertQuantityUnits(quantityUnits).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_QUANTITY_UNITS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.QUANTITY_UNITS, response, contentHash -> {
+                      dlHelper.appDatabase.quantityUnitDao()
+                          .deleteQuantityUnits().blockingSubscribe();
+                      dlHelper.appDatabase.quantityUnitDao()
+                          .insertQuantityUnits(quantityUnits).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.QUANTITY_UNITS,
+                          dbChangedTime,
+                          quantityUnits.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -338,6 +346,7 @@ public class QuantityUnit implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.QUANTITY_UNITS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
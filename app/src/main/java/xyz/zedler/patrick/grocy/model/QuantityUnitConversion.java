@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,13 +42,12 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -271,9 +271,8 @@ public class QuantityUnitConversion implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<QuantityUnitConversion> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.QUANTITY_UNIT_CONVERSIONS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -282,6 +281,7 @@ public class QuantityUnitConversion implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.QUANTITY_UNIT_CONVERSIONS),
               uuid,
@@ -291,18 +291,25 @@ public class QuantityUnitConversion implements Parcelable {
                 List<QuantityUnitConversion> conversions
                     = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download QuantityUnitConversions: "
-                      + conversions);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download QuantityUnitConversions", conversions
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.quantityUnitConversionDao()
-                      .deleteConversions().blockingSubscribe();
-                  dlHelper.appDatabase.quantityUnitConversionDao()
-                      .insertConversions(conversions).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.QUANTITY_UNIT_CONVERSIONS, response, contentHash -> {
+                      dlHelper.appDatabase.quantityUnitConversionDao()
+                          .deleteConversions().blockingSubscribe();
+                      dlHelper.appDatabase.quantityUnitConversionDao()
+                          .insertConversions(conversions).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.QUANTITY_UNIT_CONVERSIONS,
+                          dbChangedTime,
+                          conversions.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -320,6 +327,7 @@ public class QuantityUnitConversion implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.QUANTITY_UNIT_CONVERSIONS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -21,6 +21,7 @@
 package xyz.zedler.patrick.grocy.model;
 
 import android.annotation.SuppressLint;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
@@ -31,12 +32,14 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionResolver;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -72,6 +75,35 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
     return null;
   }
 
+  /**
+   * Resolved conversions for servers below 4.0, transitive like the ones of newer servers. The
+   * simple conversions of products which are not in the database yet and all standard conversions
+   * are appended unresolved, so the lookup without resolved conversions in
+   * QuantityUnitConversionUtil still finds them.
+   */
+  public static List<QuantityUnitConversionResolved> getConversionsResolvedLocally(
+      List<QuantityUnitConversionResolved> conversions,
+      List<Product> products
+  ) {
+    QuantityUnitConversionResolver resolver = new QuantityUnitConversionResolver(
+        conversions, products, true
+    );
+    List<QuantityUnitConversionResolved> conversionsResolved = resolver.getConversionsResolved();
+    int id = conversionsResolved.size();
+    for (QuantityUnitConversionResolved conversion : conversions) {
+      if (NumUtil.isStringInt(conversion.getProductId())
+          && resolver.containsProduct(conversion.getProductIdInt())) {
+        continue;
+      }
+      QuantityUnitConversionResolved conversionResolved
+          = new QuantityUnitConversionResolved(conversion);
+      conversionResolved.setId(id);
+      conversionsResolved.add(conversionResolved);
+      id++;
+    }
+    return conversionsResolved;
+  }
+
   @SuppressLint("CheckResult")
   public static QueueItem updateQuantityUnitConversions(
       DownloadHelper dlHelper,
@@ -80,9 +112,8 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
       boolean ignore, // for replacement of products list to differentiate from other update methods
       OnObjectsResponseListener<QuantityUnitConversionResolved> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.QUANTITY_UNIT_CONVERSIONS_RESOLVED) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -92,11 +123,13 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
             @Nullable String uuid
         ) {
           boolean isServerVersion4 = VersionUtil.isGrocyServerMin400(dlHelper.sharedPrefs);
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(isServerVersion4
                   ? ENTITY.QUANTITY_UNIT_CONVERSIONS_RESOLVED : ENTITY.QUANTITY_UNIT_CONVERSIONS),
               uuid,
-              response -> Single.fromCallable(() -> {
+              response -> Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                  SyncState.QUANTITY_UNIT_CONVERSIONS_RESOLVED, response, contentHash -> {
                     Type type = new TypeToken<List<QuantityUnitConversionResolved>>() {
                     }.getType();
                     List<QuantityUnitConversionResolved> conversionsResolved;
@@ -104,8 +137,12 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                       List<QuantityUnitConversionResolved> conversionsResolvedNotForDb = dlHelper.gson
                           .fromJson(response, type);
                       if (dlHelper.debug) {
-                        Log.i(dlHelper.tag, "download QuantityUnitConversionsResolved: "
-                            + conversionsResolvedNotForDb);
+                        DebugLog.list(
+                            DebugLog.SYNC,
+                            dlHelper.tag,
+                            "download QuantityUnitConversionsResolved",
+                            conversionsResolvedNotForDb
+                        );
                       }
                       conversionsResolved = new ArrayList<>();
                       int id = 0;
@@ -116,22 +153,35 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                       }
                     } else {
                       // Below server version 4.0.0, transitive conversions are not
-                      // working and thus disallowed.
-                      conversionsResolved = dlHelper.gson
+                      // resolved by the server, so they are resolved here with the
+                      // products which are currently in the database.
+                      List<QuantityUnitConversionResolved> conversions = dlHelper.gson
                           .fromJson(response, type);
                       if (dlHelper.debug) {
-                        Log.i(dlHelper.tag, "download QuantityUnitConversions: "
-                            + conversionsResolved);
+                        DebugLog.list(
+                            DebugLog.SYNC,
+                            dlHelper.tag,
+                            "download QuantityUnitConversions",
+                            conversions
+                        );
                       }
+                      List<Product> products = dlHelper.appDatabase.productDao()
+                          .getProducts().blockingGet();
+                      conversionsResolved = getConversionsResolvedLocally(conversions, products);
                     }
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .deleteConversionsResolved().blockingSubscribe();
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .insertConversionsResolved(conversionsResolved).blockingSubscribe();
-                dlHelper.sharedPrefs.edit()
-                    .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED, dbChangedTime).apply();
-                return conversionsResolved;
-              })
+                    dlHelper.appDatabase.quantityUnitConversionResolvedDao()
+                        .deleteConversionsResolved().blockingSubscribe();
+                    dlHelper.appDatabase.quantityUnitConversionResolvedDao()
+                        .insertConversionsResolved(conversionsResolved).blockingSubscribe();
+                    dlHelper.storeSyncState(
+                        SyncState.QUANTITY_UNIT_CONVERSIONS_RESOLVED,
+                        dbChangedTime,
+                        conversionsResolved.size(),
+                        contentHash,
+                        startTime
+                    );
+                    return conversionsResolved;
+                  }))
                   .subscribeOn(Schedulers.io())
                   .observeOn(AndroidSchedulers.mainThread())
                   .subscribe(conversionsResolved -> {
@@ -147,6 +197,9 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                     }
                   }),
               error -> {
+                dlHelper.storeSyncError(
+                    SyncState.QUANTITY_UNIT_CONVERSIONS_RESOLVED, startTime, error
+                );
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -42,7 +43,6 @@ import java.util.Map;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
@@ -51,6 +51,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnJSONResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "recipe_table")
@@ -338,9 +339,7 @@ public class Recipe implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Recipe> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPES, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.RECIPES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -349,6 +348,7 @@ public class Recipe implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getRecipes(),
               uuid,
@@ -357,16 +357,18 @@ public class Recipe implements Parcelable {
                 }.getType();
                 ArrayList<Recipe> recipes = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Recipes: " + recipes);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Recipes", recipes);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeDao().deleteRecipes().blockingSubscribe();
-                  dlHelper.appDatabase.recipeDao()
-                      .insertRecipes(recipes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.RECIPES, response, contentHash -> {
+                      dlHelper.appDatabase.recipeDao().deleteRecipes().blockingSubscribe();
+                      dlHelper.appDatabase.recipeDao()
+                          .insertRecipes(recipes).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.RECIPES, dbChangedTime, recipes.size(), contentHash, startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -384,6 +386,7 @@ public class Recipe implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.RECIPES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
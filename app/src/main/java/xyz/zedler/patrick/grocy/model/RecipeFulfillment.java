@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,11 +42,11 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "recipe_fulfillment_table")
@@ -301,9 +302,8 @@ public class RecipeFulfillment implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<RecipeFulfillment> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.RECIPE_FULFILLMENTS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -312,6 +312,7 @@ public class RecipeFulfillment implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getRecipeFulfillments(),
               uuid,
@@ -320,17 +321,25 @@ public class RecipeFulfillment implements Parcelable {
                 }.getType();
                 ArrayList<RecipeFulfillment> recipeFulfillments = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipeFulfillments: " + recipeFulfillments);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download RecipeFulfillments", recipeFulfillments
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeFulfillmentDao()
-                      .deleteRecipeFulfillments().blockingSubscribe();
-                  dlHelper.appDatabase.recipeFulfillmentDao()
-                      .insertRecipeFulfillments(recipeFulfillments).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.RECIPE_FULFILLMENTS, response, contentHash -> {
+                      dlHelper.appDatabase.recipeFulfillmentDao()
+                          .deleteRecipeFulfillments().blockingSubscribe();
+                      dlHelper.appDatabase.recipeFulfillmentDao()
+                          .insertRecipeFulfillments(recipeFulfillments).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.RECIPE_FULFILLMENTS,
+                          dbChangedTime,
+                          recipeFulfillments.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -348,6 +357,7 @@ public class RecipeFulfillment implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.RECIPE_FULFILLMENTS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
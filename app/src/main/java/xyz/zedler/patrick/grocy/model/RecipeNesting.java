@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,11 +40,11 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "recipe_nesting_table")
@@ -169,9 +170,8 @@ public class RecipeNesting implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<RecipeNesting> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPE_NESTINGS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.RECIPE_NESTINGS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -180,6 +180,7 @@ public class RecipeNesting implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getRecipeNestings(),
               uuid,
@@ -188,17 +189,25 @@ public class RecipeNesting implements Parcelable {
                 }.getType();
                 ArrayList<RecipeNesting> recipeNestings = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipeNestings: " + recipeNestings);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download RecipeNestings", recipeNestings
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeNestingDao()
-                      .deleteRecipeNestings().blockingSubscribe();
-                  dlHelper.appDatabase.recipeNestingDao()
-                      .insertRecipeNestings(recipeNestings).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_NESTINGS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.RECIPE_NESTINGS, response, contentHash -> {
+                      dlHelper.appDatabase.recipeNestingDao()
+                          .deleteRecipeNestings().blockingSubscribe();
+                      dlHelper.appDatabase.recipeNestingDao()
+                          .insertRecipeNestings(recipeNestings).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.RECIPE_NESTINGS,
+                          dbChangedTime,
+                          recipeNestings.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -216,6 +225,7 @@ public class RecipeNesting implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.RECIPE_NESTINGS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -42,11 +43,11 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "recipe_pos_table")
@@ -347,9 +348,8 @@ public class RecipePosition implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<RecipePosition> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPE_POSITIONS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.RECIPE_POSITIONS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -358,6 +358,7 @@ public class RecipePosition implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getRecipePositions(),
               uuid,
@@ -366,7 +367,9 @@ public class RecipePosition implements Parcelable {
                 }.getType();
                 ArrayList<RecipePosition> recipePositions = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipePositions: " + recipePositions);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download RecipePositions", recipePositions
+                  );
                 }
                 // fix crash, amount can be NaN according to a user
                 for (int i = 0; i < recipePositions.size(); i++) {
@@ -375,15 +378,21 @@ public class RecipePosition implements Parcelable {
                     recipePos.setAmount(0);
                   }
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipePositionDao()
-                      .deleteRecipePositions().blockingSubscribe();
-                  dlHelper.appDatabase.recipePositionDao()
-                      .insertRecipePositions(recipePositions).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_POSITIONS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.RECIPE_POSITIONS, response, contentHash -> {
+                      dlHelper.appDatabase.recipePositionDao()
+                          .deleteRecipePositions().blockingSubscribe();
+                      dlHelper.appDatabase.recipePositionDao()
+                          .insertRecipePositions(recipePositions).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.RECIPE_POSITIONS,
+                          dbChangedTime,
+                          recipePositions.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -401,6 +410,7 @@ public class RecipePosition implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.RECIPE_POSITIONS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
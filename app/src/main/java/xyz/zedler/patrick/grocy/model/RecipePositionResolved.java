@@ -21,6 +21,7 @@
 package xyz.zedler.patrick.grocy.model;
 
 import android.annotation.SuppressLint;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -38,11 +39,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "recipe_pos_resolved_table")
@@ -431,9 +432,8 @@ public class RecipePositionResolved extends GroupedListItem {
       boolean forceUpdate,
       OnObjectsResponseListener<RecipePositionResolved> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.RECIPE_POSITIONS_RESOLVED) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -442,6 +442,7 @@ public class RecipePositionResolved extends GroupedListItem {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getRecipePositionsResolved(),
               uuid,
@@ -451,8 +452,12 @@ public class RecipePositionResolved extends GroupedListItem {
                 ArrayList<RecipePositionResolved> recipePositionsResolved = dlHelper.gson
                     .fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipePositionResolved: "
-                      + recipePositionsResolved);
+                  DebugLog.list(
+                      DebugLog.SYNC,
+                      dlHelper.tag,
+                      "download RecipePositionResolved",
+                      recipePositionsResolved
+                  );
                 }
                 // fix crash, amount can be NaN according to a user
                 for (int i = 0; i < recipePositionsResolved.size(); i++) {
@@ -465,17 +470,22 @@ public class RecipePositionResolved extends GroupedListItem {
                     recipePos.setStockAmount(0);
                   }
                 }
-                Single.fromCallable(() -> {
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.RECIPE_POSITIONS_RESOLVED, response, contentHash -> {
                       dlHelper.appDatabase.recipePositionResolvedDao()
                           .deleteRecipePositionsResolved().blockingSubscribe();
                       dlHelper.appDatabase.recipePositionResolvedDao()
                           .insertRecipePositionsResolved(recipePositionsResolved)
                           .blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED, dbChangedTime)
-                          .apply();
+                      dlHelper.storeSyncState(
+                          SyncState.RECIPE_POSITIONS_RESOLVED,
+                          dbChangedTime,
+                          recipePositionsResolved.size(),
+                          contentHash,
+                          startTime
+                      );
                       return true;
-                    })
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -493,6 +503,7 @@ public class RecipePositionResolved extends GroupedListItem {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.RECIPE_POSITIONS_RESOLVED, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
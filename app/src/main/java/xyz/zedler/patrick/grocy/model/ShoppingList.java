@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -37,14 +38,13 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "shopping_list_table")
@@ -151,7 +151,7 @@ public class ShoppingList implements Parcelable {
               }.getType();
               ArrayList<ShoppingList> shoppingLists = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download ShoppingLists", shoppingLists);
               }
               onResponseListener.onResponse(shoppingLists);
               if (responseListener != null) {
@@ -178,9 +178,7 @@ public class ShoppingList implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ShoppingList> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_SHOPPING_LISTS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.SHOPPING_LISTS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -189,6 +187,7 @@ public class ShoppingList implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LISTS),
               uuid,
@@ -197,17 +196,25 @@ public class ShoppingList implements Parcelable {
                 }.getType();
                 ArrayList<ShoppingList> shoppingLists = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download ShoppingLists", shoppingLists
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.shoppingListDao()
-                      .deleteShoppingLists().blockingSubscribe();
-                  dlHelper.appDatabase.shoppingListDao()
-                      .insertShoppingLists(shoppingLists).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_SHOPPING_LISTS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.SHOPPING_LISTS, response, contentHash -> {
+                      dlHelper.appDatabase.shoppingListDao()
+                          .deleteShoppingLists().blockingSubscribe();
+                      dlHelper.appDatabase.shoppingListDao()
+                          .insertShoppingLists(shoppingLists).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.SHOPPING_LISTS,
+                          dbChangedTime,
+                          shoppingLists.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -225,6 +232,7 @@ public class ShoppingList implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.SHOPPING_LISTS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,8 +42,6 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
@@ -50,6 +49,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnJSONResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -361,9 +361,8 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ShoppingListItem> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.SHOPPING_LIST_ITEMS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -372,6 +371,7 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
               uuid,
@@ -380,17 +380,25 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<ShoppingListItem> shoppingListItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download ShoppingListItems", shoppingListItems
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.shoppingListItemDao()
-                      .deleteShoppingListItems().blockingSubscribe();
-                  dlHelper.appDatabase.shoppingListItemDao()
-                      .insertShoppingListItems(shoppingListItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.SHOPPING_LIST_ITEMS, response, contentHash -> {
+                      dlHelper.appDatabase.shoppingListItemDao()
+                          .deleteShoppingListItems().blockingSubscribe();
+                      dlHelper.appDatabase.shoppingListItemDao()
+                          .insertShoppingListItems(shoppingListItems).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.SHOPPING_LIST_ITEMS,
+                          dbChangedTime,
+                          shoppingListItems.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -408,6 +416,7 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.SHOPPING_LIST_ITEMS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -429,9 +438,8 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<ShoppingListItem> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.SHOPPING_LIST_ITEMS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -440,6 +448,7 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
               uuid,
@@ -448,7 +457,9 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<ShoppingListItem> shoppingListItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download ShoppingListItems", shoppingListItems
+                  );
                 }
 
                 dlHelper.appDatabase.shoppingListItemDao().getShoppingListItems()
@@ -469,10 +480,19 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                       }
                     })
                     .flatMap(completeItems -> {
-                      dlHelper.appDatabase.shoppingListItemDao().deleteAll();
-                      dlHelper.appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
+                      dlHelper.runInSyncTransaction(
+                          SyncState.SHOPPING_LIST_ITEMS, response, contentHash -> {
+                            dlHelper.appDatabase.shoppingListItemDao().deleteAll();
+                            dlHelper.appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
+                            dlHelper.storeSyncState(
+                                SyncState.SHOPPING_LIST_ITEMS,
+                                dbChangedTime,
+                                shoppingListItems.size(),
+                                contentHash,
+                                startTime
+                            );
+                            return true;
+                          });
                       return Single.just(shoppingListItems);
                     })
                     .subscribeOn(Schedulers.io())
@@ -495,6 +515,7 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
 
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.SHOPPING_LIST_ITEMS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,13 +40,13 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -328,9 +329,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<StockEntry> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_STOCK_ENTRIES, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.STOCK_ENTRIES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -339,6 +338,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.STOCK_ENTRIES),
               uuid,
@@ -347,16 +347,22 @@ public class StockEntry extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<StockEntry> stockEntries = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "dowload StockEntries: " + stockEntries);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download StockEntries", stockEntries);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockEntryDao().deleteStockEntries().blockingSubscribe();
-                  dlHelper.appDatabase.stockEntryDao()
-                      .insertStockEntries(stockEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ENTRIES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.STOCK_ENTRIES, response, contentHash -> {
+                      dlHelper.appDatabase.stockEntryDao().deleteStockEntries().blockingSubscribe();
+                      dlHelper.appDatabase.stockEntryDao()
+                          .insertStockEntries(stockEntries).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.STOCK_ENTRIES,
+                          dbChangedTime,
+                          stockEntries.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -374,6 +380,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.STOCK_ENTRIES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -410,7 +417,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
               }.getType();
               ArrayList<StockEntry> stockEntries = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockEntries: " + stockEntries);
+                DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download StockEntries", stockEntries);
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockEntries);
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,12 +40,11 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -391,9 +391,7 @@ public class StockItem extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<StockItem> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_STOCK_ITEMS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.STOCK_ITEMS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -402,6 +400,7 @@ public class StockItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getStock(),
               uuid,
@@ -410,16 +409,22 @@ public class StockItem extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<StockItem> stockItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download StockItems: " + stockItems);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download StockItems", stockItems);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockItemDao().deleteStockItems().blockingSubscribe();
-                  dlHelper.appDatabase.stockItemDao()
-                      .insertStockItems(stockItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ITEMS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.STOCK_ITEMS, response, contentHash -> {
+                      dlHelper.appDatabase.stockItemDao().deleteStockItems().blockingSubscribe();
+                      dlHelper.appDatabase.stockItemDao()
+                          .insertStockItems(stockItems).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.STOCK_ITEMS,
+                          dbChangedTime,
+                          stockItems.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -437,6 +442,7 @@ public class StockItem extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.STOCK_ITEMS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
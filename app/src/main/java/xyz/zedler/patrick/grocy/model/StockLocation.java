@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -37,14 +38,13 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -206,7 +206,9 @@ public class StockLocation implements Parcelable {
               }.getType();
               ArrayList<StockLocation> stockLocations = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockLocations: " + stockLocations);
+                DebugLog.list(
+                    DebugLog.SYNC, dlHelper.tag, "download StockLocations", stockLocations
+                );
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockLocations);
@@ -243,9 +245,8 @@ public class StockLocation implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<StockLocation> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_STOCK_LOCATIONS, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.STOCK_LOCATIONS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -254,6 +255,7 @@ public class StockLocation implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.STOCK_CURRENT_LOCATIONS),
               uuid,
@@ -262,17 +264,25 @@ public class StockLocation implements Parcelable {
                 }.getType();
                 ArrayList<StockLocation> locations = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download StockCurrentLocations: " + locations);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download StockCurrentLocations", locations
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockLocationDao()
-                      .deleteStockLocations().blockingSubscribe();
-                  dlHelper.appDatabase.stockLocationDao()
-                      .insertStockLocations(locations).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_LOCATIONS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.STOCK_LOCATIONS, response, contentHash -> {
+                      dlHelper.appDatabase.stockLocationDao()
+                          .deleteStockLocations().blockingSubscribe();
+                      dlHelper.appDatabase.stockLocationDao()
+                          .insertStockLocations(locations).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.STOCK_LOCATIONS,
+                          dbChangedTime,
+                          locations.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -290,6 +300,7 @@ public class StockLocation implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.STOCK_LOCATIONS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
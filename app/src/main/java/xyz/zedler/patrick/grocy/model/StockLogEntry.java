@@ -22,7 +22,6 @@ package xyz.zedler.patrick.grocy.model;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
@@ -35,6 +34,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -299,7 +299,9 @@ public class StockLogEntry implements Parcelable {
               }.getType();
               ArrayList<StockLogEntry> stockLogEntries = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockLogEntry: " + stockLogEntries);
+                DebugLog.list(
+                    DebugLog.SYNC, dlHelper.tag, "download StockLogEntry", stockLogEntries
+                );
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockLogEntries);
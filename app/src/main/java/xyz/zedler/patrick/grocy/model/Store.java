@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,13 +40,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "store_table")
@@ -180,9 +181,7 @@ public class Store implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Store> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_STORES, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.STORES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -191,6 +190,7 @@ public class Store implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.STORES),
               uuid,
@@ -199,35 +199,38 @@ public class Store implements Parcelable {
                 }.getType();
                 ArrayList<Store> stores = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Stores: " + stores);
-                }
-                Single.fromCallable(() -> {
-                      dlHelper.appDatabase.storeDao().deleteStores().blockingSubscribe();
-                      dlHelper.appDatabase.storeDao().insertStores(stores).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_STORES, dbChangedTime).apply();
-                      return true;
-                    })
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .doFinally(() -> {
-                      if (onResponseListener != null) {
-                        onResponseListener.onResponse(stores);
-                      }
-                      if (responseListener != null) {
-                        responseListener.onResponse(response);
-                      }
-                    })
-                    .subscribe(ignored -> {}, throwable -> {
-                      if (errorListener != null) {
-                        errorListener.onError(throwable);
-                      }
-                    });
-              },
-              error -> {
-                if (errorListener != null) {
-                  errorListener.onError(error);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Stores", stores);
                 }
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.STORES, response, contentHash -> {
+                          dlHelper.appDatabase.storeDao().deleteStores().blockingSubscribe();
+                          dlHelper.appDatabase.storeDao().insertStores(stores).blockingSubscribe();
+                          dlHelper.storeSyncState(
+                              SyncState.STORES, dbChangedTime, stores.size(), contentHash, startTime
+                          );
+                          return true;
+                        }))
+                        .subscribeOn(Schedulers.io())
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .doFinally(() -> {
+                          if (onResponseListener != null) {
+                            onResponseListener.onResponse(stores);
+                          }
+                          if (responseListener != null) {
+                            responseListener.onResponse(response);
+                          }
+                        })
+                        .subscribe(ignored -> {}, throwable -> {
+                          if (errorListener != null) {
+                            errorListener.onError(throwable);
+                          }
+                        });
+                  },
+                  error -> {
+                    dlHelper.storeSyncError(SyncState.STORES, startTime, error);
+                    if (errorListener != null) {
+                      errorListener.onError(error);
+                    }
               }
           );
         }
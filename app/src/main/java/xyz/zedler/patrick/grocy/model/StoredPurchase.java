@@ -20,11 +20,15 @@
 
 package xyz.zedler.patrick.grocy.model;
 
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import java.util.List;
+import org.json.JSONException;
+import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.util.NumUtil;
 
 @Entity(tableName = "stored_purchase_table")
 public class StoredPurchase extends GroupedListItem {
@@ -36,6 +40,10 @@ public class StoredPurchase extends GroupedListItem {
     @ColumnInfo(name = "pending_product_id")
     private int pendingProductId;
 
+    // only set for purchases queued in batch scan mode, 0 for purchases of pending products
+    @ColumnInfo(name = "product_id")
+    private int productId;
+
     @ColumnInfo(name = "amount")
     private String amount;
 
@@ -54,6 +62,14 @@ public class StoredPurchase extends GroupedListItem {
     @ColumnInfo(name = "location_id")
     private String locationId;
 
+    // batch purchase whose request timed out, it could be booked already and is therefore
+    // only sent again if no matching stock log entry newer than stockLogId is found
+    @ColumnInfo(name = "uncertain")
+    private boolean uncertain;
+
+    @ColumnInfo(name = "stock_log_id")
+    private int stockLogId;
+
     public StoredPurchase() {
     }
 
@@ -73,6 +89,18 @@ public class StoredPurchase extends GroupedListItem {
         this.pendingProductId = pendingProductId;
     }
 
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public boolean isBatchPurchase() {
+        return productId != 0;
+    }
+
     public String getAmount() {
         return amount;
     }
@@ -121,6 +149,22 @@ public class StoredPurchase extends GroupedListItem {
         this.locationId = locationId;
     }
 
+    public boolean isUncertain() {
+        return uncertain;
+    }
+
+    public void setUncertain(boolean uncertain) {
+        this.uncertain = uncertain;
+    }
+
+    public int getStockLogId() {
+        return stockLogId;
+    }
+
+    public void setStockLogId(int stockLogId) {
+        this.stockLogId = stockLogId;
+    }
+
     public static StoredPurchase getFromId(List<StoredPurchase> storedPurchases, int id) {
         for (StoredPurchase storedPurchase : storedPurchases) {
             if (storedPurchase.getId() == id) {
@@ -130,6 +174,35 @@ public class StoredPurchase extends GroupedListItem {
         return null;
     }
 
+    public static JSONObject getJsonFromStoredPurchase(
+        StoredPurchase storedPurchase,
+        boolean debug,
+        String TAG
+    ) {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("amount", storedPurchase.amount);
+            if (NumUtil.isStringDouble(storedPurchase.price)) {
+                json.put("price", storedPurchase.price);
+            }
+            if (storedPurchase.purchasedDate != null) {
+                json.put("purchased_date", storedPurchase.purchasedDate);
+            }
+            json.put("best_before_date", storedPurchase.bestBeforeDate);
+            if (NumUtil.isStringInt(storedPurchase.storeId)) {
+                json.put("shopping_location_id", storedPurchase.storeId);
+            }
+            if (NumUtil.isStringInt(storedPurchase.locationId)) {
+                json.put("location_id", storedPurchase.locationId);
+            }
+        } catch (JSONException e) {
+            if (debug) {
+                Log.e(TAG, "getJsonFromStoredPurchase: " + e);
+            }
+        }
+        return json;
+    }
+
     @NonNull
     @Override
     public String toString() {
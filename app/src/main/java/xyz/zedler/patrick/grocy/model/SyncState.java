@@ -0,0 +1,197 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Sync state of one table, stored in the database of the server it belongs to.
+ * The changed time is the database changed time of the server when the table was downloaded,
+ * so the table only has to be downloaded again if it differs. It is written in the same
+ * transaction as the table itself, the other fields are statistics for the debugging settings.
+ */
+@Entity(tableName = "sync_state_table")
+public class SyncState {
+
+  public final static String STOCK_ITEMS = "stock_items";
+  public final static String STOCK_ENTRIES = "stock_entries";
+  public final static String STORES = "stores";
+  public final static String LOCATIONS = "locations";
+  public final static String STOCK_LOCATIONS = "stock_locations";
+  public final static String SHOPPING_LIST_ITEMS = "shopping_list_items";
+  public final static String SHOPPING_LISTS = "shopping_lists";
+  public final static String PRODUCT_GROUPS = "product_groups";
+  public final static String QUANTITY_UNITS = "quantity_units";
+  public final static String QUANTITY_UNIT_CONVERSIONS = "quantity_unit_conversions";
+  public final static String QUANTITY_UNIT_CONVERSIONS_RESOLVED
+      = "quantity_unit_conversions_resolved";
+  public final static String PRODUCTS = "products";
+  public final static String PRODUCTS_LAST_PURCHASED = "products_last_purchased";
+  public final static String PRODUCTS_AVERAGE_PRICE = "products_average_price";
+  public final static String PRODUCT_BARCODES = "product_barcodes";
+  public final static String VOLATILE = "volatile";
+  public final static String VOLATILE_MISSING = "volatile_missing";
+  public final static String TASKS = "tasks";
+  public final static String TASK_CATEGORIES = "task_categories";
+  public final static String CHORES = "chores";
+  public final static String CHORE_ENTRIES = "chore_entries";
+  public final static String USERS = "users";
+  public final static String RECIPES = "recipes";
+  public final static String RECIPE_FULFILLMENTS = "recipe_fulfillments";
+  public final static String RECIPE_POSITIONS = "recipe_positions";
+  public final static String RECIPE_POSITIONS_RESOLVED = "recipe_positions_resolved";
+  public final static String RECIPE_NESTINGS = "recipe_nestings";
+  public final static String USERFIELDS = "userfields";
+  public final static String MEAL_PLAN_ENTRIES = "meal_plan_entries";
+  public final static String MEAL_PLAN_SECTIONS = "meal_plan_sections";
+
+  @PrimaryKey
+  @NonNull
+  @ColumnInfo(name = "entity")
+  private String entity;
+
+  @ColumnInfo(name = "changed_time")
+  private String changedTime;
+
+  @ColumnInfo(name = "row_count")
+  private int rowCount;
+
+  @ColumnInfo(name = "content_hash")
+  private long contentHash;
+
+  @ColumnInfo(name = "last_success_time")
+  private long lastSuccessTime;
+
+  @ColumnInfo(name = "last_success_duration")
+  private long lastSuccessDuration;
+
+  @ColumnInfo(name = "last_error")
+  private String lastError;
+
+  @ColumnInfo(name = "last_error_time")
+  private long lastErrorTime;
+
+  @ColumnInfo(name = "last_error_duration")
+  private long lastErrorDuration;
+
+  public SyncState(@NonNull String entity) {
+    this.entity = entity;
+  }
+
+  @NonNull
+  public String getEntity() {
+    return entity;
+  }
+
+  public void setEntity(@NonNull String entity) {
+    this.entity = entity;
+  }
+
+  @Nullable
+  public String getChangedTime() {
+    return changedTime;
+  }
+
+  public void setChangedTime(@Nullable String changedTime) {
+    this.changedTime = changedTime;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public void setRowCount(int rowCount) {
+    this.rowCount = rowCount;
+  }
+
+  public long getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(long contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public long getLastSuccessTime() {
+    return lastSuccessTime;
+  }
+
+  public void setLastSuccessTime(long lastSuccessTime) {
+    this.lastSuccessTime = lastSuccessTime;
+  }
+
+  public long getLastSuccessDuration() {
+    return lastSuccessDuration;
+  }
+
+  public void setLastSuccessDuration(long lastSuccessDuration) {
+    this.lastSuccessDuration = lastSuccessDuration;
+  }
+
+  @Nullable
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(@Nullable String lastError) {
+    this.lastError = lastError;
+  }
+
+  public long getLastErrorTime() {
+    return lastErrorTime;
+  }
+
+  public void setLastErrorTime(long lastErrorTime) {
+    this.lastErrorTime = lastErrorTime;
+  }
+
+  public long getLastErrorDuration() {
+    return lastErrorDuration;
+  }
+
+  public void setLastErrorDuration(long lastErrorDuration) {
+    this.lastErrorDuration = lastErrorDuration;
+  }
+
+  /**
+   * 64-bit FNV-1a hash of a downloaded response, to see in the statistics whether a download
+   * returned other content than the previous one.
+   */
+  public static long getContentHash(@Nullable String content) {
+    if (content == null) return 0;
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < content.length(); i++) {
+      hash ^= content.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "SyncState(" + entity + ", " + changedTime + ")";
+  }
+}
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,13 +42,12 @@ import java.util.List;
 import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -306,9 +306,7 @@ public class Task implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Task> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_TASKS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.TASKS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -317,6 +315,7 @@ public class Task implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.TASKS),
               uuid,
@@ -325,15 +324,17 @@ public class Task implements Parcelable {
                 }.getType();
                 ArrayList<Task> tasks = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Tasks: " + tasks);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Tasks", tasks);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.taskDao().deleteTasks().blockingSubscribe();
-                  dlHelper.appDatabase.taskDao().insertTasks(tasks).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASKS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.TASKS, response, contentHash -> {
+                      dlHelper.appDatabase.taskDao().deleteTasks().blockingSubscribe();
+                      dlHelper.appDatabase.taskDao().insertTasks(tasks).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.TASKS, dbChangedTime, tasks.size(), contentHash, startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -351,6 +352,7 @@ public class Task implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.TASKS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
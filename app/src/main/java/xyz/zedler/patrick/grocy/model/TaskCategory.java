@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -40,14 +41,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.Converters;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "task_category_table")
@@ -228,9 +228,8 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<TaskCategory> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_TASK_CATEGORIES, null
-    ) : null;
+    String lastTime = !forceUpdate
+        ? dlHelper.getSyncedChangedTime(SyncState.TASK_CATEGORIES) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -239,6 +238,7 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(ENTITY.TASK_CATEGORIES),
               uuid,
@@ -247,16 +247,24 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
                 }.getType();
                 ArrayList<TaskCategory> taskCategories = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Task categories: " + taskCategories);
+                  DebugLog.list(
+                      DebugLog.SYNC, dlHelper.tag, "download Task categories", taskCategories
+                  );
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.taskCategoryDao().deleteCategories().blockingSubscribe();
-                  dlHelper.appDatabase.taskCategoryDao()
-                      .insertCategories(taskCategories).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASK_CATEGORIES, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.TASK_CATEGORIES, response, contentHash -> {
+                      dlHelper.appDatabase.taskCategoryDao().deleteCategories().blockingSubscribe();
+                      dlHelper.appDatabase.taskCategoryDao()
+                          .insertCategories(taskCategories).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.TASK_CATEGORIES,
+                          dbChangedTime,
+                          taskCategories.size(),
+                          contentHash,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -274,6 +282,7 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.TASK_CATEGORIES, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
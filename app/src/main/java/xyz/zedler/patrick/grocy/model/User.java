@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,13 +40,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnIntegerResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "user_table")
@@ -227,9 +227,7 @@ public class User implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<User> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_USERS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.USERS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -238,6 +236,7 @@ public class User implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getUsers(),
               uuid,
@@ -246,15 +245,17 @@ public class User implements Parcelable {
                 }.getType();
                 ArrayList<User> users = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Users: " + users);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Users", users);
                 }
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.userDao().deleteUsers().blockingSubscribe();
-                  dlHelper.appDatabase.userDao().insertUsers(users).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_USERS, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.USERS, response, contentHash -> {
+                      dlHelper.appDatabase.userDao().deleteUsers().blockingSubscribe();
+                      dlHelper.appDatabase.userDao().insertUsers(users).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.USERS, dbChangedTime, users.size(), contentHash, startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -272,6 +273,7 @@ public class User implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.USERS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -25,6 +25,7 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -44,13 +45,13 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -343,9 +344,7 @@ public class Userfield implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<Userfield> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_USERFIELDS, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.USERFIELDS) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -354,6 +353,7 @@ public class Userfield implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.USERFIELDS),
               uuid,
@@ -362,15 +362,21 @@ public class Userfield implements Parcelable {
                 }.getType();
                 ArrayList<Userfield> userfields = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Userfields: " + userfields);
+                  DebugLog.list(DebugLog.SYNC, dlHelper.tag, "download Userfields", userfields);
                 }
-                Single.fromCallable(() -> {
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.USERFIELDS, response, contentHash -> {
                       dlHelper.appDatabase.userfieldDao().deleteUserfields().blockingSubscribe();
                       dlHelper.appDatabase.userfieldDao().insertStores(userfields).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_USERFIELDS, dbChangedTime).apply();
+                      dlHelper.storeSyncState(
+                          SyncState.USERFIELDS,
+                          dbChangedTime,
+                          userfields.size(),
+                          contentHash,
+                          startTime
+                      );
                       return true;
-                    })
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -388,6 +394,7 @@ public class Userfield implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.USERFIELDS, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
@@ -23,6 +23,7 @@ package xyz.zedler.patrick.grocy.model;
 import android.annotation.SuppressLint;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -40,11 +41,10 @@ import java.util.ArrayList;
 import java.util.List;
 import org.json.JSONException;
 import org.json.JSONObject;
-import xyz.zedler.patrick.grocy.Constants;
-import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 @Entity(tableName = "volatile_item_table")
@@ -143,9 +143,7 @@ public class VolatileItem implements Parcelable {
       boolean forceUpdate,
       OnVolatileResponseListener onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_VOLATILE, null
-    ) : null;
+    String lastTime = !forceUpdate ? dlHelper.getSyncedChangedTime(SyncState.VOLATILE) : null;
     if (lastTime == null || !lastTime.equals(dbChangedTime)) {
       return new QueueItem() {
         @Override
@@ -154,6 +152,7 @@ public class VolatileItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
+          long startTime = SystemClock.elapsedRealtime();
           dlHelper.get(
               dlHelper.grocyApi.getStockVolatile(),
               uuid,
@@ -188,9 +187,16 @@ public class VolatileItem implements Parcelable {
                       }.getType()
                   );
                   if (dlHelper.debug) {
-                    Log.i(dlHelper.tag, "updateVolatile:\ndue = " + dueItems + "\noverdue: "
-                        + overdueItems + "\nexpired: " + expiredItems + "\nmissing: "
-                        + missingItems);
+                    DebugLog.list(DebugLog.SYNC, dlHelper.tag, "updateVolatile: due", dueItems);
+                    DebugLog.list(
+                        DebugLog.SYNC, dlHelper.tag, "updateVolatile: overdue", overdueItems
+                    );
+                    DebugLog.list(
+                        DebugLog.SYNC, dlHelper.tag, "updateVolatile: expired", expiredItems
+                    );
+                    DebugLog.list(
+                        DebugLog.SYNC, dlHelper.tag, "updateVolatile: missing", missingItems
+                    );
                   }
                 } catch (JSONException e) {
                   if (dlHelper.debug) {
@@ -220,18 +226,32 @@ public class VolatileItem implements Parcelable {
                 ArrayList<StockItem> finalOverdueItems = overdueItems;
                 ArrayList<StockItem> finalExpiredItems = expiredItems;
                 ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.fromCallable(() -> {
-                  dlHelper.appDatabase.volatileItemDao().deleteVolatileItems().blockingSubscribe();
-                  dlHelper.appDatabase.volatileItemDao()
-                      .insertVolatileItems(volatileItemsTogether).blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao()
-                      .insertMissingItems(finalMissingItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE, dbChangedTime)
-                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
-                  return true;
-                })
+                Single.fromCallable(() -> dlHelper.runInSyncTransaction(
+                    SyncState.VOLATILE, response, contentHash -> {
+                      dlHelper.appDatabase.volatileItemDao()
+                          .deleteVolatileItems().blockingSubscribe();
+                      dlHelper.appDatabase.volatileItemDao()
+                          .insertVolatileItems(volatileItemsTogether).blockingSubscribe();
+                      dlHelper.appDatabase.missingItemDao()
+                          .deleteMissingItems().blockingSubscribe();
+                      dlHelper.appDatabase.missingItemDao()
+                          .insertMissingItems(finalMissingItems).blockingSubscribe();
+                      dlHelper.storeSyncState(
+                          SyncState.VOLATILE,
+                          dbChangedTime,
+                          volatileItemsTogether.size(),
+                          contentHash,
+                          startTime
+                      );
+                      dlHelper.storeSyncState(
+                          SyncState.VOLATILE_MISSING,
+                          dbChangedTime,
+                          finalMissingItems.size(),
+                          0,
+                          startTime
+                      );
+                      return true;
+                    }))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -250,6 +270,7 @@ public class VolatileItem implements Parcelable {
                     });
               },
               error -> {
+                dlHelper.storeSyncError(SyncState.VOLATILE, startTime, error);
                 if (errorListener != null) {
                   errorListener.onError(error);
                 }
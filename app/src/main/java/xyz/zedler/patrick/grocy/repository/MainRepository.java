@@ -21,9 +21,12 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.SyncState;
 
 public class MainRepository {
 
@@ -41,6 +44,19 @@ public class MainRepository {
         .subscribe();
   }
 
+  public void loadSyncStates(OnSyncStatesListener listener) {
+    appDatabase.syncStateDao().getSyncStates()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(listener::onSyncStates)
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public interface OnSyncStatesListener {
+    void onSyncStates(List<SyncState> syncStates);
+  }
+
   public interface OnVersionListener {
     void onVersion(int version);
   }
@@ -21,13 +21,17 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.annotation.Nullable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OverviewSummary;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
@@ -36,6 +40,9 @@ import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class OverviewStartRepository {
@@ -50,6 +57,10 @@ public class OverviewStartRepository {
     void actionFinished(OverviewStartData data);
   }
 
+  public interface SummaryListener {
+    void actionFinished(@Nullable OverviewSummary summary);
+  }
+
   public static class OverviewStartData {
 
     private final List<StockItem> stockItems;
@@ -150,4 +161,147 @@ public class OverviewStartRepository {
         .onErrorComplete()
         .subscribe();
   }
+
+  public void loadSummary(SummaryListener onSuccess, Consumer<Throwable> onError) {
+    appDatabase.overviewSummaryDao().getOverviewSummary()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(summaries -> onSuccess.actionFinished(
+            summaries.isEmpty() ? null : summaries.get(0)
+        ))
+        .doOnError(onError)
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public void storeSummary(OverviewSummary summary) {
+    appDatabase.overviewSummaryDao().insertOverviewSummary(summary)
+        .subscribeOn(Schedulers.io())
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  /**
+   * Computes the summary from the full tables and stores it, so the next start of the overview
+   * shows the state of the last sync, also if it was done by another page.
+   */
+  public void updateSummary(int currentUserId) {
+    loadFromDatabase(
+        data -> storeSummary(createSummary(data, currentUserId)),
+        throwable -> {}
+    );
+  }
+
+  /**
+   * Counts everything the overview shows, with the days of chores relative to today.
+   */
+  public static OverviewSummary createSummary(OverviewStartData data, int currentUserId) {
+    OverviewSummary summary = new OverviewSummary();
+    summary.setDay(DateUtil.getDateStringToday());
+    summary.setCurrentUserId(currentUserId);
+    summary.setShoppingListsCount(data.getShoppingLists().size());
+    summary.setShoppingListItemsCount(data.getShoppingListItems().size());
+    summary.setProductsCount(data.getProducts().size());
+    summary.setRecipesCount(ArrayUtil.getRecipesWithoutShadowRecipes(data.getRecipes()).size());
+    summary.setTasksUndoneCount(Task.getUndoneTasksCount(data.getTasks()));
+    summary.setTasksAssignedCount(Task.getAssignedTasksCount(
+        Task.getUndoneTasksOnly(data.getTasks()), currentUserId
+    ));
+
+    boolean hasStoredPurchases = false;
+    for (StoredPurchase storedPurchase : data.getStoredPurchases()) {
+      // purchases queued in batch scan mode are not listed on the stored purchases page
+      if (storedPurchase.isBatchPurchase()) continue;
+      hasStoredPurchases = true;
+      break;
+    }
+    summary.setHasStoredPurchases(hasStoredPurchases);
+
+    HashSet<Integer> shoppingListItemsProductIds = new HashSet<>();
+    for (ShoppingListItem item : data.getShoppingListItems()) {
+      if (!item.hasProduct()) {
+        continue;
+      }
+      shoppingListItemsProductIds.add(item.getProductIdInt());
+    }
+
+    int itemsDueCount = 0;
+    int itemsOverdueCount = 0;
+    int itemsExpiredCount = 0;
+    HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil
+        .getStockItemHashMap(data.getStockItems());
+    for (VolatileItem volatileItem : data.getVolatileItems()) {
+      if (!stockItemHashMap.containsKey(volatileItem.getProductId())) {
+        continue;
+      }
+      if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
+        itemsDueCount++;
+      } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
+        itemsOverdueCount++;
+      } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
+        itemsExpiredCount++;
+      }
+    }
+    summary.setDueSoonCount(itemsDueCount);
+    summary.setOverdueCount(itemsOverdueCount);
+    summary.setExpiredCount(itemsExpiredCount);
+
+    int missingItemsOnShoppingListCount = 0;
+    HashSet<Integer> missingProductIds = new HashSet<>();
+    for (MissingItem missingItem : data.getMissingItems()) {
+      if (!missingItem.getIsPartlyInStockBoolean()) {
+        missingProductIds.add(missingItem.getId());
+      }
+      if (shoppingListItemsProductIds.contains(missingItem.getId())) {
+        missingItemsOnShoppingListCount++;
+      }
+    }
+    summary.setMissingCount(data.getMissingItems().size());
+    summary.setMissingOnShoppingListCount(missingItemsOnShoppingListCount);
+
+    int itemsInStockCount = 0;
+    double stockValue = 0;
+    HashMap<Integer, Product> productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
+    for (StockItem stockItem : data.getStockItems()) {
+      Product product = productHashMap.get(stockItem.getProductId());
+      if (product != null && product.getHideOnStockOverviewBoolean()) continue;
+      if (!missingProductIds.contains(stockItem.getProductId())) {
+        itemsInStockCount++;
+        stockValue += stockItem.getValueDouble();
+      }
+    }
+    summary.setStockCount(itemsInStockCount);
+    summary.setStockValue(stockValue);
+
+    int choresDueTodayCount = 0;
+    int choresDueSoonCount = 0;
+    int choresOverdueCount = 0;
+    int choresAssignedCount = 0;
+    for (ChoreEntry choreEntry : data.getChoreEntries()) {
+      if (NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
+          && currentUserId == Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
+        choresAssignedCount++;
+      }
+      if (choreEntry.getNextEstimatedExecutionTime() == null
+          || choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
+        continue;
+      }
+      int daysFromNow = DateUtil
+          .getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
+      if (daysFromNow < 0) {
+        choresOverdueCount++;
+      }
+      if (daysFromNow == 0) {
+        choresDueTodayCount++;
+      }
+      if (daysFromNow >= 0 && daysFromNow <= 5) {
+        choresDueSoonCount++;
+      }
+    }
+    summary.setChoresDueTodayCount(choresDueTodayCount);
+    summary.setChoresDueSoonCount(choresDueSoonCount);
+    summary.setChoresOverdueCount(choresOverdueCount);
+    summary.setChoresAssignedCount(choresAssignedCount);
+    return summary;
+  }
 }
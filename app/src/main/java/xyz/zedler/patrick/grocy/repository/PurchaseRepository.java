@@ -169,6 +169,19 @@ public class PurchaseRepository {
         .subscribe();
   }
 
+  public void getBatchPurchases(
+      BatchPurchasesListener onSuccess,
+      Runnable onError
+  ) {
+    appDatabase.storedPurchaseDao().getBatchPurchases()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(onSuccess::onSuccess)
+        .doOnError(e -> onError.run())
+        .onErrorComplete()
+        .subscribe();
+  }
+
   public void deleteStoredPurchase(long id, Runnable onSuccess, Runnable onError) {
     appDatabase.storedPurchaseDao().deleteStoredPurchase(id)
         .subscribeOn(Schedulers.io())
@@ -190,4 +203,8 @@ public class PurchaseRepository {
   public interface SuccessIdListener {
     void onSuccess(Long id);
   }
+
+  public interface BatchPurchasesListener {
+    void onSuccess(List<StoredPurchase> batchPurchases);
+  }
 }
@@ -110,4 +110,14 @@ public class StoredPurchasesRepository {
         .onErrorComplete()
         .subscribe();
   }
+
+  public void deleteStoredPurchase(long id, Runnable onSuccess, Runnable onError) {
+    appDatabase.storedPurchaseDao().deleteStoredPurchase(id)
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(i -> onSuccess.run())
+        .doOnError(e -> onError.run())
+        .onErrorComplete()
+        .subscribe();
+  }
 }
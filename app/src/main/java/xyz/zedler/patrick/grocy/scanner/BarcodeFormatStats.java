@@ -0,0 +1,88 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.scanner;
+
+import android.content.SharedPreferences;
+import androidx.annotation.Nullable;
+import com.google.zxing.BarcodeFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+/**
+ * Counts the scanned barcodes per format on this device, so the scanner can try the formats
+ * which are scanned most often first. The counts are stored as "FORMAT:count" pairs.
+ */
+public class BarcodeFormatStats {
+
+  private static HashMap<BarcodeFormat, Integer> getCounts(SharedPreferences sharedPrefs) {
+    HashMap<BarcodeFormat, Integer> counts = new HashMap<>();
+    String stats = sharedPrefs.getString(PREF.SCANNER_FORMAT_STATS, null);
+    if (stats == null || stats.isEmpty()) return counts;
+    for (String pair : stats.split(",")) {
+      String[] parts = pair.split(":");
+      if (parts.length != 2) continue;
+      try {
+        counts.put(BarcodeFormat.valueOf(parts[0]), Integer.parseInt(parts[1]));
+      } catch (IllegalArgumentException ignored) {
+      }
+    }
+    return counts;
+  }
+
+  public static void countScan(SharedPreferences sharedPrefs, @Nullable BarcodeFormat format) {
+    if (format == null) return;
+    HashMap<BarcodeFormat, Integer> counts = getCounts(sharedPrefs);
+    Integer count = counts.get(format);
+    counts.put(format, count != null ? count + 1 : 1);
+    StringBuilder stats = new StringBuilder();
+    for (HashMap.Entry<BarcodeFormat, Integer> entry : counts.entrySet()) {
+      if (stats.length() > 0) stats.append(',');
+      stats.append(entry.getKey().name()).append(':').append(entry.getValue());
+    }
+    sharedPrefs.edit().putString(PREF.SCANNER_FORMAT_STATS, stats.toString()).apply();
+  }
+
+  /**
+   * Returns the formats sorted by their scan count, most scanned first. Formats without scans
+   * keep their order.
+   */
+  public static List<BarcodeFormat> sortByUsage(
+      SharedPreferences sharedPrefs,
+      Collection<BarcodeFormat> formats
+  ) {
+    HashMap<BarcodeFormat, Integer> counts = getCounts(sharedPrefs);
+    List<BarcodeFormat> sorted = new ArrayList<>(formats);
+    Collections.sort(
+        sorted,
+        (f1, f2) -> Integer.compare(getCount(counts, f2), getCount(counts, f1))
+    );
+    return sorted;
+  }
+
+  static int getCount(HashMap<BarcodeFormat, Integer> counts, BarcodeFormat format) {
+    Integer count = counts.get(format);
+    return count != null ? count : 0;
+  }
+}
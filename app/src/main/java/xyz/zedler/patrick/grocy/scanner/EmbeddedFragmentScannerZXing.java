@@ -22,7 +22,6 @@ package xyz.zedler.patrick.grocy.scanner;
 
 import android.content.SharedPreferences;
 import android.graphics.Color;
-import android.os.Handler;
 import android.preference.PreferenceManager;
 import android.view.Gravity;
 import android.view.ViewGroup;
@@ -33,6 +32,7 @@ import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import androidx.coordinatorlayout.widget.CoordinatorLayout.LayoutParams;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.LiveData;
+import com.google.zxing.BarcodeFormat;
 import com.google.zxing.integration.android.IntentIntegrator;
 import com.journeyapps.barcodescanner.BarcodeResult;
 import com.journeyapps.barcodescanner.DecoratedBarcodeView;
@@ -62,6 +62,7 @@ public class EmbeddedFragmentScannerZXing extends EmbeddedFragmentScanner implem
   private boolean suppressNextScanStart = false;
   private final boolean qrCodeFormat;
   private final boolean qrCodeFilter;
+  private final SharedPreferences sharedPrefs;
 
   public EmbeddedFragmentScannerZXing(
       Fragment fragment,
@@ -76,6 +77,7 @@ public class EmbeddedFragmentScannerZXing extends EmbeddedFragmentScanner implem
     this.barcodeListener = barcodeListener;
     this.qrCodeFormat = qrCodeFormat;
     this.qrCodeFilter = qrCodeFilter;
+    this.sharedPrefs = PreferenceManager.getDefaultSharedPreferences(fragment.requireContext());
 
     // set container size
     int width, height;
@@ -132,18 +134,24 @@ public class EmbeddedFragmentScannerZXing extends EmbeddedFragmentScanner implem
       }
     });
     barcodeView.setTorchOff();
-    SharedPreferences sharedPreferences = PreferenceManager
-        .getDefaultSharedPreferences(fragment.requireContext());
-    boolean useFrontCam = sharedPreferences
+    boolean useFrontCam = sharedPrefs
         .getBoolean(SCANNER.FRONT_CAM, SETTINGS_DEFAULT.SCANNER.FRONT_CAM);
     CameraSettings cameraSettings = new CameraSettings();
     cameraSettings.setRequestedCameraId(useFrontCam ? 1 : 0);
     cameraSettings.setFocusMode(FocusMode.CONTINUOUS);
 
+    String[] enabledBarcodeFormats = getEnabledBarcodeFormats();
     IntentIntegrator integrator = new IntentIntegrator(fragment.requireActivity());
-    integrator.setDesiredBarcodeFormats(getEnabledBarcodeFormats());
+    integrator.setDesiredBarcodeFormats(enabledBarcodeFormats);
     barcodeView.initializeFromIntent(integrator.createScanIntent());
 
+    ArrayList<BarcodeFormat> formats = new ArrayList<>();
+    for (String format : enabledBarcodeFormats) {
+      formats.add(BarcodeFormat.valueOf(format));
+    }
+    barcodeView.getBarcodeView().setDecoderFactory(
+        new PrioritizedDecoderFactory(BarcodeFormatStats.sortByUsage(sharedPrefs, formats))
+    );
     barcodeView.getBarcodeView().setCameraSettings(cameraSettings);
     capture = new ZXingScanCaptureManager(
         fragment.requireActivity(),
@@ -204,7 +212,8 @@ public class EmbeddedFragmentScannerZXing extends EmbeddedFragmentScanner implem
   public void startScannerIfVisible() {
     if (!isScannerVisible) return;
     capture.onResume();
-    new Handler().postDelayed(capture::decode, 500);
+    // the same barcode is suppressed by the capture manager while it stays in the viewfinder
+    capture.decode();
   }
 
   public void toggleTorch() {
@@ -221,13 +230,12 @@ public class EmbeddedFragmentScannerZXing extends EmbeddedFragmentScanner implem
       startScannerIfVisible();
       return;
     }
+    BarcodeFormatStats.countScan(sharedPrefs, result.getBarcodeFormat());
     barcodeListener.onBarcodeRecognized(result.getText());
   }
 
   private String[] getEnabledBarcodeFormats() {
     ArrayList<String> enabledBarcodeFormats = new ArrayList<>();
-    SharedPreferences sharedPrefs = PreferenceManager
-        .getDefaultSharedPreferences(fragment.requireContext());
     Set<String> enabledBarcodeFormatsSet = sharedPrefs.getStringSet(
         SCANNER.BARCODE_FORMATS,
         SETTINGS_DEFAULT.SCANNER.BARCODE_FORMATS
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.scanner;
+
+import androidx.annotation.NonNull;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.common.HybridBinarizer;
+import com.journeyapps.barcodescanner.Decoder;
+import com.journeyapps.barcodescanner.DecoderFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates decoders which try the most scanned formats first on the decoder thread of the
+ * barcode view. Only if they find nothing in a frame, the other formats are tried, with the
+ * one-dimensional and the two-dimensional formats in parallel on a small worker pool.
+ * The barcode view already crops frames to the viewfinder and requests the next frame only
+ * after the current one is decoded.
+ */
+public class PrioritizedDecoderFactory implements DecoderFactory {
+
+  private static final int PREFERRED_FORMAT_COUNT = 2;
+  private static final EnumSet<BarcodeFormat> FORMATS_2D = EnumSet.of(
+      BarcodeFormat.QR_CODE,
+      BarcodeFormat.DATA_MATRIX,
+      BarcodeFormat.PDF_417,
+      BarcodeFormat.AZTEC,
+      BarcodeFormat.MAXICODE
+  );
+
+  private static ExecutorService workerPool;
+
+  private final List<BarcodeFormat> formats;
+
+  /**
+   * @param formats enabled formats, sorted by priority
+   */
+  public PrioritizedDecoderFactory(List<BarcodeFormat> formats) {
+    this.formats = formats;
+  }
+
+  private static synchronized ExecutorService getWorkerPool() {
+    if (workerPool == null) {
+      workerPool = Executors.newFixedThreadPool(2);
+    }
+    return workerPool;
+  }
+
+  @Override
+  public Decoder createDecoder(Map<DecodeHintType, ?> baseHints) {
+    int preferredCount = Math.min(PREFERRED_FORMAT_COUNT, formats.size());
+    List<BarcodeFormat> preferredFormats = formats.subList(0, preferredCount);
+    List<BarcodeFormat> formats1d = new ArrayList<>();
+    List<BarcodeFormat> formats2d = new ArrayList<>();
+    for (BarcodeFormat format : formats.subList(preferredCount, formats.size())) {
+      if (FORMATS_2D.contains(format)) {
+        formats2d.add(format);
+      } else {
+        formats1d.add(format);
+      }
+    }
+    // the result point callback is not thread-safe, so only the preferred reader reports points
+    Map<DecodeHintType, Object> otherHints = new EnumMap<>(DecodeHintType.class);
+    otherHints.putAll(baseHints);
+    otherHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+
+    List<MultiFormatReader> otherReaders = new ArrayList<>();
+    if (!formats1d.isEmpty()) otherReaders.add(createReader(otherHints, formats1d));
+    if (!formats2d.isEmpty()) otherReaders.add(createReader(otherHints, formats2d));
+    return new PrioritizedDecoder(
+        createReader(baseHints, preferredFormats),
+        otherReaders
+    );
+  }
+
+  private static MultiFormatReader createReader(
+      Map<DecodeHintType, ?> baseHints,
+      List<BarcodeFormat> formats
+  ) {
+    Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.putAll(baseHints);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, formats);
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(hints);
+    return reader;
+  }
+
+  private static class PrioritizedDecoder extends Decoder {
+
+    private final List<MultiFormatReader> otherReaders;
+
+    PrioritizedDecoder(MultiFormatReader preferredReader, List<MultiFormatReader> otherReaders) {
+      super(preferredReader);
+      this.otherReaders = otherReaders;
+    }
+
+    @Override
+    public Result decode(LuminanceSource source) {
+      Result result = super.decode(source);
+      if (result != null || otherReaders.isEmpty()) return result;
+      if (otherReaders.size() == 1) return decodeWith(otherReaders.get(0), source);
+
+      List<Future<Result>> futures = new ArrayList<>();
+      for (MultiFormatReader reader : otherReaders) {
+        futures.add(getWorkerPool().submit(() -> decodeWith(reader, source)));
+      }
+      for (Future<Result> future : futures) {
+        try {
+          Result otherResult = future.get();
+          if (result == null) result = otherResult;
+        } catch (ExecutionException e) {
+          // decoding errors are handled like frames without barcode
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return result;
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Each reader gets its own bitmap, because binarizers keep buffers between calls.
+     */
+    private static Result decodeWith(MultiFormatReader reader, @NonNull LuminanceSource source) {
+      try {
+        return reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source)));
+      } catch (ReaderException e) {
+        return null;
+      } finally {
+        reader.reset();
+      }
+    }
+  }
+}
@@ -28,6 +28,7 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.WindowManager;
 import androidx.core.app.ActivityCompat;
@@ -46,6 +47,7 @@ public class ZXingScanCaptureManager {
   private static final String TAG = ZXingScanCaptureManager.class.getSimpleName();
 
   private static int cameraPermissionReqCode = 250;
+  private static final long DUPLICATE_WINDOW = 1500;
 
   private final Activity activity;
   private final DecoratedBarcodeView barcodeView;
@@ -63,9 +65,23 @@ public class ZXingScanCaptureManager {
 
   private final BarcodeListener barcodeListener;
 
+  private String lastResultText;
+  private long lastResultTime;
+
   public final BarcodeCallback callback = new BarcodeCallback() {
     @Override
     public void barcodeResult(final BarcodeResult result) {
+      // a barcode which is still in the viewfinder after the last result is not reported again
+      long now = SystemClock.elapsedRealtime();
+      boolean isDuplicate = result.getText() != null
+          && result.getText().equals(lastResultText)
+          && now - lastResultTime < DUPLICATE_WINDOW;
+      lastResultText = result.getText();
+      lastResultTime = now;
+      if (isDuplicate) {
+        barcodeView.decodeSingle(this);
+        return;
+      }
       new HapticUtil(activity).tick();
       barcodeView.pause();
       inactivityTimer.cancel();
@@ -33,11 +33,13 @@ import android.content.Intent;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.util.Log;
 import android.util.SparseArray;
 import android.widget.Toast;
 import androidx.core.app.NotificationCompat;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.IDN;
@@ -56,8 +58,13 @@ import java.security.cert.X509Certificate;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
@@ -71,6 +78,9 @@ import xyz.zedler.patrick.grocy.R;
  * The certificate validity is checked using the system default X509 TrustManager, creating a query
  * Dialog if the check fails.
  * <p>
+ * Accepted leaf certificates are remembered by their SHA-256 fingerprint for a few minutes, so
+ * that following handshakes with the same server skip the chain check and the keystore lookup.
+ * <p>
  * <b>WARNING:</b> This only works if a dedicated thread is used for opening sockets!
  * Source: github.com/stephanritscher/MemorizingTrustManager
  */
@@ -88,6 +98,9 @@ public class MemorizingTrustManager implements X509TrustManager {
 
   private final static String KEYSTORE_DIR = "KeyStore";
   private final static String KEYSTORE_FILE = "KeyStore.bks";
+  private final static long TRUST_CACHE_TTL = 10 * 60 * 1000;
+
+  private static MemorizingTrustManager instance;
 
   private Context context;
   private NotificationManager notificationManager;
@@ -99,7 +112,9 @@ public class MemorizingTrustManager implements X509TrustManager {
   private File keyStoreFile;
   private KeyStore appKeyStore;
   private final X509TrustManager defaultTrustManager;
-  private X509TrustManager appTrustManager;
+  private volatile X509TrustManager appTrustManager;
+  private final Set<String> knownCertFingerprints = Collections.synchronizedSet(new HashSet<>());
+  private final ConcurrentHashMap<String, Long> trustedUntil = new ConcurrentHashMap<>();
 
   /**
    * Creates an instance of the MemorizingTrustManager class that falls back to a custom
@@ -134,6 +149,17 @@ public class MemorizingTrustManager implements X509TrustManager {
     this.defaultTrustManager = getTrustManager(null);
   }
 
+  /**
+   * Returns the instance shared by all connections of the app, so that the keystore is only
+   * loaded once and the trust decisions are kept between request queues.
+   */
+  public static synchronized MemorizingTrustManager getInstance(Context context) {
+    if (instance == null) {
+      instance = new MemorizingTrustManager(context.getApplicationContext());
+    }
+    return instance;
+  }
+
   private void init(Context context) {
     this.context = context;
     masterHandler = new Handler(context.getMainLooper());
@@ -171,6 +197,7 @@ public class MemorizingTrustManager implements X509TrustManager {
     keyStoreFile = new File(dir + File.separator + KEYSTORE_FILE);
     Log.i(TAG, "init: Using keyStoreFile " + keyStoreFile.getPath());
     appKeyStore = loadAppKeyStore();
+    loadKnownCertFingerprints();
   }
 
   @Override
@@ -245,7 +272,27 @@ public class MemorizingTrustManager implements X509TrustManager {
     return ks;
   }
 
-  private void storeCert(String alias, Certificate cert) {
+  private void loadKnownCertFingerprints() {
+    if (appKeyStore == null) return;
+    try {
+      Enumeration<String> aliases = appKeyStore.aliases();
+      while (aliases.hasMoreElements()) {
+        Certificate cert = appKeyStore.getCertificate(aliases.nextElement());
+        if (cert instanceof X509Certificate) {
+          String fingerprint = getFingerprint((X509Certificate) cert);
+          if (fingerprint != null) knownCertFingerprints.add(fingerprint);
+        }
+      }
+    } catch (KeyStoreException e) {
+      Log.e(TAG, "loadKnownCertFingerprints: ", e);
+    }
+  }
+
+  private synchronized void storeCert(String alias, X509Certificate cert) {
+    String fingerprint = getFingerprint(cert);
+    if (fingerprint != null && knownCertFingerprints.contains(fingerprint)) {
+      return; // already stored, e.g. by a parallel handshake
+    }
     try {
       appKeyStore.setCertificateEntry(alias, cert);
       Log.i(TAG, "storeCert: " + alias);
@@ -253,6 +300,7 @@ public class MemorizingTrustManager implements X509TrustManager {
       Log.e(TAG, "storeCert: " + cert, e);
       return;
     }
+    if (fingerprint != null) knownCertFingerprints.add(fingerprint);
     keyStoreUpdated();
   }
 
@@ -264,31 +312,70 @@ public class MemorizingTrustManager implements X509TrustManager {
     // reload appTrustManager
     appTrustManager = getTrustManager(appKeyStore);
 
-    // store KeyStore to file
-    java.io.FileOutputStream fos = null;
+    // store KeyStore to a temporary file first, so a failed write can't corrupt the old file
+    File tempFile = new File(keyStoreFile.getPath() + ".tmp");
+    FileOutputStream fos = null;
+    boolean stored = false;
     try {
-      fos = new java.io.FileOutputStream(keyStoreFile);
+      fos = new FileOutputStream(tempFile);
       appKeyStore.store(fos, "MTM".toCharArray());
+      fos.getFD().sync();
+      stored = true;
     } catch (Exception e) {
-      Log.e(TAG, "keyStoreUpdated: " + keyStoreFile, e);
+      Log.e(TAG, "keyStoreUpdated: " + tempFile, e);
     } finally {
       if (fos != null) {
         try {
           fos.close();
         } catch (IOException e) {
-          Log.e(TAG, "keyStoreUpdated: " + keyStoreFile, e);
+          Log.e(TAG, "keyStoreUpdated: " + tempFile, e);
+          stored = false;
         }
       }
     }
+    if (stored && !tempFile.renameTo(keyStoreFile)) {
+      Log.e(TAG, "keyStoreUpdated: could not replace " + keyStoreFile);
+    }
+    if (!stored && !tempFile.delete()) {
+      Log.e(TAG, "keyStoreUpdated: could not delete " + tempFile);
+    }
   }
 
   // if the certificate is stored in the app key store, it is considered "known"
   private boolean isCertKnown(X509Certificate cert) {
-    try {
-      return appKeyStore.getCertificateAlias(cert) != null;
-    } catch (KeyStoreException e) {
+    String fingerprint = getFingerprint(cert);
+    return fingerprint != null && knownCertFingerprints.contains(fingerprint);
+  }
+
+  /**
+   * Returns the cache key of a trust decision for the leaf certificate of the chain, or null if
+   * it can't be cached.
+   */
+  private static String getTrustCacheKey(X509Certificate[] chain, String authType,
+      boolean isServer) {
+    if (chain == null || chain.length == 0) return null;
+    String fingerprint = getFingerprint(chain[0]);
+    if (fingerprint == null) return null;
+    return (isServer ? "server:" : "client:") + authType + ":" + fingerprint;
+  }
+
+  private boolean isTrustCached(String cacheKey) {
+    if (cacheKey == null) return false;
+    Long until = trustedUntil.get(cacheKey);
+    if (until == null) return false;
+    if (until < SystemClock.elapsedRealtime()) {
+      trustedUntil.remove(cacheKey);
       return false;
     }
+    return true;
+  }
+
+  private void cacheTrust(String cacheKey, X509Certificate cert) {
+    long now = SystemClock.elapsedRealtime();
+    // never remember a certificate beyond its expiry date
+    long validFor = cert.getNotAfter().getTime() - System.currentTimeMillis();
+    if (validFor <= 0) return;
+    trustedUntil.put(cacheKey, now + Math.min(TRUST_CACHE_TTL, validFor));
   }
 
   private static boolean isExpiredException(Throwable e) {
@@ -313,6 +400,19 @@ public class MemorizingTrustManager implements X509TrustManager {
 
   private void checkCertTrusted(X509Certificate[] chain, String authType, boolean isServer)
       throws CertificateException {
+    String cacheKey = getTrustCacheKey(chain, authType, isServer);
+    if (isTrustCached(cacheKey)) return;
+    if (interactCertTrusted(chain, authType, isServer) && cacheKey != null) {
+      cacheTrust(cacheKey, chain[0]);
+    }
+  }
+
+  /**
+   * Returns true if the chain is trusted and the decision may be cached, false if the user only
+   * accepted it once and throws if it is not trusted.
+   */
+  private boolean interactCertTrusted(X509Certificate[] chain, String authType, boolean isServer)
+      throws CertificateException {
     Log.i(
         TAG, "checkCertTrusted: " + (chain == null ? "null" :
             Arrays.stream(chain).map(X509Certificate::getSubjectDN).map(Principal::getName)
@@ -326,13 +426,14 @@ public class MemorizingTrustManager implements X509TrustManager {
       } else {
         appTrustManager.checkClientTrusted(chain, authType);
       }
+      return true;
     } catch (CertificateException ae) {
       Log.w(TAG,
           "checkCertTrusted: appTrustManager did not verify certificate. Will fall back to secondary verification mechanisms (if any).",
           ae);
       if (chain != null && chain.length >= 1 && isCertKnown(chain[0])) {
         Log.i(TAG, "checkCertTrusted: accepting cert already stored in keystore");
-        return;
+        return true;
       }
       try {
         if (defaultTrustManager == null) {
@@ -346,9 +447,10 @@ public class MemorizingTrustManager implements X509TrustManager {
         } else {
           defaultTrustManager.checkClientTrusted(chain, authType);
         }
+        return true;
       } catch (CertificateException e) {
         Log.e(TAG, "checkCertTrusted: defaultTrustManager failed", e);
-        interactCert(chain, e);
+        return interactCert(chain, e);
       }
     }
   }
@@ -374,6 +476,16 @@ public class MemorizingTrustManager implements X509TrustManager {
     return si.toString();
   }
 
+  private static String getFingerprint(X509Certificate cert) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      return hexString(md.digest(cert.getEncoded()));
+    } catch (CertificateEncodingException | NoSuchAlgorithmException e) {
+      Log.e(TAG, "getFingerprint: ", e);
+      return null;
+    }
+  }
+
   private static String certHash(final X509Certificate cert, String digest) {
     try {
       MessageDigest md = MessageDigest.getInstance(digest);
@@ -522,13 +634,14 @@ public class MemorizingTrustManager implements X509TrustManager {
     return choice.state;
   }
 
-  private void interactCert(final X509Certificate[] chain, CertificateException cause)
+  private boolean interactCert(final X509Certificate[] chain, CertificateException cause)
       throws CertificateException {
     switch (interact(certChainMessage(chain, cause), R.string.mtm_security_risk)) {
       case Decision.DECISION_ALWAYS:
         storeCert(chain[0]); // only store the server cert, not the whole chain
+        return true;
       case Decision.DECISION_ONCE:
-        break;
+        return false;
       default:
         throw (cause);
     }
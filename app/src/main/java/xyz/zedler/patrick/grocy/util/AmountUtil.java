@@ -24,12 +24,10 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.HashMap;
-import java.util.List;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockItem;
@@ -40,7 +38,7 @@ public class AmountUtil {
       ShoppingListItem item,
       HashMap<Integer, Product> productHashMap,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      List<QuantityUnitConversionResolved> unitConversions,
+      QuantityUnitConversionIndex conversionIndex,
       boolean isServerVersionMin400
   ) {
     if (!item.hasProduct()) {
@@ -54,10 +52,44 @@ public class AmountUtil {
     if (stock == null || purchase == null) {
       return null;
     }
-    HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil
-        .getUnitFactors(quantityUnitHashMap, unitConversions, product, isServerVersionMin400);
-    Double factor = unitFactors.get(quantityUnitHashMap.get(item.getQuIdInt()));
-    return factor != null ? item.getAmountDouble() * factor : item.getAmountDouble();
+    if (quantityUnitHashMap.get(item.getQuIdInt()) == null) {
+      return item.getAmountDouble();
+    }
+    double factor = getUnitFactor(
+        conversionIndex, product, stock, purchase, item.getQuIdInt(), isServerVersionMin400
+    );
+    return factor != QuantityUnitConversionIndex.NO_FACTOR
+        ? item.getAmountDouble() * factor : item.getAmountDouble();
+  }
+
+  // factor from stock unit to the given unit, without building the whole factors map
+  private static double getUnitFactor(
+      QuantityUnitConversionIndex conversionIndex,
+      Product product,
+      QuantityUnit stock,
+      QuantityUnit purchase,
+      int toQuId,
+      boolean isServerVersionMin400
+  ) {
+    if (isServerVersionMin400) {
+      return conversionIndex.getFactor(product.getId(), stock.getId(), toQuId);
+    }
+    if (stock.getId() == toQuId) {
+      return 1;
+    } else if (purchase.getId() == toQuId) {
+      return 1 / product.getQuFactorPurchaseToStockDouble();
+    }
+    QuantityUnitConversionIndex.Factors productFactors
+        = conversionIndex.getAllProductFactors(product.getId());
+    double factor = productFactors != null
+        ? productFactors.get(toQuId) : QuantityUnitConversionIndex.NO_FACTOR;
+    if (factor != QuantityUnitConversionIndex.NO_FACTOR) {
+      return factor;
+    }
+    QuantityUnitConversionIndex.Factors standardFactors
+        = conversionIndex.getStandardFactors(stock.getId());
+    return standardFactors != null
+        ? standardFactors.get(toQuId) : QuantityUnitConversionIndex.NO_FACTOR;
   }
 
   public static void addStockAmountNormalInfo(
@@ -20,10 +20,9 @@
 
 package xyz.zedler.patrick.grocy.util;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.view.LayoutInflater;
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
@@ -34,24 +33,29 @@ import xyz.zedler.patrick.grocy.model.Userfield;
 public class ChipUtil {
 
   private final Context context;
+  @Nullable private final InfoChipPool chipPool;
   private final int colorGreenContainer, colorOnGreenContainer;
   private final int colorYellowContainer, colorOnYellowContainer;
 
   public ChipUtil(Context context) {
+    this(context, null);
+  }
+
+  /**
+   * All chips are taken from the given pool, so they should be added to a container which is
+   * recycled by the pool.
+   */
+  public ChipUtil(Context context, @Nullable InfoChipPool chipPool) {
     this.context = context;
+    this.chipPool = chipPool;
     colorGreenContainer = ResUtil.getColor(context, R.attr.colorCustomGreenContainer);
     colorOnGreenContainer = ResUtil.getColor(context, R.attr.colorOnCustomGreenContainer);
     colorYellowContainer = ResUtil.getColor(context, R.attr.colorCustomYellowContainer);
     colorOnYellowContainer = ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer);
   }
 
-  private static Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
-    return chip;
+  private Chip createChip(Context ctx, String text) {
+    return chipPool != null ? chipPool.obtain(ctx, text) : InfoChipPool.createChip(ctx, text);
   }
 
   public Chip createTextChip(String text) {
@@ -196,7 +200,7 @@ public class ChipUtil {
   }
 
   public Chip createUserfieldChip(Userfield userfield, String value) {
-    Chip chipUserfield = createTextChip(null);
+    Chip chipUserfield = createChip(context, null);
     return Userfield.fillChipWithUserfield(chipUserfield, userfield, value);
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Histogram of non-negative values with a fixed number of buckets in the style of HdrHistogram.
+ * Values below 32 get their own bucket, larger values are grouped by their highest bit into 16
+ * linear sub-buckets, so every recorded value is kept with a relative error below 1/16.
+ * Recording only increments a counter, the memory does not grow with the number of values.
+ */
+public class CompactHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_LIMIT = 2 * SUB_BUCKET_COUNT;
+
+  private final long[] counts;
+  private final long maxValue;
+  private long count;
+  private long sum;
+  private long max;
+
+  /**
+   * @param maxBits values from 2^maxBits are recorded as the highest trackable value
+   */
+  public CompactHistogram(int maxBits) {
+    maxValue = (1L << maxBits) - 1;
+    counts = new long[getIndex(maxValue) + 1];
+  }
+
+  private static int getIndex(long value) {
+    if (value < LINEAR_LIMIT) return (int) value;
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return LINEAR_LIMIT + (highestBit - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long getHighestValue(int index) {
+    if (index < LINEAR_LIMIT) return index;
+    int highestBit = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+    int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT;
+    int shift = highestBit - SUB_BUCKET_BITS;
+    return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+  }
+
+  public synchronized void record(long value) {
+    if (value < 0) value = 0;
+    if (value > maxValue) value = maxValue;
+    counts[getIndex(value)]++;
+    count++;
+    sum += value;
+    if (value > max) max = value;
+  }
+
+  public synchronized long getCount() {
+    return count;
+  }
+
+  public synchronized long getMax() {
+    return max;
+  }
+
+  public synchronized double getMean() {
+    return count > 0 ? (double) sum / count : 0;
+  }
+
+  /**
+   * Returns the highest value which is equivalent to the value at the given percentile.
+   */
+  public synchronized long getValueAtPercentile(double percentile) {
+    if (count == 0) return 0;
+    long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      total += counts[i];
+      if (total >= countAtPercentile) return Math.min(getHighestValue(i), max);
+    }
+    return max;
+  }
+
+  public synchronized JSONObject toJson() throws JSONException {
+    JSONObject json = new JSONObject();
+    json.put("count", count);
+    json.put("mean", Math.round(getMean()));
+    json.put("p50", getValueAtPercentile(50));
+    json.put("p90", getValueAtPercentile(90));
+    json.put("p99", getValueAtPercentile(99));
+    json.put("max", max);
+    return json;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "p50 " + getValueAtPercentile(50) + ", p90 " + getValueAtPercentile(90)
+        + ", max " + max + " (" + count + ")";
+  }
+}
@@ -41,6 +41,7 @@ import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 public class ConfigUtil {
 
   private final static String TAG = ConfigUtil.class.getSimpleName();
+  private final static long INFO_MAX_AGE = 30 * 60 * 1000;
 
   public static void loadInfo(
       DownloadHelper dlHelper,
@@ -56,6 +57,7 @@ public class ConfigUtil {
     );
 
     NetworkQueue queue = dlHelper.newQueue(updated -> {
+      prefs.edit().putLong(PREF.INFO_LAST_TIME, System.currentTimeMillis()).apply();
       if (onSuccessAction != null) {
         onSuccessAction.run();
       }
@@ -84,6 +86,16 @@ public class ConfigUtil {
     ).start();
   }
 
+  /**
+   * Config, user settings and system info are stored after each load, so they only have to be
+   * loaded again at app start if the last load is some time ago.
+   */
+  public static boolean isInfoOutdated(SharedPreferences prefs) {
+    long lastTime = prefs.getLong(PREF.INFO_LAST_TIME, 0);
+    return System.currentTimeMillis() - lastTime > INFO_MAX_AGE
+        || System.currentTimeMillis() < lastTime;
+  }
+
   private static void storeSystemConfig(String response, SharedPreferences prefs, boolean debug) {
     try {
       JSONObject jsonObject = new JSONObject(response);
@@ -46,21 +46,29 @@ public class DateUtil {
   public static final int FORMAT_SHORT = 0;
   public static final int FORMAT_SHORT_WITH_TIME = 3;
 
-  public static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat(
-      "yyyy-MM-dd", Locale.ENGLISH
-  );
-  private static final SimpleDateFormat DATE_FORMAT_WITH_TIME = new SimpleDateFormat(
-      "yyyy-MM-dd HH:mm:ss", Locale.ENGLISH
-  );
-  private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat(
-      "HH:mm:ss", Locale.ENGLISH
-  );
+  // SimpleDateFormat is not thread-safe and list adapters prepare their rows in the background
+  public static final ThreadLocal<SimpleDateFormat> DATE_FORMAT
+      = getThreadLocalFormat("yyyy-MM-dd");
+  private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT_WITH_TIME
+      = getThreadLocalFormat("yyyy-MM-dd HH:mm:ss");
+  private static final ThreadLocal<SimpleDateFormat> TIME_FORMAT
+      = getThreadLocalFormat("HH:mm:ss");
   private final Context context;
 
   public DateUtil(Context context) {
     this.context = context;
   }
 
+  private static ThreadLocal<SimpleDateFormat> getThreadLocalFormat(String pattern) {
+    // ThreadLocal.withInitial() is only available from API 26
+    return new ThreadLocal<>() {
+      @Override
+      protected SimpleDateFormat initialValue() {
+        return new SimpleDateFormat(pattern, Locale.ENGLISH);
+      }
+    };
+  }
+
   public static Date getDate(String dateString) {
     if (dateString == null || dateString.isEmpty()) {
       return null;
@@ -68,8 +76,8 @@ public class DateUtil {
     Date date = null;
     try {
       date = dateString.split(" ").length == 2
-          ? DATE_FORMAT_WITH_TIME.parse(dateString)
-          : DATE_FORMAT.parse(dateString);
+          ? DATE_FORMAT_WITH_TIME.get().parse(dateString)
+          : DATE_FORMAT.get().parse(dateString);
     } catch (ParseException e) {
       Log.e(TAG, "getDate: ");
     }
@@ -77,7 +85,7 @@ public class DateUtil {
   }
 
   public static String getDateStringToday() {
-    return DATE_FORMAT.format(getCurrentDate());
+    return DATE_FORMAT.get().format(getCurrentDate());
   }
 
   public static int getDaysFromNow(String dateString) {
@@ -90,7 +98,7 @@ public class DateUtil {
   public static String getTodayWithDaysAdded(int daysToAdd) {
     Calendar calendar = Calendar.getInstance();
     calendar.add(Calendar.DAY_OF_MONTH, daysToAdd);
-    return DATE_FORMAT.format(calendar.getTime());
+    return DATE_FORMAT.get().format(calendar.getTime());
   }
 
   public static String getDateWithDaysAdded(String dateString, int daysToAdd) {
@@ -99,7 +107,7 @@ public class DateUtil {
     Calendar calendar = Calendar.getInstance();
     calendar.setTime(date);
     calendar.add(Calendar.DAY_OF_MONTH, daysToAdd);
-    return DATE_FORMAT.format(calendar.getTime());
+    return DATE_FORMAT.get().format(calendar.getTime());
   }
 
   private static Date getCurrentDate() {
@@ -120,13 +128,13 @@ public class DateUtil {
   public String getCurrentDateWithTimeStr() {
     Calendar cal = Calendar.getInstance();
     cal.set(Calendar.MILLISECOND, 0);
-    return DATE_FORMAT_WITH_TIME.format(cal.getTime());
+    return DATE_FORMAT_WITH_TIME.get().format(cal.getTime());
   }
 
   public String getCurrentDateWithoutTimeStr() {
     Calendar cal = Calendar.getInstance();
     cal.set(Calendar.MILLISECOND, 0);
-    return DATE_FORMAT.format(cal.getTime());
+    return DATE_FORMAT.get().format(cal.getTime());
   }
 
   public boolean isTimeLessThanOneMinuteAway(String dateWithTimeStr) {
@@ -136,7 +144,7 @@ public class DateUtil {
     Date currentDateWithTime = getCurrentDateWithTime();
     Date askedDateWithTime = null;
     try {
-      askedDateWithTime = DATE_FORMAT_WITH_TIME.parse(dateWithTimeStr);
+      askedDateWithTime = DATE_FORMAT_WITH_TIME.get().parse(dateWithTimeStr);
     } catch (ParseException e) {
       Log.e(TAG, "isTimeMoreThanOneMinuteAway: " + e);
     }
@@ -158,8 +166,8 @@ public class DateUtil {
     Date date = null;
     try {
       date = dateString.split(" ").length == 2
-          ? DATE_FORMAT_WITH_TIME.parse(dateString)
-          : DATE_FORMAT.parse(dateString);
+          ? DATE_FORMAT_WITH_TIME.get().parse(dateString)
+          : DATE_FORMAT.get().parse(dateString);
     } catch (ParseException e) {
       Log.e(TAG, "getLocalizedDate: " + e);
     }
@@ -190,7 +198,7 @@ public class DateUtil {
     }
     Date date = null;
     try {
-      date = TIME_FORMAT.parse(timeString);
+      date = TIME_FORMAT.get().parse(timeString);
     } catch (ParseException e) {
       Log.e(TAG, "getLocalizedTime: " + e);
     }
@@ -270,7 +278,7 @@ public class DateUtil {
         // Check if days are about the same as to the never expiring date
         Calendar calendarNever = Calendar.getInstance();
         try {
-          Date dateNever = DATE_FORMAT.parse(Constants.DATE.NEVER_OVERDUE);
+          Date dateNever = DATE_FORMAT.get().parse(Constants.DATE.NEVER_OVERDUE);
           if (dateNever != null) {
             calendarNever.setTime(dateNever);
           }
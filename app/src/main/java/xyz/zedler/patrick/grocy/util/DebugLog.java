@@ -0,0 +1,217 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
+
+/**
+ * Logging for debugging which stays cheap when it is enabled. Messages are only built if their
+ * category has a level which includes them, downloaded lists are logged as row count and with
+ * some rows spread over the list at the verbose level instead of every row, and every message is
+ * cut to a maximum length. The last messages are kept in a ring buffer in memory, so they can be
+ * shared from the debugging settings, and are written to logcat like before.
+ */
+public class DebugLog {
+
+  public final static String SYNC = "sync";
+  public final static String NETWORK = "network";
+  public final static String DATABASE = "database";
+  public final static String UI = "ui";
+  public final static String[] CATEGORIES = {SYNC, NETWORK, DATABASE, UI};
+
+  public final static int VERBOSE = Log.VERBOSE;
+  public final static int INFO = Log.INFO;
+  public final static int ERROR = Log.ERROR;
+
+  private final static String PREF_LEVEL = "debug_log_level_";
+  private final static int BUFFER_SIZE = 500;
+  private final static int MAX_MESSAGE_LENGTH = 1000;
+  private final static int SAMPLE_SIZE = 3;
+
+  private final static ArrayDeque<Entry> buffer = new ArrayDeque<>(BUFFER_SIZE);
+  private final static HashMap<String, Integer> levels = new HashMap<>();
+  private static volatile boolean enabled;
+  private static volatile boolean initialized;
+
+  public static void init(SharedPreferences sharedPrefs) {
+    if (initialized) return;
+    synchronized (levels) {
+      enabled = sharedPrefs.getBoolean(
+          SETTINGS.DEBUGGING.ENABLE_DEBUGGING, SETTINGS_DEFAULT.DEBUGGING.ENABLE_DEBUGGING
+      );
+      for (String category : CATEGORIES) {
+        levels.put(category, sharedPrefs.getInt(PREF_LEVEL + category, INFO));
+      }
+      initialized = true;
+    }
+  }
+
+  public static void setEnabled(boolean enabled) {
+    DebugLog.enabled = enabled;
+  }
+
+  public static int getLevel(String category) {
+    synchronized (levels) {
+      Integer level = levels.get(category);
+      return level != null ? level : INFO;
+    }
+  }
+
+  public static void setLevel(SharedPreferences sharedPrefs, String category, int level) {
+    synchronized (levels) {
+      levels.put(category, level);
+    }
+    sharedPrefs.edit().putInt(PREF_LEVEL + category, level).apply();
+  }
+
+  public static boolean isLoggable(String category, int level) {
+    return enabled && level >= getLevel(category);
+  }
+
+  public static void v(String category, String tag, @NonNull MessageSupplier message) {
+    if (isLoggable(category, VERBOSE)) log(VERBOSE, tag, message.get());
+  }
+
+  public static void i(String category, String tag, @NonNull MessageSupplier message) {
+    if (isLoggable(category, INFO)) log(INFO, tag, message.get());
+  }
+
+  public static void e(String category, String tag, @NonNull MessageSupplier message) {
+    if (isLoggable(category, ERROR)) log(ERROR, tag, message.get());
+  }
+
+  /**
+   * Logs the number of items, and if the category has the verbose level some items with their
+   * index, spread evenly from the first to the last one so that later rows are sampled too.
+   */
+  public static void list(
+      String category,
+      String tag,
+      String label,
+      @Nullable Collection<?> items
+  ) {
+    if (!isLoggable(category, INFO)) return;
+    if (items == null) {
+      log(INFO, tag, label + ": null");
+      return;
+    }
+    StringBuilder message = new StringBuilder(label).append(": ").append(items.size())
+        .append(items.size() == 1 ? " row" : " rows");
+    if (isLoggable(category, VERBOSE) && !items.isEmpty()) {
+      message.append(", sampled: ");
+      int samples = Math.min(SAMPLE_SIZE, items.size());
+      if (items instanceof List && items instanceof RandomAccess) {
+        List<?> list = (List<?>) items;
+        for (int sample = 0; sample < samples; sample++) {
+          int index = getSampleIndex(sample, samples, list.size());
+          appendSample(message, sample, index, list.get(index));
+          if (message.length() > MAX_MESSAGE_LENGTH) break;
+        }
+      } else {
+        Iterator<?> iterator = items.iterator();
+        int sample = 0;
+        for (int i = 0; iterator.hasNext() && sample < samples; i++) {
+          Object item = iterator.next();
+          if (i != getSampleIndex(sample, samples, items.size())) continue;
+          appendSample(message, sample++, i, item);
+          if (message.length() > MAX_MESSAGE_LENGTH) break;
+        }
+      }
+    }
+    log(INFO, tag, message.toString());
+  }
+
+  private static int getSampleIndex(int sample, int samples, int size) {
+    // first and last row are always included, the others are spread evenly in between
+    return samples > 1 ? (int) ((long) sample * (size - 1) / (samples - 1)) : 0;
+  }
+
+  private static void appendSample(StringBuilder message, int sample, int index, Object item) {
+    if (sample > 0) message.append(", ");
+    message.append('#').append(index).append(' ').append(item);
+  }
+
+  private static void log(int level, String tag, @Nullable String message) {
+    if (message == null) message = "null";
+    if (message.length() > MAX_MESSAGE_LENGTH) {
+      message = message.substring(0, MAX_MESSAGE_LENGTH) + "…";
+    }
+    Log.println(level, tag, message);
+    synchronized (buffer) {
+      if (buffer.size() == BUFFER_SIZE) buffer.poll();
+      buffer.add(new Entry(System.currentTimeMillis(), level, tag, message));
+    }
+  }
+
+  public static String getBuffer() {
+    SimpleDateFormat dateFormat = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.ENGLISH);
+    StringBuilder text = new StringBuilder();
+    synchronized (buffer) {
+      for (Entry entry : buffer) {
+        if (text.length() > 0) text.append('\n');
+        text.append(dateFormat.format(new Date(entry.time))).append(' ')
+            .append(entry.level == ERROR ? 'E' : entry.level == INFO ? 'I' : 'V')
+            .append('/').append(entry.tag).append(": ").append(entry.message);
+      }
+    }
+    return text.toString();
+  }
+
+  public static void clearBuffer() {
+    synchronized (buffer) {
+      buffer.clear();
+    }
+  }
+
+  public interface MessageSupplier {
+
+    String get();
+  }
+
+  private static class Entry {
+
+    private final long time;
+    private final int level;
+    private final String tag;
+    private final String message;
+
+    private Entry(long time, int level, String tag, String message) {
+      this.time = time;
+      this.level = level;
+      this.tag = tag;
+      this.message = message;
+    }
+  }
+}
@@ -25,11 +25,16 @@ import java.util.regex.Pattern;
 
 public class GrocycodeUtil {
 
+  private static final String PREFIX = "grcy:";
+  private static final Pattern PATTERN = Pattern.compile("grcy:([a-z]+):([0-9]+)(:.+)*");
+
   private static Matcher getMatcher(String barcode) {
-    return Pattern.compile("grcy:([a-z]+):([0-9]+)(:.+)*").matcher(barcode);
+    return PATTERN.matcher(barcode);
   }
 
   public static Grocycode getGrocycode(String barcode) {
+    // most scanned codes are product barcodes, so skip the regex for them
+    if (barcode == null || !barcode.startsWith(PREFIX)) return null;
     Matcher matcher = getMatcher(barcode);
     if (!matcher.matches()) return null;
     return new Grocycode(matcher);
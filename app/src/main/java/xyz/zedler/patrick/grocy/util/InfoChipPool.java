@@ -0,0 +1,144 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.Nullable;
+import com.google.android.material.chip.Chip;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.WeakHashMap;
+import xyz.zedler.patrick.grocy.R;
+
+/**
+ * Bounded pool of info chips for the flexbox rows of list adapters, so that binding a row
+ * takes chips from the pool instead of inflating new ones for every active field.
+ * There is one pool per context, which is shared by all adapters of it and lives as long as
+ * one of them uses it. Adapters give the chips of a row back when it is bound again or recycled
+ * by the RecyclerView. A chip from obtain() is reset to the state of the layout, so it can be
+ * changed further, e.g. for userfields or fulfillment.
+ */
+public class InfoChipPool {
+
+  private static final int MAX_POOL_SIZE = 64;
+
+  // pooled chips reference the context, so the pools are only referenced weakly
+  private static final WeakHashMap<Context, WeakReference<InfoChipPool>> POOLS
+      = new WeakHashMap<>();
+
+  private final ArrayDeque<Chip> chips;
+  private ColorStateList textColorDefault;
+  private ColorStateList backgroundColorDefault;
+  private Drawable chipIconDefault;
+  private ColorStateList chipIconTintDefault;
+  private Drawable closeIconDefault;
+  private ColorStateList closeIconTintDefault;
+  private boolean closeIconVisibleDefault;
+  private float closeIconStartPaddingDefault;
+  private float textStartPaddingDefault;
+  private boolean enabledDefault;
+  private boolean clickableDefault;
+  private boolean focusableDefault;
+  private int paintFlagsDefault;
+
+  private InfoChipPool() {
+    chips = new ArrayDeque<>();
+  }
+
+  public static InfoChipPool getInstance(Context context) {
+    WeakReference<InfoChipPool> reference = POOLS.get(context);
+    InfoChipPool pool = reference != null ? reference.get() : null;
+    if (pool == null) {
+      pool = new InfoChipPool();
+      POOLS.put(context, new WeakReference<>(pool));
+    }
+    return pool;
+  }
+
+  public static Chip createChip(Context context, @Nullable CharSequence text) {
+    @SuppressLint("InflateParams")
+    Chip chip = (Chip) LayoutInflater.from(context).inflate(
+        R.layout.view_info_chip, null, false
+    );
+    chip.setText(text);
+    return chip;
+  }
+
+  public Chip obtain(Context context, @Nullable CharSequence text) {
+    Chip chip = chips.poll();
+    if (chip == null) {
+      chip = createChip(context, text);
+      if (textColorDefault == null) {
+        textColorDefault = chip.getTextColors();
+        backgroundColorDefault = chip.getChipBackgroundColor();
+        chipIconDefault = chip.getChipIcon();
+        chipIconTintDefault = chip.getChipIconTint();
+        closeIconDefault = chip.getCloseIcon();
+        closeIconTintDefault = chip.getCloseIconTint();
+        closeIconVisibleDefault = chip.isCloseIconVisible();
+        closeIconStartPaddingDefault = chip.getCloseIconStartPadding();
+        textStartPaddingDefault = chip.getTextStartPadding();
+        enabledDefault = chip.isEnabled();
+        clickableDefault = chip.isClickable();
+        focusableDefault = chip.isFocusable();
+        paintFlagsDefault = chip.getPaintFlags();
+      }
+      chip.setTag(this);
+      return chip;
+    }
+    chip.setText(text);
+    chip.setTextColor(textColorDefault);
+    chip.setChipBackgroundColor(backgroundColorDefault);
+    chip.setChipIcon(chipIconDefault);
+    chip.setChipIconTint(chipIconTintDefault);
+    chip.setCloseIcon(closeIconDefault);
+    chip.setCloseIconTint(closeIconTintDefault);
+    chip.setCloseIconVisible(closeIconVisibleDefault);
+    chip.setCloseIconStartPadding(closeIconStartPaddingDefault);
+    chip.setTextStartPadding(textStartPaddingDefault);
+    chip.setOnClickListener(null);
+    chip.setEnabled(enabledDefault);
+    chip.setClickable(clickableDefault);
+    chip.setFocusable(focusableDefault);
+    chip.setPaintFlags(paintFlagsDefault);
+    chip.setAlpha(1);
+    return chip;
+  }
+
+  /**
+   * Removes all views from the container and keeps its pooled chips for the next rows.
+   */
+  public void recycle(ViewGroup container) {
+    for (int i = 0; i < container.getChildCount(); i++) {
+      View child = container.getChildAt(i);
+      if (child.getTag() == this && chips.size() < MAX_POOL_SIZE) {
+        chips.add((Chip) child);
+      }
+    }
+    container.removeAllViews();
+  }
+}
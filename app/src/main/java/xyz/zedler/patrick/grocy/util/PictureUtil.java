@@ -20,6 +20,7 @@
 
 package xyz.zedler.patrick.grocy.util;
 
+import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Matrix;
@@ -33,28 +34,33 @@ import androidx.exifinterface.media.ExifInterface;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.load.engine.GlideException;
-import com.bumptech.glide.load.model.GlideUrl;
-import com.bumptech.glide.load.model.Headers;
 import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
 import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.target.Target;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
+import java.io.InputStream;
+import java.io.OutputStream;
+import xyz.zedler.patrick.grocy.web.GrocyPicture;
 
 public class PictureUtil {
 
   private static final String TAG = PictureUtil.class.getSimpleName();
 
+  private static final int MAX_UPLOAD_WIDTH = 1280;
+  private static final int MAX_UPLOAD_HEIGHT = 800;
+  private static final int UPLOAD_QUALITY = 80;
+  private static final String UPLOAD_DIR = "uploads";
+
   public static void loadPicture(ImageView imageView, @Nullable CardView frame, String pictureUrl) {
     Glide.with(imageView.getContext())
-        .load(new GlideUrl(
-            pictureUrl,
-            RequestHeaders.getGlideGrocyAuthHeaders(imageView.getContext())
-        )).transition(DrawableTransitionOptions.withCrossFade())
+        .load(new GrocyPicture(pictureUrl))
+        .transition(DrawableTransitionOptions.withCrossFade())
         .listener(new RequestListener<>() {
           @Override
           public boolean onLoadFailed(@Nullable GlideException e, Object model,
@@ -76,11 +82,50 @@ public class PictureUtil {
       @Nullable CardView frame,
       @Nullable CardView placeHolder,
       String pictureUrl,
-      Headers grocyAuthHeaders,
+      boolean isGrocyPicture,
       boolean keepAspectRatio
   ) {
     RequestBuilder<Drawable> requestBuilder = Glide.with(picture.getContext())
-        .load(new GlideUrl(pictureUrl, grocyAuthHeaders));
+        .load(isGrocyPicture ? new GrocyPicture(pictureUrl) : pictureUrl);
+    loadPicture(requestBuilder, picture, frame, placeHolder, keepAspectRatio);
+  }
+
+  /**
+   * Loads a list thumbnail with the same request as the RecyclerView preloader, so rows which
+   * were preloaded are taken from the memory cache.
+   */
+  public static void loadThumbnail(
+      ImageView picture,
+      @Nullable CardView placeHolder,
+      String pictureUrl,
+      boolean keepAspectRatio
+  ) {
+    loadPicture(
+        getThumbnailRequest(picture.getContext(), pictureUrl),
+        picture,
+        null,
+        placeHolder,
+        keepAspectRatio
+    );
+  }
+
+  /**
+   * Thumbnails are decoded without alpha channel, which halves their memory.
+   */
+  public static RequestBuilder<Drawable> getThumbnailRequest(Context context, String pictureUrl) {
+    return Glide.with(context)
+        .load(new GrocyPicture(pictureUrl))
+        .format(DecodeFormat.PREFER_RGB_565)
+        .transform(new CenterCrop());
+  }
+
+  private static void loadPicture(
+      RequestBuilder<Drawable> requestBuilder,
+      ImageView picture,
+      @Nullable CardView frame,
+      @Nullable CardView placeHolder,
+      boolean keepAspectRatio
+  ) {
     requestBuilder = requestBuilder
         .transform(new CenterCrop())
         .transition(DrawableTransitionOptions.withCrossFade());
@@ -111,50 +156,85 @@ public class PictureUtil {
     }).into(picture);
   }
 
-  public static Bitmap scaleBitmap(String imagePath) {
-    int maxWidth = 1280;
-    int maxHeight = 800;
-    BitmapFactory.Options options = new BitmapFactory.Options();
-    options.inJustDecodeBounds = true;
-    BitmapFactory.decodeFile(imagePath, options);
-    int imageHeight = options.outHeight;
-    int imageWidth = options.outWidth;
-    int scaleFactor = Math.min(imageWidth / maxWidth, imageHeight / maxHeight);
-    options.inJustDecodeBounds = false;
-    options.inSampleSize = scaleFactor;
-    int rotation = 0;
+  /**
+   * Decodes the picture subsampled close to the upload size, scales and rotates it in one pass
+   * and compresses it straight into the target file, so the full picture is never in memory.
+   */
+  public static boolean compressPictureForUpload(StreamOpener picture, File targetFile) {
+    Bitmap bitmap = null;
     try {
-      var exif = new ExifInterface(imagePath);
-      rotation = exif.getRotationDegrees();
-    } catch (IOException e) {
-      Log.w(TAG, "Reading exif data failed, ignoring possible rotation: " + e);
-    }
-    var bitmap = BitmapFactory.decodeFile(imagePath, options);
-    if (rotation == 0) return bitmap;
-    else {
-      var matrix = new Matrix();
-      matrix.postRotate(rotation);
-      return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+      BitmapFactory.Options options = new BitmapFactory.Options();
+      options.inJustDecodeBounds = true;
+      try (InputStream stream = openStream(picture)) {
+        BitmapFactory.decodeStream(stream, null, options);
+      }
+      if (options.outWidth <= 0 || options.outHeight <= 0) return false;
+
+      int rotation = 0;
+      try (InputStream stream = openStream(picture)) {
+        rotation = new ExifInterface(stream).getRotationDegrees();
+      } catch (IOException e) {
+        Log.w(TAG, "Reading exif data failed, ignoring possible rotation: " + e);
+      }
+      // the maximum size applies to the picture as it is displayed after the rotation
+      boolean isRotatedSideways = rotation == 90 || rotation == 270;
+      int width = isRotatedSideways ? options.outHeight : options.outWidth;
+      int height = isRotatedSideways ? options.outWidth : options.outHeight;
+      float scale = Math.min(1, Math.min(
+          (float) MAX_UPLOAD_WIDTH / width, (float) MAX_UPLOAD_HEIGHT / height
+      ));
+      int targetWidth = Math.round(width * scale);
+      int targetHeight = Math.round(height * scale);
+
+      int sampleSize = 1;
+      while (width / (sampleSize * 2) >= targetWidth
+          && height / (sampleSize * 2) >= targetHeight) {
+        sampleSize *= 2;
+      }
+      options.inJustDecodeBounds = false;
+      options.inSampleSize = sampleSize;
+      try (InputStream stream = openStream(picture)) {
+        bitmap = BitmapFactory.decodeStream(stream, null, options);
+      }
+      if (bitmap == null) return false;
+
+      Matrix matrix = new Matrix();
+      int decodedWidth = isRotatedSideways ? bitmap.getHeight() : bitmap.getWidth();
+      if (decodedWidth > targetWidth) {
+        float bitmapScale = (float) targetWidth / decodedWidth;
+        matrix.postScale(bitmapScale, bitmapScale);
+      }
+      if (rotation != 0) matrix.postRotate(rotation);
+      if (!matrix.isIdentity()) {
+        Bitmap transformed = Bitmap.createBitmap(
+            bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true
+        );
+        if (transformed != bitmap) bitmap.recycle();
+        bitmap = transformed;
+      }
+      try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(targetFile))) {
+        return bitmap.compress(Bitmap.CompressFormat.JPEG, UPLOAD_QUALITY, stream);
+      }
+    } catch (IOException | OutOfMemoryError e) {
+      Log.e(TAG, "compressPictureForUpload: " + e);
+      return false;
+    } finally {
+      if (bitmap != null) bitmap.recycle();
     }
   }
 
-  public static Bitmap scaleBitmap(Bitmap bitmap) {
-    int maxWidth = 1280;
-    int maxHeight = 800;
-    float scale = Math.min(
-        ((float)maxWidth / bitmap.getWidth()),
-        ((float)maxHeight / bitmap.getHeight())
-    );
-    int newWidth = Math.round(bitmap.getWidth() * scale);
-    int newHeight = Math.round(bitmap.getHeight() * scale);
-    return Bitmap.createScaledBitmap(bitmap, newWidth, newHeight, true);
+  private static InputStream openStream(StreamOpener picture) throws IOException {
+    InputStream stream = picture.open();
+    if (stream == null) throw new IOException("Picture could not be opened");
+    return stream;
   }
 
-  public static byte[] convertBitmapToByteArray(Bitmap bitmap) {
-    if (bitmap == null) return null;
-    ByteArrayOutputStream stream = new ByteArrayOutputStream();
-    bitmap.compress(Bitmap.CompressFormat.JPEG, 80, stream);
-    return stream.toByteArray();
+  public static File createUploadFile(Context context) throws IOException {
+    File uploadDir = new File(context.getCacheDir(), UPLOAD_DIR);
+    if (!uploadDir.exists() && !uploadDir.mkdirs()) {
+      throw new IOException("Could not create " + UPLOAD_DIR);
+    }
+    return File.createTempFile(String.valueOf(System.currentTimeMillis()), ".jpg", uploadDir);
   }
 
   public static File createImageFile(File storageDir) throws IOException {
@@ -168,4 +248,9 @@ public class PictureUtil {
   public static String createImageFilename() {
     return System.currentTimeMillis() + ".jpg";
   }
+
+  public interface StreamOpener {
+
+    InputStream open() throws IOException;
+  }
 }
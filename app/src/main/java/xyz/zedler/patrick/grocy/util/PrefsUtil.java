@@ -49,6 +49,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 
 public class PrefsUtil {
+
   private final SharedPreferences sharedPreferences;
   private final Fragment fragment;
   private final ActivityResultLauncher<Intent> exportLauncher;
@@ -188,6 +189,14 @@ public class PrefsUtil {
         "notification_due_soon_time",
         "notification_stock_time"
     );
+    // Change times of the downloaded tables are now stored in the database, see SyncState
+    SharedPreferences.Editor editor = null;
+    for (String key : sharedPrefs.getAll().keySet()) {
+      if (!key.startsWith("db_last_time_")) continue;
+      if (editor == null) editor = sharedPrefs.edit();
+      editor.remove(key);
+    }
+    if (editor != null) editor.apply();
   }
 
   private static void migratePref(
@@ -215,38 +224,7 @@ public class PrefsUtil {
   }
 
   public static void clearCachingRelatedSharedPreferences(SharedPreferences sharedPrefs) {
-    SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_ITEMS);
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_STORES);
-    editPrefs.remove(PREF.DB_LAST_TIME_LOCATIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_LOCATIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS);
-    editPrefs.remove(PREF.DB_LAST_TIME_SHOPPING_LISTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCT_GROUPS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNITS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCT_BARCODES);
-    editPrefs.remove(PREF.DB_LAST_TIME_VOLATILE);
-    editPrefs.remove(PREF.DB_LAST_TIME_VOLATILE_MISSING);
-    editPrefs.remove(PREF.DB_LAST_TIME_TASKS);
-    editPrefs.remove(PREF.DB_LAST_TIME_TASK_CATEGORIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_CHORES);
-    editPrefs.remove(PREF.DB_LAST_TIME_CHORE_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_USERS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPES);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_POSITIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_NESTINGS);
-    editPrefs.remove(PREF.DB_LAST_TIME_USERFIELDS);
-    editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS);
-    editPrefs.apply();
+    sharedPrefs.edit().remove(PREF.INFO_LAST_TIME).apply();
   }
 
   public static void clearServerRelatedSharedPreferences(SharedPreferences sharedPrefs) {
@@ -0,0 +1,174 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+
+/**
+ * Barcode lookup table shared by the purchase, consume, inventory and transfer pages, so that
+ * a scanned code is resolved with a hash lookup instead of a scan over all barcodes.
+ * Codes are looked up exactly first and then by their normalized GTIN form, so that an UPC-A
+ * code also finds the same code stored as EAN-13 with a leading zero.
+ * Barcodes of pending products are kept separately, because only the purchase page can use them.
+ * The index belongs to the database of one server and is replaced when the database changes.
+ */
+public class ProductBarcodeIndex {
+
+  private static ProductBarcodeIndex instance;
+
+  private final AppDatabase appDatabase;
+  private final HashMap<String, ProductBarcode> barcodes;
+  private final HashMap<String, ProductBarcode> barcodesNormalized;
+  private final HashMap<String, PendingProductBarcode> pendingBarcodes;
+  private final HashMap<String, PendingProductBarcode> pendingBarcodesNormalized;
+
+  private ProductBarcodeIndex(AppDatabase appDatabase) {
+    this.appDatabase = appDatabase;
+    barcodes = new HashMap<>();
+    barcodesNormalized = new HashMap<>();
+    pendingBarcodes = new HashMap<>();
+    pendingBarcodesNormalized = new HashMap<>();
+  }
+
+  public static synchronized ProductBarcodeIndex getInstance(AppDatabase appDatabase) {
+    if (instance == null || instance.appDatabase != appDatabase) {
+      instance = new ProductBarcodeIndex(appDatabase);
+    }
+    return instance;
+  }
+
+  public synchronized void setProductBarcodes(@Nullable List<ProductBarcode> productBarcodes) {
+    barcodes.clear();
+    barcodesNormalized.clear();
+    if (productBarcodes == null) return;
+    for (ProductBarcode productBarcode : productBarcodes) {
+      put(barcodes, barcodesNormalized, productBarcode);
+    }
+  }
+
+  public synchronized void setPendingProductBarcodes(
+      @Nullable List<PendingProductBarcode> pendingProductBarcodes
+  ) {
+    pendingBarcodes.clear();
+    pendingBarcodesNormalized.clear();
+    if (pendingProductBarcodes == null) return;
+    for (PendingProductBarcode pendingProductBarcode : pendingProductBarcodes) {
+      put(pendingBarcodes, pendingBarcodesNormalized, pendingProductBarcode);
+    }
+  }
+
+  public synchronized void addProductBarcode(ProductBarcode productBarcode) {
+    put(barcodes, barcodesNormalized, productBarcode);
+  }
+
+  public synchronized void addPendingProductBarcode(PendingProductBarcode productBarcode) {
+    put(pendingBarcodes, pendingBarcodesNormalized, productBarcode);
+  }
+
+  @Nullable
+  public ProductBarcode getProductBarcode(@Nullable String barcode) {
+    return getProductBarcode(barcode, false);
+  }
+
+  /**
+   * Returns the barcode of a product or, if there is none and includePending is true,
+   * the barcode of a pending product.
+   */
+  @Nullable
+  public synchronized ProductBarcode getProductBarcode(
+      @Nullable String barcode,
+      boolean includePending
+  ) {
+    if (barcode == null) return null;
+    ProductBarcode productBarcode = get(barcodes, barcodesNormalized, barcode);
+    if (productBarcode != null || !includePending) return productBarcode;
+    return get(pendingBarcodes, pendingBarcodesNormalized, barcode);
+  }
+
+  private static <T extends ProductBarcode> void put(
+      HashMap<String, T> exact,
+      HashMap<String, T> normalized,
+      @Nullable T productBarcode
+  ) {
+    if (productBarcode == null || productBarcode.getBarcode() == null) return;
+    String barcode = productBarcode.getBarcode();
+    // like in the previous list lookups, the first barcode wins
+    if (!exact.containsKey(barcode)) exact.put(barcode, productBarcode);
+    String normalizedBarcode = normalize(barcode);
+    if (normalizedBarcode != null && !normalized.containsKey(normalizedBarcode)) {
+      normalized.put(normalizedBarcode, productBarcode);
+    }
+  }
+
+  @Nullable
+  private static <T extends ProductBarcode> T get(
+      HashMap<String, T> exact,
+      HashMap<String, T> normalized,
+      String barcode
+  ) {
+    T productBarcode = exact.get(barcode);
+    if (productBarcode != null) return productBarcode;
+    String normalizedBarcode = normalize(barcode);
+    return normalizedBarcode != null ? normalized.get(normalizedBarcode) : null;
+  }
+
+  /**
+   * Returns the 14 digit GTIN form of an EAN-8, UPC-A, EAN-13 or GTIN-14 code or null if the code
+   * is not one of these. Only codes with a valid check digit are normalized, so that other codes
+   * with the same digits (e.g. internal codes with leading zeros) are not treated as equal.
+   */
+  @Nullable
+  public static String normalize(String barcode) {
+    String code = barcode.trim();
+    int length = code.length();
+    if (length != 8 && length != 12 && length != 13 && length != 14) return null;
+    for (int i = 0; i < length; i++) {
+      char c = code.charAt(i);
+      if (c < '0' || c > '9') return null;
+    }
+    if (getCheckDigit(code, length - 1) != code.charAt(length - 1) - '0') return null;
+    return padGtin(code);
+  }
+
+  private static int getCheckDigit(String digits, int count) {
+    int sum = 0;
+    boolean weightThree = true;
+    for (int i = count - 1; i >= 0; i--) {
+      int digit = digits.charAt(i) - '0';
+      sum += weightThree ? digit * 3 : digit;
+      weightThree = !weightThree;
+    }
+    return (10 - sum % 10) % 10;
+  }
+
+  private static String padGtin(String code) {
+    StringBuilder builder = new StringBuilder(14);
+    for (int i = code.length(); i < 14; i++) {
+      builder.append('0');
+    }
+    return builder.append(code).toString();
+  }
+}
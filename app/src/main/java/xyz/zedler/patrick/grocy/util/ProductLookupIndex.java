@@ -0,0 +1,291 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
+
+/**
+ * Compact offline index of barcodes with product name, brand and quantity, built from a subset
+ * of the Open Food Facts CSV export. The file holds the barcodes as sorted numbers, followed by
+ * the offsets of their records and the records, and is memory-mapped, so a lookup is a binary
+ * search in the mapped file without loading the index into the heap.
+ * Barcodes are stored as numbers, so UPC-A and its EAN-13 form with leading zero are the same.
+ */
+public class ProductLookupIndex {
+
+  private final static String TAG = ProductLookupIndex.class.getSimpleName();
+
+  private final static int MAGIC = 0x47504c49;
+  private final static int FORMAT_VERSION = 1;
+  private final static int HEADER_SIZE = 12;
+  private final static int MAX_BARCODE_DIGITS = 18;
+  private final static int MAX_FIELD_LENGTH = 255;
+
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private final int offsetsStart;
+  private final int recordsStart;
+
+  private ProductLookupIndex(MappedByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("not a product lookup index");
+    }
+    this.buffer = buffer;
+    count = buffer.getInt(8);
+    offsetsStart = HEADER_SIZE + count * 8;
+    recordsStart = offsetsStart + count * 4;
+    if (count < 0 || recordsStart > buffer.capacity()) {
+      throw new IOException("truncated product lookup index");
+    }
+  }
+
+  @Nullable
+  public static ProductLookupIndex open(@NonNull File file) {
+    if (!file.isFile()) return null;
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        FileChannel channel = randomAccessFile.getChannel()) {
+      return new ProductLookupIndex(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException e) {
+      Log.e(TAG, "open: " + e);
+      return null;
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  @Nullable
+  public ProductLookupResult lookup(@NonNull String barcode) {
+    long key = parseBarcode(barcode);
+    if (key < 0) return null;
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midKey = buffer.getLong(HEADER_SIZE + mid * 8);
+      if (midKey < key) {
+        low = mid + 1;
+      } else if (midKey > key) {
+        high = mid - 1;
+      } else {
+        return readRecord(barcode, buffer.getInt(offsetsStart + mid * 4));
+      }
+    }
+    return null;
+  }
+
+  private ProductLookupResult readRecord(String barcode, int offset) {
+    // duplicate for own position, lookups can run on several threads
+    ByteBuffer record = buffer.duplicate();
+    record.position(recordsStart + offset);
+    String productName = readField(record);
+    String brand = readField(record);
+    String quantity = readField(record);
+    return new ProductLookupResult(
+        barcode, productName, brand, quantity, ProductLookupResult.SOURCE_OFFLINE
+    );
+  }
+
+  @Nullable
+  private static String readField(ByteBuffer record) {
+    int length = record.getShort() & 0xFFFF;
+    if (length == 0) return null;
+    byte[] bytes = new byte[length];
+    record.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Builds an index file from the Open Food Facts CSV export, which is tab separated and starts
+   * with a header row. Rows without numeric barcode or product name are skipped, of rows with
+   * the same barcode only one is kept. The records are streamed into a temporary file, so only
+   * barcodes and offsets are held in memory while sorting.
+   *
+   * @return number of products in the new index
+   */
+  public static int build(@NonNull InputStream csv, @NonNull File file) throws IOException {
+    File recordsFile = new File(file.getPath() + ".records");
+    File tempFile = new File(file.getPath() + ".tmp");
+    try {
+      long[] keys = new long[1024];
+      int[] offsets = new int[1024];
+      int size = 0;
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(csv, StandardCharsets.UTF_8));
+          DataOutputStream records = new DataOutputStream(
+              new BufferedOutputStream(new FileOutputStream(recordsFile)))) {
+        String header = reader.readLine();
+        if (header == null) throw new IOException("empty file");
+        String[] columns = header.split("\t", -1);
+        int columnCode = indexOf(columns, "code");
+        int columnName = indexOf(columns, "product_name");
+        int columnBrands = indexOf(columns, "brands");
+        int columnQuantity = indexOf(columns, "quantity");
+        if (columnCode == -1 || columnName == -1) {
+          throw new IOException("missing code or product_name column");
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] values = line.split("\t", -1);
+          long key = parseBarcode(getValue(values, columnCode));
+          byte[] productName = encodeField(getValue(values, columnName));
+          if (key < 0 || productName.length == 0) continue;
+          if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+          }
+          if (records.size() == Integer.MAX_VALUE) throw new IOException("index too large");
+          keys[size] = key;
+          offsets[size] = records.size();
+          size++;
+          writeField(records, productName);
+          writeField(records, encodeField(getValue(values, columnBrands)));
+          writeField(records, encodeField(getValue(values, columnQuantity)));
+        }
+      }
+
+      sort(keys, offsets, size);
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        if (count > 0 && keys[count - 1] == keys[i]) continue;
+        keys[count] = keys[i];
+        offsets[count] = offsets[i];
+        count++;
+      }
+
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tempFile)));
+          InputStream records = new BufferedInputStream(new FileInputStream(recordsFile))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) out.writeLong(keys[i]);
+        for (int i = 0; i < count; i++) out.writeInt(offsets[i]);
+        byte[] chunk = new byte[64 * 1024];
+        int read;
+        while ((read = records.read(chunk)) != -1) {
+          out.write(chunk, 0, read);
+        }
+      }
+      if (!tempFile.renameTo(file)) throw new IOException("could not replace index file");
+      return count;
+    } finally {
+      if (recordsFile.exists() && !recordsFile.delete()) {
+        Log.w(TAG, "build: could not delete " + recordsFile.getName());
+      }
+      if (tempFile.exists() && !tempFile.delete()) {
+        Log.w(TAG, "build: could not delete " + tempFile.getName());
+      }
+    }
+  }
+
+  /**
+   * @return barcode as number or -1 if it is not a numeric barcode
+   */
+  private static long parseBarcode(@Nullable String barcode) {
+    if (barcode == null) return -1;
+    barcode = barcode.trim();
+    if (barcode.isEmpty() || barcode.length() > MAX_BARCODE_DIGITS) return -1;
+    for (int i = 0; i < barcode.length(); i++) {
+      if (!Character.isDigit(barcode.charAt(i))) return -1;
+    }
+    return Long.parseLong(barcode);
+  }
+
+  private static int indexOf(String[] columns, String name) {
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].trim().equals(name)) return i;
+    }
+    return -1;
+  }
+
+  @Nullable
+  private static String getValue(String[] values, int column) {
+    return column >= 0 && column < values.length ? values[column] : null;
+  }
+
+  private static byte[] encodeField(@Nullable String value) {
+    if (value == null) return new byte[0];
+    value = value.trim();
+    if (value.length() > MAX_FIELD_LENGTH) value = value.substring(0, MAX_FIELD_LENGTH);
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void writeField(DataOutputStream out, byte[] field) throws IOException {
+    out.writeShort(field.length);
+    out.write(field);
+  }
+
+  /**
+   * Heapsort of the barcodes which moves the record offsets along, without boxing.
+   */
+  private static void sort(long[] keys, int[] offsets, int size) {
+    for (int i = size / 2 - 1; i >= 0; i--) {
+      siftDown(keys, offsets, i, size);
+    }
+    for (int end = size - 1; end > 0; end--) {
+      swap(keys, offsets, 0, end);
+      siftDown(keys, offsets, 0, end);
+    }
+  }
+
+  private static void siftDown(long[] keys, int[] offsets, int root, int size) {
+    while (true) {
+      int child = root * 2 + 1;
+      if (child >= size) return;
+      if (child + 1 < size && keys[child + 1] > keys[child]) child++;
+      if (keys[root] >= keys[child]) return;
+      swap(keys, offsets, root, child);
+      root = child;
+    }
+  }
+
+  private static void swap(long[] keys, int[] offsets, int i, int j) {
+    long key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    int offset = offsets[i];
+    offsets[i] = offsets[j];
+    offsets[j] = offset;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import androidx.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+
+/**
+ * Index over the conversions table which is built once after loading from database, so that
+ * the unit factors of a product can be looked up without scanning all conversions every time
+ * a product is selected or a list item is bound.
+ * Factors are grouped by (product id, from unit id) and stored in primitive arrays, in the same
+ * order as in the list. The first conversion for a "to" unit wins.
+ */
+public class QuantityUnitConversionIndex {
+
+  public static final double NO_FACTOR = -1;
+  private static final int NO_PRODUCT = -1;
+
+  // key: product id (or NO_PRODUCT for standard conversions) and from unit id
+  private final HashMap<Long, Factors> factorsByProductAndUnit;
+  // all product specific conversions regardless of from unit, needed for servers before 4.0
+  private final HashMap<Integer, Factors> factorsByProduct;
+  private final int size;
+
+  public QuantityUnitConversionIndex(@Nullable List<? extends QuantityUnitConversion> conversions) {
+    int capacity = conversions != null ? conversions.size() / 4 + 16 : 16;
+    factorsByProductAndUnit = new HashMap<>(capacity);
+    factorsByProduct = new HashMap<>(capacity);
+    size = conversions != null ? conversions.size() : 0;
+    if (conversions == null) return;
+    for (QuantityUnitConversion conversion : conversions) {
+      boolean isProductSpecific = NumUtil.isStringInt(conversion.getProductId());
+      int productId = isProductSpecific ? conversion.getProductIdInt() : NO_PRODUCT;
+      long key = getKey(productId, conversion.getFromQuId());
+      Factors factors = factorsByProductAndUnit.get(key);
+      if (factors == null) {
+        factors = new Factors();
+        factorsByProductAndUnit.put(key, factors);
+      }
+      factors.add(conversion.getToQuId(), conversion.getFactor());
+
+      if (!isProductSpecific) continue;
+      Factors productFactors = factorsByProduct.get(productId);
+      if (productFactors == null) {
+        productFactors = new Factors();
+        factorsByProduct.put(productId, productFactors);
+      }
+      productFactors.add(conversion.getToQuId(), conversion.getFactor());
+    }
+  }
+
+  private static long getKey(int productId, int fromQuId) {
+    return ((long) productId << 32) | (fromQuId & 0xffffffffL);
+  }
+
+  /**
+   * Returns the factor of the product specific conversion or NO_FACTOR if there is none.
+   */
+  public double getFactor(int productId, int fromQuId, int toQuId) {
+    Factors factors = factorsByProductAndUnit.get(getKey(productId, fromQuId));
+    return factors != null ? factors.get(toQuId) : NO_FACTOR;
+  }
+
+  @Nullable
+  Factors getFactors(int productId, int fromQuId) {
+    return factorsByProductAndUnit.get(getKey(productId, fromQuId));
+  }
+
+  @Nullable
+  Factors getStandardFactors(int fromQuId) {
+    return factorsByProductAndUnit.get(getKey(NO_PRODUCT, fromQuId));
+  }
+
+  @Nullable
+  Factors getAllProductFactors(int productId) {
+    return factorsByProduct.get(productId);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  static class Factors {
+
+    private int count = 0;
+    private int[] toQuIds = new int[4];
+    private double[] factors = new double[4];
+
+    private void add(int toQuId, double factor) {
+      for (int i = 0; i < count; i++) {
+        if (toQuIds[i] == toQuId) return;
+      }
+      if (count == toQuIds.length) {
+        int[] newToQuIds = new int[count * 2];
+        double[] newFactors = new double[count * 2];
+        System.arraycopy(toQuIds, 0, newToQuIds, 0, count);
+        System.arraycopy(factors, 0, newFactors, 0, count);
+        toQuIds = newToQuIds;
+        factors = newFactors;
+      }
+      toQuIds[count] = toQuId;
+      factors[count] = factor;
+      count++;
+    }
+
+    double get(int toQuId) {
+      for (int i = 0; i < count; i++) {
+        if (toQuIds[i] == toQuId) return factors[i];
+      }
+      return NO_FACTOR;
+    }
+
+    int size() {
+      return count;
+    }
+
+    int getToQuId(int index) {
+      return toQuIds[index];
+    }
+
+    double getFactor(int index) {
+      return factors[index];
+    }
+  }
+}
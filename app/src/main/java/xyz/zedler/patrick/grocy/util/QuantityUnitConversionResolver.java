@@ -0,0 +1,299 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionPath;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+
+/**
+ * Resolves transitive conversions on the device, like Grocy does it on the server since 4.0.
+ * For each product a unit graph is built from, in this order of precedence, its product
+ * specific conversions, their inverses, the standard conversions and their inverses. Between
+ * two units only the first conversion is used, so a product specific conversion always wins
+ * over a standard one, also if only its inverse connects the units. With older servers, the
+ * purchase to stock factor of the product is added as product specific conversion too.
+ * All units connected to the stock unit are then resolved with a breadth first search, so the
+ * shortest path wins and cycles are never followed.
+ * Conversions from the stock unit come first in the output, which keeps the first-wins lookups
+ * in QuantityUnitConversionUtil correct.
+ * Results are cached per product and only the affected products are resolved again after a
+ * conversion has been added, changed or removed.
+ */
+public class QuantityUnitConversionResolver {
+
+  private final LinkedHashMap<Integer, QuantityUnitConversion> conversions;
+  private final LinkedHashMap<Integer, Product> products;
+  private final boolean includePurchaseConversions;
+
+  private final HashMap<Integer, List<QuantityUnitConversionPath>> pathsByProduct;
+  private final HashMap<Integer, Set<Integer>> unitsByProduct;
+
+  public QuantityUnitConversionResolver(
+      @Nullable List<? extends QuantityUnitConversion> conversions,
+      @Nullable List<Product> products,
+      boolean includePurchaseConversions
+  ) {
+    this.conversions = new LinkedHashMap<>();
+    this.products = new LinkedHashMap<>();
+    this.includePurchaseConversions = includePurchaseConversions;
+    pathsByProduct = new HashMap<>();
+    unitsByProduct = new HashMap<>();
+    if (conversions != null) {
+      for (QuantityUnitConversion conversion : conversions) {
+        this.conversions.put(conversion.getId(), conversion);
+      }
+    }
+    if (products != null) {
+      for (Product product : products) {
+        this.products.put(product.getId(), product);
+      }
+    }
+  }
+
+  /**
+   * Adds or replaces the conversion with the same id and returns the ids of all products whose
+   * resolved conversions have changed.
+   */
+  public Set<Integer> putConversion(@NonNull QuantityUnitConversion conversion) {
+    QuantityUnitConversion oldConversion = conversions.put(conversion.getId(), conversion);
+    Set<Integer> affectedProductIds = getAffectedProductIds(conversion);
+    if (oldConversion != null) {
+      affectedProductIds.addAll(getAffectedProductIds(oldConversion));
+    }
+    invalidate(affectedProductIds);
+    return affectedProductIds;
+  }
+
+  /**
+   * Removes the conversion with the given id and returns the ids of all products whose
+   * resolved conversions have changed.
+   */
+  public Set<Integer> removeConversion(int conversionId) {
+    QuantityUnitConversion oldConversion = conversions.remove(conversionId);
+    if (oldConversion == null) return new HashSet<>();
+    Set<Integer> affectedProductIds = getAffectedProductIds(oldConversion);
+    invalidate(affectedProductIds);
+    return affectedProductIds;
+  }
+
+  public void putProduct(@NonNull Product product) {
+    products.put(product.getId(), product);
+    pathsByProduct.remove(product.getId());
+    unitsByProduct.remove(product.getId());
+  }
+
+  public boolean containsProduct(int productId) {
+    return products.containsKey(productId);
+  }
+
+  /**
+   * Returns the resolved conversions of all products with ids counting up from 0.
+   */
+  public List<QuantityUnitConversionResolved> getConversionsResolved() {
+    List<QuantityUnitConversionResolved> conversionsResolved = new ArrayList<>();
+    for (int productId : products.keySet()) {
+      conversionsResolved.addAll(getConversionsResolved(productId, conversionsResolved.size()));
+    }
+    return conversionsResolved;
+  }
+
+  /**
+   * Returns the resolved conversions of one product with ids counting up from startId.
+   */
+  public List<QuantityUnitConversionResolved> getConversionsResolved(int productId, int startId) {
+    List<QuantityUnitConversionPath> paths = getPaths(productId);
+    List<QuantityUnitConversionResolved> conversionsResolved = new ArrayList<>(paths.size());
+    int id = startId;
+    for (QuantityUnitConversionPath path : paths) {
+      conversionsResolved.add(path.toConversion(id));
+      id++;
+    }
+    return conversionsResolved;
+  }
+
+  public List<QuantityUnitConversionPath> getPaths(int productId) {
+    List<QuantityUnitConversionPath> paths = pathsByProduct.get(productId);
+    if (paths == null) {
+      paths = resolve(productId);
+      pathsByProduct.put(productId, paths);
+    }
+    return paths;
+  }
+
+  private Set<Integer> getAffectedProductIds(QuantityUnitConversion conversion) {
+    Set<Integer> affectedProductIds = new HashSet<>();
+    if (NumUtil.isStringInt(conversion.getProductId())) {
+      affectedProductIds.add(conversion.getProductIdInt());
+      return affectedProductIds;
+    }
+    // A standard conversion can only change products which already reach one of its units,
+    // because all other units are not connected to the stock unit of the product.
+    for (int productId : products.keySet()) {
+      Set<Integer> units = unitsByProduct.get(productId);
+      if (units == null) {
+        units = getUnitGraph(productId) != null ? unitsByProduct.get(productId) : null;
+      }
+      if (units != null && (units.contains(conversion.getFromQuId())
+          || units.contains(conversion.getToQuId()))) {
+        affectedProductIds.add(productId);
+      }
+    }
+    return affectedProductIds;
+  }
+
+  private void invalidate(Set<Integer> productIds) {
+    for (int productId : productIds) {
+      pathsByProduct.remove(productId);
+      unitsByProduct.remove(productId);
+    }
+  }
+
+  private List<QuantityUnitConversionPath> resolve(int productId) {
+    List<QuantityUnitConversionPath> paths = new ArrayList<>();
+    HashMap<Integer, LinkedHashMap<Integer, Double>> graph = getUnitGraph(productId);
+    Set<Integer> units = unitsByProduct.get(productId);
+    if (graph == null || units == null) return paths;
+    String productIdStr = String.valueOf(productId);
+    for (int fromQuId : units) {
+      ArrayDeque<QuantityUnitConversionPath> queue = new ArrayDeque<>();
+      HashSet<Integer> visited = new HashSet<>();
+      QuantityUnitConversionPath self = new QuantityUnitConversionPath(
+          0, productIdStr, fromQuId, fromQuId, 1, "/" + fromQuId + "/"
+      );
+      visited.add(fromQuId);
+      paths.add(self);
+      queue.add(self);
+      while (!queue.isEmpty()) {
+        QuantityUnitConversionPath path = queue.poll();
+        Map<Integer, Double> edges = graph.get(path.getToQuId());
+        if (edges == null) continue;
+        for (Map.Entry<Integer, Double> edge : edges.entrySet()) {
+          if (!units.contains(edge.getKey()) || !visited.add(edge.getKey())) continue;
+          QuantityUnitConversionPath next = new QuantityUnitConversionPath(
+              path.getDepth() + 1,
+              productIdStr,
+              fromQuId,
+              edge.getKey(),
+              path.getFactor() * edge.getValue(),
+              path.getPath() + edge.getKey() + "/"
+          );
+          paths.add(next);
+          queue.add(next);
+        }
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * Builds the unit graph of the product and stores the units connected to the stock unit,
+   * in breadth first order starting with the stock unit.
+   */
+  @Nullable
+  private HashMap<Integer, LinkedHashMap<Integer, Double>> getUnitGraph(int productId) {
+    Product product = products.get(productId);
+    if (product == null || product.getQuIdStockInt() == -1) return null;
+
+    List<QuantityUnitConversion> productConversions = new ArrayList<>();
+    List<QuantityUnitConversion> standardConversions = new ArrayList<>();
+    for (QuantityUnitConversion conversion : conversions.values()) {
+      if (!NumUtil.isStringInt(conversion.getProductId())) {
+        standardConversions.add(conversion);
+      } else if (conversion.getProductIdInt() == productId) {
+        productConversions.add(conversion);
+      }
+    }
+    int quIdStock = product.getQuIdStockInt();
+    int quIdPurchase = product.getQuIdPurchaseInt();
+    boolean hasPurchaseConversion = includePurchaseConversions
+        && quIdPurchase != -1 && quIdPurchase != quIdStock;
+    double factorPurchaseToStock = product.getQuFactorPurchaseToStockDouble();
+
+    HashMap<Integer, LinkedHashMap<Integer, Double>> graph = new HashMap<>();
+    putEdges(graph, productConversions, false);
+    if (hasPurchaseConversion) {
+      putEdge(graph, quIdPurchase, quIdStock, factorPurchaseToStock);
+    }
+    putEdges(graph, productConversions, true);
+    if (hasPurchaseConversion && factorPurchaseToStock > 0) {
+      putEdge(graph, quIdStock, quIdPurchase, 1 / factorPurchaseToStock);
+    }
+    putEdges(graph, standardConversions, false);
+    putEdges(graph, standardConversions, true);
+
+    LinkedHashMap<Integer, Boolean> units = new LinkedHashMap<>();
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    units.put(quIdStock, true);
+    queue.add(quIdStock);
+    while (!queue.isEmpty()) {
+      Map<Integer, Double> edges = graph.get(queue.poll());
+      if (edges == null) continue;
+      for (int toQuId : edges.keySet()) {
+        if (units.put(toQuId, true) == null) queue.add(toQuId);
+      }
+    }
+    unitsByProduct.put(productId, units.keySet());
+    return graph;
+  }
+
+  private static void putEdges(
+      HashMap<Integer, LinkedHashMap<Integer, Double>> graph,
+      List<QuantityUnitConversion> conversions,
+      boolean inverse
+  ) {
+    for (QuantityUnitConversion conversion : conversions) {
+      double factor = conversion.getFactor();
+      if (!inverse) {
+        putEdge(graph, conversion.getFromQuId(), conversion.getToQuId(), factor);
+      } else if (factor > 0) {
+        putEdge(graph, conversion.getToQuId(), conversion.getFromQuId(), 1 / factor);
+      }
+    }
+  }
+
+  private static void putEdge(
+      HashMap<Integer, LinkedHashMap<Integer, Double>> graph,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    // also skips NaN and infinite factors, e.g. the inverse of a factor close to zero
+    if (fromQuId == toQuId || !(factor > 0) || Double.isInfinite(factor)) return;
+    LinkedHashMap<Integer, Double> edges = graph.get(fromQuId);
+    if (edges == null) {
+      edges = new LinkedHashMap<>();
+      graph.put(fromQuId, edges);
+    }
+    if (!edges.containsKey(toQuId)) edges.put(toQuId, factor);
+  }
+}
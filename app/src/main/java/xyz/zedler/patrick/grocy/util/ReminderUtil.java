@@ -38,10 +38,16 @@ import androidx.appcompat.view.ContextThemeWrapper;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 import androidx.preference.PreferenceManager;
+import androidx.work.BackoffPolicy;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
 import com.google.android.material.color.DynamicColors;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.NOTIFICATIONS;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
@@ -50,6 +56,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.notification.BootReceiver;
 import xyz.zedler.patrick.grocy.notification.ChoresNotificationReceiver;
 import xyz.zedler.patrick.grocy.notification.StockNotificationReceiver;
+import xyz.zedler.patrick.grocy.worker.ReminderWorker;
 
 public class ReminderUtil {
 
@@ -57,6 +64,9 @@ public class ReminderUtil {
 
   public final static String STOCK_TYPE = "STOCK";
   public final static String CHORES_TYPE = "CHORES";
+  public final static String EXTRA_TRIGGER_TIME = "trigger_time";
+
+  private final static long RETRY_DELAY = 10; // minutes
 
   private final Context context;
   private final SharedPreferences sharedPrefs;
@@ -124,11 +134,14 @@ public class ReminderUtil {
       calendar.add(Calendar.DATE, 1);
     }
 
+    // the trigger time is passed on to the reminder work, so the extras have to be updated
+    Intent intent = new Intent(context, receiverClass);
+    intent.putExtra(EXTRA_TRIGGER_TIME, calendar.getTimeInMillis());
     PendingIntent pendingIntent = PendingIntent.getBroadcast(
         context,
         reminderId,
-        new Intent(context, receiverClass),
-        getPendingIntentFlags()
+        intent,
+        getPendingIntentFlags() | PendingIntent.FLAG_UPDATE_CURRENT
     );
 
     if (notificationManager != null) {
@@ -136,32 +149,40 @@ public class ReminderUtil {
     }
     if (alarmManager != null) {
       alarmManager.cancel(pendingIntent);
-      alarmManager.set(AlarmManager.RTC_WAKEUP, calendar.getTimeInMillis(), pendingIntent);
+      setAlarm(calendar.getTimeInMillis(), pendingIntent);
     }
   }
 
-  public void scheduleAgainIn10Minutes(
-      int reminderId,
-      Class<? extends BroadcastReceiver> receiverClass
-  ) {
-    Calendar calendar = Calendar.getInstance();
-    calendar.setTimeInMillis(System.currentTimeMillis());
-    calendar.add(Calendar.MINUTE, 10);
+  private void setAlarm(long triggerTime, PendingIntent pendingIntent) {
+    if (VERSION.SDK_INT >= VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+      // exact alarms need a special permission since Android 12, which can be revoked
+      alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+    } else if (VERSION.SDK_INT >= VERSION_CODES.M) {
+      alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+    } else {
+      alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+    }
+  }
 
-    PendingIntent pendingIntent = PendingIntent.getBroadcast(
-        context,
-        reminderId,
-        new Intent(context, receiverClass),
-        getPendingIntentFlags()
+  /**
+   * Enqueues the work which shows the reminder for an alarm. Work for the same reminder type runs
+   * one after another, so alarms which are delivered twice only lead to one notification.
+   */
+  public void enqueueReminderWork(String reminderType, long triggerTime) {
+    OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ReminderWorker.class)
+        .setInputData(new Data.Builder()
+            .putString(ReminderWorker.KEY_TYPE, reminderType)
+            .putLong(ReminderWorker.KEY_TRIGGER_TIME, triggerTime)
+            .build())
+        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, RETRY_DELAY, TimeUnit.MINUTES)
+        .build();
+    WorkManager.getInstance(context).enqueueUniqueWork(
+        getWorkName(reminderType), ExistingWorkPolicy.APPEND_OR_REPLACE, request
     );
+  }
 
-    if (notificationManager != null) {
-      notificationManager.cancel(reminderId);
-    }
-    if (alarmManager != null) {
-      alarmManager.cancel(pendingIntent);
-      alarmManager.set(AlarmManager.RTC_WAKEUP, calendar.getTimeInMillis(), pendingIntent);
-    }
+  private static String getWorkName(String reminderType) {
+    return "reminder_" + reminderType.toLowerCase();
   }
 
   public void setReminderEnabled(String reminderType, boolean enabled) {
@@ -209,6 +230,7 @@ public class ReminderUtil {
       if (alarmManager != null && pendingIntent != null) {
         alarmManager.cancel(pendingIntent);
       }
+      WorkManager.getInstance(context).cancelUniqueWork(getWorkName(reminderType));
     }
     startOnBootCompleted(enabled);
   }
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+
+/**
+ * Keeps the login of every server the user is logged in to, so it can be switched between
+ * servers without logging out. The data of each server and its sync state stay in its own
+ * database (see AppDatabase and SyncState), so only tables which have changed on the server since
+ * then are downloaded again. The preferences of the active server are stored in a preferences
+ * file per server when switching and restored when switching back.
+ */
+public class ServerUtil {
+
+  private static final List<String> SERVER_PREFS = Arrays.asList(
+      PREF.SERVER_URL,
+      PREF.API_KEY,
+      PREF.HOME_ASSISTANT_SERVER_URL,
+      PREF.HOME_ASSISTANT_LONG_LIVED_TOKEN,
+      PREF.GROCY_VERSION,
+      PREF.CURRENT_USER_ID,
+      PREF.SHOPPING_LIST_LAST_ID
+  );
+
+  public static List<String> getOtherServerUrls(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, null);
+    List<String> serverUrls = new ArrayList<>(getServerUrls(sharedPrefs));
+    serverUrls.remove(serverUrl);
+    Collections.sort(serverUrls);
+    return serverUrls;
+  }
+
+  /**
+   * Stores the preferences of the active server, has to be called after login and before
+   * switching to another server.
+   */
+  public static void saveCurrentServer(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, null);
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      return;
+    }
+    copyPrefs(sharedPrefs, getServerPrefs(context, serverUrl));
+    Set<String> serverUrls = new HashSet<>(getServerUrls(sharedPrefs));
+    serverUrls.add(serverUrl);
+    sharedPrefs.edit().putStringSet(PREF.SERVER_URLS, serverUrls).apply();
+  }
+
+  /**
+   * Makes the given server the active one. The app has to be restarted afterwards, because
+   * repositories and helpers keep the database of the previous server.
+   */
+  public static void switchServer(Context context, String serverUrl) {
+    saveCurrentServer(context);
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    copyPrefs(getServerPrefs(context, serverUrl), sharedPrefs);
+    sharedPrefs.edit()
+        .remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY)
+        .remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME)
+        .remove(PREF.INFO_LAST_TIME) // configuration belongs to the previous server
+        .apply();
+  }
+
+  /**
+   * Stores the active server and logs out of it, so the login page is shown after a restart
+   * and another server can be added.
+   */
+  public static void prepareNewServer(Context context) {
+    saveCurrentServer(context);
+    PrefsUtil.clearServerRelatedSharedPreferences(
+        PreferenceManager.getDefaultSharedPreferences(context)
+    );
+  }
+
+  /**
+   * Forgets the stored preferences of the active server, e.g. on logout.
+   */
+  public static void removeCurrentServer(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, null);
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      return;
+    }
+    getServerPrefs(context, serverUrl).edit().clear().apply();
+    Set<String> serverUrls = new HashSet<>(getServerUrls(sharedPrefs));
+    serverUrls.remove(serverUrl);
+    sharedPrefs.edit().putStringSet(PREF.SERVER_URLS, serverUrls).apply();
+  }
+
+  private static Set<String> getServerUrls(SharedPreferences sharedPrefs) {
+    return sharedPrefs.getStringSet(PREF.SERVER_URLS, Collections.emptySet());
+  }
+
+  private static SharedPreferences getServerPrefs(Context context, @Nullable String serverUrl) {
+    return context.getSharedPreferences(
+        AppDatabase.getDatabaseName(serverUrl) + "_prefs", Context.MODE_PRIVATE
+    );
+  }
+
+  private static void copyPrefs(SharedPreferences source, SharedPreferences target) {
+    Map<String, ?> values = source.getAll();
+    SharedPreferences.Editor editor = target.edit();
+    for (String key : SERVER_PREFS) {
+      Object value = values.get(key);
+      if (value instanceof Boolean) {
+        editor.putBoolean(key, (Boolean) value);
+      } else if (value instanceof Float) {
+        editor.putFloat(key, (Float) value);
+      } else if (value instanceof Integer) {
+        editor.putInt(key, (Integer) value);
+      } else if (value instanceof Long) {
+        editor.putLong(key, (Long) value);
+      } else if (value instanceof String) {
+        editor.putString(key, (String) value);
+      } else {
+        editor.remove(key);
+      }
+    }
+    editor.apply();
+  }
+}
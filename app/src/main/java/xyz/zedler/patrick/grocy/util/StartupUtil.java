@@ -0,0 +1,130 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver.OnDrawListener;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+
+/**
+ * Splits the work at app start into the critical path, which runs in onCreate, and work which
+ * is not needed for the first frame and is deferred until the first frame was drawn.
+ * The critical path, the time until the first frame and every deferred task are written as
+ * trace sections, so they show up in system traces and can be measured by benchmarks, and are
+ * logged with debugging enabled.
+ */
+public class StartupUtil {
+
+  private final static String TAG = StartupUtil.class.getSimpleName();
+
+  private final static String SECTION_FIRST_FRAME = "startup:first_frame";
+  private final static int COOKIE_FIRST_FRAME = 0;
+
+  private final ArrayList<String> taskNames = new ArrayList<>();
+  private final ArrayList<Runnable> tasks = new ArrayList<>();
+  private final boolean debug;
+  private boolean firstFrameDrawn;
+
+  public StartupUtil(boolean debug) {
+    this.debug = debug;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      Trace.beginAsyncSection(SECTION_FIRST_FRAME, COOKIE_FIRST_FRAME);
+    }
+  }
+
+  public static void beginSection(@NonNull String name) {
+    Trace.beginSection("startup:" + name);
+  }
+
+  public static void endSection() {
+    Trace.endSection();
+  }
+
+  /**
+   * Runs the task on the main thread after the first frame was drawn, right away if it was.
+   * Deferred tasks run in the order they were added.
+   */
+  public void runAfterFirstFrame(@NonNull String name, @NonNull Runnable task) {
+    if (firstFrameDrawn) {
+      runTask(name, task);
+    } else {
+      taskNames.add(name);
+      tasks.add(task);
+    }
+  }
+
+  public void observeFirstFrame(@NonNull Activity activity) {
+    View decorView = activity.getWindow().getDecorView();
+    Handler handler = new Handler(Looper.getMainLooper());
+    decorView.getViewTreeObserver().addOnDrawListener(new OnDrawListener() {
+      private boolean drawn;
+
+      @Override
+      public void onDraw() {
+        if (drawn) return;
+        drawn = true;
+        // listeners can't be removed and no work should be done while drawing
+        handler.postAtFrontOfQueue(() -> {
+          decorView.getViewTreeObserver().removeOnDrawListener(this);
+          onFirstFrameDrawn();
+        });
+      }
+    });
+  }
+
+  private void onFirstFrameDrawn() {
+    firstFrameDrawn = true;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      Trace.endAsyncSection(SECTION_FIRST_FRAME, COOKIE_FIRST_FRAME);
+    }
+    if (debug && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      Log.i(TAG, "onFirstFrameDrawn: " + (SystemClock.uptimeMillis()
+          - Process.getStartUptimeMillis()) + " ms after process start");
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      runTask(taskNames.get(i), tasks.get(i));
+    }
+    taskNames.clear();
+    tasks.clear();
+  }
+
+  private void runTask(String name, Runnable task) {
+    long startTime = SystemClock.uptimeMillis();
+    beginSection(name);
+    try {
+      task.run();
+    } finally {
+      endSection();
+    }
+    if (debug) {
+      Log.i(TAG, "runTask: " + name + " took " + (SystemClock.uptimeMillis() - startTime) + " ms");
+    }
+  }
+}
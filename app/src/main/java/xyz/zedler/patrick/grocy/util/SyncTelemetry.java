@@ -0,0 +1,179 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects timing and size statistics of the downloads in memory, to find out which endpoints
+ * of a server are slow. Per endpoint the network time of Volley (round trip including the
+ * transfer of the body), the size of the response and the time of the response listener, which
+ * parses the response, are recorded. Per entity of the sync state the duration of the database
+ * transaction and the number of stored rows are recorded.
+ * All values go into CompactHistograms, so recording is cheap and can always be enabled.
+ */
+public class SyncTelemetry {
+
+  public final static String NETWORK_TIME = "network_ms";
+  public final static String RESPONSE_SIZE = "response_bytes";
+  public final static String PARSE_TIME = "parse_ms";
+  public final static String TRANSACTION_TIME = "db_write_ms";
+  public final static String ROWS = "rows";
+
+  private final static int MAX_BITS_TIME = 20; // about 17 minutes
+  private final static int MAX_BITS_SIZE = 30; // 1 GB
+
+  private static SyncTelemetry instance;
+
+  private final HashMap<String, HashMap<String, CompactHistogram>> endpoints;
+  private final HashMap<String, HashMap<String, CompactHistogram>> entities;
+  private long startTime;
+
+  private SyncTelemetry() {
+    endpoints = new HashMap<>();
+    entities = new HashMap<>();
+    startTime = System.currentTimeMillis();
+  }
+
+  public static synchronized SyncTelemetry getInstance() {
+    if (instance == null) {
+      instance = new SyncTelemetry();
+    }
+    return instance;
+  }
+
+  public void recordResponse(@Nullable String url, long networkTime, int size) {
+    String endpoint = getEndpoint(url);
+    getHistogram(endpoints, endpoint, NETWORK_TIME, MAX_BITS_TIME).record(networkTime);
+    getHistogram(endpoints, endpoint, RESPONSE_SIZE, MAX_BITS_SIZE).record(size);
+  }
+
+  public void recordParse(@Nullable String url, long parseTime) {
+    getHistogram(endpoints, getEndpoint(url), PARSE_TIME, MAX_BITS_TIME).record(parseTime);
+  }
+
+  public void recordTransaction(@NonNull String entity, long transactionTime) {
+    getHistogram(entities, entity, TRANSACTION_TIME, MAX_BITS_TIME).record(transactionTime);
+  }
+
+  public void recordRows(@NonNull String entity, int rows) {
+    getHistogram(entities, entity, ROWS, MAX_BITS_SIZE).record(rows);
+  }
+
+  public synchronized void reset() {
+    endpoints.clear();
+    entities.clear();
+    startTime = System.currentTimeMillis();
+  }
+
+  public synchronized JSONObject toJson() throws JSONException {
+    JSONObject json = new JSONObject();
+    json.put("since", startTime);
+    json.put("endpoints", toJson(endpoints));
+    json.put("entities", toJson(entities));
+    return json;
+  }
+
+  /**
+   * Short summary of the endpoints and entities sorted by name, for the debugging settings.
+   */
+  public synchronized String getSummary() {
+    StringBuilder summary = new StringBuilder();
+    appendSummary(summary, endpoints);
+    appendSummary(summary, entities);
+    return summary.toString();
+  }
+
+  private synchronized CompactHistogram getHistogram(
+      HashMap<String, HashMap<String, CompactHistogram>> map,
+      String key,
+      String metric,
+      int maxBits
+  ) {
+    HashMap<String, CompactHistogram> histograms = map.get(key);
+    if (histograms == null) {
+      histograms = new HashMap<>();
+      map.put(key, histograms);
+    }
+    CompactHistogram histogram = histograms.get(metric);
+    if (histogram == null) {
+      histogram = new CompactHistogram(maxBits);
+      histograms.put(metric, histogram);
+    }
+    return histogram;
+  }
+
+  private static JSONObject toJson(
+      HashMap<String, HashMap<String, CompactHistogram>> map
+  ) throws JSONException {
+    JSONObject json = new JSONObject();
+    for (Map.Entry<String, HashMap<String, CompactHistogram>> entry : map.entrySet()) {
+      JSONObject metrics = new JSONObject();
+      for (Map.Entry<String, CompactHistogram> metric : entry.getValue().entrySet()) {
+        metrics.put(metric.getKey(), metric.getValue().toJson());
+      }
+      json.put(entry.getKey(), metrics);
+    }
+    return json;
+  }
+
+  private static void appendSummary(
+      StringBuilder summary,
+      HashMap<String, HashMap<String, CompactHistogram>> map
+  ) {
+    List<String> keys = new ArrayList<>(map.keySet());
+    Collections.sort(keys);
+    for (String key : keys) {
+      if (summary.length() > 0) summary.append("\n\n");
+      summary.append(key);
+      HashMap<String, CompactHistogram> histograms = map.get(key);
+      if (histograms == null) continue;
+      List<String> metrics = new ArrayList<>(histograms.keySet());
+      Collections.sort(metrics);
+      for (String metric : metrics) {
+        summary.append("\n").append(metric).append(": ").append(histograms.get(metric));
+      }
+    }
+  }
+
+  /**
+   * Path of the URL from the API on and without query, so that the ingress path of Home
+   * Assistant is not exported. Ids are replaced so that requests for single objects are
+   * counted together.
+   */
+  static String getEndpoint(@Nullable String url) {
+    if (url == null) return "unknown";
+    String path = Uri.parse(url).getPath();
+    if (path == null || path.isEmpty()) return "/";
+    int apiIndex = path.lastIndexOf("/api/");
+    if (apiIndex > 0) path = path.substring(apiIndex);
+    return path.replaceAll("/\\d+(?=/|$)", "/{id}");
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import java.util.concurrent.TimeUnit;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.NETWORK;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
+import xyz.zedler.patrick.grocy.worker.SyncWorker;
+
+public class SyncUtil {
+
+  private static final String WORK_NAME = "background_sync";
+  private static final long INTERVAL = 6; // hours
+  private static final long BACKOFF_DELAY = 5; // minutes
+
+  /**
+   * Schedules the periodic background sync with the conditions from the settings or cancels it
+   * if it is disabled. Unchanged work is kept, so this can be called on every start.
+   */
+  public static void updateBackgroundSync(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    boolean enabled = sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC
+    );
+    if (!enabled || PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
+      cancelBackgroundSync(context);
+      return;
+    }
+    boolean unmetered = sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC_UNMETERED, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC_UNMETERED
+    );
+    boolean charging = sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC_CHARGING, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC_CHARGING
+    );
+    Constraints constraints = new Constraints.Builder()
+        .setRequiredNetworkType(unmetered ? NetworkType.UNMETERED : NetworkType.CONNECTED)
+        .setRequiresCharging(charging)
+        .setRequiresBatteryNotLow(true)
+        .build();
+    PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+        SyncWorker.class, INTERVAL, TimeUnit.HOURS
+    ).setConstraints(constraints)
+        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY, TimeUnit.MINUTES)
+        .build();
+    WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+        WORK_NAME, ExistingPeriodicWorkPolicy.UPDATE, request
+    );
+  }
+
+  public static void cancelBackgroundSync(Context context) {
+    WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+  }
+}
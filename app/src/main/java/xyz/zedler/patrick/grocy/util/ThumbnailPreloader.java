@@ -0,0 +1,88 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader.PreloadModelProvider;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import java.util.Collections;
+import java.util.List;
+import xyz.zedler.patrick.grocy.api.GrocyApi;
+
+/**
+ * Loads the thumbnails of rows just past the visible ones while the list is scrolled, with the
+ * same request as PictureUtil.loadThumbnail, so that they are in the memory cache when the rows
+ * are bound.
+ */
+public class ThumbnailPreloader implements PreloadModelProvider<String> {
+
+  private static final int MAX_PRELOAD_ROWS = 8;
+
+  private final Context context;
+  private final PictureUrlProvider pictureUrlProvider;
+
+  private ThumbnailPreloader(Context context, PictureUrlProvider pictureUrlProvider) {
+    this.context = context;
+    this.pictureUrlProvider = pictureUrlProvider;
+  }
+
+  public static void attach(
+      Fragment fragment,
+      RecyclerView recyclerView,
+      PictureUrlProvider pictureUrlProvider
+  ) {
+    Context context = fragment.requireContext();
+    int size = UiUtil.dpToPx(context, GrocyApi.THUMBNAIL_SIZE_DP);
+    recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(
+        Glide.with(fragment),
+        new ThumbnailPreloader(context, pictureUrlProvider),
+        new FixedPreloadSizeProvider<>(size, size),
+        MAX_PRELOAD_ROWS
+    ));
+  }
+
+  @NonNull
+  @Override
+  public List<String> getPreloadItems(int position) {
+    String pictureUrl = pictureUrlProvider.getThumbnailUrl(position);
+    return pictureUrl != null ? Collections.singletonList(pictureUrl) : Collections.emptyList();
+  }
+
+  @Nullable
+  @Override
+  public RequestBuilder<Drawable> getPreloadRequestBuilder(@NonNull String pictureUrl) {
+    return PictureUtil.getThumbnailRequest(context, pictureUrl);
+  }
+
+  public interface PictureUrlProvider {
+
+    @Nullable
+    String getThumbnailUrl(int position);
+  }
+}
@@ -177,6 +177,23 @@ public class BaseViewModel extends AndroidViewModel {
     }
   }
 
+  /**
+   * For actions which were already taken back locally, so they can be sent again without
+   * filling the form again.
+   */
+  public void showNetworkErrorMessage(VolleyError error, String message, Runnable retry) {
+    if (error != null && error.networkResponse != null
+        && error.networkResponse.statusCode == 403) {
+      // would fail again in the same way
+      showNetworkErrorMessage(error);
+      return;
+    }
+    SnackbarMessage snackbarMessage = new SnackbarMessage(message);
+    snackbarMessage.setAction(getString(R.string.action_retry), v -> retry.run());
+    snackbarMessage.setDurationSecs(10);
+    showSnackbar(snackbarMessage);
+  }
+
   public void showJSONErrorMessage(JSONException error) {
     String messageShort;
     String messageLong;
@@ -34,11 +34,11 @@ import me.xdrop.fuzzywuzzy.FuzzySearch;
 import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.ProductLookupHelper;
 import xyz.zedler.patrick.grocy.model.Event;
-import xyz.zedler.patrick.grocy.model.OpenBeautyFactsProduct;
-import xyz.zedler.patrick.grocy.model.OpenFoodFactsProduct;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
 import xyz.zedler.patrick.grocy.repository.ChooseProductRepository;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
@@ -214,33 +214,28 @@ public class ChooseProductViewModel extends BaseViewModel {
     boolean productNameFilled = productNameLive.getValue() != null
         && !productNameLive.getValue().isEmpty();
     if(isOpenFoodFactsEnabled() && !productNameFilled) {
-      OpenFoodFactsProduct.getOpenFoodFactsProduct(
-          dlHelper,
+      ProductLookupHelper.getInstance(getApplication()).lookup(
           barcode,
-          product -> {
-            productNameLive.setValue(product.getLocalizedProductName(getApplication()));
-            nameFromOnlineSource = product.getLocalizedProductName(getApplication());
-            offHelpText.setValue(getString(R.string.msg_product_name_off));
+          result -> {
+            if (!result.hasProductName()) {
+              offHelpText.setValue(getString(R.string.msg_product_name_lookup_empty));
+              sendEvent(Event.FOCUS_INVALID_VIEWS);
+              return;
+            }
+            productNameLive.setValue(result.getProductName());
+            nameFromOnlineSource = result.getProductName();
+            if (result.getSource() == ProductLookupResult.SOURCE_OFFLINE) {
+              offHelpText.setValue(getString(R.string.msg_product_name_offline));
+            } else if (result.getSource() == ProductLookupResult.SOURCE_OPEN_FOOD_FACTS) {
+              offHelpText.setValue(getString(R.string.msg_product_name_off));
+            } else {
+              offHelpText.setValue(getString(R.string.msg_product_name_obf));
+            }
           },
-          error -> OpenBeautyFactsProduct.getOpenBeautyFactsProduct(
-              dlHelper,
-              barcode,
-              product -> {
-                String productName = product.getLocalizedProductName(getApplication());
-                if (productName != null && !productName.isEmpty()) {
-                  productNameLive.setValue(productName);
-                  nameFromOnlineSource = productName;
-                  offHelpText.setValue(getString(R.string.msg_product_name_obf));
-                } else {
-                  offHelpText.setValue(getString(R.string.msg_product_name_lookup_empty));
-                  sendEvent(Event.FOCUS_INVALID_VIEWS);
-                }
-              },
-              error1 -> {
-                offHelpText.setValue(getString(R.string.msg_product_name_lookup_error));
-                sendEvent(Event.FOCUS_INVALID_VIEWS);
-              }
-          )
+          error -> {
+            offHelpText.setValue(getString(R.string.msg_product_name_lookup_error));
+            sendEvent(Event.FOCUS_INVALID_VIEWS);
+          }
       );
     } else if (!productNameFilled) {
       sendEvent(Event.FOCUS_INVALID_VIEWS);
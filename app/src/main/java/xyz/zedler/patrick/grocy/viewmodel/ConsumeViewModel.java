@@ -25,11 +25,13 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import com.android.volley.VolleyError;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +46,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.form.FormDataConsume;
 import xyz.zedler.patrick.grocy.fragment.ConsumeFragmentArgs;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.InputProductBottomSheet;
@@ -52,6 +55,9 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBotto
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockEntriesBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockLocationsBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.OnStockActionListener;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.StockAction;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -69,6 +75,8 @@ import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.ProductBarcodeIndex;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
@@ -81,11 +89,13 @@ public class ConsumeViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final InventoryRepository repository;
+  private final StockActionHelper stockActionHelper;
   private final FormDataConsume formData;
 
   private List<Product> products;
   private List<QuantityUnitConversionResolved> unitConversions;
-  private List<ProductBarcode> barcodes;
+  private QuantityUnitConversionIndex unitConversionIndex;
+  private final ProductBarcodeIndex barcodeIndex;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -110,6 +120,7 @@ public class ConsumeViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new InventoryRepository(application);
+    stockActionHelper = StockActionHelper.getInstance(application);
     formData = new FormDataConsume(application, sharedPrefs, args);
 
     infoFullscreenLive = new MutableLiveData<>();
@@ -126,7 +137,7 @@ public class ConsumeViewModel extends BaseViewModel {
     }
     quickModeEnabled = new MutableLiveData<>(quickModeStart);
 
-    barcodes = new ArrayList<>();
+    barcodeIndex = ProductBarcodeIndex.getInstance(AppDatabase.getAppDatabase(application));
   }
 
   public FormDataConsume getFormData() {
@@ -136,9 +147,10 @@ public class ConsumeViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
-      this.barcodes = data.getBarcodes();
+      barcodeIndex.setProductBarcodes(data.getBarcodes());
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       this.unitConversions = data.getQuantityUnitConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       formData.getProductsLive().setValue(
           Product.getActiveInStockProductsOnly(products, data.getStockItems())
       );
@@ -191,7 +203,7 @@ public class ConsumeViewModel extends BaseViewModel {
       // quantity unit
       HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
           quantityUnitHashMap,
-          unitConversions,
+          unitConversionIndex,
           product,
           VersionUtil.isGrocyServerMin400(sharedPrefs)
       );
@@ -314,7 +326,7 @@ public class ConsumeViewModel extends BaseViewModel {
 
   public void onBarcodeRecognized(String barcode) {
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.getProductBarcode(barcode) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -337,7 +349,7 @@ public class ConsumeViewModel extends BaseViewModel {
     }
     ProductBarcode productBarcode = null;
     if (product == null) {
-      productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      productBarcode = barcodeIndex.getProductBarcode(barcode);
       product = productBarcode != null
           ? Product.getProductFromId(products, productBarcode.getProductIdInt()) : null;
     }
@@ -370,12 +382,9 @@ public class ConsumeViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = null;
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          productBarcode = code;
-          product = Product.getProductFromId(products, code.getProductIdInt());
-        }
+      ProductBarcode productBarcode = barcodeIndex.getProductBarcode(input.trim());
+      if (productBarcode != null) {
+        product = Product.getProductFromId(products, productBarcode.getProductIdInt());
       }
       if (product != null) {
         setProduct(product.getId(), productBarcode, null);
@@ -412,68 +421,111 @@ public class ConsumeViewModel extends BaseViewModel {
       return;
     }
     assert formData.getProductDetailsLive().getValue() != null;
-    Product product = formData.getProductDetailsLive().getValue().getProduct();
+    ProductDetails productDetails = formData.getProductDetailsLive().getValue();
+    Product product = productDetails.getProduct();
+    QuantityUnit quantityUnitStock = formData.getQuantityUnitStockLive().getValue();
     JSONObject body = formData.getFilledJSONObject(isActionOpen);
-    dlHelper.postWithArray(
+    StockAction action = new StockAction(
+        isActionOpen ? StockActionHelper.TYPE_OPEN : StockActionHelper.TYPE_CONSUME,
+        product.getId(),
+        getExpectedAmount(productDetails, body),
         isActionOpen
             ? grocyApi.openProduct(product.getId())
             : grocyApi.consumeProduct(product.getId()),
-        body,
-        response -> {
-          // UNDO OPTION
-          String transactionId = null;
-          double amountConsumed = 0;
-          try {
-            transactionId = response.getJSONObject(0).getString("transaction_id");
-            for (int i = 0; i < response.length(); i++) {
-              if (isActionOpen) {
-                amountConsumed += response.getJSONObject(i).getDouble("amount");
-              } else {
-                amountConsumed -= response.getJSONObject(i).getDouble("amount");
-              }
-            }
-          } catch (Exception e) {
-            Log.e(TAG, "consumeProduct: ", e);
-          }
-          if (debug) {
-            Log.i(TAG, "consumeProduct: transaction successful");
-          }
+        body
+    );
+    performConsume(action, isActionOpen, product, quantityUnitStock, false);
+  }
+
+  private void performConsume(
+      StockAction action,
+      boolean isActionOpen,
+      Product product,
+      QuantityUnit quantityUnitStock,
+      boolean isRetry
+  ) {
+    stockActionHelper.performAction(this, action, new OnStockActionListener() {
+      @Override
+      public void onApplied() {
+        // the sent data is kept in the action, so the form can be reset for the next one
+        if (!isRetry) sendEvent(Event.CONSUME_SUCCESS);
+      }
 
-          SnackbarMessage snackbarMessage = new SnackbarMessage(
-              formData.getTransactionSuccessMsg(isActionOpen, amountConsumed)
+      @Override
+      public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+        if (debug) {
+          Log.i(TAG, "consumeProduct: transaction successful");
+        }
+        SnackbarMessage snackbarMessage = new SnackbarMessage(
+            formData.getTransactionSuccessMsg(
+                isActionOpen, amountBooked, product, quantityUnitStock
+            )
+        );
+        if (transactionId != null) {
+          snackbarMessage.setAction(
+              getString(R.string.action_undo),
+              v -> undoTransaction(action, transactionId, amountBooked)
           );
-          if (transactionId != null) {
-            String transId = transactionId;
-            snackbarMessage.setAction(
-                getString(R.string.action_undo),
-                v -> undoTransaction(transId)
-            );
-            snackbarMessage.setDurationSecs(sharedPrefs.getInt(
-                    Constants.SETTINGS.BEHAVIOR.MESSAGE_DURATION,
-                    Constants.SETTINGS_DEFAULT.BEHAVIOR.MESSAGE_DURATION));
-          }
-          showSnackbar(snackbarMessage);
-          sendEvent(Event.CONSUME_SUCCESS);
-        },
-        error -> {
-          showNetworkErrorMessage(error);
-          if (debug) {
-            Log.i(TAG, "consumeProduct: " + error);
-          }
+          snackbarMessage.setDurationSecs(sharedPrefs.getInt(
+                  Constants.SETTINGS.BEHAVIOR.MESSAGE_DURATION,
+                  Constants.SETTINGS_DEFAULT.BEHAVIOR.MESSAGE_DURATION));
         }
-    );
+        showSnackbar(snackbarMessage);
+      }
+
+      @Override
+      public void onRolledBack(VolleyError error) {
+        showNetworkErrorMessage(
+            error,
+            getString(R.string.error_transaction_failed, product.getName()),
+            () -> performConsume(action, isActionOpen, product, quantityUnitStock, true)
+        );
+        if (debug) {
+          Log.i(TAG, "consumeProduct: " + error);
+        }
+      }
+
+      @Override
+      public void onReconciled() {}
+    });
   }
 
-  private void undoTransaction(String transactionId) {
-    dlHelper.post(
-        grocyApi.undoStockTransaction(transactionId),
-        success -> {
-          showMessage(getString(R.string.msg_undone_transaction));
-          if (debug) {
-            Log.i(TAG, "undoTransaction: undone");
+  private double getExpectedAmount(ProductDetails productDetails, JSONObject body) {
+    double amount = NumUtil.toDouble(body.optString("amount"));
+    if (productDetails.getProduct().getEnableTareWeightHandlingInt() == 1) {
+      // with tare weight handling the amount is the new gross weight
+      return Math.max(0, productDetails.getStockAmount()
+          + productDetails.getProduct().getTareWeightDouble() - amount);
+    }
+    return amount;
+  }
+
+  private void undoTransaction(StockAction action, String transactionId, double amountBooked) {
+    stockActionHelper.undoTransaction(
+        this,
+        action,
+        transactionId,
+        amountBooked,
+        new OnStockActionListener() {
+          @Override
+          public void onApplied() {}
+
+          @Override
+          public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+            showMessage(getString(R.string.msg_undone_transaction));
+            if (debug) {
+              Log.i(TAG, "undoTransaction: undone");
+            }
           }
-        },
-        this::showNetworkErrorMessage
+
+          @Override
+          public void onRolledBack(VolleyError error) {
+            showNetworkErrorMessage(error);
+          }
+
+          @Override
+          public void onReconciled() {}
+        }
     );
   }
 
@@ -482,7 +534,8 @@ public class ConsumeViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     ProductBarcode.addProductBarcode(dlHelper, body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      // add to index so it will be found on next scan without reload
+      barcodeIndex.addProductBarcode(productBarcode);
       if (onSuccess != null) {
         onSuccess.run();
       }
@@ -650,6 +703,7 @@ public class ConsumeViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    stockActionHelper.removeListeners(this);
     dlHelper.destroy();
     super.onCleared();
   }
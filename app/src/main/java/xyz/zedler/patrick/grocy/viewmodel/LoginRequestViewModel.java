@@ -58,6 +58,7 @@ import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.ServerUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
 public class LoginRequestViewModel extends BaseViewModel {
@@ -182,18 +183,8 @@ public class LoginRequestViewModel extends BaseViewModel {
                     useHassLoginFlow ? homeAssistantServerUrl : serverUrl
                 ).putString(Constants.PREF.API_KEY, apiKey)
                 .apply();
+            ServerUtil.saveCurrentServer(getApplication());
           }
-          // TODO: Feature needs migrations for database
-          /*Server server = new Server();
-          server.setGrocyServerUrl(serverUrl);
-          server.setGrocyApiKey(apiKey);
-          server.setHomeAssistantServerUrl(homeAssistantServerUrl);
-          server.setHomeAssistantToken(homeAssistantLongLivedToken);
-          appDatabase.serverDao().insertServer(server)
-              .subscribeOn(Schedulers.io())
-              .observeOn(AndroidSchedulers.mainThread())
-              .doFinally(this::loadInfoAndFinish)
-              .subscribe();*/
           loadInfoAndFinish();
         },
         error -> {
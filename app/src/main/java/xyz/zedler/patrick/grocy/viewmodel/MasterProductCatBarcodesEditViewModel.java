@@ -56,6 +56,7 @@ import xyz.zedler.patrick.grocy.repository.MasterProductRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
@@ -76,6 +77,7 @@ public class MasterProductCatBarcodesEditViewModel extends BaseViewModel {
   private List<Store> stores;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
 
   private Runnable queueEmptyAction;
   private final boolean debug;
@@ -115,6 +117,7 @@ public class MasterProductCatBarcodesEditViewModel extends BaseViewModel {
       formData.getBarcodesLive().setValue(getBarcodes(data.getBarcodes()));
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       this.unitConversions = data.getConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       if (downloadAfterLoading) {
         downloadData(false);
       } else {
@@ -227,7 +230,7 @@ public class MasterProductCatBarcodesEditViewModel extends BaseViewModel {
     try {
       HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
           quantityUnitHashMap,
-          unitConversions,
+          unitConversionIndex,
           product,
           VersionUtil.isGrocyServerMin400(sharedPrefs)
       );
@@ -20,6 +20,7 @@
 
 package xyz.zedler.patrick.grocy.viewmodel;
 
+import android.annotation.SuppressLint;
 import android.app.Application;
 import android.content.SharedPreferences;
 import android.os.Bundle;
@@ -29,8 +30,14 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.ARGUMENT;
@@ -39,6 +46,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.form.FormDataMasterProductCatConversionsEdit;
 import xyz.zedler.patrick.grocy.fragment.MasterProductCatConversionsEditFragmentArgs;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSheet;
@@ -46,9 +54,12 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.repository.MasterProductRepository;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionResolver;
+import xyz.zedler.patrick.grocy.util.VersionUtil;
 
 public class MasterProductCatConversionsEditViewModel extends BaseViewModel {
 
@@ -146,7 +157,7 @@ public class MasterProductCatConversionsEditViewModel extends BaseViewModel {
       dlHelper.put(
           grocyApi.getObject(ENTITY.QUANTITY_UNIT_CONVERSIONS, conversion.getId()),
           jsonObject,
-          response -> navigateUp(),
+          response -> applyConversionLocally(conversion, false),
           error -> {
             showNetworkErrorMessage(error);
             if (debug) {
@@ -158,7 +169,18 @@ public class MasterProductCatConversionsEditViewModel extends BaseViewModel {
       dlHelper.post(
           grocyApi.getObjects(ENTITY.QUANTITY_UNIT_CONVERSIONS),
           jsonObject,
-          response -> navigateUp(),
+          response -> {
+            try {
+              conversion.setId(response.getInt("created_object_id"));
+            } catch (JSONException e) {
+              if (debug) {
+                Log.e(TAG, "saveItem: " + e);
+              }
+              navigateUp();
+              return;
+            }
+            applyConversionLocally(conversion, false);
+          },
           error -> {
             showNetworkErrorMessage(error);
             if (debug) {
@@ -224,11 +246,61 @@ public class MasterProductCatConversionsEditViewModel extends BaseViewModel {
             ENTITY.QUANTITY_UNIT_CONVERSIONS,
             conversion.getId()
         ),
-        response -> navigateUp(),
+        response -> applyConversionLocally(conversion, true),
         this::showNetworkErrorMessage
     );
   }
 
+  /**
+   * Writes the saved conversion to the database and resolves the conversions of all affected
+   * products again, so that other pages can use it before the next download. Servers since 4.0
+   * don't have a purchase to stock factor anymore, it is a normal conversion there.
+   */
+  @SuppressLint("CheckResult")
+  private void applyConversionLocally(QuantityUnitConversion conversion, boolean isDelete) {
+    AppDatabase appDatabase = dlHelper.appDatabase;
+    boolean isServerVersion4 = VersionUtil.isGrocyServerMin400(sharedPrefs);
+    Single.fromCallable(() -> {
+          QuantityUnitConversionResolver resolver = new QuantityUnitConversionResolver(
+              appDatabase.quantityUnitConversionDao().getConversions().blockingGet(),
+              appDatabase.productDao().getProducts().blockingGet(),
+              !isServerVersion4
+          );
+          Set<Integer> affectedProductIds;
+          if (isDelete) {
+            affectedProductIds = resolver.removeConversion(conversion.getId());
+            appDatabase.quantityUnitConversionDao()
+                .deleteConversion(conversion.getId()).blockingSubscribe();
+          } else {
+            affectedProductIds = resolver.putConversion(conversion);
+            appDatabase.quantityUnitConversionDao()
+                .insertConversions(Collections.singletonList(conversion)).blockingSubscribe();
+          }
+          int nextId = appDatabase.quantityUnitConversionResolvedDao().getMaxId().blockingGet() + 1;
+          for (int productId : affectedProductIds) {
+            List<QuantityUnitConversionResolved> conversionsResolved
+                = resolver.getConversionsResolved(productId, nextId);
+            appDatabase.quantityUnitConversionResolvedDao()
+                .deleteConversionsResolvedForProduct(String.valueOf(productId)).blockingSubscribe();
+            appDatabase.quantityUnitConversionResolvedDao()
+                .insertConversionsResolved(conversionsResolved).blockingSubscribe();
+            nextId += conversionsResolved.size();
+          }
+          if (debug) {
+            Log.i(TAG, "applyConversionLocally: resolved products " + affectedProductIds);
+          }
+          return true;
+        })
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doFinally(this::navigateUp)
+        .subscribe(ignored -> {}, throwable -> {
+          if (debug) {
+            Log.e(TAG, "applyConversionLocally: " + throwable);
+          }
+        });
+  }
+
   public boolean isActionEdit() {
     return isActionEdit;
   }
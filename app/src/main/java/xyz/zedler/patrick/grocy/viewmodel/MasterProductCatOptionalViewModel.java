@@ -25,24 +25,19 @@ import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.net.Uri;
 import android.os.Environment;
-import android.os.Handler;
-import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -53,6 +48,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.form.FormDataMasterProductCatOptional;
 import xyz.zedler.patrick.grocy.fragment.MasterProductCatOptionalFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.PictureUploadHelper;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
@@ -61,6 +57,7 @@ import xyz.zedler.patrick.grocy.repository.MasterProductRepository;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
+import xyz.zedler.patrick.grocy.util.PictureUtil.StreamOpener;
 
 public class MasterProductCatOptionalViewModel extends BaseViewModel {
 
@@ -199,14 +196,11 @@ public class MasterProductCatOptionalViewModel extends BaseViewModel {
       showMessage(R.string.error_clipboard_no_image);
       return;
     }
-    try {
-      InputStream imageStream = getApplication().getContentResolver().openInputStream(item.getUri());
-      Bitmap bitmap = BitmapFactory.decodeStream(imageStream);
-      scaleAndUploadBitmap(null, bitmap);
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
-      showMessage(R.string.error_clipboard_no_image);
-    }
+    Uri uri = item.getUri();
+    uploadPicture(
+        () -> getApplication().getContentResolver().openInputStream(uri),
+        R.string.error_clipboard_no_image
+    );
   }
 
   public File createImageFile() throws IOException {
@@ -216,39 +210,28 @@ public class MasterProductCatOptionalViewModel extends BaseViewModel {
     return image;
   }
 
-  public void scaleAndUploadBitmap(@Nullable String filePath, @Nullable Bitmap image) {
-    if (filePath == null && image == null) {
+  public void scaleAndUploadPicture(@Nullable String filePath) {
+    if (filePath == null) {
       showErrorMessage();
       return;
     }
-    isLoadingLive.setValue(true);
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-    executor.execute(() -> {
-      Bitmap scaledBitmap = filePath != null
-          ? PictureUtil.scaleBitmap(filePath)
-          : PictureUtil.scaleBitmap(image);
-      byte[] imageArray = PictureUtil.convertBitmapToByteArray(scaledBitmap);
-      new Handler(Looper.getMainLooper()).post(() -> {
-        uploadPicture(imageArray);
-        executor.shutdown();
-      });
-    });
+    uploadPicture(() -> new FileInputStream(filePath), R.string.error_undefined);
   }
 
-  public void uploadPicture(byte[] pictureData) {
-    if (pictureData == null) {
-      showErrorMessage();
-      isLoadingLive.setValue(false);
-      return;
-    }
+  private void uploadPicture(StreamOpener picture, @StringRes int invalidPictureMsg) {
+    isLoadingLive.setValue(true);
     String filename = PictureUtil.createImageFilename();
-    dlHelper.putFile(
+    PictureUploadHelper.getInstance(getApplication()).upload(
+        picture,
         grocyApi.getProductPicture(filename),
-        pictureData,
         () -> {
           deleteCurrentPicture(filename);
           formData.getPictureFilenameLive().setValue(filename);
         },
+        () -> {
+          isLoadingLive.setValue(false);
+          showMessage(invalidPictureMsg);
+        },
         error -> {
           isLoadingLive.setValue(false);
           showNetworkErrorMessage(error);
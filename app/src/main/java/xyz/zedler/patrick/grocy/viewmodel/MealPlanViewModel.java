@@ -27,7 +27,6 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
-import com.bumptech.glide.load.model.LazyHeaders;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -60,7 +59,6 @@ import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
-import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class MealPlanViewModel extends BaseViewModel {
 
@@ -78,7 +76,6 @@ public class MealPlanViewModel extends BaseViewModel {
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
-  private final LazyHeaders grocyAuthHeaders;
   private final MealPlanRepository repository;
   private final PluralUtil pluralUtil;
   private final DateTimeFormatter dateFormatter;
@@ -131,7 +128,6 @@ public class MealPlanViewModel extends BaseViewModel {
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
-    grocyAuthHeaders = RequestHeaders.getGlideGrocyAuthHeaders(getApplication());
     repository = new MealPlanRepository(application);
     pluralUtil = new PluralUtil(application);
 
@@ -328,10 +324,6 @@ public class MealPlanViewModel extends BaseViewModel {
     return grocyApi;
   }
 
-  public LazyHeaders getGrocyAuthHeaders() {
-    return grocyAuthHeaders;
-  }
-
   public boolean isFeatureEnabled(String pref) {
     if (pref == null) {
       return true;
@@ -29,9 +29,6 @@ import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 import androidx.preference.PreferenceManager;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -39,7 +36,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
-import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OverviewSummary;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
@@ -49,7 +46,6 @@ import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.repository.OverviewStartRepository;
-import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 
@@ -62,12 +58,11 @@ public class OverviewStartViewModel extends BaseViewModel {
   private final OverviewStartRepository repository;
 
   private final MutableLiveData<Boolean> isLoadingLive;
-  private final MutableLiveData<List<StockItem>> stockItemsLive;
-  private final MutableLiveData<List<ShoppingListItem>> shoppingListItemsLive;
-  private final MutableLiveData<List<Product>> productsLive;
-  private final MutableLiveData<List<Recipe>> recipesLive;
-  private final MutableLiveData<List<Task>> tasksLive;
-  private final MutableLiveData<List<ChoreEntry>> choreEntriesLive;
+  private final MutableLiveData<Integer> shoppingListItemsCountLive;
+  private final MutableLiveData<Integer> productsCountLive;
+  private final MutableLiveData<Integer> recipesCountLive;
+  private final MutableLiveData<Integer> tasksUndoneCountLive;
+  private final MutableLiveData<Integer> tasksAssignedCountLive;
   private final MutableLiveData<Integer> itemsDueNextCountLive;
   private final MutableLiveData<Integer> itemsOverdueCountLive;
   private final MutableLiveData<Integer> itemsExpiredCountLive;
@@ -96,7 +91,8 @@ public class OverviewStartViewModel extends BaseViewModel {
   private final LiveData<String> tasksUserDescriptionTextLive;
   private final LiveData<String> masterDataDescriptionTextLive;
   private final MutableLiveData<Integer> currentUserIdLive;
-  private List<ShoppingList> shoppingLists;
+  private Integer shoppingListsCount;
+  private OverviewSummary storedSummary;
   private boolean alreadyLoadedFromDatabase;
 
   public OverviewStartViewModel(@NonNull Application application) {
@@ -112,7 +108,6 @@ public class OverviewStartViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     repository = new OverviewStartRepository(application);
 
-    stockItemsLive = new MutableLiveData<>();
     itemsDueNextCountLive = new MutableLiveData<>();
     itemsOverdueCountLive = new MutableLiveData<>();
     itemsExpiredCountLive = new MutableLiveData<>();
@@ -121,15 +116,15 @@ public class OverviewStartViewModel extends BaseViewModel {
     itemsInStockCountLive = new MutableLiveData<>();
     stockValueLive = new MutableLiveData<>();
     storedPurchasesOnDevice = new MutableLiveData<>(false);
-    shoppingListItemsLive = new MutableLiveData<>();
-    productsLive = new MutableLiveData<>();
-    recipesLive = new MutableLiveData<>();
+    shoppingListItemsCountLive = new MutableLiveData<>();
+    productsCountLive = new MutableLiveData<>();
+    recipesCountLive = new MutableLiveData<>();
     choresDueTodayCountLive = new MutableLiveData<>();
     choresDueSoonCountLive = new MutableLiveData<>();
     choresAssignedCountLive = new MutableLiveData<>();
     choresOverdueCountLive = new MutableLiveData<>();
-    choreEntriesLive = new MutableLiveData<>();
-    tasksLive = new MutableLiveData<>();
+    tasksUndoneCountLive = new MutableLiveData<>();
+    tasksAssignedCountLive = new MutableLiveData<>();
     currentUserIdLive = new MutableLiveData<>(sharedPrefs.getInt(PREF.CURRENT_USER_ID, 1));
     alreadyLoadedFromDatabase = false;
 
@@ -239,7 +234,7 @@ public class OverviewStartViewModel extends BaseViewModel {
             return null;
           }
           @PluralsRes int string;
-          if (shoppingLists == null || shoppingLists.size() > 1) {
+          if (shoppingListsCount == null || shoppingListsCount > 1) {
             string = R.plurals.description_overview_stock_missing_shopping_list_multi;
           } else {
             string = R.plurals.description_overview_stock_missing_shopping_list_single;
@@ -248,13 +243,12 @@ public class OverviewStartViewModel extends BaseViewModel {
         }
     );
     shoppingListDescriptionTextLive = Transformations.map(
-        shoppingListItemsLive,
-        shoppingListItems -> {
-          if (shoppingListItems == null) {
+        shoppingListItemsCountLive,
+        size -> {
+          if (size == null) {
             return null;
           }
-          int size = shoppingListItems.size();
-          if (shoppingLists == null || shoppingLists.size() > 1) {
+          if (shoppingListsCount == null || shoppingListsCount > 1) {
             return getResources().getQuantityString(
                 R.plurals.description_overview_shopping_list_multi, size, size
             );
@@ -266,12 +260,11 @@ public class OverviewStartViewModel extends BaseViewModel {
         }
     );
     recipesDescriptionTextLive = Transformations.map(
-        recipesLive,
-        recipes -> {
-          if (recipes == null) {
+        recipesCountLive,
+        size -> {
+          if (size == null) {
             return null;
           }
-          int size = recipes.size();
           return getResources().getQuantityString(
               R.plurals.description_overview_recipes, size, size
           );
@@ -336,36 +329,31 @@ public class OverviewStartViewModel extends BaseViewModel {
         }
     );
     tasksDescriptionTextLive = Transformations.map(
-        tasksLive,
-        tasks -> {
-          if (tasks == null) {
+        tasksUndoneCountLive,
+        undoneTasksCount -> {
+          if (undoneTasksCount == null) {
             return null;
           }
-          int undoneTasksCount = Task.getUndoneTasksCount(tasks);
           return getResources().getQuantityString(
               R.plurals.description_overview_tasks, undoneTasksCount, undoneTasksCount
           );
         }
     );
     tasksUserDescriptionTextLive = Transformations.map(
-        tasksLive,
-        tasks -> {
-          if (tasks == null) return null;
-          int currentUserId = currentUserIdLive.getValue() != null ? currentUserIdLive.getValue() : 1;
-          int assignedTasksCount = Task
-              .getAssignedTasksCount(Task.getUndoneTasksOnly(tasks), currentUserId);
+        tasksAssignedCountLive,
+        assignedTasksCount -> {
+          if (assignedTasksCount == null) return null;
           return getResources().getQuantityString(
               R.plurals.description_overview_tasks_user, assignedTasksCount, assignedTasksCount
           );
         }
     );
     masterDataDescriptionTextLive = Transformations.map(
-        productsLive,
-        products -> {
-          if (products == null) {
+        productsCountLive,
+        size -> {
+          if (size == null) {
             return null;
           }
-          int size = products.size();
           return getResources().getQuantityString(
               R.plurals.description_overview_master_data, size, size
           );
@@ -374,113 +362,30 @@ public class OverviewStartViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      this.shoppingLists = data.getShoppingLists();
-      this.stockItemsLive.setValue(data.getStockItems());
-      this.shoppingListItemsLive.setValue(data.getShoppingListItems());
-      this.productsLive.setValue(data.getProducts());
-      HashMap<Integer, Product> productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      this.storedPurchasesOnDevice.setValue(data.getStoredPurchases().size() > 0);
-      this.recipesLive.setValue(ArrayUtil.getRecipesWithoutShadowRecipes(data.getRecipes()));
-      this.choreEntriesLive.setValue(data.getChoreEntries());
-      this.tasksLive.setValue(data.getTasks());
-
-      ArrayList<Integer> shoppingListItemsProductIds = new ArrayList<>();
-      for (ShoppingListItem item : data.getShoppingListItems()) {
-        if (!item.hasProduct()) {
-          continue;
-        }
-        shoppingListItemsProductIds.add(item.getProductIdInt());
-      }
-
-      int itemsDueCount = 0;
-      int itemsOverdueCount = 0;
-      int itemsExpiredCount = 0;
-      HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil
-          .getStockItemHashMap(data.getStockItems());
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
-        if (stockItem == null) {
-          continue;
-        }
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
-          stockItem.setItemDue(true);
-          itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
-          stockItem.setItemOverdue(true);
-          itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
-          stockItem.setItemExpired(true);
-          itemsExpiredCount++;
-        }
-      }
-      int itemsMissingCount = 0;
-      int missingItemsOnShoppingListCount = 0;
-      for (MissingItem missingItem : data.getMissingItems()) {
-        itemsMissingCount++;
-        StockItem stockItem = stockItemHashMap.get(missingItem.getId());
-        if (stockItem == null && !missingItem.getIsPartlyInStockBoolean()) {
-          StockItem stockItemMissing = new StockItem(missingItem);
-          if (stockItemsLive.getValue() != null) {
-            stockItemsLive.getValue().add(stockItemMissing);
-          }
-        } else if (stockItem != null) {
-          stockItem.setItemMissing(true);
-          stockItem.setItemMissingAndPartlyInStock(missingItem.getIsPartlyInStockBoolean());
-        }
-        if (shoppingListItemsProductIds.contains(missingItem.getId())) {
-          missingItemsOnShoppingListCount++;
-        }
-      }
-      int itemsInStockCount = 0;
-      double stockValue = 0;
-      for (StockItem stockItem : data.getStockItems()) {
-        Product product = productHashMap.get(stockItem.getProductId());
-        if (product != null && product.getHideOnStockOverviewBoolean()) continue;
-        if (!stockItem.isItemMissing() || stockItem.isItemMissingAndPartlyInStock()) {
-          itemsInStockCount++;
-          stockValue += stockItem.getValueDouble();
-        }
+    if (alreadyLoadedFromDatabase) {
+      loadTablesFromDatabase(downloadAfterLoading);
+      return;
+    }
+    // first frame only needs the summary row, the full tables are read after it
+    repository.loadSummary(summary -> {
+      storedSummary = summary;
+      if (summary != null && !alreadyLoadedFromDatabase
+          && summary.isValidToday(DateUtil.getDateStringToday())
+          && summary.getCurrentUserId() == getCurrentUserId()) {
+        applySummary(summary);
       }
+      loadTablesFromDatabase(downloadAfterLoading);
+    }, throwable -> loadTablesFromDatabase(downloadAfterLoading));
+  }
 
-      itemsDueNextCountLive.setValue(itemsDueCount);
-      itemsOverdueCountLive.setValue(itemsOverdueCount);
-      itemsExpiredCountLive.setValue(itemsExpiredCount);
-      itemsMissingCountLive.setValue(itemsMissingCount);
-      itemsInStockCountLive.setValue(itemsInStockCount);
-      itemsMissingShoppingListCountLive.setValue(missingItemsOnShoppingListCount);
-      stockValueLive.setValue(stockValue);
-
-      int choresDueTodayCount = 0;
-      int choresDueSoonCount = 0;
-      int choresOverdueCount = 0;
-      int choresAssignedCount = 0;
-      for (ChoreEntry choreEntry : data.getChoreEntries()) {
-        if (NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-            && currentUserIdLive.getValue() != null && currentUserIdLive.getValue()
-            == Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
-          choresAssignedCount++;
-        }
-        if (choreEntry.getNextEstimatedExecutionTime() == null
-            || choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
-          continue;
-        }
-        int daysFromNow = DateUtil
-            .getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
-        if (daysFromNow < 0) {
-          choresOverdueCount++;
-        }
-        if (daysFromNow == 0) {
-          choresDueTodayCount++;
-        }
-        if (daysFromNow >= 0 && daysFromNow <= 5) {
-          choresDueSoonCount++;
-        }
+  private void loadTablesFromDatabase(boolean downloadAfterLoading) {
+    repository.loadFromDatabase(data -> {
+      OverviewSummary summary = OverviewStartRepository.createSummary(data, getCurrentUserId());
+      applySummary(summary);
+      if (!summary.equals(storedSummary)) {
+        repository.storeSummary(summary);
+        storedSummary = summary;
       }
-      choresAssignedCountLive.setValue(choresAssignedCount);
-      choresOverdueCountLive.setValue(choresOverdueCount);
-      choresDueSoonCountLive.setValue(choresDueSoonCount);
-      choresDueTodayCountLive.setValue(choresDueTodayCount);
 
       alreadyLoadedFromDatabase = true;
       if (downloadAfterLoading) {
@@ -491,6 +396,33 @@ public class OverviewStartViewModel extends BaseViewModel {
     }, this::showThrowableErrorMessage);
   }
 
+  private void applySummary(OverviewSummary summary) {
+    shoppingListsCount = summary.getShoppingListsCount();
+    shoppingListItemsCountLive.setValue(summary.getShoppingListItemsCount());
+    productsCountLive.setValue(summary.getProductsCount());
+    recipesCountLive.setValue(summary.getRecipesCount());
+    tasksUndoneCountLive.setValue(summary.getTasksUndoneCount());
+    tasksAssignedCountLive.setValue(summary.getTasksAssignedCount());
+    storedPurchasesOnDevice.setValue(summary.getHasStoredPurchases());
+
+    itemsDueNextCountLive.setValue(summary.getDueSoonCount());
+    itemsOverdueCountLive.setValue(summary.getOverdueCount());
+    itemsExpiredCountLive.setValue(summary.getExpiredCount());
+    itemsMissingCountLive.setValue(summary.getMissingCount());
+    itemsInStockCountLive.setValue(summary.getStockCount());
+    itemsMissingShoppingListCountLive.setValue(summary.getMissingOnShoppingListCount());
+    stockValueLive.setValue(summary.getStockValue());
+
+    choresAssignedCountLive.setValue(summary.getChoresAssignedCount());
+    choresOverdueCountLive.setValue(summary.getChoresOverdueCount());
+    choresDueSoonCountLive.setValue(summary.getChoresDueSoonCount());
+    choresDueTodayCountLive.setValue(summary.getChoresDueTodayCount());
+  }
+
+  private int getCurrentUserId() {
+    return currentUserIdLive.getValue() != null ? currentUserIdLive.getValue() : 1;
+  }
+
   public void downloadData(boolean forceUpdate) {
     dlHelper.updateData(
         updated -> {
@@ -520,18 +452,7 @@ public class OverviewStartViewModel extends BaseViewModel {
         if (id != -1) {
           sharedPrefs.edit().putInt(PREF.CURRENT_USER_ID, id).apply();
           currentUserIdLive.setValue(id);
-          tasksLive.setValue(tasksLive.getValue());  // update descriptions above
-          if (this.choreEntriesLive.getValue() != null) {
-            int choresAssignedCount = 0;
-            for (ChoreEntry choreEntry : this.choreEntriesLive.getValue()) {
-              if (NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-                  && currentUserIdLive.getValue() != null && currentUserIdLive.getValue()
-                  == Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
-                choresAssignedCount++;
-              }
-            }
-            choresAssignedCountLive.setValue(choresAssignedCount);
-          }
+          loadFromDatabase(false);  // update assigned counts above
         }
       }).perform(
           i -> {},
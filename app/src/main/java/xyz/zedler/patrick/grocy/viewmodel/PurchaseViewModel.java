@@ -31,6 +31,7 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import com.android.volley.VolleyError;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -45,6 +46,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.form.FormDataPurchase;
 import xyz.zedler.patrick.grocy.fragment.PurchaseFragmentArgs;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.DateBottomSheet;
@@ -54,9 +56,13 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.ProductsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuantityUnitsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StoresBottomSheet;
+import xyz.zedler.patrick.grocy.helper.BatchPurchaseHelper;
+import xyz.zedler.patrick.grocy.helper.BatchPurchaseHelper.OnBatchPurchaseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
-import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnJSONArrayResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectResponseListener;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.OnStockActionListener;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.StockAction;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -79,6 +85,8 @@ import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.ProductBarcodeIndex;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
@@ -91,6 +99,8 @@ public class PurchaseViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final PurchaseRepository repository;
+  private final StockActionHelper stockActionHelper;
+  private final BatchPurchaseHelper batchPurchaseHelper;
   private final FormDataPurchase formData;
 
   private List<Product> products;
@@ -99,9 +109,9 @@ public class PurchaseViewModel extends BaseViewModel {
   private List<QuantityUnit> quantityUnits;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
   private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private List<ProductBarcode> barcodes;
-  private List<PendingProductBarcode> pendingProductBarcodes;
+  private final ProductBarcodeIndex barcodeIndex;
   private List<Store> stores;
   private List<Location> locations;
   private List<ShoppingListItem> shoppingListItems;
@@ -111,6 +121,8 @@ public class PurchaseViewModel extends BaseViewModel {
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
   private final MutableLiveData<Boolean> quickModeEnabled;
+  private final MutableLiveData<Boolean> batchScanModeLive;
+  private final MutableLiveData<Integer> batchPurchaseCountLive;
 
   private Integer storedPurchaseId;
   private StoredPurchase storedPurchase;
@@ -137,6 +149,9 @@ public class PurchaseViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new PurchaseRepository(application);
+    stockActionHelper = StockActionHelper.getInstance(application);
+    batchPurchaseHelper = BatchPurchaseHelper.getInstance(application);
+    barcodeIndex = ProductBarcodeIndex.getInstance(AppDatabase.getAppDatabase(application));
     formData = new FormDataPurchase(application, sharedPrefs, args);
 
     if (args.getShoppingListItems() != null) {
@@ -150,6 +165,8 @@ public class PurchaseViewModel extends BaseViewModel {
     }
 
     infoFullscreenLive = new MutableLiveData<>();
+    batchScanModeLive = new MutableLiveData<>(false);
+    batchPurchaseCountLive = new MutableLiveData<>(0);
     boolean quickModeStart;
     if (args.getStartWithScanner()) {
       quickModeStart = isTurnOnQuickModeEnabled();
@@ -183,11 +200,12 @@ public class PurchaseViewModel extends BaseViewModel {
               appendPendingProducts(Product.getActiveProductsOnly(products), pendingProducts)
       );
       productHashMap = ArrayUtil.getProductsHashMap(products);
-      this.pendingProductBarcodes = data.getPendingProductBarcodes();
-      this.barcodes = appendPendingProductBarcodes(data.getBarcodes(), pendingProductBarcodes);
+      barcodeIndex.setProductBarcodes(data.getBarcodes());
+      barcodeIndex.setPendingProductBarcodes(data.getPendingProductBarcodes());
       this.quantityUnits = data.getQuantityUnits();
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits);
       this.unitConversions = data.getQuantityUnitConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       this.stores = data.getStores();
       this.locations = data.getLocations();
       this.shoppingListItems = data.getShoppingListItems();
@@ -196,6 +214,11 @@ public class PurchaseViewModel extends BaseViewModel {
       if (storedPurchaseId != null) {
         storedPurchase = StoredPurchase.getFromId(data.getStoredPurchases(), storedPurchaseId);
       }
+      int batchPurchaseCount = 0;
+      for (StoredPurchase storedPurchase : data.getStoredPurchases()) {
+        if (storedPurchase.isBatchPurchase()) batchPurchaseCount++;
+      }
+      batchPurchaseCountLive.setValue(batchPurchaseCount);
       if (downloadAfterLoading) {
         downloadData(false);
       } else {
@@ -270,7 +293,7 @@ public class PurchaseViewModel extends BaseViewModel {
       }
       HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
           quantityUnitHashMap,
-          unitConversions,
+          unitConversionIndex,
           updatedProduct,
           VersionUtil.isGrocyServerMin400(sharedPrefs)
       );
@@ -301,7 +324,7 @@ public class PurchaseViewModel extends BaseViewModel {
         formData.getAmountLive().setValue(NumUtil.trimAmount(barcode.getAmountDouble(), maxDecimalPlacesAmount));
       } else if (!isTareWeightEnabled && shoppingListItem != null) {
         Double amountInUnit = AmountUtil.getShoppingListItemAmount(
-            shoppingListItem, productHashMap, quantityUnitHashMap, unitConversions,
+            shoppingListItem, productHashMap, quantityUnitHashMap, unitConversionIndex,
             VersionUtil.isGrocyServerMin400(sharedPrefs)
         );
         formData.getAmountLive().setValue(
@@ -496,12 +519,12 @@ public class PurchaseViewModel extends BaseViewModel {
   }
 
   public void onBarcodeRecognized(String barcode) {
-    if (barcodes == null) {
+    if (productHashMap == null) {
       loadFromDatabase(true);
       return;
     }
     if (formData.getProductDetailsLive().getValue() != null) {
-      if (ProductBarcode.getFromBarcode(barcodes, barcode) == null) {
+      if (barcodeIndex.getProductBarcode(barcode, true) == null) {
         formData.getBarcodeLive().setValue(barcode);
       } else {
         showMessage(R.string.msg_clear_form_first);
@@ -522,7 +545,7 @@ public class PurchaseViewModel extends BaseViewModel {
     }
     ProductBarcode productBarcode = null;
     if (product == null) {
-      productBarcode = ProductBarcode.getFromBarcode(barcodes, barcode);
+      productBarcode = barcodeIndex.getProductBarcode(barcode, true);
       if (productBarcode instanceof PendingProductBarcode) {
         setPendingProduct(productBarcode.getProductIdInt(), (PendingProductBarcode) productBarcode);
         return;
@@ -539,6 +562,159 @@ public class PurchaseViewModel extends BaseViewModel {
     }
   }
 
+  /**
+   * Queues a purchase of the scanned product with default values instead of filling the form,
+   * so the next product can be scanned immediately. The queue is submitted with
+   * submitBatchPurchases().
+   */
+  public void queueBatchPurchase(String barcode) {
+    if (productHashMap == null) {
+      loadFromDatabase(true);
+      return;
+    }
+    Product product = null;
+    ProductBarcode productBarcode = null;
+    Grocycode grocycode = GrocycodeUtil.getGrocycode(barcode);
+    if (grocycode != null && grocycode.isProduct()) {
+      product = productHashMap.get(grocycode.getObjectId());
+    } else if (grocycode == null) {
+      productBarcode = barcodeIndex.getProductBarcode(barcode);
+      if (productBarcode != null) {
+        product = productHashMap.get(productBarcode.getProductIdInt());
+      }
+    }
+    if (product == null) {
+      showMessageAndContinueScanning(R.string.msg_not_found);
+      return;
+    } else if (product.getNoOwnStockBoolean() || product.getEnableTareWeightHandlingBoolean()) {
+      // these products need the form
+      showMessageAndContinueScanning(R.string.msg_batch_scan_product_needs_form);
+      return;
+    }
+
+    HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
+        quantityUnitHashMap,
+        unitConversionIndex,
+        product,
+        VersionUtil.isGrocyServerMin400(sharedPrefs)
+    );
+    QuantityUnit unit = null;
+    if (productBarcode != null && productBarcode.hasQuId()) {
+      unit = quantityUnitHashMap.get(productBarcode.getQuIdInt());
+    }
+    if (unit == null || !unitFactors.containsKey(unit)) {
+      unit = quantityUnitHashMap.get(product.getQuIdPurchaseInt());
+    }
+    Double unitFactor = unit != null ? unitFactors.get(unit) : null;
+    double factor = unitFactor != null && unitFactor > 0 ? unitFactor : 1;
+    double amount = productBarcode != null && productBarcode.hasAmount()
+        ? productBarcode.getAmountDouble() : 1;
+
+    StoredPurchase batchPurchase = new StoredPurchase();
+    batchPurchase.setProductId(product.getId());
+    batchPurchase.setAmount(NumUtil.trimAmount(amount / factor, maxDecimalPlacesAmount));
+    if (formData.getPurchasedDateEnabled()) {
+      batchPurchase.setPurchasedDate(DateUtil.getDateStringToday());
+    }
+    Location location = null;
+    if (isFeatureEnabled(PREF.FEATURE_STOCK_LOCATION_TRACKING)) {
+      location = getLocation(product.getLocationIdInt());
+      batchPurchase.setLocationId(location != null ? String.valueOf(location.getId()) : null);
+    }
+    if (isFeatureEnabled(PREF.FEATURE_STOCK_BBD_TRACKING)) {
+      int dueDays = product.getDefaultDueDaysInt();
+      String dueDate = null;
+      if (dueDays < 0) {
+        dueDate = Constants.DATE.NEVER_OVERDUE;
+      } else if (dueDays > 0) {
+        dueDate = DateUtil.getTodayWithDaysAdded(dueDays);
+      }
+      if (dueDate != null && location != null && location.getIsFreezerInt() == 1) {
+        dueDate = DateUtil.getDateWithDaysAdded(
+            dueDate, product.getDefaultDueDaysAfterFreezingInt()
+        );
+      }
+      batchPurchase.setBestBeforeDate(dueDate);
+    } else {
+      batchPurchase.setBestBeforeDate(Constants.DATE.NEVER_OVERDUE);
+    }
+    if (isFeatureEnabled(PREF.FEATURE_STOCK_PRICE_TRACKING)) {
+      if (productBarcode != null && productBarcode.hasLastPrice()) {
+        batchPurchase.setPrice(NumUtil.trimPrice(
+            NumUtil.toDouble(productBarcode.getLastPrice()) * factor, decimalPlacesPriceInput
+        ));
+      }
+      String storeId;
+      if (formData.getPinnedStoreIdLive().getValue() != null) {
+        storeId = String.valueOf(formData.getPinnedStoreIdLive().getValue());
+      } else if (productBarcode != null && productBarcode.hasStoreId()) {
+        storeId = productBarcode.getStoreId();
+      } else {
+        storeId = product.getStoreId();
+      }
+      batchPurchase.setStoreId(NumUtil.isStringInt(storeId) ? storeId : null);
+    }
+
+    String productName = product.getName();
+    repository.insertStoredPurchase(batchPurchase, id -> {
+      int count = batchPurchaseCountLive.getValue() != null ? batchPurchaseCountLive.getValue() : 0;
+      batchPurchaseCountLive.setValue(count + 1);
+      showMessageAndContinueScanning(getString(R.string.msg_batch_purchase_queued, productName));
+    }, this::showErrorMessage);
+  }
+
+  public void submitBatchPurchases() {
+    if (batchPurchaseHelper.isRunning()) {
+      showMessage(R.string.msg_batch_purchase_running);
+      return;
+    }
+    repository.getBatchPurchases(
+        batchPurchases -> batchPurchaseHelper.submit(batchPurchases, new OnBatchPurchaseListener() {
+          @Override
+          public void onProgress(int finished, int total) {
+            batchPurchaseCountLive.setValue(total - finished);
+          }
+
+          @Override
+          public void onFinished(int succeeded, int failed) {
+            batchPurchaseCountLive.setValue(failed);
+            if (failed == 0) {
+              showMessage(getResources().getQuantityString(
+                  R.plurals.msg_batch_purchase_submitted, succeeded, succeeded
+              ));
+            } else {
+              showMessage(getResources().getQuantityString(
+                  R.plurals.msg_batch_purchase_failed, failed, failed
+              ));
+            }
+          }
+        }),
+        this::showErrorMessage
+    );
+  }
+
+  public MutableLiveData<Boolean> getBatchScanModeLive() {
+    return batchScanModeLive;
+  }
+
+  public boolean isBatchScanModeEnabled() {
+    return batchScanModeLive.getValue() != null && batchScanModeLive.getValue();
+  }
+
+  public void toggleBatchScanMode() {
+    if (hasStoredPurchase() || batchShoppingListItemIds != null) return;
+    batchScanModeLive.setValue(!isBatchScanModeEnabled());
+    if (isBatchScanModeEnabled()) {
+      formData.clearForm();
+      if (!formData.isScannerVisible()) formData.toggleScannerVisibility();
+      showMessage(R.string.msg_batch_scan_enabled);
+    }
+  }
+
+  public MutableLiveData<Integer> getBatchPurchaseCountLive() {
+    return batchPurchaseCountLive;
+  }
+
   public void checkProductInput() {
     formData.isProductNameValid();
     String input = formData.getProductNameLive().getValue();
@@ -559,16 +735,11 @@ public class PurchaseViewModel extends BaseViewModel {
       return;
     }
     if (product == null) {
-      ProductBarcode productBarcode = null;
-      for (ProductBarcode code : barcodes) {
-        if (code.getBarcode().equals(input.trim())) {
-          productBarcode = code;
-          if (code instanceof PendingProductBarcode) {
-            product = PendingProduct.getFromId(pendingProducts, code.getProductIdInt());
-          } else {
-            product = productHashMap.get(code.getProductIdInt());
-          }
-        }
+      ProductBarcode productBarcode = barcodeIndex.getProductBarcode(input.trim(), true);
+      if (productBarcode instanceof PendingProductBarcode) {
+        product = PendingProduct.getFromId(pendingProducts, productBarcode.getProductIdInt());
+      } else if (productBarcode != null) {
+        product = productHashMap.get(productBarcode.getProductIdInt());
       }
       if (product != null) {
         setProduct(product.getId(), productBarcode, null);
@@ -667,74 +838,107 @@ public class PurchaseViewModel extends BaseViewModel {
       return;
     }
 
-    OnJSONArrayResponseListener onResponse = response -> {
-      // UNDO OPTION
-      String transactionId = null;
-      double amountPurchased = 0;
-      try {
-        transactionId = response.getJSONObject(0)
-            .getString("transaction_id");
-        for (int i = 0; i < response.length(); i++) {
-          amountPurchased += response.getJSONObject(i).getDouble("amount");
-        }
-      } catch (JSONException e) {
+    QuantityUnit quantityUnitStock = formData.getQuantityUnitStockLive().getValue();
+    ShoppingListItem shoppingListItem = formData.getShoppingListItemLive().getValue();
+    StockAction action = new StockAction(
+        StockActionHelper.TYPE_PURCHASE,
+        product.getId(),
+        NumUtil.toDouble(body.optString("amount")),
+        grocyApi.purchaseProduct(product.getId()),
+        body
+    ).setDueDate(body.optString("best_before_date", null), product.getDueDateType());
+
+    if (batchShoppingListItemIds != null && shoppingListItem != null) {
+      action.setDeleteWhenBooked(
+          grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId())
+      );
+    }
+    performPurchase(action, product, quantityUnitStock, shoppingListItem, false);
+  }
+
+  private void performPurchase(
+      StockAction action,
+      Product product,
+      @Nullable QuantityUnit quantityUnitStock,
+      @Nullable ShoppingListItem shoppingListItem,
+      boolean isRetry
+  ) {
+    stockActionHelper.performAction(this, action, new OnStockActionListener() {
+      @Override
+      public void onApplied() {
+        // the sent data is kept in the action, so the form can be reset for the next one
+        if (!isRetry) sendEvent(Event.TRANSACTION_SUCCESS);
+      }
+
+      @Override
+      public void onConfirmed(@Nullable String transactionId, double amountBooked) {
         if (debug) {
-          Log.e(TAG, "purchaseProduct: " + e);
+          Log.i(TAG, "purchaseProduct: transaction successful");
         }
-      }
-      if (debug) {
-        Log.i(TAG, "purchaseProduct: transaction successful");
+        SnackbarMessage snackbarMessage = new SnackbarMessage(
+            formData.getTransactionSuccessMsg(amountBooked, product.getName(), quantityUnitStock)
+        );
+        if (transactionId != null) {
+          snackbarMessage.setAction(
+              getString(R.string.action_undo),
+              v -> undoTransaction(action, transactionId, amountBooked, shoppingListItem)
+          );
+          snackbarMessage.setDurationSecs(sharedPrefs.getInt(
+                  Constants.SETTINGS.BEHAVIOR.MESSAGE_DURATION,
+                  Constants.SETTINGS_DEFAULT.BEHAVIOR.MESSAGE_DURATION));
+        }
+        showSnackbar(snackbarMessage);
       }
 
-      SnackbarMessage snackbarMessage = new SnackbarMessage(
-          formData.getTransactionSuccessMsg(amountPurchased)
-      );
-      if (transactionId != null) {
-        String transId = transactionId;
-        ShoppingListItem shoppingListItem = formData.getShoppingListItemLive().getValue();
-        snackbarMessage.setAction(
-            getString(R.string.action_undo),
-            v -> undoTransaction(transId, shoppingListItem)
+      @Override
+      public void onRolledBack(VolleyError error) {
+        showNetworkErrorMessage(
+            error,
+            getString(R.string.error_transaction_failed, product.getName()),
+            () -> performPurchase(action, product, quantityUnitStock, shoppingListItem, true)
         );
-        snackbarMessage.setDurationSecs(sharedPrefs.getInt(
-                Constants.SETTINGS.BEHAVIOR.MESSAGE_DURATION,
-                Constants.SETTINGS_DEFAULT.BEHAVIOR.MESSAGE_DURATION));
+        if (debug) {
+          Log.i(TAG, "purchaseProduct: " + error);
+        }
       }
-      showSnackbar(snackbarMessage);
-      sendEvent(Event.TRANSACTION_SUCCESS);
-    };
 
-    dlHelper.postWithArray(
-        grocyApi.purchaseProduct(product.getId()),
-        body,
-        response -> {
-          ShoppingListItem shoppingListItem = formData.getShoppingListItemLive().getValue();
-          if (batchShoppingListItemIds != null && shoppingListItem != null) {
-            deleteShoppingListItem(shoppingListItem.getId(), () -> onResponse.onResponse(response));
-          } else {
-            onResponse.onResponse(response);
-          }
-        },
-        error -> {
-          showNetworkErrorMessage(error);
-          if (debug) {
-            Log.i(TAG, "purchaseProduct: " + error);
-          }
-        }
-    );
+      @Override
+      public void onReconciled() {}
+    });
   }
 
-  private void undoTransaction(String transactionId, @Nullable ShoppingListItem shoppingListItem) {
-    dlHelper.post(
-        grocyApi.undoStockTransaction(transactionId),
-        success -> {
-          showMessage(getString(R.string.msg_undone_transaction));
-          if (shoppingListItem != null) undoDeleteShoppingListItem(shoppingListItem);
-          if (debug) {
-            Log.i(TAG, "undoTransaction: undone");
+  private void undoTransaction(
+      StockAction action,
+      String transactionId,
+      double amountBooked,
+      @Nullable ShoppingListItem shoppingListItem
+  ) {
+    stockActionHelper.undoTransaction(
+        this,
+        action,
+        transactionId,
+        amountBooked,
+        new OnStockActionListener() {
+          @Override
+          public void onApplied() {}
+
+          @Override
+          public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+            showMessage(getString(R.string.msg_undone_transaction));
+            if (shoppingListItem != null) undoDeleteShoppingListItem(shoppingListItem);
+            if (debug) {
+              Log.i(TAG, "undoTransaction: undone");
+            }
           }
-        },
-        this::showNetworkErrorMessage
+
+          @Override
+          public void onRolledBack(VolleyError error) {
+            showNetworkErrorMessage(error);
+          }
+
+          @Override
+          public void onReconciled() {}
+        }
     );
   }
 
@@ -747,7 +951,8 @@ public class PurchaseViewModel extends BaseViewModel {
     JSONObject body = productBarcode.getJsonFromProductBarcode(debug, TAG);
     ProductBarcode.addProductBarcode(dlHelper, body, () -> {
       formData.getBarcodeLive().setValue(null);
-      barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
+      // add to index so it will be found on next scan without reload
+      barcodeIndex.addProductBarcode(productBarcode);
       if (onSuccess != null) {
         onSuccess.run();
       }
@@ -781,8 +986,8 @@ public class PurchaseViewModel extends BaseViewModel {
   private void storePendingProductBarcode(Runnable onSuccess) {
     PendingProductBarcode productBarcode = formData.fillPendingProductBarcode();
     formData.getBarcodeLive().setValue(null);
-    barcodes.add(productBarcode); // add to list so it will be found on next scan without reload
-    pendingProductBarcodes.add(productBarcode);
+    // add to index so it will be found on next scan without reload
+    barcodeIndex.addPendingProductBarcode(productBarcode);
     repository.insertPendingProductBarcode(productBarcode, onSuccess);
   }
 
@@ -795,19 +1000,6 @@ public class PurchaseViewModel extends BaseViewModel {
     );
   }
 
-  private void deleteShoppingListItem(int itemId, @NonNull Runnable onFinish) {
-    dlHelper.delete(
-        grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, itemId),
-        response -> onFinish.run(),
-        error -> {
-          if (debug) {
-            Log.e(TAG, "deleteShoppingListItem: " + error);
-          }
-          onFinish.run();
-        }
-    );
-  }
-
   private void undoDeleteShoppingListItem(@NonNull ShoppingListItem item) {
     dlHelper.post(
         grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
@@ -829,6 +1021,16 @@ public class PurchaseViewModel extends BaseViewModel {
     return quantityUnitHashMap;
   }
 
+  private Location getLocation(int id) {
+    if (locations == null) return null;
+    for (Location location : locations) {
+      if (location.getId() == id) {
+        return location;
+      }
+    }
+    return null;
+  }
+
   private Store getStore(int id) {
     for (Store store : stores) {
       if (store.getId() == id) {
@@ -846,7 +1048,7 @@ public class PurchaseViewModel extends BaseViewModel {
     boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, isGrocyServerMin400
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
@@ -1017,22 +1219,6 @@ public class PurchaseViewModel extends BaseViewModel {
     return newList;
   }
 
-  private ArrayList<ProductBarcode> appendPendingProductBarcodes(
-      List<ProductBarcode> productBarcodes,
-      List<PendingProductBarcode> pendingProductBarcodes
-  ) {
-    ArrayList<String> barcodeStrings = new ArrayList<>();
-    for (ProductBarcode productBarcode : productBarcodes) {
-      barcodeStrings.add(productBarcode.getBarcode());
-    }
-    ArrayList<ProductBarcode> newList = new ArrayList<>(productBarcodes);
-    for (PendingProductBarcode pendingProductBarcode : pendingProductBarcodes) {
-      if (barcodeStrings.contains(pendingProductBarcode.getBarcode())) continue;
-      newList.add(pendingProductBarcode);
-    }
-    return newList;
-  }
-
   public boolean hasStoredPurchase() {
     return storedPurchaseId != null;
   }
@@ -1078,6 +1264,8 @@ public class PurchaseViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    batchPurchaseHelper.setListener(null);
+    stockActionHelper.removeListeners(this);
     dlHelper.destroy();
     super.onCleared();
   }
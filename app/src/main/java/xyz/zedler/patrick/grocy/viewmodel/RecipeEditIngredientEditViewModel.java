@@ -59,6 +59,7 @@ import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
@@ -80,6 +81,7 @@ public class RecipeEditIngredientEditViewModel extends BaseViewModel {
   private List<ProductBarcode> productBarcodes;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
 
   private final boolean debug;
   private final boolean isActionEdit;
@@ -113,6 +115,7 @@ public class RecipeEditIngredientEditViewModel extends BaseViewModel {
       this.productBarcodes = data.getProductBarcodes();
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       this.unitConversions = data.getQuantityUnitConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
 
       if (downloadAfterLoading) {
         downloadData(false);
@@ -159,7 +162,7 @@ public class RecipeEditIngredientEditViewModel extends BaseViewModel {
 
       HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
           quantityUnitHashMap,
-          unitConversions,
+          unitConversionIndex,
           product,
           VersionUtil.isGrocyServerMin400(sharedPrefs)
       );
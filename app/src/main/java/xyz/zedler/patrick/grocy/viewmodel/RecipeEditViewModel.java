@@ -25,12 +25,9 @@ import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.net.Uri;
 import android.os.Bundle;
 import android.os.Environment;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.Html;
 import android.util.Log;
 import androidx.annotation.NonNull;
@@ -41,12 +38,9 @@ import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -60,6 +54,7 @@ import xyz.zedler.patrick.grocy.form.FormDataRecipeEdit;
 import xyz.zedler.patrick.grocy.fragment.RecipeEditFragmentArgs;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.InputProductBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.PictureUploadHelper;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -69,6 +64,7 @@ import xyz.zedler.patrick.grocy.repository.RecipeEditRepository;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
+import xyz.zedler.patrick.grocy.util.PictureUtil.StreamOpener;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 
 public class RecipeEditViewModel extends BaseViewModel {
@@ -352,14 +348,11 @@ public class RecipeEditViewModel extends BaseViewModel {
       showMessage(R.string.error_clipboard_no_image);
       return;
     }
-    try {
-      InputStream imageStream = getApplication().getContentResolver().openInputStream(item.getUri());
-      Bitmap bitmap = BitmapFactory.decodeStream(imageStream);
-      scaleAndUploadBitmap(null, bitmap);
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
-      showMessage(R.string.error_clipboard_no_image);
-    }
+    Uri uri = item.getUri();
+    uploadPicture(
+        () -> getApplication().getContentResolver().openInputStream(uri),
+        R.string.error_clipboard_no_image
+    );
   }
 
   public File createImageFile() throws IOException {
@@ -369,39 +362,28 @@ public class RecipeEditViewModel extends BaseViewModel {
     return image;
   }
 
-  public void scaleAndUploadBitmap(@Nullable String filePath, @Nullable Bitmap image) {
-    if (filePath == null && image == null) {
+  public void scaleAndUploadPicture(@Nullable String filePath) {
+    if (filePath == null) {
       showErrorMessage();
       return;
     }
-    isLoadingLive.setValue(true);
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-    executor.execute(() -> {
-      Bitmap scaledBitmap = filePath != null
-          ? PictureUtil.scaleBitmap(filePath)
-          : PictureUtil.scaleBitmap(image);
-      byte[] imageArray = PictureUtil.convertBitmapToByteArray(scaledBitmap);
-      new Handler(Looper.getMainLooper()).post(() -> {
-        uploadPicture(imageArray);
-        executor.shutdown();
-      });
-    });
+    uploadPicture(() -> new FileInputStream(filePath), R.string.error_undefined);
   }
 
-  public void uploadPicture(byte[] pictureData) {
-    if (pictureData == null) {
-      showErrorMessage();
-      isLoadingLive.setValue(false);
-      return;
-    }
+  private void uploadPicture(StreamOpener picture, @StringRes int invalidPictureMsg) {
+    isLoadingLive.setValue(true);
     String filename = PictureUtil.createImageFilename();
-    dlHelper.putFile(
+    PictureUploadHelper.getInstance(getApplication()).upload(
+        picture,
         grocyApi.getRecipePicture(filename),
-        pictureData,
         () -> {
           deleteCurrentPicture(filename);
           formData.getPictureFilenameLive().setValue(filename);
         },
+        () -> {
+          isLoadingLive.setValue(false);
+          showMessage(invalidPictureMsg);
+        },
         error -> {
           isLoadingLive.setValue(false);
           showNetworkErrorMessage(error);
@@ -62,11 +62,15 @@ import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.repository.MainRepository;
+import xyz.zedler.patrick.grocy.repository.MainRepository.OnSyncStatesListener;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
+import xyz.zedler.patrick.grocy.util.DebugLog;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.ReminderUtil;
+import xyz.zedler.patrick.grocy.util.ServerUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
+import xyz.zedler.patrick.grocy.util.SyncUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
 public class SettingsViewModel extends BaseViewModel {
@@ -83,6 +87,7 @@ public class SettingsViewModel extends BaseViewModel {
   private final MutableLiveData<Boolean> getExternalScannerEnabledLive;
   private final MutableLiveData<Boolean> needsRestartLive;
   private final MutableLiveData<Boolean> torEnabledLive;
+  private final MutableLiveData<Boolean> backgroundSyncEnabledLive;
   private final MutableLiveData<Boolean> proxyEnabledLive;
   private final MutableLiveData<String> shoppingModeUpdateIntervalTextLive;
   private List<Location> locations;
@@ -118,6 +123,7 @@ public class SettingsViewModel extends BaseViewModel {
     getExternalScannerEnabledLive = new MutableLiveData<>(getExternalScannerEnabled());
     needsRestartLive = new MutableLiveData<>(false);
     torEnabledLive = new MutableLiveData<>(getTorEnabled());
+    backgroundSyncEnabledLive = new MutableLiveData<>(getBackgroundSyncEnabled());
     proxyEnabledLive = new MutableLiveData<>(getProxyEnabled());
     shoppingModeUpdateIntervalTextLive = new MutableLiveData<>(getShoppingModeUpdateIntervalText());
     presetLocationTextLive = new MutableLiveData<>(getString(R.string.setting_loading));
@@ -265,6 +271,15 @@ public class SettingsViewModel extends BaseViewModel {
   public void setLoggingEnabled(boolean enabled) {
     sharedPrefs.edit()
         .putBoolean(Constants.SETTINGS.DEBUGGING.ENABLE_DEBUGGING, enabled).apply();
+    DebugLog.setEnabled(enabled);
+  }
+
+  public int getLogLevel(String category) {
+    return DebugLog.getLevel(category);
+  }
+
+  public void setLogLevel(String category, int level) {
+    DebugLog.setLevel(sharedPrefs, category, level);
   }
 
   public boolean getBeginnerModeEnabled() {
@@ -902,6 +917,46 @@ public class SettingsViewModel extends BaseViewModel {
     sharedPrefs.edit().putBoolean(Constants.SETTINGS.NETWORK.LOADING_CIRCLE, enabled).apply();
   }
 
+  public MutableLiveData<Boolean> getBackgroundSyncEnabledLive() {
+    return backgroundSyncEnabledLive;
+  }
+
+  public boolean getBackgroundSyncEnabled() {
+    return sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC
+    );
+  }
+
+  public void setBackgroundSyncEnabled(boolean enabled) {
+    if (enabled == getBackgroundSyncEnabled()) return;
+    sharedPrefs.edit().putBoolean(NETWORK.BACKGROUND_SYNC, enabled).apply();
+    SyncUtil.updateBackgroundSync(getApplication());
+  }
+
+  public boolean getBackgroundSyncUnmeteredEnabled() {
+    return sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC_UNMETERED, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC_UNMETERED
+    );
+  }
+
+  public void setBackgroundSyncUnmeteredEnabled(boolean enabled) {
+    if (enabled == getBackgroundSyncUnmeteredEnabled()) return;
+    sharedPrefs.edit().putBoolean(NETWORK.BACKGROUND_SYNC_UNMETERED, enabled).apply();
+    SyncUtil.updateBackgroundSync(getApplication());
+  }
+
+  public boolean getBackgroundSyncChargingEnabled() {
+    return sharedPrefs.getBoolean(
+        NETWORK.BACKGROUND_SYNC_CHARGING, SETTINGS_DEFAULT.NETWORK.BACKGROUND_SYNC_CHARGING
+    );
+  }
+
+  public void setBackgroundSyncChargingEnabled(boolean enabled) {
+    if (enabled == getBackgroundSyncChargingEnabled()) return;
+    sharedPrefs.edit().putBoolean(NETWORK.BACKGROUND_SYNC_CHARGING, enabled).apply();
+    SyncUtil.updateBackgroundSync(getApplication());
+  }
+
   public MutableLiveData<Boolean> getNeedsRestartLive() {
     return needsRestartLive;
   }
@@ -1090,8 +1145,26 @@ public class SettingsViewModel extends BaseViewModel {
     repository.clearAllTables();
   }
 
+  public void loadSyncStates(OnSyncStatesListener listener) {
+    repository.loadSyncStates(listener);
+  }
+
+  public List<String> getOtherServerUrls() {
+    return ServerUtil.getOtherServerUrls(getApplication());
+  }
+
+  public void switchServer(String serverUrl) {
+    ServerUtil.switchServer(getApplication(), serverUrl);
+  }
+
+  public void prepareNewServer() {
+    ServerUtil.prepareNewServer(getApplication());
+  }
+
   public void clearServerRelatedSharedPreferences() {
+    ServerUtil.removeCurrentServer(getApplication());
     PrefsUtil.clearServerRelatedSharedPreferences(sharedPrefs);
+    SyncUtil.cancelBackgroundSync(getApplication());
   }
 
   @Override
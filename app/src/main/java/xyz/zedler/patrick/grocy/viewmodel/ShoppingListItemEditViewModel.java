@@ -60,6 +60,7 @@ import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
@@ -81,6 +82,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
   private List<Product> products;
   private List<ProductBarcode> barcodes;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
 
   private Runnable queueEmptyAction;
@@ -123,6 +125,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
       this.barcodes = data.getBarcodes();
       this.quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       this.unitConversions = data.getQuantityUnitConversions();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       formData.getProductsLive().setValue(Product.getActiveProductsOnly(products));
       ShoppingList selectedShoppingList = formData.getShoppingListLive().getValue();
       if (!isActionEdit && selectedShoppingList == null) {
@@ -240,7 +243,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
 
       HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
           quantityUnitHashMap,
-          unitConversions,
+          unitConversionIndex,
           product,
           VersionUtil.isGrocyServerMin400(sharedPrefs)
       );
@@ -275,7 +278,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
 
     HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil.getUnitFactors(
         quantityUnitHashMap,
-        unitConversions,
+        unitConversionIndex,
         product,
         VersionUtil.isGrocyServerMin400(sharedPrefs)
     );
@@ -64,6 +64,7 @@ import xyz.zedler.patrick.grocy.repository.ShoppingListRepository;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 
@@ -96,6 +97,7 @@ public class ShoppingListViewModel extends BaseViewModel {
   private HashMap<Integer, ProductGroup> productGroupHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
   private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
   private HashMap<Integer, Product> productHashMap;
   private HashMap<Integer, String> productNamesHashMap;
@@ -166,6 +168,7 @@ public class ShoppingListViewModel extends BaseViewModel {
       productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       unitConversions = data.getUnitConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
       missingProductIds = ArrayUtil.getMissingProductsIds(data.getMissingItems());
       productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
@@ -718,7 +721,7 @@ public class ShoppingListViewModel extends BaseViewModel {
     boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, isGrocyServerMin400
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
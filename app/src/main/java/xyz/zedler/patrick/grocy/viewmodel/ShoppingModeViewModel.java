@@ -57,10 +57,12 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem.ShoppingListItemWithSync;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.model.SyncState;
 import xyz.zedler.patrick.grocy.repository.ShoppingListRepository;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 
@@ -94,6 +96,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
   private HashMap<Integer, ProductGroup> productGroupHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
   private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
   private HashMap<Integer, Store> storeHashMap;
   private HashMap<Integer, Product> productHashMap;
@@ -154,6 +157,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
       productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       unitConversions = data.getUnitConversionsResolved();
+      unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
       productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
       productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getProducts());
       productLastPurchasedHashMap = ArrayUtil
@@ -354,8 +358,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
   private void updateDoneStatus(ShoppingListItem shoppingListItem) {
     repository.insertShoppingListItems(
         () -> {
-          sharedPrefs.edit()
-              .putString(Constants.PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, null).apply();
+          dlHelper.invalidateSyncStates(SyncState.SHOPPING_LIST_ITEMS);
           loadFromDatabase(false);
         },
         shoppingListItem
@@ -431,7 +434,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
     boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, isGrocyServerMin400
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
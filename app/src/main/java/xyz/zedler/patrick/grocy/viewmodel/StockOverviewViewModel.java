@@ -24,10 +24,13 @@ import android.app.Application;
 import android.content.SharedPreferences;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import com.android.volley.VolleyError;
 import com.google.android.material.snackbar.Snackbar;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -45,6 +48,9 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.OnStockActionListener;
+import xyz.zedler.patrick.grocy.helper.StockActionHelper.StockAction;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
@@ -69,6 +75,7 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.SyncState;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.repository.StockOverviewRepository;
@@ -102,6 +109,7 @@ public class StockOverviewViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final StockOverviewRepository repository;
+  private final StockActionHelper stockActionHelper;
   private final PluralUtil pluralUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -152,6 +160,7 @@ public class StockOverviewViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new StockOverviewRepository(application);
+    stockActionHelper = StockActionHelper.getInstance(application);
     pluralUtil = new PluralUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
@@ -349,13 +358,10 @@ public class StockOverviewViewModel extends BaseViewModel {
       }
     }
 
+    boolean productsMissing = false;
     for (StockItem item : this.stockItems) {
       if (item.getProduct() == null) {
-        // invalidate products and stock items offline cache because products may have changed
-        SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-        editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
-        editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
-        editPrefs.apply();
+        productsMissing = true;
         continue;
       }
 
@@ -423,6 +429,10 @@ public class StockOverviewViewModel extends BaseViewModel {
         filteredStockItems.add(item);
       }
     }
+    if (productsMissing) {
+      // invalidate products and stock items offline cache because products may have changed
+      dlHelper.invalidateSyncStates(SyncState.PRODUCTS, SyncState.STOCK_ITEMS);
+    }
 
     if (filteredStockItems.isEmpty()) {
       InfoFullscreen info;
@@ -455,7 +465,12 @@ public class StockOverviewViewModel extends BaseViewModel {
   public void performAction(String action, StockItem stockItem) {
     switch (action) {
       case Constants.ACTION.CONSUME:
-        consumeProduct(stockItem, stockItem.getProduct().getQuickConsumeAmountDouble(), false);
+        consumeProduct(
+            stockItem,
+            stockItem.getProduct().getQuickConsumeAmountDouble(),
+            stockItem.getProduct().getQuickConsumeAmountDouble(),
+            false
+        );
         break;
       case Constants.ACTION.OPEN:
         if (VersionUtil.isGrocyServerMin400(sharedPrefs)) {
@@ -470,16 +485,22 @@ public class StockOverviewViewModel extends BaseViewModel {
             stockItem.getProduct().getEnableTareWeightHandlingInt() == 0
                 ? stockItem.getAmountDouble()
                 : stockItem.getProduct().getTareWeightDouble(),
+            stockItem.getAmountDouble(),
             false
         );
         break;
       case Constants.ACTION.CONSUME_SPOILED:
-        consumeProduct(stockItem, 1, true);
+        consumeProduct(stockItem, 1, 1, true);
         break;
     }
   }
 
-  private void consumeProduct(StockItem stockItem, double amount, boolean spoiled) {
+  private void consumeProduct(
+      StockItem stockItem,
+      double amount,
+      double expectedAmount,
+      boolean spoiled
+  ) {
     JSONObject body = new JSONObject();
     try {
       body.put("amount", amount);
@@ -490,68 +511,18 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "consumeProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
+    StockAction action = new StockAction(
+        StockActionHelper.TYPE_CONSUME,
+        stockItem.getProductId(),
+        expectedAmount,
         grocyApi.consumeProduct(stockItem.getProductId()),
-        body,
-        response -> {
-          String transactionId = null;
-          double amountConsumed = 0;
-          try {
-            transactionId = response.getJSONObject(0)
-                .getString("transaction_id");
-            for (int i = 0; i < response.length(); i++) {
-              amountConsumed -= response.getJSONObject(i).getDouble("amount");
-            }
-          } catch (JSONException e) {
-            if (debug) {
-              Log.e(TAG, "consumeProduct: " + e);
-            }
-          }
-
-          String msg = getApplication().getString(
-              spoiled ? R.string.msg_consumed_spoiled : R.string.msg_consumed,
-              NumUtil.trimAmount(amountConsumed, maxDecimalPlacesAmount),
-              pluralUtil.getQuantityUnitPlural(
-                  quantityUnitHashMap,
-                  stockItem.getProduct().getQuIdStockInt(),
-                  amountConsumed
-              ), stockItem.getProduct().getName()
-          );
-          SnackbarMessage snackbarMsg = new SnackbarMessage(msg, 15);
-
-          // set undo button on snackBar
-          if (transactionId != null) {
-            String finalTransactionId = transactionId;
-            snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
-                grocyApi.undoStockTransaction(finalTransactionId),
-                response1 -> {
-                  downloadData(false);
-                  showSnackbar(new SnackbarMessage(
-                      getString(R.string.msg_undone_transaction),
-                      Snackbar.LENGTH_SHORT
-                  ));
-                  if (debug) {
-                    Log.i(TAG, "consumeProduct: undone");
-                  }
-                },
-                this::showNetworkErrorMessage
-            ));
-          }
-          downloadData(false);
-          showSnackbar(snackbarMsg);
-          if (debug) {
-            Log.i(
-                TAG, "consumeProduct: consumed " + amountConsumed
-            );
-          }
-        },
-        error -> {
-          showNetworkErrorMessage(error);
-          if (debug) {
-            Log.i(TAG, "consumeProduct: " + error);
-          }
-        }
+        body
     );
+    stockActionHelper.performAction(this, action, new StockActionListener(
+        action,
+        spoiled ? R.string.msg_consumed_spoiled : R.string.msg_consumed,
+        stockItem.getProduct()
+    ));
   }
 
   private void openProduct(StockItem stockItem, double amount) {
@@ -564,70 +535,114 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "openProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
+    StockAction action = new StockAction(
+        StockActionHelper.TYPE_OPEN,
+        stockItem.getProductId(),
+        amount,
         grocyApi.openProduct(stockItem.getProductId()),
-        body,
-        response -> {
-          String transactionId = null;
-          double amountOpened = 0;
-          try {
-            transactionId = response.getJSONObject(0)
-                .getString("transaction_id");
-            for (int i = 0; i < response.length(); i++) {
-              amountOpened += response.getJSONObject(i).getDouble("amount");
-            }
-          } catch (JSONException e) {
-            if (debug) {
-              Log.e(TAG, "openProduct: " + e);
-            }
-          }
-
-          String msg = getApplication().getString(
-              R.string.msg_opened,
-              NumUtil.trimAmount(amountOpened, maxDecimalPlacesAmount),
-              pluralUtil.getQuantityUnitPlural(
-                  quantityUnitHashMap,
-                  stockItem.getProduct().getQuIdStockInt(),
-                  amountOpened
-              ), stockItem.getProduct().getName()
-          );
-          SnackbarMessage snackbarMsg = new SnackbarMessage(msg, 15);
-
-          // set undo button on snackBar
-          if (transactionId != null) {
-            String finalTransactionId = transactionId;
-            snackbarMsg.setAction(getString(R.string.action_undo), v -> dlHelper.post(
-                grocyApi.undoStockTransaction(finalTransactionId),
-                response1 -> {
-                  downloadData(false);
-                  showSnackbar(new SnackbarMessage(
-                      getString(R.string.msg_undone_transaction),
-                      Snackbar.LENGTH_SHORT
-                  ));
-                  if (debug) {
-                    Log.i(TAG, "openProduct: undone");
-                  }
-                },
-                this::showNetworkErrorMessage
-            ));
-          }
-          downloadData(false);
-          showSnackbar(snackbarMsg);
-          if (debug) {
-            Log.i(
-                TAG, "openProduct: opened " + amountOpened
-            );
-          }
-        },
-        error -> {
-          showNetworkErrorMessage(error);
-          if (debug) {
-            Log.i(TAG, "openProduct: " + error);
-          }
-        }
+        body
+    );
+    stockActionHelper.performAction(
+        this,
+        action,
+        new StockActionListener(action, R.string.msg_opened, stockItem.getProduct())
     );
   }
 
+  private class StockActionListener implements OnStockActionListener {
+
+    private final StockAction action;
+    private final int msgRes;
+    private final Product product;
+
+    StockActionListener(StockAction action, @StringRes int msgRes, Product product) {
+      this.action = action;
+      this.msgRes = msgRes;
+      this.product = product;
+    }
+
+    @Override
+    public void onApplied() {
+      loadFromDatabase(false);
+    }
+
+    @Override
+    public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+      String msg = getApplication().getString(
+          msgRes,
+          NumUtil.trimAmount(amountBooked, maxDecimalPlacesAmount),
+          pluralUtil.getQuantityUnitPlural(
+              quantityUnitHashMap,
+              product.getQuIdStockInt(),
+              amountBooked
+          ), product.getName()
+      );
+      SnackbarMessage snackbarMsg = new SnackbarMessage(msg, 15);
+
+      // set undo button on snackBar
+      if (transactionId != null) {
+        snackbarMsg.setAction(
+            getString(R.string.action_undo),
+            v -> stockActionHelper.undoTransaction(
+                StockOverviewViewModel.this,
+                action,
+                transactionId,
+                amountBooked,
+                new UndoListener()
+            )
+        );
+      }
+      showSnackbar(snackbarMsg);
+      if (debug) {
+        Log.i(TAG, "performAction: booked " + amountBooked);
+      }
+    }
+
+    @Override
+    public void onRolledBack(VolleyError error) {
+      loadFromDatabase(false);
+      showNetworkErrorMessage(error);
+      if (debug) {
+        Log.i(TAG, "performAction: " + error);
+      }
+    }
+
+    @Override
+    public void onReconciled() {
+      loadFromDatabase(false);
+    }
+  }
+
+  private class UndoListener implements OnStockActionListener {
+
+    @Override
+    public void onApplied() {
+      loadFromDatabase(false);
+    }
+
+    @Override
+    public void onConfirmed(@Nullable String transactionId, double amountBooked) {
+      showSnackbar(new SnackbarMessage(
+          getString(R.string.msg_undone_transaction),
+          Snackbar.LENGTH_SHORT
+      ));
+      if (debug) {
+        Log.i(TAG, "undoTransaction: undone");
+      }
+    }
+
+    @Override
+    public void onRolledBack(VolleyError error) {
+      loadFromDatabase(false);
+      showNetworkErrorMessage(error);
+    }
+
+    @Override
+    public void onReconciled() {
+      loadFromDatabase(false);
+    }
+  }
+
   public void resetSearch() {
     searchInput = null;
     setIsSearchVisible(false);
@@ -794,6 +809,7 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    stockActionHelper.removeListeners(this);
     dlHelper.destroy();
     super.onCleared();
   }
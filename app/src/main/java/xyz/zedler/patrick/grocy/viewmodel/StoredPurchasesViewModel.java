@@ -27,7 +27,9 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
@@ -57,6 +59,7 @@ public class StoredPurchasesViewModel extends BaseViewModel {
   private final HashMap<Integer, List<PendingProductBarcode>> productBarcodeHashMap;
   private List<StoredPurchase> pendingPurchases;
   private final HashMap<Integer, List<StoredPurchase>> pendingPurchasesHashMap;
+  private final LinkedHashMap<Integer, List<StoredPurchase>> batchPurchasesHashMap;
 
   private Runnable queueEmptyAction;
 
@@ -75,6 +78,7 @@ public class StoredPurchasesViewModel extends BaseViewModel {
     pendingProductHashMap = new HashMap<>();
     productBarcodeHashMap = new HashMap<>();
     pendingPurchasesHashMap = new HashMap<>();
+    batchPurchasesHashMap = new LinkedHashMap<>();
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
@@ -104,7 +108,19 @@ public class StoredPurchasesViewModel extends BaseViewModel {
       }
       this.pendingPurchases = data.getPendingPurchases();
       pendingPurchasesHashMap.clear();
+      batchPurchasesHashMap.clear();
       for (StoredPurchase pendingPurchase : this.pendingPurchases) {
+        if (pendingPurchase.isBatchPurchase()) {
+          // queued in batch scan mode for an existing product, not for a pending product
+          List<StoredPurchase> batchPurchases
+              = batchPurchasesHashMap.get(pendingPurchase.getProductId());
+          if (batchPurchases == null) {
+            batchPurchases = new ArrayList<>();
+            batchPurchasesHashMap.put(pendingPurchase.getProductId(), batchPurchases);
+          }
+          batchPurchases.add(pendingPurchase);
+          continue;
+        }
         List<StoredPurchase> tempPurchases
             = pendingPurchasesHashMap.get(pendingPurchase.getPendingProductId());
         if (tempPurchases == null) {
@@ -160,9 +176,31 @@ public class StoredPurchasesViewModel extends BaseViewModel {
         items.addAll(pendingPurchases);
       }
     }
+    for (Integer productId : batchPurchasesHashMap.keySet()) {
+      Product product = Product.getProductFromId(products, productId);
+      if (product == null) {
+        // product was deleted on the server, the queued purchases can only be removed
+        product = new Product();
+        product.setId(productId);
+        product.setName(getString(R.string.subtitle_unknown));
+      }
+      product.setDisplayDivider(!firstElement);
+      items.add(product);
+      items.add(new PendingProductInfo(product, true));
+      firstElement = false;
+      items.addAll(batchPurchasesHashMap.get(productId));
+    }
     displayedItemsLive.setValue(items);
   }
 
+  public void deleteBatchPurchase(StoredPurchase batchPurchase) {
+    repository.deleteStoredPurchase(
+        batchPurchase.getId(),
+        () -> loadFromDatabase(false),
+        this::showErrorMessage
+    );
+  }
+
   public void setPendingProductNameToOnlineProductName(int pendingProductId, int productId) {
     PendingProduct pendingProduct = PendingProduct.getFromId(pendingProducts, pendingProductId);
     Product product = Product.getProductFromId(products, productId);
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
+import android.util.Base64;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
+import com.bumptech.glide.load.model.LazyHeaders;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+/**
+ * Provides the auth headers for requests to the Grocy server. They are computed once from the
+ * preferences and computed again after the server url, API key or ingress session changed.
+ * Volley requests and the picture loader of Glide both take their headers from here.
+ */
+public class AuthHeaderProvider implements OnSharedPreferenceChangeListener {
+
+  private static final Pattern CREDENTIALS_PATTERN = Pattern.compile(
+      "(http|https)://(\\S+):(\\S+)@(\\S+)"
+  );
+
+  private static AuthHeaderProvider instance;
+  private static String lastCredentials;
+  private static String lastAuthorization;
+
+  private final SharedPreferences sharedPrefs;
+  private Map<String, String> headers;
+  private LazyHeaders glideHeaders;
+
+  private AuthHeaderProvider(Context context) {
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    // preferences keep only a weak reference to the listener, the instance is kept statically
+    sharedPrefs.registerOnSharedPreferenceChangeListener(this);
+  }
+
+  public static synchronized AuthHeaderProvider getInstance(Context context) {
+    if (instance == null) {
+      instance = new AuthHeaderProvider(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  /**
+   * Returns an unmodifiable map with the auth headers, callers which need to add further
+   * headers have to copy it.
+   */
+  public synchronized Map<String, String> getHeaders() {
+    if (headers == null) {
+      String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, "");
+      String apiKey = sharedPrefs.getString(PREF.API_KEY, "");
+      String homeAssistantIngressSessionKey = sharedPrefs
+          .getString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
+
+      HashMap<String, String> params = new HashMap<>();
+      String authorization = getBasicAuthorization(serverUrl);
+      if (authorization != null) {
+        params.put("Authorization", authorization);
+      }
+      if (apiKey != null && !apiKey.isEmpty()) {
+        params.put("GROCY-API-KEY", apiKey);
+      }
+      if (homeAssistantIngressSessionKey != null) {
+        params.put("Cookie", "ingress_session=" + homeAssistantIngressSessionKey);
+      }
+      headers = Collections.unmodifiableMap(params);
+    }
+    return headers;
+  }
+
+  public synchronized LazyHeaders getGlideHeaders() {
+    if (glideHeaders == null) {
+      LazyHeaders.Builder headersBuilder = new LazyHeaders.Builder();
+      for (Map.Entry<String, String> entry : getHeaders().entrySet()) {
+        headersBuilder.addHeader(entry.getKey(), entry.getValue());
+      }
+      glideHeaders = headersBuilder.build();
+    }
+    return glideHeaders;
+  }
+
+  /**
+   * Returns the value of the basic auth header for the credentials in the url or null if it
+   * contains no credentials. The last encoded credentials are kept, because all requests to
+   * the server share them.
+   */
+  @Nullable
+  public static String getBasicAuthorization(@Nullable String url) {
+    if (url == null || url.indexOf('@') == -1) {
+      return null;
+    }
+    Matcher matcher = CREDENTIALS_PATTERN.matcher(url);
+    if (!matcher.matches()) {
+      return null;
+    }
+    String credentials = matcher.group(2) + ":" + matcher.group(3);
+    synchronized (AuthHeaderProvider.class) {
+      if (!credentials.equals(lastCredentials)) {
+        String encoded = Base64.encodeToString(credentials.getBytes(), Base64.DEFAULT);
+        lastAuthorization = "Basic " + encoded;
+        lastCredentials = credentials;
+      }
+      return lastAuthorization;
+    }
+  }
+
+  /**
+   * Returns the url without credentials, e.g. for cache keys which should stay the same
+   * when the credentials change.
+   */
+  public static String getUrlWithoutCredentials(String url) {
+    if (url == null || url.indexOf('@') == -1) {
+      return url;
+    }
+    Matcher matcher = CREDENTIALS_PATTERN.matcher(url);
+    return matcher.matches() ? matcher.group(1) + "://" + matcher.group(4) : url;
+  }
+
+  @Override
+  public synchronized void onSharedPreferenceChanged(SharedPreferences prefs, @Nullable String key) {
+    if (key == null || key.equals(PREF.SERVER_URL) || key.equals(PREF.API_KEY)
+        || key.equals(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY)) {
+      headers = null;
+      glideHeaders = null;
+    }
+  }
+}
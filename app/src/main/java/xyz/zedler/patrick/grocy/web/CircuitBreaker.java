@@ -0,0 +1,135 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.android.volley.NoConnectionError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import java.util.HashMap;
+
+/**
+ * Remembers servers which could not be reached, so that requests to them fail right away
+ * instead of each one waiting for its timeout.
+ * After a few connection failures in a row, the circuit of the host opens and requests are
+ * rejected for a short time. Then one request is let through, if it reaches the server the
+ * circuit closes again, otherwise it stays open for twice as long.
+ * Any response of the server counts as success, also HTTP errors.
+ */
+public class CircuitBreaker {
+
+  private static final int FAILURE_THRESHOLD = 2;
+  private static final long OPEN_TIME_MIN = 5 * 1000;
+  private static final long OPEN_TIME_MAX = 30 * 1000;
+
+  private static CircuitBreaker instance;
+
+  private final HashMap<String, Circuit> circuits;
+
+  private CircuitBreaker() {
+    circuits = new HashMap<>();
+  }
+
+  public static synchronized CircuitBreaker getInstance() {
+    if (instance == null) {
+      instance = new CircuitBreaker();
+    }
+    return instance;
+  }
+
+  /**
+   * Returns false if the host of the url was unreachable just now and the request should fail
+   * without being sent.
+   */
+  public synchronized boolean allowRequest(String url) {
+    Circuit circuit = circuits.get(getHost(url));
+    if (circuit == null || circuit.openUntil == 0) return true;
+    long now = SystemClock.elapsedRealtime();
+    if (now < circuit.openUntil) return false;
+    // let one request find out if the server is back, the others wait for its result
+    circuit.openUntil = now + circuit.openTime;
+    circuit.trialRunning = true;
+    return true;
+  }
+
+  public synchronized void onResponse(String url) {
+    circuits.remove(getHost(url));
+  }
+
+  public synchronized void onError(String url, VolleyError error) {
+    if (error instanceof OpenCircuitError) {
+      return;
+    } else if (!isConnectionError(error)) {
+      onResponse(url);
+      return;
+    }
+    String host = getHost(url);
+    Circuit circuit = circuits.get(host);
+    if (circuit == null) {
+      circuit = new Circuit();
+      circuits.put(host, circuit);
+    }
+    long now = SystemClock.elapsedRealtime();
+    if (circuit.openUntil != 0 && !circuit.trialRunning) {
+      return; // rejected request or one which was sent before the circuit opened
+    }
+    circuit.failures++;
+    if (circuit.trialRunning) {
+      circuit.trialRunning = false;
+      circuit.openTime = Math.min(circuit.openTime * 2, OPEN_TIME_MAX);
+      circuit.openUntil = now + circuit.openTime;
+    } else if (circuit.failures >= FAILURE_THRESHOLD) {
+      circuit.openTime = OPEN_TIME_MIN;
+      circuit.openUntil = now + circuit.openTime;
+    }
+  }
+
+  /**
+   * Closes all circuits, e.g. after the network connection of the device changed.
+   */
+  public synchronized void reset() {
+    circuits.clear();
+  }
+
+  public static boolean isConnectionError(@Nullable VolleyError error) {
+    return error instanceof NoConnectionError || error instanceof TimeoutError;
+  }
+
+  private static String getHost(String url) {
+    String host = url != null ? Uri.parse(url).getHost() : null;
+    return host != null ? host : "";
+  }
+
+  /**
+   * Error of requests which were rejected without being sent.
+   */
+  public static class OpenCircuitError extends NoConnectionError {}
+
+  private static class Circuit {
+
+    int failures;
+    long openUntil;
+    long openTime;
+    boolean trialRunning;
+  }
+}
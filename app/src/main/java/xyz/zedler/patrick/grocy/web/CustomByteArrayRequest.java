@@ -20,19 +20,15 @@
 
 package xyz.zedler.patrick.grocy.web;
 
-import android.util.Base64;
 import androidx.annotation.Nullable;
-import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.NetworkResponse;
 import com.android.volley.Request;
 import com.android.volley.Response;
-import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class CustomByteArrayRequest extends Request<byte[]> {
 
@@ -69,19 +65,21 @@ public class CustomByteArrayRequest extends Request<byte[]> {
       setTag(tag);
     }
     setShouldCache(false);
-    RetryPolicy policy = new DefaultRetryPolicy(
-        timeoutSeconds * 1000,
-        DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-    );
-    setRetryPolicy(policy);
+    setRetryPolicy(RequestPolicy.getRetryPolicy(method, url, timeoutSeconds));
   }
 
   @Override
   protected void deliverResponse(byte[] response) {
+    CircuitBreaker.getInstance().onResponse(url);
     if (successListener != null) successListener.run();
   }
 
+  @Override
+  public void deliverError(VolleyError error) {
+    CircuitBreaker.getInstance().onError(url, error);
+    super.deliverError(error);
+  }
+
   @Override
   protected Response<byte[]> parseNetworkResponse(NetworkResponse response) {
     return Response.success(response.data, HttpHeaderParser.parseCacheHeaders(response));
@@ -106,13 +104,9 @@ public class CustomByteArrayRequest extends Request<byte[]> {
     if (hassLongLivedAccessToken != null && !hassLongLivedAccessToken.isEmpty()) {
       params.put("Authorization", "Bearer " + hassLongLivedAccessToken);
     } else {
-      Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
-      if (matcher.matches()) {
-        String user = matcher.group(2);
-        String password = matcher.group(3);
-        byte[] combination = (user + ":" + password).getBytes();
-        String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
-        params.put("Authorization", "Basic " + encoded);
+      String authorization = AuthHeaderProvider.getBasicAuthorization(url);
+      if (authorization != null) {
+        params.put("Authorization", authorization);
       }
     }
     if (homeAssistantIngressSessionKey != null) {
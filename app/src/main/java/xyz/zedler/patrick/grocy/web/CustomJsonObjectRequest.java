@@ -20,20 +20,16 @@
 
 package xyz.zedler.patrick.grocy.web;
 
-import android.util.Base64;
 import androidx.annotation.Nullable;
-import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.NetworkResponse;
 import com.android.volley.ParseError;
 import com.android.volley.Response;
-import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.JsonObjectRequest;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -68,12 +64,7 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
       setTag(tag);
     }
     setShouldCache(false);
-    RetryPolicy policy = new DefaultRetryPolicy(
-        timeoutSeconds * 1000,
-        DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-    );
-    setRetryPolicy(policy);
+    setRetryPolicy(RequestPolicy.getRetryPolicy(method, url, timeoutSeconds));
   }
 
   @Override
@@ -93,6 +84,18 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
     }
   }
 
+  @Override
+  protected void deliverResponse(JSONObject response) {
+    CircuitBreaker.getInstance().onResponse(url);
+    super.deliverResponse(response);
+  }
+
+  @Override
+  public void deliverError(VolleyError error) {
+    CircuitBreaker.getInstance().onError(url, error);
+    super.deliverError(error);
+  }
+
   @Override
   public Map<String, String> getHeaders() {
     Map<String, String> params = new HashMap<>();
@@ -102,13 +105,9 @@ public class CustomJsonObjectRequest extends JsonObjectRequest {
     if (hassLongLivedAccessToken != null && !hassLongLivedAccessToken.isEmpty()) {
       params.put("Authorization", "Bearer " + hassLongLivedAccessToken);
     } else {
-      Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
-      if (matcher.matches()) {
-        String user = matcher.group(2);
-        String password = matcher.group(3);
-        byte[] combination = (user + ":" + password).getBytes();
-        String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
-        params.put("Authorization", "Basic " + encoded);
+      String authorization = AuthHeaderProvider.getBasicAuthorization(url);
+      if (authorization != null) {
+        params.put("Authorization", authorization);
       }
     }
     if (homeAssistantIngressSessionKey != null) {
@@ -20,18 +20,17 @@
 
 package xyz.zedler.patrick.grocy.web;
 
-import android.util.Base64;
+import android.os.SystemClock;
 import androidx.annotation.Nullable;
-import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
 import com.android.volley.Response;
-import com.android.volley.RetryPolicy;
+import com.android.volley.VolleyError;
 import com.android.volley.toolbox.StringRequest;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.util.SyncTelemetry;
 
 public class CustomStringRequest extends StringRequest {
 
@@ -39,6 +38,7 @@ public class CustomStringRequest extends StringRequest {
   private final String apiKey;
   private final String homeAssistantIngressSessionKey;
   private final String userAgent;
+  private boolean recordInCircuitBreaker = true;
 
   public CustomStringRequest(
       int method,
@@ -62,7 +62,11 @@ public class CustomStringRequest extends StringRequest {
               onLoadingListener.onLoadingChanged(false);
             }
           }
+          long startTime = SystemClock.elapsedRealtime();
           listener.onResponse(response);
+          SyncTelemetry.getInstance().recordParse(
+              url, SystemClock.elapsedRealtime() - startTime
+          );
         },
         error -> {
           if (noLoadingProgress) {
@@ -83,12 +87,7 @@ public class CustomStringRequest extends StringRequest {
       setTag(tag);
     }
     setShouldCache(false);
-    RetryPolicy policy = new DefaultRetryPolicy(
-        timeoutSeconds * 1000,
-        DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-    );
-    setRetryPolicy(policy);
+    setRetryPolicy(RequestPolicy.getRetryPolicy(method, url, timeoutSeconds));
   }
 
   public CustomStringRequest(
@@ -169,17 +168,45 @@ public class CustomStringRequest extends StringRequest {
     );
   }
 
+  @Override
+  protected Response<String> parseNetworkResponse(NetworkResponse response) {
+    SyncTelemetry.getInstance().recordResponse(
+        url, response.networkTimeMs, response.data != null ? response.data.length : 0
+    );
+    return super.parseNetworkResponse(response);
+  }
+
+  /**
+   * For hedged requests, whose outcome has to be reported once by the caller instead.
+   */
+  public CustomStringRequest setRecordInCircuitBreaker(boolean recordInCircuitBreaker) {
+    this.recordInCircuitBreaker = recordInCircuitBreaker;
+    return this;
+  }
+
+  @Override
+  protected void deliverResponse(String response) {
+    if (recordInCircuitBreaker) {
+      CircuitBreaker.getInstance().onResponse(url);
+    }
+    super.deliverResponse(response);
+  }
+
+  @Override
+  public void deliverError(VolleyError error) {
+    if (recordInCircuitBreaker) {
+      CircuitBreaker.getInstance().onError(url, error);
+    }
+    super.deliverError(error);
+  }
+
   @Override
   public Map<String, String> getHeaders() {
     Map<String, String> params = new HashMap<>();
 
-    Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
-    if (matcher.matches()) {
-      String user = matcher.group(2);
-      String password = matcher.group(3);
-      byte[] combination = (user + ":" + password).getBytes();
-      String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
-      params.put("Authorization", "Basic " + encoded);
+    String authorization = AuthHeaderProvider.getBasicAuthorization(url);
+    if (authorization != null) {
+      params.put("Authorization", authorization);
     }
     if (apiKey != null && !apiKey.isEmpty()) {
       params.put("GROCY-API-KEY", apiKey);
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.module.AppGlideModule;
+import java.io.InputStream;
+
+@GlideModule
+public class GrocyGlideModule extends AppGlideModule {
+
+  // pictures are served in a few sizes per device, so a small cache holds most of them
+  private static final String DISK_CACHE_NAME = "pictures";
+  private static final long DISK_CACHE_SIZE = 64 * 1024 * 1024;
+
+  @Override
+  public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+    builder.setDiskCache(
+        new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_SIZE)
+    );
+  }
+
+  @Override
+  public void registerComponents(
+      @NonNull Context context,
+      @NonNull Glide glide,
+      @NonNull Registry registry
+  ) {
+    registry.prepend(
+        GrocyPicture.class,
+        InputStream.class,
+        new GrocyPictureLoader.Factory(context)
+    );
+  }
+
+  @Override
+  public boolean isManifestParsingEnabled() {
+    return false;
+  }
+}
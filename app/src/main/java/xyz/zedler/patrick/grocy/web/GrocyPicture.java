@@ -0,0 +1,71 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import androidx.annotation.NonNull;
+import java.util.Objects;
+
+/**
+ * Model for Glide to load a picture from the Grocy server with the auth headers of
+ * AuthHeaderProvider. The cache key is the url without credentials, so pictures stay cached
+ * when the credentials, API key or ingress session change.
+ */
+public class GrocyPicture {
+
+  private final String url;
+  private final String cacheKey;
+
+  public GrocyPicture(String url) {
+    this.url = url;
+    this.cacheKey = AuthHeaderProvider.getUrlWithoutCredentials(url);
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public String getCacheKey() {
+    return cacheKey;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    GrocyPicture that = (GrocyPicture) o;
+    return Objects.equals(cacheKey, that.cacheKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(cacheKey);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "GrocyPicture(" + cacheKey + ')';
+  }
+}
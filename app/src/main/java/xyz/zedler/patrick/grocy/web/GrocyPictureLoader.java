@@ -0,0 +1,174 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+import com.bumptech.glide.util.ContentLengthInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Loads Grocy pictures over the connection setup of the Volley request queue instead of the
+ * default fetcher of Glide, so proxies, client certificates and memorized certificates are
+ * used for pictures too.
+ */
+public class GrocyPictureLoader implements ModelLoader<GrocyPicture, InputStream> {
+
+  private static final int TIMEOUT_MILLIS = 10000;
+
+  private final Context context;
+
+  public GrocyPictureLoader(Context context) {
+    this.context = context;
+  }
+
+  @Nullable
+  @Override
+  public LoadData<InputStream> buildLoadData(
+      @NonNull GrocyPicture picture,
+      int width,
+      int height,
+      @NonNull Options options
+  ) {
+    return new LoadData<>(
+        new ObjectKey(picture.getCacheKey()),
+        new PictureFetcher(context, picture)
+    );
+  }
+
+  @Override
+  public boolean handles(@NonNull GrocyPicture picture) {
+    return true;
+  }
+
+  private static class PictureFetcher implements DataFetcher<InputStream> {
+
+    private final Context context;
+    private final GrocyPicture picture;
+    private HttpURLConnection connection;
+    private InputStream stream;
+    private volatile boolean isCancelled;
+
+    PictureFetcher(Context context, GrocyPicture picture) {
+      this.context = context;
+      this.picture = picture;
+    }
+
+    @Override
+    public void loadData(
+        @NonNull Priority priority,
+        @NonNull DataCallback<? super InputStream> callback
+    ) {
+      try {
+        connection = RequestQueueSingleton.getInstance(context)
+            .openConnection(new URL(picture.getUrl()));
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        connection.setUseCaches(false);
+        Map<String, String> headers = AuthHeaderProvider.getInstance(context).getHeaders();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+          connection.addRequestProperty(header.getKey(), header.getValue());
+        }
+        connection.connect();
+        if (isCancelled) {
+          callback.onDataReady(null);
+          return;
+        }
+        int statusCode = connection.getResponseCode();
+        if (statusCode / 100 != 2) {
+          callback.onLoadFailed(new HttpException(connection.getResponseMessage(), statusCode));
+          return;
+        }
+        stream = ContentLengthInputStream.obtain(
+            connection.getInputStream(), connection.getContentLength()
+        );
+        callback.onDataReady(stream);
+      } catch (IOException e) {
+        callback.onLoadFailed(e);
+      }
+    }
+
+    @Override
+    public void cleanup() {
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (IOException ignored) {
+        }
+      }
+      if (connection != null) {
+        connection.disconnect();
+      }
+      connection = null;
+    }
+
+    @Override
+    public void cancel() {
+      isCancelled = true;
+    }
+
+    @NonNull
+    @Override
+    public Class<InputStream> getDataClass() {
+      return InputStream.class;
+    }
+
+    @NonNull
+    @Override
+    public DataSource getDataSource() {
+      return DataSource.REMOTE;
+    }
+  }
+
+  public static class Factory implements ModelLoaderFactory<GrocyPicture, InputStream> {
+
+    private final Context context;
+
+    public Factory(Context context) {
+      this.context = context.getApplicationContext();
+    }
+
+    @NonNull
+    @Override
+    public ModelLoader<GrocyPicture, InputStream> build(
+        @NonNull MultiModelLoaderFactory multiFactory
+    ) {
+      return new GrocyPictureLoader(context);
+    }
+
+    @Override
+    public void teardown() {}
+  }
+}
@@ -0,0 +1,435 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.preference.PreferenceManager;
+import dev.gustavoavila.websocketclient.WebSocketClient;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Random;
+import org.json.JSONException;
+import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Keeps the ingress session for a Grocy add-on behind Home Assistant. The session is requested
+ * over the Home Assistant websocket and held in memory, the preferences only keep it for the
+ * next start of the app.
+ * While the app is in the foreground, the session is validated every minute, which extends it
+ * on the supervisor. If it was not validated for too long, a new one is requested before it
+ * expires, and requests which are sent meanwhile wait for it instead of failing with the old
+ * one. A lost connection is opened again with exponential backoff and jitter.
+ */
+public class IngressSessionManager implements OnSharedPreferenceChangeListener {
+
+  private static final String TAG = IngressSessionManager.class.getSimpleName();
+
+  private static final long VALIDATE_INTERVAL = 60 * 1000;
+  // the supervisor drops sessions after 15 minutes without validation
+  private static final long SESSION_MAX_IDLE = 10 * 60 * 1000;
+  private static final long PENDING_TIMEOUT = 10 * 1000;
+  private static final long RECONNECT_DELAY_MIN = 1000;
+  private static final long RECONNECT_DELAY_MAX = 60 * 1000;
+
+  private static IngressSessionManager instance;
+
+  private final SharedPreferences sharedPrefs;
+  private final Handler handler;
+  private final Random random;
+  private final ArrayList<OnSessionListener> pendingListeners;
+  private final boolean debug;
+
+  private WebSocketClient webSocketClient;
+  private String webSocketUrl;
+  private String token;
+  @Nullable private String session;
+  private long sessionValidatedTime;
+  private boolean started;
+  private boolean authenticated;
+  private boolean refreshing;
+  private int reconnectAttempts;
+  private int messageId;
+  private int sessionRequestId = -1;
+  private int validateRequestId = -1;
+
+  private final Runnable validateRunnable = new Runnable() {
+    @Override
+    public void run() {
+      synchronized (IngressSessionManager.this) {
+        if (isSessionStale()) {
+          requestSession();
+        } else {
+          validateSession();
+        }
+      }
+      handler.postDelayed(this, VALIDATE_INTERVAL);
+    }
+  };
+  private final Runnable reconnectRunnable = this::connect;
+  private final Runnable pendingTimeoutRunnable = this::onPendingTimeout;
+
+  @VisibleForTesting
+  IngressSessionManager(Context context) {
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    handler = new Handler(Looper.getMainLooper());
+    random = new Random();
+    pendingListeners = new ArrayList<>();
+    debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    session = sharedPrefs.getString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
+    long sessionAge = System.currentTimeMillis()
+        - sharedPrefs.getLong(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME, 0);
+    if (session != null && sessionAge >= 0 && sessionAge < SESSION_MAX_IDLE) {
+      sessionValidatedTime = SystemClock.elapsedRealtime() - sessionAge;
+    }
+    // preferences keep only a weak reference to the listener, the instance is kept statically
+    sharedPrefs.registerOnSharedPreferenceChangeListener(this);
+  }
+
+  public static synchronized IngressSessionManager getInstance(Context context) {
+    if (instance == null) {
+      instance = new IngressSessionManager(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  @Nullable
+  public synchronized String getSession() {
+    return session;
+  }
+
+  /**
+   * Calls the listener with the current session, which is null if the server is not behind
+   * Home Assistant. If a new session is being requested, the listener is called as soon as it
+   * is available or the request timed out.
+   */
+  public void getSession(OnSessionListener listener) {
+    String currentSession;
+    synchronized (this) {
+      if (refreshing) {
+        if (pendingListeners.isEmpty()) {
+          handler.postDelayed(pendingTimeoutRunnable, PENDING_TIMEOUT);
+        }
+        pendingListeners.add(listener);
+        return;
+      }
+      currentSession = session;
+    }
+    listener.onSession(currentSession);
+  }
+
+  /**
+   * Opens the websocket if the server is behind Home Assistant and starts the periodic
+   * validation. The connection is only opened again if the Home Assistant server or token
+   * changed, so this can be called whenever the app comes to the foreground.
+   */
+  public synchronized void start() {
+    String serverUrl = sharedPrefs.getString(PREF.HOME_ASSISTANT_SERVER_URL, null);
+    String token = sharedPrefs.getString(PREF.HOME_ASSISTANT_LONG_LIVED_TOKEN, null);
+    if (token == null || token.isEmpty() || serverUrl == null || serverUrl.isEmpty()) {
+      stop();
+      return;
+    }
+    String url = serverUrl.replaceFirst("https", "wss").replaceFirst("http", "ws")
+        + "/api/websocket";
+    started = true;
+    if (isSessionStale()) {
+      // requests wait for the new session instead of failing with the old one
+      refreshing = true;
+    }
+    if (webSocketClient == null || !url.equals(webSocketUrl) || !token.equals(this.token)) {
+      closeWebSocketClient("recreate websocket client");
+      webSocketUrl = url;
+      this.token = token;
+      reconnectAttempts = 0;
+      connect();
+    } else if (authenticated && refreshing) {
+      requestSession();
+    }
+    handler.removeCallbacks(validateRunnable);
+    handler.postDelayed(validateRunnable, VALIDATE_INTERVAL);
+  }
+
+  /**
+   * Stops the periodic validation while the app is in the background, the connection stays open.
+   */
+  public void pause() {
+    handler.removeCallbacks(validateRunnable);
+  }
+
+  public synchronized void stop() {
+    started = false;
+    handler.removeCallbacks(validateRunnable);
+    handler.removeCallbacks(reconnectRunnable);
+    closeWebSocketClient("session manager stopped");
+    webSocketUrl = null;
+    token = null;
+    refreshing = false;
+    flushPendingListeners();
+  }
+
+  private synchronized void connect() {
+    if (!started || webSocketUrl == null) return;
+    URI uri;
+    try {
+      uri = new URI(webSocketUrl);
+    } catch (URISyntaxException e) {
+      Log.e(TAG, "connect: " + e);
+      stop();
+      return;
+    }
+    if (webSocketClient != null) {
+      closeWebSocketClient("reconnect");
+    }
+    authenticated = false;
+    webSocketClient = createWebSocketClient(uri);
+    webSocketClient.setConnectTimeout(10000);
+    webSocketClient.setReadTimeout(60000);
+    webSocketClient.connect();
+  }
+
+  @VisibleForTesting
+  WebSocketClient createWebSocketClient(URI uri) {
+    return new WebSocketClient(uri) {
+      @Override
+      public void onOpen() {}
+
+      @Override
+      public void onPingReceived(byte[] data) {}
+
+      @Override
+      public void onPongReceived(byte[] data) {}
+
+      @Override
+      public void onBinaryReceived(byte[] data) {}
+
+      @Override
+      public void onTextReceived(String message) {
+        onMessage(this, message);
+      }
+
+      @Override
+      public void onException(Exception e) {
+        Log.e(TAG, "connect: onException: " + e.getMessage());
+        onConnectionLost(this);
+      }
+
+      @Override
+      public void onCloseReceived(int reason, String description) {
+        if (debug) Log.i(TAG, "connect: onCloseReceived: " + description);
+        onConnectionLost(this);
+      }
+    };
+  }
+
+  private void closeWebSocketClient(String reason) {
+    if (webSocketClient != null) {
+      WebSocketClient client = webSocketClient;
+      webSocketClient = null;
+      authenticated = false;
+      client.close(0, 0, reason);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized void onConnectionLost(WebSocketClient client) {
+    if (client != webSocketClient || !started) return; // closed on purpose
+    authenticated = false;
+    // random delay within the backoff, so clients don't all reconnect at once after an outage
+    long maxDelay = Math.min(
+        RECONNECT_DELAY_MAX, RECONNECT_DELAY_MIN << Math.min(reconnectAttempts, 16)
+    );
+    long delay = RECONNECT_DELAY_MIN + (long) (random.nextDouble() * maxDelay);
+    reconnectAttempts++;
+    if (debug) Log.i(TAG, "onConnectionLost: reconnect in " + delay + " ms");
+    handler.removeCallbacks(reconnectRunnable);
+    handler.postDelayed(reconnectRunnable, delay);
+  }
+
+  @VisibleForTesting
+  synchronized void onMessage(WebSocketClient client, String message) {
+    if (client != webSocketClient) return;
+    JSONObject jsonObject;
+    try {
+      jsonObject = new JSONObject(message);
+    } catch (JSONException e) {
+      Log.e(TAG, "onMessage: " + e);
+      return;
+    }
+    switch (jsonObject.optString("type")) {
+      case "auth_required":
+        JSONObject auth = new JSONObject();
+        try {
+          auth.put("type", "auth");
+          auth.put("access_token", token);
+        } catch (JSONException e) {
+          Log.e(TAG, "onMessage: " + e);
+          return;
+        }
+        webSocketClient.send(auth.toString());
+        break;
+      case "auth_ok":
+        authenticated = true;
+        reconnectAttempts = 0;
+        if (session == null || isSessionStale()) {
+          requestSession();
+        } else {
+          validateSession();
+        }
+        break;
+      case "auth_invalid":
+        Log.e(TAG, "onMessage: " + message);
+        stop(); // reconnecting with the same token would fail again
+        break;
+      case "result":
+        int id = jsonObject.optInt("id", -1);
+        boolean success = jsonObject.optBoolean("success");
+        if (id == sessionRequestId) {
+          sessionRequestId = -1;
+          JSONObject result = jsonObject.optJSONObject("result");
+          if (success && result != null && result.has("session")) {
+            setSession(result.optString("session"));
+          } else {
+            Log.e(TAG, "onMessage: " + message);
+            refreshing = false;
+            flushPendingListeners();
+          }
+        } else if (id == validateRequestId) {
+          validateRequestId = -1;
+          if (success) {
+            sessionValidatedTime = SystemClock.elapsedRealtime();
+            sharedPrefs.edit().putLong(
+                PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME, System.currentTimeMillis()
+            ).apply();
+          } else {
+            if (debug) Log.i(TAG, "onMessage: session not valid anymore: " + message);
+            requestSession();
+          }
+        } else if (debug) {
+          Log.i(TAG, "onMessage: " + message);
+        }
+        break;
+      default:
+        if (debug) Log.i(TAG, "onMessage: " + message);
+    }
+  }
+
+  private boolean isSessionStale() {
+    return session == null || sessionValidatedTime == 0
+        || SystemClock.elapsedRealtime() - sessionValidatedTime > SESSION_MAX_IDLE;
+  }
+
+  private void requestSession() {
+    refreshing = true;
+    if (!authenticated || sessionRequestId != -1) return; // requested after auth_ok
+    sessionRequestId = sendSupervisorRequest("/ingress/session", null);
+  }
+
+  private void validateSession() {
+    if (!authenticated || session == null || validateRequestId != -1) return;
+    JSONObject data = new JSONObject();
+    try {
+      data.put("session", session);
+    } catch (JSONException e) {
+      Log.e(TAG, "validateSession: " + e);
+      return;
+    }
+    validateRequestId = sendSupervisorRequest("/ingress/validate_session", data);
+  }
+
+  private int sendSupervisorRequest(String endpoint, @Nullable JSONObject data) {
+    int id = ++messageId;
+    try {
+      JSONObject jsonObject = new JSONObject();
+      jsonObject.put("type", "supervisor/api");
+      jsonObject.put("endpoint", endpoint);
+      jsonObject.put("method", "post");
+      if (data != null) jsonObject.put("data", data);
+      jsonObject.put("id", id);
+      webSocketClient.send(jsonObject.toString());
+    } catch (JSONException e) {
+      Log.e(TAG, "sendSupervisorRequest: " + endpoint + ": " + e);
+      return -1;
+    }
+    return id;
+  }
+
+  private void setSession(String session) {
+    this.session = session;
+    sessionValidatedTime = SystemClock.elapsedRealtime();
+    refreshing = false;
+    sharedPrefs.edit()
+        .putString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, session)
+        .putLong(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME, System.currentTimeMillis())
+        .apply();
+    flushPendingListeners();
+  }
+
+  private synchronized void onPendingTimeout() {
+    if (pendingListeners.isEmpty()) return;
+    if (debug) Log.i(TAG, "onPendingTimeout: sending requests with last session");
+    refreshing = false;
+    flushPendingListeners();
+  }
+
+  private void flushPendingListeners() {
+    handler.removeCallbacks(pendingTimeoutRunnable);
+    if (pendingListeners.isEmpty()) return;
+    ArrayList<OnSessionListener> listeners = new ArrayList<>(pendingListeners);
+    pendingListeners.clear();
+    String currentSession = session;
+    handler.post(() -> {
+      for (OnSessionListener listener : listeners) {
+        listener.onSession(currentSession);
+      }
+    });
+  }
+
+  @Override
+  public synchronized void onSharedPreferenceChanged(SharedPreferences prefs, @Nullable String key) {
+    if (key != null && !key.equals(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY)) return;
+    String storedSession = prefs.getString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
+    if (Objects.equals(storedSession, session)) return;
+    // e.g. a new session from the login or none after switching the server
+    session = storedSession;
+    sessionValidatedTime = storedSession != null ? SystemClock.elapsedRealtime() : 0;
+    if (storedSession != null && refreshing) {
+      refreshing = false;
+      flushPendingListeners();
+    }
+  }
+
+  public interface OnSessionListener {
+
+    void onSession(@Nullable String session);
+  }
+}
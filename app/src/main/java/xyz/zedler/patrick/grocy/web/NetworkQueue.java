@@ -20,7 +20,10 @@
 
 package xyz.zedler.patrick.grocy.web;
 
+import android.os.Handler;
+import android.os.Looper;
 import com.android.volley.RequestQueue;
+import com.android.volley.TimeoutError;
 import java.util.ArrayList;
 import java.util.UUID;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnLoadingListener;
@@ -35,6 +38,9 @@ public class NetworkQueue {
   private final OnLoadingListener onLoadingListener;
   private final RequestQueue requestQueue;
   private final String uuidQueue;
+  private final Handler handler;
+  private final Runnable budgetRunnable;
+  private long budget;
   private int requestsNotFinishedCount;
   private boolean isRunning; // state of queue
   private boolean isLoading; // state of "loading" circle
@@ -56,6 +62,18 @@ public class NetworkQueue {
     isRunning = false;
     isLoading = false;
     realRequestsMade = false;
+    handler = new Handler(Looper.getMainLooper());
+    budgetRunnable = this::onBudgetExceeded;
+  }
+
+  /**
+   * Sets the time in milliseconds after which the running queue cancels its remaining requests
+   * and reports a TimeoutError if none of them has finished in the meantime, instead of waiting
+   * for the timeout of each one. Every finished request starts the time again.
+   */
+  public NetworkQueue setBudget(long budget) {
+    this.budget = budget;
+    return this;
   }
 
   public NetworkQueue append(QueueItem... queueItems) {
@@ -96,9 +114,29 @@ public class NetworkQueue {
       }
       return;
     }
+    restartBudget();
     executeQueueItems();
   }
 
+  private void restartBudget() {
+    if (budget <= 0) return;
+    handler.removeCallbacks(budgetRunnable);
+    handler.postDelayed(budgetRunnable, budget);
+  }
+
+  private void onBudgetExceeded() {
+    if (!isRunning) return;
+    isRunning = false;
+    isLoading = false;
+    reset(true);
+    if (onLoadingListener != null) {
+      onLoadingListener.onLoadingChanged(false);
+    }
+    if (onErrorListener != null) {
+      onErrorListener.onError(new TimeoutError());
+    }
+  }
+
   private void executeQueueItems() {
     if (queueItems.isEmpty() || requestsNotFinishedCount == 0) {
       return;
@@ -118,6 +156,7 @@ public class NetworkQueue {
       queueItem.perform(response -> {
         requestsNotFinishedCount--;
         if (requestsNotFinishedCount > 0) {
+          restartBudget();
           return;
         }
         isRunning = false;
@@ -153,6 +192,7 @@ public class NetworkQueue {
   }
 
   public void reset(boolean cancelAll) {
+    handler.removeCallbacks(budgetRunnable);
     if (cancelAll) {
       requestQueue.cancelAll(uuidQueue);
     }
@@ -50,6 +50,10 @@ public class ProxyHurlStack extends HurlStack {
     }
   }
 
+  public Proxy getProxy() {
+    return proxy;
+  }
+
   @Override
   protected HttpURLConnection createConnection(URL url) throws IOException {
       // source: https://gitlab.com/guardianproject/NetCipher/-/blob/master/netcipher-volley/src/info/guardianproject/netcipher/client/StrongHurlStack.java
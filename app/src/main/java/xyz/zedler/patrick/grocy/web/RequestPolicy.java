@@ -0,0 +1,101 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.RetryPolicy;
+import java.util.regex.Pattern;
+
+/**
+ * Timeouts and retries of requests to the Grocy server by the kind of endpoint.
+ * The db-changed-time probe runs before every update and is tiny, so it gets a short timeout
+ * and no retry, a slow probe is hedged by the DownloadHelper instead. Through Tor or a proxy
+ * even the probe is slow, so there it keeps the timeout from the settings and is not hedged.
+ * The bulk lists of /objects and /stock can be large, so they get twice the timeout from the
+ * settings and one retry. Other reads keep the timeout from the settings with one retry.
+ * Requests which change data are never retried, because the server could have processed the
+ * first attempt.
+ */
+public class RequestPolicy {
+
+  private static final String PROBE_PATH = "/system/db-changed-time";
+  private static final int PROBE_TIMEOUT = 5 * 1000;
+  private static final int LIST_TIMEOUT_FACTOR = 2;
+  private static final int READ_MAX_RETRIES = 1;
+  private static final Pattern LIST_PATH = Pattern.compile(
+      "/api/(objects/[^/?]+|stock|stock/volatile)/?(\\?.*)?$"
+  );
+
+  /**
+   * Time after which a second db-changed-time request is sent if the first one has not been
+   * answered yet.
+   */
+  public static final long PROBE_HEDGE_DELAY = 1000;
+
+  private static volatile boolean proxyEnabled;
+
+  /**
+   * Called by the RequestQueueSingleton whenever the request queue is created.
+   */
+  static void setProxyEnabled(boolean enabled) {
+    proxyEnabled = enabled;
+  }
+
+  public static boolean isProbeHedged() {
+    return !proxyEnabled;
+  }
+
+  public static RetryPolicy getRetryPolicy(int method, String url, int timeoutSeconds) {
+    int timeout = timeoutSeconds * 1000;
+    if (url != null && url.contains(PROBE_PATH)) {
+      int probeTimeout = proxyEnabled ? timeout : Math.min(timeout, PROBE_TIMEOUT);
+      return new DefaultRetryPolicy(probeTimeout, 0, 1);
+    } else if (method != Request.Method.GET) {
+      return new DefaultRetryPolicy(timeout, 0, 1);
+    } else if (isList(url)) {
+      return new DefaultRetryPolicy(
+          timeout * LIST_TIMEOUT_FACTOR,
+          READ_MAX_RETRIES,
+          DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
+      );
+    }
+    return new DefaultRetryPolicy(
+        timeout,
+        READ_MAX_RETRIES,
+        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
+    );
+  }
+
+  static boolean isList(String url) {
+    return url != null && LIST_PATH.matcher(url).find();
+  }
+
+  /**
+   * Returns the time one update pass may go without any finished request before it gives up,
+   * so that a server which stopped answering can't keep the page loading for the timeout of
+   * every single request. A pass which is still making progress is never cancelled, so a slow
+   * first sync of a large server can finish. The first attempt of a list always fits in it.
+   */
+  public static long getUpdateBudget(int timeoutSeconds) {
+    return timeoutSeconds * (LIST_TIMEOUT_FACTOR + 1) * 1000L;
+  }
+}
@@ -30,16 +30,13 @@ import com.android.volley.toolbox.BasicNetwork;
 import com.android.volley.toolbox.DiskBasedCache;
 import com.android.volley.toolbox.HurlStack;
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.Socket;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import javax.net.ssl.KeyManager;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocket;
+import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.NETWORK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.ssl.ikm.InteractiveKeyManager;
@@ -49,6 +46,9 @@ public class RequestQueueSingleton {
 
   private static RequestQueueSingleton instance;
   private RequestQueue requestQueue;
+  private Proxy proxy;
+  private SSLSocketFactory sslSocketFactory;
+  private TLSSocketFactory tlsSocketFactory;
   private static Context context;
 
   private RequestQueueSingleton(Context context) {
@@ -78,14 +78,27 @@ public class RequestQueueSingleton {
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
     boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
     boolean useProxy = sharedPrefs.getBoolean(NETWORK.PROXY, SETTINGS_DEFAULT.NETWORK.PROXY);
+    RequestPolicy.setProxyEnabled(useTor || useProxy);
 
     HurlStack stack;
     if (useTor || useProxy) {
-      stack = new ProxyHurlStack(sharedPrefs, useTor);
+      ProxyHurlStack proxyStack = new ProxyHurlStack(sharedPrefs, useTor);
+      proxy = proxyStack.getProxy();
+      sslSocketFactory = null;
+      stack = proxyStack;
     } else {
+      proxy = null;
       try {
-        stack = new HurlStack(null, new TLSSocketFactory());
+        // shared by all queues, so its TLS sessions survive when the queue is recreated
+        if (tlsSocketFactory == null) {
+          tlsSocketFactory = new TLSSocketFactory(
+              new InteractiveKeyManager(context), MemorizingTrustManager.getInstance(context)
+          );
+        }
+        sslSocketFactory = tlsSocketFactory;
+        stack = new HurlStack(null, sslSocketFactory);
       } catch (NoSuchAlgorithmException | KeyManagementException e) {
+        sslSocketFactory = null;
         stack = new HurlStack();
       }
     }
@@ -94,67 +107,22 @@ public class RequestQueueSingleton {
     requestQueue.start();
   }
 
-  private static class TLSSocketFactory extends SSLSocketFactory {
-
-    private final SSLSocketFactory internalSSLSocketFactory;
-
-    public TLSSocketFactory() throws KeyManagementException, NoSuchAlgorithmException {
-      SSLContext sslContext = SSLContext.getInstance("TLS");
-      sslContext.init(null, null, null);
-
-      // Client certificates
-      KeyManager keyManager = new InteractiveKeyManager(context);
-      TrustManager mtm = new MemorizingTrustManager(context);
-      sslContext.init(new KeyManager[]{keyManager}, new TrustManager[]{mtm}, new SecureRandom());
-
-      internalSSLSocketFactory = sslContext.getSocketFactory();
-    }
-
-    @Override
-    public String[] getDefaultCipherSuites() {
-      return internalSSLSocketFactory.getDefaultCipherSuites();
-    }
-
-    @Override
-    public String[] getSupportedCipherSuites() {
-      return internalSSLSocketFactory.getSupportedCipherSuites();
-    }
-
-    @Override
-    public Socket createSocket() throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket());
-    }
-
-    @Override
-    public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(s, host, port, autoClose));
-    }
-
-    @Override
-    public Socket createSocket(String host, int port) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
-    }
-
-    @Override
-    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port, localHost, localPort));
-    }
-
-    @Override
-    public Socket createSocket(InetAddress host, int port) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
-    }
-
-    @Override
-    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
-      return enableTLSOnSocket(internalSSLSocketFactory.createSocket(address, port, localAddress, localPort));
+  /**
+   * Opens a connection with the same proxy and TLS setup (client certificates and memorized
+   * certificates) as the request queue, for clients which can't use Volley like Glide.
+   */
+  public HttpURLConnection openConnection(URL url) throws IOException {
+    getRequestQueue();
+    HttpURLConnection connection;
+    if (proxy != null) {
+      connection = (HttpURLConnection) url.openConnection(proxy);
+    } else {
+      connection = (HttpURLConnection) url.openConnection();
     }
-
-    private Socket enableTLSOnSocket(Socket socket) {
-      if((socket instanceof SSLSocket)) {
-        ((SSLSocket)socket).setEnabledProtocols(new String[] {"TLSv1.1", "TLSv1.2", "TLSv1.3"});
-      }
-      return socket;
+    if (sslSocketFactory != null && connection instanceof HttpsURLConnection) {
+      ((HttpsURLConnection) connection).setSSLSocketFactory(sslSocketFactory);
     }
+    connection.setInstanceFollowRedirects(HttpURLConnection.getFollowRedirects());
+    return connection;
   }
-}
\ No newline at end of file
+}
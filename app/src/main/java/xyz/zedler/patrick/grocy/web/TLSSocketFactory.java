@@ -0,0 +1,120 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.net.ssl.SSLSockets;
+import android.os.Build;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+
+/**
+ * Socket factory of the request queue. It enables TLS 1.1 to 1.3 on every socket and keeps a
+ * client session cache, so that following connections to a server resume the session.
+ */
+class TLSSocketFactory extends SSLSocketFactory {
+
+  private static final int SESSION_CACHE_SIZE = 32;
+  private static final int SESSION_TIMEOUT = 24 * 60 * 60; // seconds
+
+  private final SSLSocketFactory internalSSLSocketFactory;
+
+  /**
+   * @param keyManager   provides client certificates
+   * @param trustManager decides about server certificates
+   */
+  TLSSocketFactory(KeyManager keyManager, TrustManager trustManager)
+      throws KeyManagementException, NoSuchAlgorithmException {
+    SSLContext sslContext = SSLContext.getInstance("TLS");
+    sslContext.init(
+        new KeyManager[]{keyManager}, new TrustManager[]{trustManager}, new SecureRandom()
+    );
+
+    // Resumed sessions skip the certificate check and most of the handshake
+    SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+    if (sessionContext != null) {
+      sessionContext.setSessionCacheSize(SESSION_CACHE_SIZE);
+      sessionContext.setSessionTimeout(SESSION_TIMEOUT);
+    }
+
+    internalSSLSocketFactory = sslContext.getSocketFactory();
+  }
+
+  @Override
+  public String[] getDefaultCipherSuites() {
+    return internalSSLSocketFactory.getDefaultCipherSuites();
+  }
+
+  @Override
+  public String[] getSupportedCipherSuites() {
+    return internalSSLSocketFactory.getSupportedCipherSuites();
+  }
+
+  @Override
+  public Socket createSocket() throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket());
+  }
+
+  @Override
+  public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket(s, host, port, autoClose));
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port, localHost, localPort));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+    return enableTLSOnSocket(internalSSLSocketFactory.createSocket(address, port, localAddress, localPort));
+  }
+
+  private Socket enableTLSOnSocket(Socket socket) {
+    if((socket instanceof SSLSocket)) {
+      ((SSLSocket)socket).setEnabledProtocols(new String[] {"TLSv1.1", "TLSv1.2", "TLSv1.3"});
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+          && SSLSockets.isSupportedSocket((SSLSocket) socket)) {
+        SSLSockets.setUseSessionTickets((SSLSocket) socket, true);
+      }
+    }
+    return socket;
+  }
+}
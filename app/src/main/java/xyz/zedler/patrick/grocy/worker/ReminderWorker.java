@@ -0,0 +1,258 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.worker;
+
+import android.app.Application;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.preference.PreferenceManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.NOTIFICATIONS;
+import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.activity.MainActivity;
+import xyz.zedler.patrick.grocy.fragment.ChoresFragmentArgs;
+import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.model.ChoreEntry;
+import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStatusChores;
+import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStatusStock;
+import xyz.zedler.patrick.grocy.model.OverviewSummary;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.repository.OverviewStartRepository;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.NavUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.ReminderUtil;
+
+/**
+ * Shows the stock or chores reminder for one alarm of ReminderUtil.
+ * The counts are taken from the overview summary in the database, which is updated after every
+ * sync with changes. Only if the summary is not from today, the stock or chore tables are
+ * updated once like on the pages and the summary is computed again. Failed updates are retried
+ * with backoff and the last attempt uses the tables on the device.
+ * The trigger time of the handled alarm is stored, so an alarm which is delivered twice or work
+ * which is run again does not notify again.
+ */
+public class ReminderWorker extends Worker {
+
+  private static final String TAG = ReminderWorker.class.getSimpleName();
+
+  public static final String KEY_TYPE = "type";
+  public static final String KEY_TRIGGER_TIME = "trigger_time";
+
+  private static final int MAX_ATTEMPTS = 4;
+  private static final long MAX_DURATION = 3; // minutes
+
+  private final Handler handler;
+  private final CountDownLatch latch;
+  private final SharedPreferences sharedPrefs;
+  private final boolean debug;
+  private DownloadHelper dlHelper; // only used on main thread
+  @Nullable private volatile OverviewSummary summary;
+
+  public ReminderWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+    super(context, workerParams);
+    handler = new Handler(Looper.getMainLooper());
+    latch = new CountDownLatch(1);
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+  }
+
+  @NonNull
+  @Override
+  public Result doWork() {
+    String type = getInputData().getString(KEY_TYPE);
+    if (!ReminderUtil.STOCK_TYPE.equals(type) && !ReminderUtil.CHORES_TYPE.equals(type)) {
+      return Result.failure();
+    }
+    boolean isStock = type.equals(ReminderUtil.STOCK_TYPE);
+    String lastTriggerPref = isStock
+        ? PREF.REMINDER_STOCK_LAST_TRIGGER
+        : PREF.REMINDER_CHORES_LAST_TRIGGER;
+    long triggerTime = getInputData().getLong(KEY_TRIGGER_TIME, 0);
+    if (sharedPrefs.getLong(lastTriggerPref, 0) >= triggerTime) {
+      if (debug) Log.i(TAG, "doWork: " + type + " reminder already shown");
+      return Result.success();
+    }
+    if (PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
+      return Result.success();
+    }
+
+    boolean isLastAttempt = getRunAttemptCount() + 1 >= MAX_ATTEMPTS;
+    handler.post(() -> loadSummary(isStock, isLastAttempt));
+    boolean finished;
+    try {
+      finished = latch.await(MAX_DURATION, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      finished = false;
+    }
+    if (!finished) {
+      handler.post(this::cancelUpdate);
+    }
+    OverviewSummary summary = this.summary;
+    if (!finished || summary == null) {
+      if (debug) Log.e(TAG, "doWork: no summary for " + type + " reminder");
+      return isLastAttempt ? Result.failure() : Result.retry();
+    }
+
+    notify(isStock, summary);
+    sharedPrefs.edit().putLong(lastTriggerPref, triggerTime).apply();
+    return Result.success();
+  }
+
+  @Override
+  public void onStopped() {
+    handler.post(this::cancelUpdate);
+    latch.countDown();
+  }
+
+  private void loadSummary(boolean isStock, boolean useStoredTablesOnError) {
+    if (isStopped()) return;
+    OverviewStartRepository repository = new OverviewStartRepository(
+        (Application) getApplicationContext()
+    );
+    repository.loadSummary(storedSummary -> {
+      if (storedSummary != null && storedSummary.isValidToday(DateUtil.getDateStringToday())) {
+        if (debug) Log.i(TAG, "loadSummary: stored summary is up to date");
+        summary = storedSummary;
+        latch.countDown();
+        return;
+      }
+      if (isStopped()) return;
+      dlHelper = new DownloadHelper(getApplicationContext(), TAG);
+      dlHelper.updateData(
+          updated -> createSummary(repository),
+          error -> {
+            if (debug) Log.e(TAG, "loadSummary: " + error);
+            if (useStoredTablesOnError) {
+              createSummary(repository);
+            } else {
+              latch.countDown();
+            }
+          },
+          false,
+          false,
+          isStock
+              ? new Class<?>[]{StockItem.class, VolatileItem.class}
+              : new Class<?>[]{ChoreEntry.class}
+      );
+    }, throwable -> latch.countDown());
+  }
+
+  private void createSummary(OverviewStartRepository repository) {
+    repository.loadFromDatabase(data -> {
+      OverviewSummary summary = OverviewStartRepository.createSummary(
+          data, sharedPrefs.getInt(PREF.CURRENT_USER_ID, 1)
+      );
+      repository.storeSummary(summary);
+      this.summary = summary;
+      latch.countDown();
+    }, throwable -> latch.countDown());
+  }
+
+  private void cancelUpdate() {
+    if (dlHelper != null) {
+      dlHelper.destroy();
+      dlHelper = null;
+    }
+  }
+
+  private void notify(boolean isStock, OverviewSummary summary) {
+    Context context = getApplicationContext();
+    NotificationManager notificationManager = (NotificationManager) context.getSystemService(
+        Context.NOTIFICATION_SERVICE
+    );
+    if (notificationManager == null) {
+      return;
+    }
+    int count = isStock
+        ? summary.getDueSoonCount() + summary.getOverdueCount() + summary.getExpiredCount()
+        : summary.getChoresDueTodayCount() + summary.getChoresOverdueCount();
+    if (debug) Log.i(TAG, "notify: " + (isStock ? "stock" : "chores") + " count = " + count);
+    if (count == 0) return;
+
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+      NotificationChannel channel = new NotificationChannel(
+          isStock ? NOTIFICATIONS.STOCK_CHANNEL : NOTIFICATIONS.CHORES_CHANNEL,
+          context.getString(isStock ? R.string.category_stock : R.string.title_chores),
+          NotificationManager.IMPORTANCE_HIGH
+      );
+      channel.setDescription(context.getString(
+          isStock
+              ? R.string.setting_notifications_stock_description
+              : R.string.setting_notifications_chores_description
+      ));
+      notificationManager.createNotificationChannel(channel);
+    }
+
+    Uri uri;
+    if (isStock) {
+      uri = NavUtil.getUriWithArgs(
+          context.getString(R.string.deep_link_stockOverviewFragment),
+          new StockOverviewFragmentArgs.Builder()
+              .setStatusFilterId(String.valueOf(FilterChipLiveDataStatusStock.STATUS_NOT_FRESH))
+              .build().toBundle()
+      );
+    } else {
+      uri = NavUtil.getUriWithArgs(
+          context.getString(R.string.deep_link_choresFragment),
+          new ChoresFragmentArgs.Builder()
+              .setStatusFilterId(String.valueOf(FilterChipLiveDataStatusChores.STATUS_DUE))
+              .build().toBundle()
+      );
+    }
+    Intent notificationIntent = new Intent(Intent.ACTION_VIEW, uri);
+    notificationIntent.setClass(context, MainActivity.class);
+    notificationIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+
+    int notificationId = isStock ? NOTIFICATIONS.STOCK_ID : NOTIFICATIONS.CHORES_ID;
+    notificationManager.notify(notificationId, ReminderUtil.getNotification(
+        context,
+        context.getResources().getQuantityString(
+            isStock
+                ? R.plurals.notification_stock_not_fresh_title
+                : R.plurals.notification_chores_due_title,
+            count, count
+        ),
+        context.getString(
+            isStock ? R.string.notification_stock_content : R.string.notification_chores_content
+        ),
+        notificationId,
+        isStock ? NOTIFICATIONS.STOCK_CHANNEL : NOTIFICATIONS.CHORES_CHANNEL,
+        notificationIntent
+    ));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.worker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.model.ChoreEntry;
+import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListItemWithSync;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.model.Task;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Periodic background sync which is scheduled by SyncUtil.
+ * It runs the same update as the pages, so only tables whose changed time on the server differs
+ * from the stored one are downloaded and a sync without changes costs a single request.
+ * The update runs on the main thread like in the app and this worker only waits for it, at most
+ * for MAX_DURATION. Failed or timed out runs are retried with exponential backoff until
+ * MAX_ATTEMPTS is reached, then the next period is waited for.
+ */
+public class SyncWorker extends Worker {
+
+  private static final String TAG = SyncWorker.class.getSimpleName();
+
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long MAX_DURATION = 5; // minutes
+
+  private final Handler handler;
+  private final CountDownLatch latch;
+  private DownloadHelper dlHelper; // only used on main thread
+  private volatile boolean failed;
+
+  public SyncWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+    super(context, workerParams);
+    handler = new Handler(Looper.getMainLooper());
+    latch = new CountDownLatch(1);
+  }
+
+  @NonNull
+  @Override
+  public Result doWork() {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(
+        getApplicationContext()
+    );
+    boolean debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    if (PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
+      return Result.success();
+    }
+
+    long startTime = System.currentTimeMillis();
+    Class<?>[] types = getTypes(sharedPrefs);
+    handler.post(() -> {
+      if (isStopped()) return;
+      dlHelper = new DownloadHelper(getApplicationContext(), TAG);
+      dlHelper.updateData(
+          updated -> {
+            if (debug) {
+              Log.i(TAG, "doWork: finished in " + (System.currentTimeMillis() - startTime)
+                  + "ms, updated: " + updated);
+            }
+            latch.countDown();
+          },
+          error -> {
+            if (debug) Log.e(TAG, "doWork: " + error);
+            failed = true;
+            latch.countDown();
+          },
+          false,
+          false,
+          types
+      );
+    });
+
+    boolean finished;
+    try {
+      finished = latch.await(MAX_DURATION, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      finished = false;
+    }
+    if (!finished) {
+      if (debug) Log.e(TAG, "doWork: not finished in time, attempt " + getRunAttemptCount());
+      handler.post(this::cancelUpdate);
+    }
+    if (finished && !failed) {
+      return Result.success();
+    }
+    return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+  }
+
+  @Override
+  public void onStopped() {
+    handler.post(this::cancelUpdate);
+    failed = true;
+    latch.countDown();
+  }
+
+  private void cancelUpdate() {
+    if (dlHelper != null) {
+      dlHelper.destroy();
+      dlHelper = null;
+    }
+  }
+
+  private static Class<?>[] getTypes(SharedPreferences sharedPrefs) {
+    List<Class<?>> types = new ArrayList<>();
+    Collections.addAll(
+        types,
+        Product.class,
+        ProductGroup.class,
+        ProductBarcode.class,
+        QuantityUnit.class,
+        Location.class,
+        Store.class
+    );
+    if (sharedPrefs.getBoolean(PREF.FEATURE_STOCK, true)) {
+      types.add(StockItem.class);
+      types.add(VolatileItem.class);
+    }
+    if (sharedPrefs.getBoolean(PREF.FEATURE_SHOPPING_LIST, true)) {
+      types.add(ShoppingListItemWithSync.class);
+      types.add(ShoppingList.class);
+    }
+    if (sharedPrefs.getBoolean(PREF.FEATURE_RECIPES, true)) {
+      types.add(Recipe.class);
+    }
+    if (sharedPrefs.getBoolean(PREF.FEATURE_CHORES, true)) {
+      types.add(ChoreEntry.class);
+    }
+    if (sharedPrefs.getBoolean(PREF.FEATURE_TASKS, true)) {
+      types.add(Task.class);
+    }
+    return types.toArray(new Class<?>[0]);
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.ChoreEntry;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.OverviewSummary;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StoredPurchase;
+import xyz.zedler.patrick.grocy.model.Task;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.repository.OverviewStartRepository.OverviewStartData;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+
+public class OverviewStartRepositoryTest {
+
+  private static final int USER_ID = 1;
+
+  private final List<StockItem> stockItems = new ArrayList<>();
+  private final List<ShoppingListItem> shoppingListItems = new ArrayList<>();
+  private final List<ShoppingList> shoppingLists = new ArrayList<>();
+  private final List<Product> products = new ArrayList<>();
+  private final List<StoredPurchase> storedPurchases = new ArrayList<>();
+  private final List<Recipe> recipes = new ArrayList<>();
+  private final List<ChoreEntry> choreEntries = new ArrayList<>();
+  private final List<Task> tasks = new ArrayList<>();
+  private final List<VolatileItem> volatileItems = new ArrayList<>();
+  private final List<MissingItem> missingItems = new ArrayList<>();
+
+  @Test
+  public void emptyTablesGiveEmptySummaryOfToday() {
+    OverviewSummary summary = createSummary();
+
+    assertTrue(summary.isValidToday(DateUtil.getDateStringToday()));
+    assertFalse(summary.isValidToday(DateUtil.getTodayWithDaysAdded(-1)));
+    assertEquals(USER_ID, summary.getCurrentUserId());
+    assertEquals(0, summary.getStockCount());
+    assertEquals(0, summary.getStockValue(), 0);
+    assertEquals(0, summary.getMissingCount());
+    assertFalse(summary.getHasStoredPurchases());
+  }
+
+  @Test
+  public void stockCountSkipsHiddenAndMissingProducts() {
+    products.add(product(1, false));
+    products.add(product(2, true));
+    products.add(product(3, false));
+    stockItems.add(stockItem(1, "2.5"));
+    stockItems.add(stockItem(2, "10"));
+    stockItems.add(stockItem(3, "4"));
+    missingItems.add(missingItem(3, false));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(1, summary.getStockCount());
+    assertEquals(2.5, summary.getStockValue(), 0);
+    assertEquals(1, summary.getMissingCount());
+  }
+
+  @Test
+  public void partlyInStockProductsStayInStockCount() {
+    products.add(product(1, false));
+    stockItems.add(stockItem(1, "3"));
+    missingItems.add(missingItem(1, true));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(1, summary.getStockCount());
+    assertEquals(1, summary.getMissingCount());
+  }
+
+  @Test
+  public void volatileItemsAreOnlyCountedIfInStock() {
+    stockItems.add(stockItem(1, "1"));
+    stockItems.add(stockItem(2, "1"));
+    stockItems.add(stockItem(3, "1"));
+    volatileItems.add(new VolatileItem(1, VolatileItem.TYPE_DUE));
+    volatileItems.add(new VolatileItem(2, VolatileItem.TYPE_OVERDUE));
+    volatileItems.add(new VolatileItem(3, VolatileItem.TYPE_EXPIRED));
+    volatileItems.add(new VolatileItem(4, VolatileItem.TYPE_EXPIRED));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(1, summary.getDueSoonCount());
+    assertEquals(1, summary.getOverdueCount());
+    assertEquals(1, summary.getExpiredCount());
+  }
+
+  @Test
+  public void missingProductsOnShoppingListAreCounted() {
+    shoppingListItems.add(shoppingListItem("1"));
+    shoppingListItems.add(shoppingListItem(null));
+    missingItems.add(missingItem(1, false));
+    missingItems.add(missingItem(2, false));
+    shoppingLists.add(new ShoppingList(1, "Default", null));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(2, summary.getShoppingListItemsCount());
+    assertEquals(1, summary.getShoppingListsCount());
+    assertEquals(2, summary.getMissingCount());
+    assertEquals(1, summary.getMissingOnShoppingListCount());
+  }
+
+  @Test
+  public void batchPurchasesAreNotStoredPurchases() {
+    StoredPurchase batchPurchase = new StoredPurchase();
+    batchPurchase.setProductId(5);
+    storedPurchases.add(batchPurchase);
+    assertFalse(createSummary().getHasStoredPurchases());
+
+    StoredPurchase pendingPurchase = new StoredPurchase();
+    pendingPurchase.setPendingProductId(1);
+    storedPurchases.add(pendingPurchase);
+    assertTrue(createSummary().getHasStoredPurchases());
+  }
+
+  @Test
+  public void shadowRecipesAndDoneTasksAreNotCounted() {
+    recipes.add(recipe(1));
+    recipes.add(recipe(-1));
+    tasks.add(task(false, String.valueOf(USER_ID)));
+    tasks.add(task(false, "2"));
+    tasks.add(task(true, String.valueOf(USER_ID)));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(1, summary.getRecipesCount());
+    assertEquals(2, summary.getTasksUndoneCount());
+    assertEquals(1, summary.getTasksAssignedCount());
+  }
+
+  @Test
+  public void choresAreCountedByDaysFromToday() {
+    choreEntries.add(choreEntry(DateUtil.getTodayWithDaysAdded(-2), String.valueOf(USER_ID)));
+    choreEntries.add(choreEntry(DateUtil.getTodayWithDaysAdded(0), null));
+    choreEntries.add(choreEntry(DateUtil.getTodayWithDaysAdded(5), "2"));
+    choreEntries.add(choreEntry(DateUtil.getTodayWithDaysAdded(10), String.valueOf(USER_ID)));
+    choreEntries.add(choreEntry(null, null));
+
+    OverviewSummary summary = createSummary();
+
+    assertEquals(1, summary.getChoresOverdueCount());
+    assertEquals(1, summary.getChoresDueTodayCount());
+    assertEquals(2, summary.getChoresDueSoonCount());
+    assertEquals(2, summary.getChoresAssignedCount());
+  }
+
+  @Test
+  public void sameDataGivesEqualSummary() {
+    products.add(product(1, false));
+    stockItems.add(stockItem(1, "2"));
+
+    assertEquals(createSummary(), createSummary());
+  }
+
+  private OverviewSummary createSummary() {
+    return OverviewStartRepository.createSummary(new OverviewStartData(
+        stockItems, shoppingListItems, shoppingLists, products, storedPurchases, recipes,
+        choreEntries, tasks, volatileItems, missingItems
+    ), USER_ID);
+  }
+
+  private static Product product(int id, boolean hideOnStockOverview) {
+    Product product = new Product();
+    product.setId(id);
+    product.setHideOnStockOverview(hideOnStockOverview ? "1" : "0");
+    return product;
+  }
+
+  private static StockItem stockItem(int productId, String value) {
+    StockItem stockItem = new StockItem();
+    stockItem.setProductId(productId);
+    stockItem.setValue(value);
+    return stockItem;
+  }
+
+  private static MissingItem missingItem(int productId, boolean partlyInStock) {
+    MissingItem missingItem = new MissingItem();
+    missingItem.setId(productId);
+    missingItem.setIsPartlyInStock(partlyInStock ? "1" : "0");
+    return missingItem;
+  }
+
+  private static ShoppingListItem shoppingListItem(String productId) {
+    ShoppingListItem item = new ShoppingListItem();
+    item.setProductId(productId);
+    return item;
+  }
+
+  private static Recipe recipe(int id) {
+    Recipe recipe = new Recipe();
+    recipe.setId(id);
+    return recipe;
+  }
+
+  private static Task task(boolean done, String assignedToUserId) {
+    Task task = new Task();
+    task.setDone(done);
+    task.setAssignedToUserId(assignedToUserId);
+    return task;
+  }
+
+  private static ChoreEntry choreEntry(String nextExecutionTime, String assignedToUserId) {
+    ChoreEntry choreEntry = new ChoreEntry();
+    choreEntry.setNextEstimatedExecutionTime(nextExecutionTime);
+    choreEntry.setNextExecutionAssignedToUserId(assignedToUserId);
+    return choreEntry;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.ssl.mtm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import javax.net.ssl.X509TrustManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.ConscryptMode;
+import org.robolectric.shadows.ShadowSystemClock;
+
+@RunWith(RobolectricTestRunner.class)
+// the app keystore is empty, so its trust manager has to reject the chain like on a device
+@ConscryptMode(ConscryptMode.Mode.ON)
+public class MemorizingTrustManagerTest {
+
+  private static final String AUTH_TYPE = "ECDHE_ECDSA";
+
+  // self-signed certificates valid until 2126
+  private static final String CERT_A = "-----BEGIN CERTIFICATE-----\n"
+      + "MIIBhDCCASugAwIBAgIUX4UCvh1DpQ4gRvkRLSWqI8YLlkkwCgYIKoZIzj0EAwIw\n"
+      + "FzEVMBMGA1UEAwwMZ3JvY3ktYS50ZXN0MCAXDTI2MTAxOTEzNTg0MVoYDzIxMjYw\n"
+      + "OTI1MTM1ODQxWjAXMRUwEwYDVQQDDAxncm9jeS1hLnRlc3QwWTATBgcqhkjOPQIB\n"
+      + "BggqhkjOPQMBBwNCAAT40C+QPlZrMYrQM9KF5dH+i7ttCaFCfAsrAVdTVV9LpZzD\n"
+      + "dT1G3kCQJGISWBrJsMJ6CLhAl2yDhzcGZyfb7gC4o1MwUTAdBgNVHQ4EFgQUrpVM\n"
+      + "VPdhxApYlRYRAv3x2O0F+j0wHwYDVR0jBBgwFoAUrpVMVPdhxApYlRYRAv3x2O0F\n"
+      + "+j0wDwYDVR0TAQH/BAUwAwEB/zAKBggqhkjOPQQDAgNHADBEAiArMy2VUUEZ0Cwt\n"
+      + "4gvBE/d8Q2dUbH75ueB5PjUsTsSCpAIgftrO26F7rkomnh0fNtKa0XibErolpXyX\n"
+      + "nx8C+1YMpfg=\n"
+      + "-----END CERTIFICATE-----\n";
+  private static final String CERT_B = "-----BEGIN CERTIFICATE-----\n"
+      + "MIIBhTCCASugAwIBAgIUVtwuuG6GFEWKKCLJa1h71sl9MyAwCgYIKoZIzj0EAwIw\n"
+      + "FzEVMBMGA1UEAwwMZ3JvY3ktYi50ZXN0MCAXDTI2MTAxOTEzNTg0MVoYDzIxMjYw\n"
+      + "OTI1MTM1ODQxWjAXMRUwEwYDVQQDDAxncm9jeS1iLnRlc3QwWTATBgcqhkjOPQIB\n"
+      + "BggqhkjOPQMBBwNCAARFIcCE0oPmt60bEePT2YxtM+vSUg/sYHc0TWLPnTn00Tyl\n"
+      + "p+7+nFgRXEnTdN2xz7x2Y4lTm+0+stJdQELTtnrCo1MwUTAdBgNVHQ4EFgQUUrjN\n"
+      + "NtQyU6u8Ilk4qy3oZVhx2EswHwYDVR0jBBgwFoAUUrjNNtQyU6u8Ilk4qy3oZVhx\n"
+      + "2EswDwYDVR0TAQH/BAUwAwEB/zAKBggqhkjOPQQDAgNIADBFAiEAruWM+2U0Mz0D\n"
+      + "307XXYpy2bxrp6ci+Q9RrGMYQj7D0NMCIFpQS8CAOXfnlqnkkecE9oPax2zQeZUx\n"
+      + "hTKDU+KrcgiS\n"
+      + "-----END CERTIFICATE-----\n";
+
+  private CountingTrustManager defaultTrustManager;
+  private MemorizingTrustManager trustManager;
+  private X509Certificate[] chainA;
+  private X509Certificate[] chainB;
+
+  @Before
+  public void setUp() throws CertificateException {
+    defaultTrustManager = new CountingTrustManager();
+    trustManager = new MemorizingTrustManager(
+        ApplicationProvider.getApplicationContext(), defaultTrustManager
+    );
+    chainA = new X509Certificate[]{parseCertificate(CERT_A)};
+    chainB = new X509Certificate[]{parseCertificate(CERT_B)};
+  }
+
+  @Test
+  public void acceptedChainIsOnlyCheckedOnce() throws CertificateException {
+    for (int i = 0; i < 5; i++) {
+      trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    }
+    assertEquals(1, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void acceptedChainIsCheckedAgainAfterTenMinutes() throws CertificateException {
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    ShadowSystemClock.advanceBy(Duration.ofMinutes(9));
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    assertEquals(1, defaultTrustManager.serverChecks);
+
+    ShadowSystemClock.advanceBy(Duration.ofMinutes(2));
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    assertEquals(2, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void otherCertificateIsCheckedOnItsOwn() throws CertificateException {
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    trustManager.checkServerTrusted(chainB, AUTH_TYPE);
+    trustManager.checkServerTrusted(chainB, AUTH_TYPE);
+    assertEquals(2, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void otherAuthTypeIsCheckedOnItsOwn() throws CertificateException {
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    trustManager.checkServerTrusted(chainA, "ECDHE_RSA");
+    assertEquals(2, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void clientAndServerDecisionsAreKeptApart() throws CertificateException {
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    trustManager.checkClientTrusted(chainA, AUTH_TYPE);
+    trustManager.checkClientTrusted(chainA, AUTH_TYPE);
+    assertEquals(1, defaultTrustManager.serverChecks);
+    assertEquals(1, defaultTrustManager.clientChecks);
+  }
+
+  @Test
+  public void decisionsAreNotSharedBetweenInstances() throws CertificateException {
+    trustManager.checkServerTrusted(chainA, AUTH_TYPE);
+    new MemorizingTrustManager(
+        ApplicationProvider.getApplicationContext(), defaultTrustManager
+    ).checkServerTrusted(chainA, AUTH_TYPE);
+    assertEquals(2, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void appSharesOneInstance() {
+    Context context = ApplicationProvider.getApplicationContext();
+    assertSame(
+        MemorizingTrustManager.getInstance(context),
+        MemorizingTrustManager.getInstance(context)
+    );
+  }
+
+  private static X509Certificate parseCertificate(String pem) throws CertificateException {
+    return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+        new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII))
+    );
+  }
+
+  private static class CountingTrustManager implements X509TrustManager {
+
+    private int serverChecks;
+    private int clientChecks;
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) {
+      clientChecks++;
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) {
+      serverChecks++;
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+      return new X509Certificate[0];
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConfigUtilTest {
+
+  private static final long MINUTE = 60 * 1000;
+
+  private SharedPreferences prefs;
+
+  @Before
+  public void setUp() {
+    prefs = PreferenceManager.getDefaultSharedPreferences(
+        ApplicationProvider.getApplicationContext()
+    );
+    prefs.edit().clear().commit();
+  }
+
+  @Test
+  public void infoIsOutdatedIfNeverLoaded() {
+    assertTrue(ConfigUtil.isInfoOutdated(prefs));
+  }
+
+  @Test
+  public void recentInfoIsNotLoadedAgain() {
+    setInfoLastTime(System.currentTimeMillis() - 29 * MINUTE);
+    assertFalse(ConfigUtil.isInfoOutdated(prefs));
+  }
+
+  @Test
+  public void infoIsOutdatedAfterHalfAnHour() {
+    setInfoLastTime(System.currentTimeMillis() - 31 * MINUTE);
+    assertTrue(ConfigUtil.isInfoOutdated(prefs));
+  }
+
+  @Test
+  public void infoFromTheFutureIsOutdated() {
+    // the clock was set back after the last load
+    setInfoLastTime(System.currentTimeMillis() + MINUTE);
+    assertTrue(ConfigUtil.isInfoOutdated(prefs));
+  }
+
+  private void setInfoLastTime(long time) {
+    prefs.edit().putLong(PREF.INFO_LAST_TIME, time).commit();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.ContextThemeWrapper;
+import android.widget.LinearLayout;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.chip.Chip;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.R;
+
+@RunWith(RobolectricTestRunner.class)
+public class InfoChipPoolTest {
+
+  private Context context;
+  private InfoChipPool pool;
+  private LinearLayout container;
+
+  @Before
+  public void setUp() {
+    context = new ContextThemeWrapper(
+        ApplicationProvider.getApplicationContext(), R.style.Theme_Grocy
+    );
+    pool = InfoChipPool.getInstance(context);
+    container = new LinearLayout(context);
+  }
+
+  @Test
+  public void poolIsSharedPerContext() {
+    assertSame(pool, InfoChipPool.getInstance(context));
+    Context otherContext = new ContextThemeWrapper(
+        ApplicationProvider.getApplicationContext(), R.style.Theme_Grocy
+    );
+    assertNotSame(pool, InfoChipPool.getInstance(otherContext));
+  }
+
+  @Test
+  public void recycledChipsAreReused() {
+    Chip first = pool.obtain(context, "first");
+    Chip second = pool.obtain(context, "second");
+    container.addView(first);
+    container.addView(second);
+
+    pool.recycle(container);
+    assertEquals(0, container.getChildCount());
+    assertSame(first, pool.obtain(context, "third"));
+    assertSame(second, pool.obtain(context, "fourth"));
+    assertEquals("fourth", second.getText().toString());
+  }
+
+  @Test
+  public void reusedChipIsReset() {
+    Chip fresh = pool.obtain(context, "fresh");
+    Chip changed = pool.obtain(context, "changed");
+    changed.setTextColor(Color.RED);
+    changed.setChipBackgroundColor(ColorStateList.valueOf(Color.GREEN));
+    changed.setChipIcon(context.getDrawable(R.drawable.ic_round_error_outline));
+    changed.setCloseIcon(context.getDrawable(R.drawable.ic_round_expand_more));
+    changed.setCloseIconVisible(true);
+    changed.setTextStartPadding(12);
+    changed.setEnabled(true);
+    changed.setClickable(true);
+    changed.setOnClickListener(v -> {});
+    changed.setPaintFlags(changed.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
+    changed.setAlpha(0.61f);
+    container.addView(changed);
+
+    pool.recycle(container);
+    Chip reused = pool.obtain(context, "reused");
+    assertSame(changed, reused);
+    assertEquals(fresh.getTextColors(), reused.getTextColors());
+    assertEquals(fresh.getChipBackgroundColor(), reused.getChipBackgroundColor());
+    assertEquals(fresh.getChipIcon(), reused.getChipIcon());
+    assertEquals(fresh.isCloseIconVisible(), reused.isCloseIconVisible());
+    assertEquals(fresh.getTextStartPadding(), reused.getTextStartPadding(), 0);
+    assertEquals(fresh.isEnabled(), reused.isEnabled());
+    assertEquals(fresh.isClickable(), reused.isClickable());
+    assertFalse(reused.hasOnClickListeners());
+    assertEquals(fresh.getPaintFlags(), reused.getPaintFlags());
+    assertEquals(1, reused.getAlpha(), 0);
+  }
+
+  @Test
+  public void chipsFromOutsideThePoolAreDropped() {
+    Chip foreign = InfoChipPool.createChip(context, "foreign");
+    container.addView(foreign);
+
+    pool.recycle(container);
+    assertEquals(0, container.getChildCount());
+    assertNotSame(foreign, pool.obtain(context, "new"));
+  }
+
+  @Test
+  public void poolIsBounded() {
+    List<Chip> chips = new ArrayList<>();
+    for (int i = 0; i < 80; i++) {
+      Chip chip = pool.obtain(context, String.valueOf(i));
+      chips.add(chip);
+      container.addView(chip);
+    }
+    pool.recycle(container);
+
+    HashSet<Chip> reused = new HashSet<>();
+    for (int i = 0; i < 80; i++) {
+      Chip chip = pool.obtain(context, String.valueOf(i));
+      if (chips.contains(chip)) reused.add(chip);
+    }
+    assertEquals(64, reused.size());
+    assertTrue(chips.containsAll(reused));
+  }
+}
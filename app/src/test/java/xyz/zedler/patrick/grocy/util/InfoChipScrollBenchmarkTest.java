@@ -0,0 +1,206 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.google.android.flexbox.FlexWrap;
+import com.google.android.flexbox.FlexboxLayout;
+import com.google.android.material.chip.Chip;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.R;
+
+/**
+ * Scrolls a long list whose rows have a flexbox of info chips like the stock overview, once with
+ * chips from the InfoChipPool and once with a new chip for every field on every bind. Reports
+ * bind time, inflated chips and allocated bytes of both runs.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InfoChipScrollBenchmarkTest {
+
+  private static final int ROWS = 1000;
+  private static final int CHIPS_PER_ROW = 5;
+
+  private Activity activity;
+  private Context context;
+
+  @Before
+  public void setUp() {
+    activity = Robolectric.buildActivity(Activity.class).setup().get();
+    context = new ContextThemeWrapper(activity, R.style.Theme_Grocy);
+  }
+
+  @Test
+  public void pooledChipsAreNotInflatedAgainWhileScrolling() {
+    ScrollResult created = scroll(new ChipAdapter(null));
+    ScrollResult pooled = scroll(new ChipAdapter(InfoChipPool.getInstance(context)));
+    System.out.println("InfoChipPool scroll over " + ROWS + " rows: new chips " + created
+        + ", pooled chips " + pooled);
+
+    assertTrue(created.boundRows >= ROWS);
+    assertTrue(pooled.boundRows >= ROWS);
+    assertTrue(created.inflatedChips >= ROWS * CHIPS_PER_ROW);
+    // only the chips of the rows on screen and of the pool
+    assertTrue(pooled.inflatedChips * 10 < created.inflatedChips);
+    assertTrue(pooled.allocatedBytes < created.allocatedBytes);
+  }
+
+  private ScrollResult scroll(ChipAdapter adapter) {
+    RecyclerView recyclerView = new RecyclerView(context);
+    recyclerView.setLayoutManager(new LinearLayoutManager(context));
+    recyclerView.setAdapter(adapter);
+    activity.setContentView(recyclerView);
+    layout(recyclerView);
+
+    long allocatedBefore = getAllocatedBytes();
+    for (int i = 0; i < ROWS * 10 && recyclerView.canScrollVertically(1); i++) {
+      recyclerView.scrollBy(0, 300);
+    }
+    ScrollResult result = new ScrollResult();
+    result.allocatedBytes = getAllocatedBytes() - allocatedBefore;
+    result.boundRows = adapter.boundRows;
+    result.bindTimeNanos = adapter.bindTimeNanos;
+    result.inflatedChips = adapter.chips.size();
+    return result;
+  }
+
+  private static void layout(View view) {
+    shadowOf(Looper.getMainLooper()).idle();
+    view.measure(
+        View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY)
+    );
+    view.layout(0, 0, 1080, 800);
+  }
+
+  /**
+   * Bytes allocated by this thread, or 0 on a JVM which can't count them.
+   */
+  private static long getAllocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+          Thread.currentThread().getId()
+      );
+    }
+    return 0;
+  }
+
+  private static class ScrollResult {
+
+    private int boundRows;
+    private long bindTimeNanos;
+    private int inflatedChips;
+    private long allocatedBytes;
+
+    @NonNull
+    @Override
+    public String toString() {
+      return boundRows + " binds in " + bindTimeNanos / 1000000 + " ms, " + inflatedChips
+          + " inflated, " + allocatedBytes / 1024 + " KiB allocated";
+    }
+  }
+
+  private static class ChipAdapter extends RecyclerView.Adapter<ChipAdapter.ViewHolder> {
+
+    private final InfoChipPool chipPool;
+    private final Set<Chip> chips = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int boundRows;
+    private long bindTimeNanos;
+
+    private ChipAdapter(InfoChipPool chipPool) {
+      this.chipPool = chipPool;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+      FlexboxLayout flexboxLayout = new FlexboxLayout(parent.getContext());
+      flexboxLayout.setFlexWrap(FlexWrap.WRAP);
+      flexboxLayout.setLayoutParams(new RecyclerView.LayoutParams(
+          ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT
+      ));
+      return new ViewHolder(flexboxLayout);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+      long start = System.nanoTime();
+      Context context = holder.flexboxLayout.getContext();
+      if (chipPool != null) {
+        chipPool.recycle(holder.flexboxLayout);
+      } else {
+        holder.flexboxLayout.removeAllViews();
+      }
+      for (int i = 0; i < CHIPS_PER_ROW; i++) {
+        String text = "Field " + i + " of row " + position;
+        Chip chip = chipPool != null
+            ? chipPool.obtain(context, text)
+            : InfoChipPool.createChip(context, text);
+        chip.setEnabled(false);
+        chips.add(chip);
+        holder.flexboxLayout.addView(chip);
+      }
+      bindTimeNanos += System.nanoTime() - start;
+      boundRows++;
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+      if (chipPool != null) {
+        chipPool.recycle(holder.flexboxLayout);
+      }
+    }
+
+    @Override
+    public int getItemCount() {
+      return ROWS;
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+
+      private final FlexboxLayout flexboxLayout;
+
+      ViewHolder(FlexboxLayout flexboxLayout) {
+        super(flexboxLayout);
+        this.flexboxLayout = flexboxLayout;
+      }
+    }
+  }
+}
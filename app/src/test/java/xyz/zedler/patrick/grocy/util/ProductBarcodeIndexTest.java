@@ -0,0 +1,113 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+
+public class ProductBarcodeIndexTest {
+
+  @Test
+  public void validCodesArePaddedToGtin14() {
+    assertEquals("00000096385074", ProductBarcodeIndex.normalize("96385074"));
+    assertEquals("00036000291452", ProductBarcodeIndex.normalize("036000291452"));
+    assertEquals("04006381333931", ProductBarcodeIndex.normalize("4006381333931"));
+    assertEquals("00012345678905", ProductBarcodeIndex.normalize("00012345678905"));
+    assertEquals("04006381333931", ProductBarcodeIndex.normalize(" 4006381333931 "));
+  }
+
+  @Test
+  public void codesWithInvalidCheckDigitAreNotNormalized() {
+    assertNull(ProductBarcodeIndex.normalize("96385075"));
+    assertNull(ProductBarcodeIndex.normalize("036000291453"));
+    assertNull(ProductBarcodeIndex.normalize("4006381333932"));
+    assertNull(ProductBarcodeIndex.normalize("00012345678906"));
+  }
+
+  @Test
+  public void codesWithoutCheckDigitAreNotCompleted() {
+    assertNull(ProductBarcodeIndex.normalize("9638507"));
+    assertNull(ProductBarcodeIndex.normalize("03600029145"));
+    // the first twelve digits of an EAN-13 are not completed to the EAN-13
+    assertNull(ProductBarcodeIndex.normalize("400638133393"));
+  }
+
+  @Test
+  public void otherCodesAreNotNormalized() {
+    assertNull(ProductBarcodeIndex.normalize(""));
+    assertNull(ProductBarcodeIndex.normalize("1234"));
+    assertNull(ProductBarcodeIndex.normalize("400638133393A"));
+    assertNull(ProductBarcodeIndex.normalize("123456789012345"));
+  }
+
+  @Test
+  public void upcFindsSameCodeStoredAsEan13() {
+    ProductBarcodeIndex index = ProductBarcodeIndex.getInstance(null);
+    ProductBarcode ean13 = barcode(1, "0036000291452");
+    List<ProductBarcode> barcodes = new ArrayList<>();
+    barcodes.add(ean13);
+    index.setProductBarcodes(barcodes);
+
+    assertSame(ean13, index.getProductBarcode("036000291452"));
+    assertSame(ean13, index.getProductBarcode("0036000291452"));
+  }
+
+  @Test
+  public void internalCodesWithLeadingZerosStayDistinct() {
+    ProductBarcodeIndex index = ProductBarcodeIndex.getInstance(null);
+    List<ProductBarcode> barcodes = new ArrayList<>();
+    barcodes.add(barcode(1, "00001234"));
+    index.setProductBarcodes(barcodes);
+
+    assertNull(index.getProductBarcode("1234"));
+    assertNull(index.getProductBarcode("000001234"));
+  }
+
+  @Test
+  public void exactMatchWinsAndFirstBarcodeWins() {
+    ProductBarcodeIndex index = ProductBarcodeIndex.getInstance(null);
+    ProductBarcode first = barcode(1, "036000291452");
+    ProductBarcode second = barcode(2, "0036000291452");
+    ProductBarcode third = barcode(3, "036000291452");
+    List<ProductBarcode> barcodes = new ArrayList<>();
+    barcodes.add(first);
+    barcodes.add(second);
+    barcodes.add(third);
+    index.setProductBarcodes(barcodes);
+
+    assertSame(first, index.getProductBarcode("036000291452"));
+    assertSame(second, index.getProductBarcode("0036000291452"));
+    assertSame(first, index.getProductBarcode("00036000291452"));
+  }
+
+  private static ProductBarcode barcode(int productId, String code) {
+    ProductBarcode barcode = new ProductBarcode();
+    barcode.setProductIdInt(productId);
+    barcode.setBarcode(code);
+    return barcode;
+  }
+}
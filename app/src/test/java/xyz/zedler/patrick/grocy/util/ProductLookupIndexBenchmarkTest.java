@@ -0,0 +1,131 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.util.LruCache;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
+
+/**
+ * Times single lookups of scanned barcodes through an LRU of recent lookups in front of the
+ * offline index, like the ProductLookupHelper does it before going online. Most scans repeat
+ * one of the last few products, the others hit random products of a large export.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ProductLookupIndexBenchmarkTest {
+
+  private static final int PRODUCTS = 200_000;
+  private static final int LOOKUPS = 100_000;
+  private static final int RECENT_PRODUCTS = 32;
+  private static final int MAX_RECENT_LOOKUPS = 64;
+  private static final long FIRST_BARCODE = 4000000000000L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void lookupsStayFastInLargeIndex() throws IOException {
+    File csv = folder.newFile("export.csv");
+    try (BufferedWriter writer = new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8)
+    )) {
+      writer.write("code\tproduct_name\tbrands\tquantity\n");
+      for (int i = 0; i < PRODUCTS; i++) {
+        long barcode = getBarcode(i);
+        writer.write(barcode + "\tProduct " + barcode + "\tBrand\t500 g\n");
+      }
+    }
+    File file = new File(folder.getRoot(), "product_lookup.idx");
+    try (InputStream stream = new FileInputStream(csv)) {
+      assertEquals(PRODUCTS, ProductLookupIndex.build(stream, file));
+    }
+    ProductLookupIndex index = ProductLookupIndex.open(file);
+    assertNotNull(index);
+
+    LruCache<String, ProductLookupResult> recentLookups = new LruCache<>(MAX_RECENT_LOOKUPS);
+    Random random = new Random(38);
+    long[] cachedTimes = new long[LOOKUPS];
+    long[] indexTimes = new long[LOOKUPS];
+    int cachedCount = 0;
+    int indexCount = 0;
+    for (int i = 0; i < LOOKUPS; i++) {
+      int product = random.nextInt(5) != 0
+          ? random.nextInt(RECENT_PRODUCTS) // same few products scanned again
+          : random.nextInt(PRODUCTS);
+      String barcode = String.valueOf(getBarcode(product));
+
+      long start = System.nanoTime();
+      ProductLookupResult result = recentLookups.get(barcode);
+      boolean cached = result != null;
+      if (!cached) {
+        result = index.lookup(barcode);
+        if (result != null) recentLookups.put(barcode, result);
+      }
+      long time = System.nanoTime() - start;
+
+      assertNotNull(barcode, result);
+      if (cached) {
+        cachedTimes[cachedCount++] = time;
+      } else {
+        indexTimes[indexCount++] = time;
+      }
+    }
+    long[] cached = Arrays.copyOf(cachedTimes, cachedCount);
+    long[] uncached = Arrays.copyOf(indexTimes, indexCount);
+    System.out.println("ProductLookupIndex with " + PRODUCTS + " products: "
+        + cachedCount + " recent lookups p50 " + getPercentile(cached, 50) / 1000.0
+        + " / p99 " + getPercentile(cached, 99) / 1000.0 + " microseconds, "
+        + indexCount + " index lookups p50 " + getPercentile(uncached, 50) / 1000.0
+        + " / p99 " + getPercentile(uncached, 99) / 1000.0 + " microseconds");
+
+    assertTrue(cachedCount > 0 && indexCount > 0);
+    // far below the round trip of a single online lookup
+    assertTrue(getPercentile(uncached, 99) < 5_000_000);
+  }
+
+  private static long getBarcode(int product) {
+    return FIRST_BARCODE + product * 7L;
+  }
+
+  private static long getPercentile(long[] times, int percentile) {
+    long[] sorted = times.clone();
+    Arrays.sort(sorted);
+    return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import xyz.zedler.patrick.grocy.model.ProductLookupResult;
+
+public class ProductLookupIndexTest {
+
+  private static final String HEADER = "code\tproduct_name\tbrands\tquantity\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void lookupReturnsStoredFields() throws IOException {
+    ProductLookupIndex index = buildIndex(HEADER
+        + "4006381333931\tStabilo Boss\tStabilo\t1 piece\n"
+        + "3017620422003\t Nutella \t\t400 g\n");
+
+    ProductLookupResult result = index.lookup("4006381333931");
+    assertNotNull(result);
+    assertEquals("4006381333931", result.getBarcode());
+    assertEquals("Stabilo Boss", result.getProductName());
+    assertEquals("Stabilo", result.getBrand());
+    assertEquals("1 piece", result.getQuantity());
+    assertEquals(ProductLookupResult.SOURCE_OFFLINE, result.getSource());
+
+    result = index.lookup("3017620422003");
+    assertNotNull(result);
+    assertEquals("Nutella", result.getProductName());
+    assertNull(result.getBrand());
+  }
+
+  @Test
+  public void upcFindsSameCodeStoredAsEan13() throws IOException {
+    ProductLookupIndex index = buildIndex(HEADER + "0036000291452\tTissues\t\t\n");
+
+    ProductLookupResult result = index.lookup("036000291452");
+    assertNotNull(result);
+    assertEquals("Tissues", result.getProductName());
+    // the result keeps the scanned barcode
+    assertEquals("036000291452", result.getBarcode());
+  }
+
+  @Test
+  public void invalidRowsAreSkippedAndDuplicatesKeptOnce() throws IOException {
+    ProductLookupIndex index = buildIndex(HEADER
+        + "12345678\tFirst\t\t\n"
+        + "12345678\tSecond\t\t\n"
+        + "ABC123\tNot numeric\t\t\n"
+        + "87654321\t\t\t\n"
+        + "\tNo code\t\t\n"
+        + "11111111\tShort row\n");
+
+    assertEquals(2, index.size());
+    ProductLookupResult result = index.lookup("12345678");
+    assertNotNull(result);
+    assertTrue(result.getProductName().equals("First")
+        || result.getProductName().equals("Second"));
+    assertNull(index.lookup("87654321"));
+    assertNull(index.lookup("ABC123"));
+    assertNotNull(index.lookup("11111111"));
+    assertNull(index.lookup("11111111").getBrand());
+  }
+
+  @Test
+  public void missingAndNonNumericBarcodesAreNotFound() throws IOException {
+    ProductLookupIndex index = buildIndex(HEADER + "4006381333931\tStabilo Boss\t\t\n");
+
+    assertNull(index.lookup("4006381333932"));
+    assertNull(index.lookup("0"));
+    assertNull(index.lookup(""));
+    assertNull(index.lookup("4006381333931X"));
+    assertNull(index.lookup("1234567890123456789"));
+  }
+
+  @Test
+  public void emptyIndexFindsNothing() throws IOException {
+    ProductLookupIndex index = buildIndex(HEADER);
+
+    assertEquals(0, index.size());
+    assertNull(index.lookup("4006381333931"));
+  }
+
+  @Test(expected = IOException.class)
+  public void exportWithoutNameColumnIsRejected() throws IOException {
+    buildIndex("code\tbrands\n4006381333931\tStabilo\n");
+  }
+
+  @Test
+  public void otherFilesAreNotOpened() throws IOException {
+    File file = folder.newFile("other.idx");
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write("no index".getBytes(StandardCharsets.UTF_8));
+    }
+    assertNull(ProductLookupIndex.open(file));
+    assertNull(ProductLookupIndex.open(new File(folder.getRoot(), "missing.idx")));
+  }
+
+  @Test
+  public void largeIndexFindsEveryBarcode() throws IOException {
+    int count = 50_000;
+    List<Long> barcodes = new ArrayList<>(count);
+    for (long i = 0; i < count; i++) {
+      barcodes.add(4000000000000L + i * 7);
+    }
+    Collections.shuffle(barcodes, new Random(42));
+    StringBuilder csv = new StringBuilder(HEADER);
+    for (long barcode : barcodes) {
+      csv.append(barcode).append("\tProduct ").append(barcode).append("\t\t\n");
+    }
+    ProductLookupIndex index = buildIndex(csv.toString());
+
+    assertEquals(count, index.size());
+    for (long barcode : barcodes) {
+      ProductLookupResult result = index.lookup(String.valueOf(barcode));
+      assertNotNull(result);
+      assertEquals("Product " + barcode, result.getProductName());
+      assertNull(index.lookup(String.valueOf(barcode + 1)));
+    }
+  }
+
+  private ProductLookupIndex buildIndex(String csv) throws IOException {
+    File file = new File(folder.getRoot(), "product_lookup.idx");
+    InputStream stream = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    int count = ProductLookupIndex.build(stream, file);
+    ProductLookupIndex index = ProductLookupIndex.open(file);
+    assertNotNull(index);
+    assertEquals(count, index.size());
+    return index;
+  }
+}
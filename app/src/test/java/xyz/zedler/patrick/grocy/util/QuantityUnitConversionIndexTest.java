@@ -0,0 +1,313 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+
+public class QuantityUnitConversionIndexTest {
+
+  private static final int UNITS = 6;
+  private static final int PRODUCTS = 3;
+  private static final int RUNS = 300;
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  public void resolvedFactorsOnlyStartAtStockUnit() {
+    HashMap<Integer, QuantityUnit> units = getUnits();
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, 1, 1, 2, 100)); // Bottle -> mL
+    conversions.add(conversion(2, 1, 2, 1, 0.01)); // mL -> Bottle
+    conversions.add(conversion(3, 1, 1, 1, 1)); // Bottle -> Bottle
+    QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(conversions);
+
+    HashMap<QuantityUnit, Double> factors = QuantityUnitConversionUtil.getUnitFactors(
+        units, index, product(1, 1, 1, "1"), true
+    );
+    assertEquals(2, factors.size());
+    assertEquals(1, factors.get(units.get(1)), EPSILON);
+    assertEquals(100, factors.get(units.get(2)), EPSILON);
+  }
+
+  @Test
+  public void productConversionsOverrideStandardConversions() {
+    HashMap<Integer, QuantityUnit> units = getUnits();
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 1, 3, 10));
+    conversions.add(conversion(2, 1, 1, 3, 12));
+    conversions.add(conversion(3, null, 1, 4, 5));
+    conversions.add(conversion(4, 2, 1, 4, 6)); // other product
+    QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(conversions);
+
+    HashMap<QuantityUnit, Double> factors = QuantityUnitConversionUtil.getUnitFactors(
+        units, index, product(1, 1, 2, "4"), false
+    );
+    assertEquals(1, factors.get(units.get(1)), EPSILON);
+    assertEquals(0.25, factors.get(units.get(2)), EPSILON);
+    assertEquals(12, factors.get(units.get(3)), EPSILON);
+    assertEquals(5, factors.get(units.get(4)), EPSILON);
+    assertFalse(factors.containsKey(units.get(5)));
+  }
+
+  @Test
+  public void unknownProductHasNoFactors() {
+    QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(null);
+    assertEquals(0, index.size());
+    assertEquals(QuantityUnitConversionIndex.NO_FACTOR, index.getFactor(1, 1, 2), EPSILON);
+    assertEquals(
+        0,
+        QuantityUnitConversionUtil.getUnitFactors(getUnits(), index, product(1, 1, 1, "1"), true)
+            .size()
+    );
+  }
+
+  @Test
+  public void indexMatchesLookupInList() {
+    Random random = new Random(27);
+    HashMap<Integer, QuantityUnit> units = getUnits();
+    for (int run = 0; run < RUNS; run++) {
+      List<QuantityUnitConversion> conversions = randomConversions(random);
+      QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(conversions);
+      for (int productId = 1; productId <= PRODUCTS; productId++) {
+        Product product = product(
+            productId,
+            1 + random.nextInt(UNITS),
+            1 + random.nextInt(UNITS),
+            String.valueOf(1 + random.nextInt(8))
+        );
+        for (boolean resolved : new boolean[]{true, false}) {
+          assertEquals(
+              "run " + run + ", product " + productId + ", resolved " + resolved,
+              getUnitFactorsFromList(units, conversions, product, resolved),
+              QuantityUnitConversionUtil.getUnitFactors(units, index, product, resolved)
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shoppingListAmountsMatchUnitFactors() {
+    Random random = new Random(270);
+    HashMap<Integer, QuantityUnit> units = getUnits();
+    for (int run = 0; run < RUNS; run++) {
+      List<QuantityUnitConversion> conversions = randomConversions(random);
+      QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(conversions);
+      Product product = product(
+          1, 1 + random.nextInt(UNITS), 1 + random.nextInt(UNITS), "3"
+      );
+      HashMap<Integer, Product> products = new HashMap<>();
+      products.put(product.getId(), product);
+      ShoppingListItem item = new ShoppingListItem();
+      item.setProductId(String.valueOf(product.getId()));
+      item.setQuId(String.valueOf(1 + random.nextInt(UNITS)));
+      item.setAmount("2");
+
+      for (boolean resolved : new boolean[]{true, false}) {
+        Double factor = QuantityUnitConversionUtil.getUnitFactors(units, index, product, resolved)
+            .get(units.get(item.getQuIdInt()));
+        Double amount = AmountUtil.getShoppingListItemAmount(
+            item, products, units, index, resolved
+        );
+        assertEquals(factor != null ? 2 * factor : 2, amount, EPSILON);
+      }
+    }
+  }
+
+  @Test
+  public void shoppingListItemWithoutProductHasNoAmount() {
+    ShoppingListItem item = new ShoppingListItem();
+    item.setAmount("2");
+    assertNull(AmountUtil.getShoppingListItemAmount(
+        item, new HashMap<>(), getUnits(), new QuantityUnitConversionIndex(null), true
+    ));
+  }
+
+  /**
+   * Benchmark at the size of a large server: 2,000 products with 15 resolved conversions each,
+   * looked up for a shopping list of 500 items. Index build plus lookups have to be faster than
+   * the lookups by scanning the list.
+   */
+  @Test
+  public void indexIsFasterThanListScanAtRealisticSize() {
+    HashMap<Integer, QuantityUnit> units = getUnits();
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    List<Product> products = new ArrayList<>();
+    for (int productId = 1; productId <= 2000; productId++) {
+      products.add(product(productId, 1, 2, "6"));
+      for (int from = 1; from <= 3; from++) {
+        for (int to = 1; to <= UNITS; to++) {
+          if (from == to) continue;
+          conversions.add(conversion(conversions.size() + 1, productId, from, to, from + to));
+        }
+      }
+    }
+    Random random = new Random(2700);
+    List<Product> items = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      items.add(products.get(random.nextInt(products.size())));
+    }
+
+    long[] listTimes = new long[5];
+    long[] indexTimes = new long[5];
+    for (int round = 0; round < listTimes.length; round++) {
+      long start = System.nanoTime();
+      List<HashMap<QuantityUnit, Double>> fromList = new ArrayList<>();
+      for (Product item : items) {
+        fromList.add(getUnitFactorsFromList(units, conversions, item, true));
+      }
+      listTimes[round] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(conversions);
+      List<HashMap<QuantityUnit, Double>> fromIndex = new ArrayList<>();
+      for (Product item : items) {
+        fromIndex.add(QuantityUnitConversionUtil.getUnitFactors(units, index, item, true));
+      }
+      indexTimes[round] = System.nanoTime() - start;
+      assertEquals(fromList, fromIndex);
+    }
+    long listTime = getMedian(listTimes);
+    long indexTime = getMedian(indexTimes);
+    System.out.println("QuantityUnitConversionIndex: " + conversions.size() + " conversions, "
+        + items.size() + " items, list scan " + listTime / 1000 + " microseconds, "
+        + "index build and lookup " + indexTime / 1000 + " microseconds");
+    assertTrue(indexTime < listTime);
+  }
+
+  private static long getMedian(long[] times) {
+    long[] sorted = times.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  private static List<QuantityUnitConversion> randomConversions(Random random) {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    int count = random.nextInt(30);
+    for (int i = 0; i < count; i++) {
+      Integer productId = random.nextInt(3) == 0 ? null : 1 + random.nextInt(PRODUCTS);
+      conversions.add(conversion(
+          i + 1,
+          productId,
+          1 + random.nextInt(UNITS),
+          1 + random.nextInt(UNITS + 1), // also units which don't exist
+          1 + random.nextInt(100)
+      ));
+    }
+    return conversions;
+  }
+
+  /**
+   * The lookup which scanned the whole list for every product before the index existed.
+   */
+  private static HashMap<QuantityUnit, Double> getUnitFactorsFromList(
+      HashMap<Integer, QuantityUnit> units,
+      List<QuantityUnitConversion> conversions,
+      Product product,
+      boolean resolved
+  ) {
+    HashMap<QuantityUnit, Double> factors = new HashMap<>();
+    if (resolved) {
+      for (QuantityUnitConversion conversion : conversions) {
+        if (conversion.getProductIdInt() != product.getId()
+            || conversion.getFromQuId() != product.getQuIdStockInt()) {
+          continue;
+        }
+        QuantityUnit unit = units.get(conversion.getToQuId());
+        if (unit == null || factors.containsKey(unit)) continue;
+        factors.put(unit, conversion.getFactor());
+      }
+      return factors;
+    }
+    QuantityUnit stockUnit = units.get(product.getQuIdStockInt());
+    QuantityUnit purchaseUnit = units.get(product.getQuIdPurchaseInt());
+    if (stockUnit == null || purchaseUnit == null) return factors;
+    factors.put(stockUnit, 1d);
+    if (!factors.containsKey(purchaseUnit)) {
+      factors.put(purchaseUnit, 1 / product.getQuFactorPurchaseToStockDouble());
+    }
+    for (QuantityUnitConversion conversion : conversions) {
+      if (!NumUtil.isStringInt(conversion.getProductId())
+          || product.getId() != conversion.getProductIdInt()) {
+        continue;
+      }
+      QuantityUnit unit = units.get(conversion.getToQuId());
+      if (unit == null || factors.containsKey(unit)) continue;
+      factors.put(unit, conversion.getFactor());
+    }
+    for (QuantityUnitConversion conversion : conversions) {
+      if (NumUtil.isStringInt(conversion.getProductId())
+          || stockUnit.getId() != conversion.getFromQuId()) {
+        continue;
+      }
+      QuantityUnit unit = units.get(conversion.getToQuId());
+      if (unit == null || factors.containsKey(unit)) continue;
+      factors.put(unit, conversion.getFactor());
+    }
+    return factors;
+  }
+
+  private static HashMap<Integer, QuantityUnit> getUnits() {
+    HashMap<Integer, QuantityUnit> units = new HashMap<>();
+    for (int id = 1; id <= UNITS; id++) {
+      units.put(id, new QuantityUnit(id, "Unit " + id));
+    }
+    return units;
+  }
+
+  private static Product product(int id, int quIdStock, int quIdPurchase, String factor) {
+    Product product = new Product();
+    product.setId(id);
+    product.setQuIdStock(quIdStock);
+    product.setQuIdPurchase(quIdPurchase);
+    product.setQuFactorPurchaseToStock(factor);
+    return product;
+  }
+
+  private static QuantityUnitConversion conversion(
+      int id,
+      Integer productId,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    QuantityUnitConversion conversion = new QuantityUnitConversion();
+    conversion.setId(id);
+    conversion.setProductId(productId != null ? String.valueOf(productId) : null);
+    conversion.setFromQuId(fromQuId);
+    conversion.setToQuId(toQuId);
+    conversion.setFactor(factor);
+    return conversion;
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionPath;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+
+public class QuantityUnitConversionResolverTest {
+
+  private static final int PRODUCT_ID = 1;
+  private static final int RUNS = 300;
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  public void productSpecificInverseWinsOverStandardConversion() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 2, 1, 3)); // standard B -> A
+    conversions.add(conversion(2, PRODUCT_ID, 1, 2, 2)); // product specific A -> B
+    QuantityUnitConversionResolver resolver = resolver(conversions, product(1));
+
+    assertEquals(2, getFactor(resolver, 1, 2), EPSILON);
+    assertEquals(0.5, getFactor(resolver, 2, 1), EPSILON);
+  }
+
+  @Test
+  public void explicitStandardConversionWinsOverStandardInverse() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 1, 2, 4));
+    conversions.add(conversion(2, null, 2, 1, 0.5));
+    QuantityUnitConversionResolver resolver = resolver(conversions, product(1));
+
+    assertEquals(4, getFactor(resolver, 1, 2), EPSILON);
+    assertEquals(0.5, getFactor(resolver, 2, 1), EPSILON);
+  }
+
+  @Test
+  public void invalidFactorsAreSkipped() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, PRODUCT_ID, 1, 2, 0));
+    conversions.add(conversion(2, PRODUCT_ID, 1, 3, -2));
+    conversions.add(conversion(3, PRODUCT_ID, 1, 4, Double.MIN_VALUE));
+    conversions.add(conversion(4, PRODUCT_ID, 1, 5, Double.NaN));
+    QuantityUnitConversionResolver resolver = resolver(conversions, product(1));
+
+    assertNull(getPath(resolver, 1, 2));
+    assertNull(getPath(resolver, 1, 3));
+    assertNull(getPath(resolver, 1, 5));
+    // the factor itself is valid, only its infinite inverse must not be used
+    assertEquals(Double.MIN_VALUE, getFactor(resolver, 1, 4), 0);
+    assertNull(getPath(resolver, 4, 1));
+  }
+
+  @Test
+  public void chainedConversionsAreResolvedTransitively() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 1, 2, 2));
+    conversions.add(conversion(2, null, 2, 3, 3));
+    QuantityUnitConversionResolver resolver = resolver(conversions, product(1));
+
+    assertEquals(6, getFactor(resolver, 1, 3), EPSILON);
+    assertEquals(1 / 6d, getFactor(resolver, 3, 1), EPSILON);
+    assertEquals(3, getFactor(resolver, 2, 3), EPSILON);
+    assertEquals(2, getPath(resolver, 1, 3).getDepth());
+  }
+
+  @Test
+  public void purchaseFactorIsProductSpecific() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 2, 1, 6));
+    Product product = product(1);
+    product.setQuIdPurchase(2);
+    product.setQuFactorPurchaseToStock("12");
+    QuantityUnitConversionResolver resolver = new QuantityUnitConversionResolver(
+        conversions, Collections.singletonList(product), true
+    );
+
+    assertEquals(12, getFactor(resolver, 2, 1), EPSILON);
+    assertEquals(1 / 12d, getFactor(resolver, 1, 2), EPSILON);
+  }
+
+  /**
+   * All conversions are derived from a random size of every unit, so every resolved factor,
+   * no matter over which path, has to be the ratio of the two unit sizes.
+   */
+  @Test
+  public void consistentConversionsResolveToUnitRatio() {
+    Random random = new Random(28);
+    for (int run = 0; run < RUNS; run++) {
+      int unitCount = 2 + random.nextInt(8);
+      double[] sizes = randomSizes(random, unitCount);
+      List<QuantityUnitConversion> conversions = randomConversions(random, sizes, null);
+      Product product = product(1 + random.nextInt(unitCount));
+      QuantityUnitConversionResolver resolver = resolver(conversions, product);
+
+      List<QuantityUnitConversionPath> paths = resolver.getPaths(PRODUCT_ID);
+      assertPathsValid(paths, product.getQuIdStockInt());
+      for (QuantityUnitConversionPath path : paths) {
+        assertEquals(
+            "run " + run + " " + path.getPath(),
+            sizes[path.getFromQuId()] / sizes[path.getToQuId()],
+            path.getFactor(),
+            1e-6 * path.getFactor()
+        );
+      }
+    }
+  }
+
+  /**
+   * Standard conversions get random factors, product specific ones are consistent with the unit
+   * sizes. Between two units which have a product specific conversion in any direction, the
+   * product specific factor always has to win.
+   */
+  @Test
+  public void productSpecificConversionsWinInAnyDirection() {
+    Random random = new Random(280);
+    for (int run = 0; run < RUNS; run++) {
+      int unitCount = 2 + random.nextInt(6);
+      double[] sizes = randomSizes(random, unitCount);
+      List<QuantityUnitConversion> conversions = new ArrayList<>();
+      for (int from = 1; from < unitCount; from++) {
+        for (int to = 1; to < unitCount; to++) {
+          if (from != to && random.nextInt(3) == 0) {
+            conversions.add(conversion(
+                conversions.size() + 1, null, from, to, 0.1 + random.nextDouble() * 10
+            ));
+          }
+        }
+      }
+      List<QuantityUnitConversion> productConversions
+          = randomConversions(random, sizes, PRODUCT_ID);
+      for (QuantityUnitConversion conversion : productConversions) {
+        conversion.setId(conversions.size() + 1);
+        conversions.add(conversion);
+      }
+      Collections.shuffle(conversions, random);
+      QuantityUnitConversionResolver resolver = resolver(conversions, product(1));
+
+      for (QuantityUnitConversion conversion : productConversions) {
+        int from = conversion.getFromQuId();
+        int to = conversion.getToQuId();
+        QuantityUnitConversionPath path = getPath(resolver, from, to);
+        if (path == null) continue; // not connected to the stock unit
+        assertEquals(1, path.getDepth());
+        assertEquals(sizes[from] / sizes[to], path.getFactor(), 1e-9 * path.getFactor());
+        QuantityUnitConversionPath inverse = getPath(resolver, to, from);
+        assertNotNull(inverse);
+        assertEquals(1, inverse.getDepth());
+        assertEquals(sizes[to] / sizes[from], inverse.getFactor(), 1e-9 * inverse.getFactor());
+      }
+    }
+  }
+
+  /**
+   * Adding and removing conversions one by one must always give the same result as resolving
+   * everything again from scratch.
+   */
+  @Test
+  public void incrementalUpdatesMatchFullResolving() {
+    Random random = new Random(2800);
+    for (int run = 0; run < RUNS / 3; run++) {
+      int unitCount = 2 + random.nextInt(6);
+      List<Product> products = new ArrayList<>();
+      for (int productId = 1; productId <= 3; productId++) {
+        Product product = product(1 + random.nextInt(unitCount));
+        product.setId(productId);
+        products.add(product);
+      }
+      List<QuantityUnitConversion> conversions = new ArrayList<>();
+      QuantityUnitConversionResolver incremental = new QuantityUnitConversionResolver(
+          conversions, products, false
+      );
+      for (int step = 0; step < 20; step++) {
+        if (!conversions.isEmpty() && random.nextInt(4) == 0) {
+          QuantityUnitConversion removed = conversions.remove(random.nextInt(conversions.size()));
+          incremental.removeConversion(removed.getId());
+        } else {
+          int from = 1 + random.nextInt(unitCount);
+          int to = 1 + random.nextInt(unitCount);
+          Integer productId = random.nextBoolean() ? null : 1 + random.nextInt(3);
+          QuantityUnitConversion added = conversion(
+              100 + step, productId, from, to, 0.1 + random.nextDouble() * 10
+          );
+          conversions.add(added);
+          incremental.putConversion(added);
+        }
+        QuantityUnitConversionResolver full = new QuantityUnitConversionResolver(
+            conversions, products, false
+        );
+        for (Product product : products) {
+          assertEquals(
+              "run " + run + " step " + step,
+              toStrings(full.getPaths(product.getId())),
+              toStrings(incremental.getPaths(product.getId()))
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Rows of the resolved conversions table in the format the server delivers it since 4.0
+   * (product id, from unit, to unit, factor), rounded to 15 significant digits like there.
+   * Units: 1 piece, 2 pack, 3 box, 4 gram, 5 kilogram, 6 liter, 7 bottle. Rows from a unit to
+   * itself are left out.
+   */
+  private static final String[] SERVER_RESOLVED = {
+      "1,1,2,0.166666666666667",
+      "1,1,3,0.0416666666666667",
+      "1,1,4,50",
+      "1,1,5,0.05",
+      "1,2,1,6",
+      "1,2,3,0.25",
+      "1,2,4,300",
+      "1,2,5,0.3",
+      "1,3,1,24",
+      "1,3,2,4",
+      "1,3,4,1200",
+      "1,3,5,1.2",
+      "1,4,1,0.02",
+      "1,4,2,0.00333333333333333",
+      "1,4,3,0.000833333333333333",
+      "1,4,5,0.001",
+      "1,5,1,20",
+      "1,5,2,3.33333333333333",
+      "1,5,3,0.833333333333333",
+      "1,5,4,1000",
+      "2,4,5,0.00111111111111111",
+      "2,5,4,900",
+      "3,6,7,2",
+      "3,7,6,0.5",
+      "4,2,3,0.25",
+      "4,3,2,4",
+  };
+
+  @Test
+  public void outputMatchesServerResolvedTable() {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    conversions.add(conversion(1, null, 5, 4, 1000)); // kilogram -> gram
+    conversions.add(conversion(2, null, 3, 2, 4)); // box -> pack
+    conversions.add(conversion(3, null, 7, 6, 0.5)); // bottle -> liter
+    conversions.add(conversion(4, 1, 2, 1, 6)); // pack -> piece
+    conversions.add(conversion(5, 1, 1, 4, 50)); // piece -> gram
+    conversions.add(conversion(6, 2, 5, 4, 900)); // overrides kilogram -> gram
+    int[] stockUnits = {1, 4, 6, 2};
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < stockUnits.length; i++) {
+      Product product = product(stockUnits[i]);
+      product.setId(i + 1);
+      products.add(product);
+    }
+    QuantityUnitConversionResolver resolver = new QuantityUnitConversionResolver(
+        conversions, products, false
+    );
+
+    HashMap<String, Double> expected = new HashMap<>();
+    for (String row : SERVER_RESOLVED) {
+      int separator = row.lastIndexOf(',');
+      expected.put(row.substring(0, separator), Double.parseDouble(row.substring(separator + 1)));
+    }
+    HashMap<String, Double> actual = new HashMap<>();
+    for (QuantityUnitConversionResolved conversion : resolver.getConversionsResolved()) {
+      if (conversion.getFromQuId() == conversion.getToQuId()) continue;
+      actual.put(conversion.getProductId() + "," + conversion.getFromQuId() + ","
+          + conversion.getToQuId(), conversion.getFactor());
+    }
+    assertEquals(expected.keySet(), actual.keySet());
+    for (String key : expected.keySet()) {
+      assertEquals(key, expected.get(key), actual.get(key), 1e-12 * expected.get(key));
+    }
+  }
+
+  private static void assertPathsValid(
+      List<QuantityUnitConversionPath> paths,
+      int quIdStock
+  ) {
+    assertFalse(paths.isEmpty());
+    Set<String> pairs = new HashSet<>();
+    Set<Integer> units = new HashSet<>();
+    boolean stockPathsFinished = false;
+    for (QuantityUnitConversionPath path : paths) {
+      assertTrue(path.getFactor() > 0 && !Double.isInfinite(path.getFactor()));
+      assertTrue(pairs.add(path.getFromQuId() + "/" + path.getToQuId()));
+      if (path.getFromQuId() != quIdStock) {
+        stockPathsFinished = true;
+      } else {
+        // conversions from the stock unit come first
+        assertFalse(stockPathsFinished);
+        units.add(path.getToQuId());
+      }
+      if (path.getFromQuId() == path.getToQuId()) {
+        assertEquals(1, path.getFactor(), 0);
+      }
+    }
+    // every unit is reachable from the stock unit
+    for (QuantityUnitConversionPath path : paths) {
+      assertTrue(units.contains(path.getFromQuId()));
+      assertTrue(units.contains(path.getToQuId()));
+    }
+  }
+
+  private static double[] randomSizes(Random random, int unitCount) {
+    double[] sizes = new double[unitCount + 1];
+    for (int unit = 1; unit <= unitCount; unit++) {
+      sizes[unit] = Math.pow(10, random.nextDouble() * 6 - 3);
+    }
+    return sizes;
+  }
+
+  private static List<QuantityUnitConversion> randomConversions(
+      Random random,
+      double[] sizes,
+      Integer productId
+  ) {
+    List<QuantityUnitConversion> conversions = new ArrayList<>();
+    for (int from = 1; from < sizes.length; from++) {
+      for (int to = 1; to < sizes.length; to++) {
+        if (from == to || random.nextInt(3) != 0) continue;
+        conversions.add(conversion(
+            conversions.size() + 1, productId, from, to, sizes[from] / sizes[to]
+        ));
+      }
+    }
+    return conversions;
+  }
+
+  private static List<String> toStrings(List<QuantityUnitConversionPath> paths) {
+    List<String> strings = new ArrayList<>();
+    for (QuantityUnitConversionPath path : paths) {
+      strings.add(path.getPath() + "=" + path.getFactor());
+    }
+    return strings;
+  }
+
+  private static QuantityUnitConversionResolver resolver(
+      List<QuantityUnitConversion> conversions,
+      Product product
+  ) {
+    return new QuantityUnitConversionResolver(
+        conversions, Collections.singletonList(product), false
+    );
+  }
+
+  private static QuantityUnitConversionPath getPath(
+      QuantityUnitConversionResolver resolver,
+      int fromQuId,
+      int toQuId
+  ) {
+    HashMap<String, QuantityUnitConversionPath> paths = new HashMap<>();
+    for (QuantityUnitConversionPath path : resolver.getPaths(PRODUCT_ID)) {
+      paths.put(path.getFromQuId() + "/" + path.getToQuId(), path);
+    }
+    return paths.get(fromQuId + "/" + toQuId);
+  }
+
+  private static double getFactor(
+      QuantityUnitConversionResolver resolver,
+      int fromQuId,
+      int toQuId
+  ) {
+    QuantityUnitConversionPath path = getPath(resolver, fromQuId, toQuId);
+    assertNotNull(fromQuId + " -> " + toQuId, path);
+    return path.getFactor();
+  }
+
+  private static Product product(int quIdStock) {
+    Product product = new Product();
+    product.setId(PRODUCT_ID);
+    product.setQuIdStock(quIdStock);
+    product.setQuIdPurchase(quIdStock);
+    return product;
+  }
+
+  private static QuantityUnitConversion conversion(
+      int id,
+      Integer productId,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    QuantityUnitConversion conversion = new QuantityUnitConversion();
+    conversion.setId(id);
+    conversion.setProductId(productId != null ? String.valueOf(productId) : null);
+    conversion.setFromQuId(fromQuId);
+    conversion.setToQuId(toQuId);
+    conversion.setFactor(factor);
+    return conversion;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.ViewTreeObserver;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowTrace;
+import org.robolectric.shadows.ShadowTrace.AsyncTraceSection;
+import org.robolectric.util.ReflectionHelpers;
+
+@RunWith(RobolectricTestRunner.class)
+public class StartupUtilTest {
+
+  private Activity activity;
+  private StartupUtil startupUtil;
+  private List<String> ranTasks;
+
+  @Before
+  public void setUp() {
+    // created only, so the window is not attached and drawn by itself
+    activity = Robolectric.buildActivity(Activity.class).create().get();
+    startupUtil = new StartupUtil(false);
+    startupUtil.observeFirstFrame(activity);
+    ranTasks = new ArrayList<>();
+  }
+
+  @Test
+  public void deferredTasksRunInOrderAfterFirstFrame() {
+    startupUtil.runAfterFirstFrame("first", () -> ranTasks.add("first"));
+    startupUtil.runAfterFirstFrame("second", () -> ranTasks.add("second"));
+    shadowOf(Looper.getMainLooper()).idle();
+    assertTrue(ranTasks.isEmpty());
+
+    drawFrame();
+    // the tasks are posted, nothing runs while drawing
+    assertTrue(ranTasks.isEmpty());
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(List.of("first", "second"), ranTasks);
+  }
+
+  @Test
+  public void tasksAfterFirstFrameRunRightAway() {
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    startupUtil.runAfterFirstFrame("late", () -> ranTasks.add("late"));
+    assertEquals(List.of("late"), ranTasks);
+  }
+
+  @Test
+  public void laterFramesDoNotRunTasksAgain() {
+    startupUtil.runAfterFirstFrame("once", () -> ranTasks.add("once"));
+
+    drawFrame();
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(List.of("once"), ranTasks);
+  }
+
+  @Test
+  public void taskAddedByDeferredTaskRunsToo() {
+    startupUtil.runAfterFirstFrame("outer", () -> {
+      ranTasks.add("outer");
+      startupUtil.runAfterFirstFrame("inner", () -> ranTasks.add("inner"));
+    });
+
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(List.of("outer", "inner"), ranTasks);
+  }
+
+  @Test
+  public void timeToFirstFrameIsTraced() {
+    assertTrue(getAsyncSectionNames(ShadowTrace.getCurrentAsyncSections())
+        .contains("startup:first_frame"));
+
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertFalse(getAsyncSectionNames(ShadowTrace.getCurrentAsyncSections())
+        .contains("startup:first_frame"));
+    assertTrue(getAsyncSectionNames(ShadowTrace.getPreviousAsyncSections())
+        .contains("startup:first_frame"));
+  }
+
+  @Test
+  public void criticalPathAndDeferredTasksAreTraced() {
+    StartupUtil.beginSection("critical");
+    StartupUtil.endSection();
+    startupUtil.runAfterFirstFrame("first", () -> ranTasks.add("first"));
+    startupUtil.runAfterFirstFrame("second", () -> {
+      // the section of the task is open while it runs
+      assertTrue(ShadowTrace.getCurrentSections().contains("startup:second"));
+      ranTasks.add("second");
+    });
+
+    drawFrame();
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(List.of("first", "second"), ranTasks);
+    assertEquals(
+        List.of("startup:critical", "startup:first", "startup:second"),
+        getStartupSectionNames(ShadowTrace.getPreviousSections())
+    );
+    assertTrue(getStartupSectionNames(ShadowTrace.getCurrentSections()).isEmpty());
+  }
+
+  private static List<String> getStartupSectionNames(Collection<String> sections) {
+    // the framework writes sections too
+    return sections.stream()
+        .filter(name -> name.startsWith("startup:"))
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> getAsyncSectionNames(Collection<AsyncTraceSection> sections) {
+    return sections.stream()
+        .map(AsyncTraceSection::getSectionName)
+        .collect(Collectors.toList());
+  }
+
+  private void drawFrame() {
+    // dispatchOnDraw is hidden, ViewRootImpl calls it before every draw
+    ViewTreeObserver observer = activity.getWindow().getDecorView().getViewTreeObserver();
+    ReflectionHelpers.callInstanceMethod(observer, "dispatchOnDraw");
+  }
+}
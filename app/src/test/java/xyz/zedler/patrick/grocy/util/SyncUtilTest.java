@@ -0,0 +1,145 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.Configuration;
+import androidx.work.NetworkType;
+import androidx.work.WorkInfo;
+import androidx.work.WorkInfo.State;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.WorkManagerTestInitHelper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.NETWORK;
+
+@RunWith(RobolectricTestRunner.class)
+public class SyncUtilTest {
+
+  private static final String WORK_NAME = "background_sync";
+
+  private Context context;
+  private SharedPreferences sharedPrefs;
+
+  @Before
+  public void setUp() {
+    context = ApplicationProvider.getApplicationContext();
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    WorkManagerTestInitHelper.initializeTestWorkManager(
+        context,
+        new Configuration.Builder().setExecutor(new SynchronousExecutor()).build()
+    );
+  }
+
+  @Test
+  public void syncIsNotScheduledByDefault() throws Exception {
+    sharedPrefs.edit().putString(PREF.SERVER_URL, "https://grocy.example.com").commit();
+    SyncUtil.updateBackgroundSync(context);
+    assertTrue(getWorkInfos().isEmpty());
+  }
+
+  @Test
+  public void syncIsScheduledWithConstraintsFromSettings() throws Exception {
+    sharedPrefs.edit()
+        .putString(PREF.SERVER_URL, "https://grocy.example.com")
+        .putBoolean(NETWORK.BACKGROUND_SYNC, true)
+        .putBoolean(NETWORK.BACKGROUND_SYNC_UNMETERED, false)
+        .putBoolean(NETWORK.BACKGROUND_SYNC_CHARGING, true)
+        .commit();
+    SyncUtil.updateBackgroundSync(context);
+
+    List<WorkInfo> workInfos = getWorkInfos();
+    assertEquals(1, workInfos.size());
+    WorkInfo workInfo = workInfos.get(0);
+    assertEquals(State.ENQUEUED, workInfo.getState());
+    assertEquals(NetworkType.CONNECTED, workInfo.getConstraints().getRequiredNetworkType());
+    assertTrue(workInfo.getConstraints().requiresCharging());
+    assertTrue(workInfo.getConstraints().requiresBatteryNotLow());
+    assertEquals(
+        TimeUnit.HOURS.toMillis(6),
+        workInfo.getPeriodicityInfo().getRepeatIntervalMillis()
+    );
+  }
+
+  @Test
+  public void updatedSettingsReplaceScheduledSync() throws Exception {
+    sharedPrefs.edit()
+        .putString(PREF.SERVER_URL, "https://grocy.example.com")
+        .putBoolean(NETWORK.BACKGROUND_SYNC, true)
+        .commit();
+    SyncUtil.updateBackgroundSync(context);
+    sharedPrefs.edit().putBoolean(NETWORK.BACKGROUND_SYNC_UNMETERED, true).commit();
+    SyncUtil.updateBackgroundSync(context);
+
+    List<WorkInfo> workInfos = getWorkInfos();
+    assertEquals(1, workInfos.size());
+    assertEquals(
+        NetworkType.UNMETERED,
+        workInfos.get(0).getConstraints().getRequiredNetworkType()
+    );
+    assertFalse(workInfos.get(0).getConstraints().requiresCharging());
+  }
+
+  @Test
+  public void disablingSyncCancelsIt() throws Exception {
+    sharedPrefs.edit()
+        .putString(PREF.SERVER_URL, "https://grocy.example.com")
+        .putBoolean(NETWORK.BACKGROUND_SYNC, true)
+        .commit();
+    SyncUtil.updateBackgroundSync(context);
+    sharedPrefs.edit().putBoolean(NETWORK.BACKGROUND_SYNC, false).commit();
+    SyncUtil.updateBackgroundSync(context);
+
+    List<WorkInfo> workInfos = getWorkInfos();
+    assertEquals(1, workInfos.size());
+    assertEquals(State.CANCELLED, workInfos.get(0).getState());
+  }
+
+  @Test
+  public void logoutCancelsSync() throws Exception {
+    sharedPrefs.edit()
+        .putString(PREF.SERVER_URL, "https://grocy.example.com")
+        .putBoolean(NETWORK.BACKGROUND_SYNC, true)
+        .commit();
+    SyncUtil.updateBackgroundSync(context);
+    sharedPrefs.edit().remove(PREF.SERVER_URL).commit();
+    SyncUtil.updateBackgroundSync(context);
+
+    assertEquals(State.CANCELLED, getWorkInfos().get(0).getState());
+  }
+
+  private List<WorkInfo> getWorkInfos() throws Exception {
+    return WorkManager.getInstance(context).getWorkInfosForUniqueWork(WORK_NAME).get();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowSystemClock;
+import xyz.zedler.patrick.grocy.web.CircuitBreaker.OpenCircuitError;
+
+@RunWith(RobolectricTestRunner.class)
+public class CircuitBreakerTest {
+
+  private static final String URL = "https://grocy.example.com/api/objects/products";
+  private static final String URL_SAME_HOST = "https://grocy.example.com/api/system/info";
+  private static final String URL_OTHER_HOST = "https://other.example.com/api/system/info";
+
+  private CircuitBreaker circuitBreaker;
+
+  @Before
+  public void setUp() {
+    circuitBreaker = CircuitBreaker.getInstance();
+    circuitBreaker.reset();
+  }
+
+  @Test
+  public void circuitOpensAfterConnectionFailuresInARow() {
+    circuitBreaker.onError(URL, new TimeoutError());
+    assertTrue(circuitBreaker.allowRequest(URL));
+    circuitBreaker.onError(URL, new NoConnectionError());
+    assertFalse(circuitBreaker.allowRequest(URL));
+    assertFalse(circuitBreaker.allowRequest(URL_SAME_HOST));
+    assertTrue(circuitBreaker.allowRequest(URL_OTHER_HOST));
+  }
+
+  @Test
+  public void httpErrorsCountAsResponse() {
+    circuitBreaker.onError(URL, new TimeoutError());
+    circuitBreaker.onError(URL, new ServerError());
+    circuitBreaker.onError(URL, new TimeoutError());
+    assertTrue(circuitBreaker.allowRequest(URL));
+  }
+
+  @Test
+  public void rejectedRequestsDoNotExtendOpenCircuit() {
+    openCircuit();
+    circuitBreaker.onError(URL, new OpenCircuitError());
+    circuitBreaker.onError(URL, new TimeoutError()); // sent before the circuit opened
+    ShadowSystemClock.advanceBy(Duration.ofSeconds(5));
+    assertTrue(circuitBreaker.allowRequest(URL));
+  }
+
+  @Test
+  public void onlyOneTrialRequestIsLetThrough() {
+    openCircuit();
+    ShadowSystemClock.advanceBy(Duration.ofSeconds(4));
+    assertFalse(circuitBreaker.allowRequest(URL));
+    ShadowSystemClock.advanceBy(Duration.ofSeconds(1));
+    assertTrue(circuitBreaker.allowRequest(URL));
+    assertFalse(circuitBreaker.allowRequest(URL));
+  }
+
+  @Test
+  public void successfulTrialClosesCircuit() {
+    openCircuit();
+    ShadowSystemClock.advanceBy(Duration.ofSeconds(5));
+    assertTrue(circuitBreaker.allowRequest(URL));
+    circuitBreaker.onResponse(URL);
+    assertTrue(circuitBreaker.allowRequest(URL));
+    assertTrue(circuitBreaker.allowRequest(URL));
+  }
+
+  @Test
+  public void failedTrialDoublesOpenTimeUpToMaximum() {
+    openCircuit();
+    ShadowSystemClock.advanceBy(Duration.ofSeconds(5));
+    assertTrue(circuitBreaker.allowRequest(URL));
+    for (long openTime : new long[]{10, 20, 30, 30}) {
+      circuitBreaker.onError(URL, new TimeoutError());
+      ShadowSystemClock.advanceBy(Duration.ofSeconds(openTime - 1));
+      assertFalse(circuitBreaker.allowRequest(URL));
+      ShadowSystemClock.advanceBy(Duration.ofSeconds(1));
+      assertTrue(circuitBreaker.allowRequest(URL));
+    }
+  }
+
+  @Test
+  public void resetClosesAllCircuits() {
+    openCircuit();
+    circuitBreaker.reset();
+    assertTrue(circuitBreaker.allowRequest(URL));
+  }
+
+  private void openCircuit() {
+    circuitBreaker.onError(URL, new TimeoutError());
+    circuitBreaker.onError(URL, new TimeoutError());
+    assertFalse(circuitBreaker.allowRequest(URL));
+  }
+}
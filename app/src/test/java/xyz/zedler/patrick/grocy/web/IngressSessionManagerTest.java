@@ -0,0 +1,319 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+import androidx.preference.PreferenceManager;
+import androidx.test.core.app.ApplicationProvider;
+import dev.gustavoavila.websocketclient.WebSocketClient;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowSystemClock;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+@RunWith(RobolectricTestRunner.class)
+public class IngressSessionManagerTest {
+
+  private SharedPreferences sharedPrefs;
+  private TestIngressSessionManager manager;
+  private final List<String> sessions = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    Context context = ApplicationProvider.getApplicationContext();
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    sharedPrefs.edit()
+        .putString(PREF.HOME_ASSISTANT_SERVER_URL, "http://homeassistant.local:8123")
+        .putString(PREF.HOME_ASSISTANT_LONG_LIVED_TOKEN, "token")
+        .commit();
+  }
+
+  @After
+  public void tearDown() {
+    if (manager != null) manager.stop();
+  }
+
+  @Test
+  public void sessionIsNullWithoutHomeAssistant() {
+    sharedPrefs.edit().clear().commit();
+    manager = new TestIngressSessionManager();
+    manager.start();
+    manager.getSession(sessions::add);
+    assertEquals(Collections.singletonList(null), sessions);
+    assertTrue(manager.clients.isEmpty());
+  }
+
+  @Test
+  public void requestsWaitForNewSession() throws JSONException {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    manager.getSession(sessions::add);
+    assertTrue(sessions.isEmpty());
+
+    FakeWebSocketClient client = authenticate();
+    respondSession(client, "session");
+    idle();
+    assertEquals(Collections.singletonList("session"), sessions);
+    assertEquals("session", manager.getSession());
+    assertEquals(
+        "session", sharedPrefs.getString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null)
+    );
+  }
+
+  @Test
+  public void pendingRequestsUseLastSessionAfterTimeout() {
+    sharedPrefs.edit()
+        .putString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, "old")
+        .putLong(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME, 0)
+        .commit();
+    manager = new TestIngressSessionManager();
+    manager.start();
+    manager.getSession(sessions::add);
+    idleFor(Duration.ofSeconds(9));
+    assertTrue(sessions.isEmpty());
+    idleFor(Duration.ofSeconds(1));
+    assertEquals(Collections.singletonList("old"), sessions);
+  }
+
+  @Test
+  public void sessionIsValidatedEveryMinute() throws JSONException {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    FakeWebSocketClient client = authenticate();
+    respondSession(client, "session");
+
+    idleFor(Duration.ofMinutes(1));
+    JSONObject request = client.getLastMessage();
+    assertEquals("/ingress/validate_session", request.getString("endpoint"));
+    assertEquals("session", request.getJSONObject("data").getString("session"));
+    respond(client, request.getInt("id"), true, null);
+    assertEquals(request.getInt("id"), client.getLastMessage().getInt("id"));
+
+    idleFor(Duration.ofMinutes(1));
+    request = client.getLastMessage();
+    assertEquals("/ingress/validate_session", request.getString("endpoint"));
+    respond(client, request.getInt("id"), false, null);
+    assertEquals("/ingress/session", client.getLastMessage().getString("endpoint"));
+  }
+
+  @Test
+  public void staleSessionIsRequestedAgainInForeground() throws JSONException {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    FakeWebSocketClient client = authenticate();
+    respondSession(client, "session");
+    manager.pause();
+
+    ShadowSystemClock.advanceBy(Duration.ofMinutes(11));
+    manager.start();
+    assertEquals("/ingress/session", client.getLastMessage().getString("endpoint"));
+    manager.getSession(sessions::add);
+    assertTrue(sessions.isEmpty());
+    respondSession(client, "new");
+    idle();
+    assertEquals(Collections.singletonList("new"), sessions);
+  }
+
+  @Test
+  public void lostConnectionIsOpenedAgainWithBackoff() {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    FakeWebSocketClient client = manager.clients.get(0);
+
+    manager.onConnectionLost(client);
+    idleFor(Duration.ofMillis(999));
+    assertEquals(1, manager.clients.size());
+    idleFor(Duration.ofMillis(1001));
+    assertEquals(2, manager.clients.size());
+    assertTrue(client.closed);
+
+    // a late failure of the closed client is ignored
+    manager.onConnectionLost(client);
+    // the second delay is drawn from a twice as long range
+    manager.onConnectionLost(manager.clients.get(1));
+    idleFor(Duration.ofMillis(999));
+    assertEquals(2, manager.clients.size());
+    idleFor(Duration.ofMillis(2001));
+    assertEquals(3, manager.clients.size());
+    assertNotSame(manager.clients.get(1), manager.clients.get(2));
+  }
+
+  @Test
+  public void invalidTokenStopsReconnecting() {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    manager.getSession(sessions::add);
+    FakeWebSocketClient client = manager.clients.get(0);
+
+    manager.onMessage(client, "{\"type\":\"auth_invalid\"}");
+    idle();
+    assertEquals(Collections.singletonList(null), sessions);
+    manager.onConnectionLost(client);
+    idleFor(Duration.ofMinutes(2));
+    assertEquals(1, manager.clients.size());
+    assertTrue(client.closed);
+  }
+
+  @Test
+  public void sessionFromLoginReleasesPendingRequests() {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    manager.getSession(sessions::add);
+
+    sharedPrefs.edit().putString(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, "login").commit();
+    idle();
+    assertEquals(Collections.singletonList("login"), sessions);
+  }
+
+  @Test
+  public void messagesOfOldClientsAreIgnored() {
+    manager = new TestIngressSessionManager();
+    manager.start();
+    FakeWebSocketClient client = manager.clients.get(0);
+    manager.onConnectionLost(client);
+    idleFor(Duration.ofSeconds(2));
+
+    manager.onMessage(client, "{\"type\":\"auth_required\"}");
+    assertTrue(client.messages.isEmpty());
+    assertNull(manager.getSession());
+  }
+
+  private FakeWebSocketClient authenticate() throws JSONException {
+    FakeWebSocketClient client = manager.clients.get(manager.clients.size() - 1);
+    manager.onMessage(client, "{\"type\":\"auth_required\"}");
+    JSONObject auth = client.getLastMessage();
+    assertEquals("auth", auth.getString("type"));
+    assertEquals("token", auth.getString("access_token"));
+    manager.onMessage(client, "{\"type\":\"auth_ok\"}");
+    return client;
+  }
+
+  private void respondSession(FakeWebSocketClient client, String session) throws JSONException {
+    JSONObject request = client.getLastMessage();
+    assertEquals("supervisor/api", request.getString("type"));
+    assertEquals("/ingress/session", request.getString("endpoint"));
+    respond(client, request.getInt("id"), true, new JSONObject().put("session", session));
+  }
+
+  private void respond(
+      FakeWebSocketClient client,
+      int id,
+      boolean success,
+      JSONObject result
+  ) throws JSONException {
+    JSONObject response = new JSONObject()
+        .put("id", id)
+        .put("type", "result")
+        .put("success", success);
+    if (result != null) response.put("result", result);
+    manager.onMessage(client, response.toString());
+  }
+
+  private static void idle() {
+    shadowOf(Looper.getMainLooper()).idle();
+  }
+
+  private static void idleFor(Duration duration) {
+    shadowOf(Looper.getMainLooper()).idleFor(duration);
+  }
+
+  private static class TestIngressSessionManager extends IngressSessionManager {
+
+    final List<FakeWebSocketClient> clients = new ArrayList<>();
+
+    TestIngressSessionManager() {
+      super(ApplicationProvider.getApplicationContext());
+    }
+
+    @Override
+    WebSocketClient createWebSocketClient(URI uri) {
+      FakeWebSocketClient client = new FakeWebSocketClient(uri);
+      clients.add(client);
+      return client;
+    }
+  }
+
+  private static class FakeWebSocketClient extends WebSocketClient {
+
+    final List<String> messages = new ArrayList<>();
+    boolean closed;
+
+    FakeWebSocketClient(URI uri) {
+      super(uri);
+    }
+
+    JSONObject getLastMessage() throws JSONException {
+      return new JSONObject(messages.get(messages.size() - 1));
+    }
+
+    @Override
+    public void connect() {}
+
+    @Override
+    public void send(String message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void close(int timeout, int code, String reason) {
+      closed = true;
+    }
+
+    @Override
+    public void onOpen() {}
+
+    @Override
+    public void onTextReceived(String message) {}
+
+    @Override
+    public void onBinaryReceived(byte[] data) {}
+
+    @Override
+    public void onPingReceived(byte[] data) {}
+
+    @Override
+    public void onPongReceived(byte[] data) {}
+
+    @Override
+    public void onException(Exception e) {}
+
+    @Override
+    public void onCloseReceived(int reason, String description) {}
+  }
+}
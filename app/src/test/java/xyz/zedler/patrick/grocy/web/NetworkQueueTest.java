@@ -0,0 +1,123 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import com.android.volley.RequestQueue;
+import com.android.volley.TimeoutError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
+
+@RunWith(RobolectricTestRunner.class)
+public class NetworkQueueTest {
+
+  private static final long BUDGET = 1000;
+
+  private final List<OnStringResponseListener> pendingRequests = new ArrayList<>();
+  private final List<Object> errors = new ArrayList<>();
+  private boolean finished;
+  private NetworkQueue queue;
+
+  @Before
+  public void setUp() {
+    queue = new NetworkQueue(
+        new RequestQueue(new NoCache(), new BasicNetwork(new HurlStack())),
+        updated -> finished = true,
+        errors::add,
+        null
+    ).setBudget(BUDGET);
+  }
+
+  @Test
+  public void passWithoutProgressIsCancelledAfterBudget() {
+    startQueue(2);
+    idleFor(BUDGET - 1);
+    assertTrue(errors.isEmpty());
+    idleFor(1);
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0) instanceof TimeoutError);
+    assertFalse(finished);
+  }
+
+  @Test
+  public void passWhichMakesProgressIsNotCancelled() {
+    startQueue(4);
+    for (int i = 0; i < 4; i++) {
+      idleFor(BUDGET - 100);
+      finishRequest();
+    }
+    assertTrue(errors.isEmpty());
+    assertTrue(finished);
+    idleFor(BUDGET * 2);
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  public void budgetStartsAgainAfterEveryFinishedRequest() {
+    startQueue(3);
+    idleFor(BUDGET - 100);
+    finishRequest();
+    idleFor(BUDGET - 1);
+    assertTrue(errors.isEmpty());
+    idleFor(1);
+    assertEquals(1, errors.size());
+  }
+
+  private void startQueue(int requestCount) {
+    for (int i = 0; i < requestCount; i++) {
+      queue.append(new QueueItem() {
+        @Override
+        public void perform(
+            OnStringResponseListener responseListener,
+            OnMultiTypeErrorListener errorListener,
+            String uuid
+        ) {
+          pendingRequests.add(responseListener);
+        }
+      });
+    }
+    queue.start();
+  }
+
+  private void finishRequest() {
+    pendingRequests.remove(0).onResponse("[]");
+  }
+
+  private static void idleFor(long millis) {
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.android.volley.Request.Method;
+import com.android.volley.RetryPolicy;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestPolicyTest {
+
+  private static final String PROBE_URL = "https://grocy.example.com/api/system/db-changed-time";
+  private static final String LIST_URL = "https://grocy.example.com/api/objects/products";
+  private static final String STOCK_URL = "https://grocy.example.com/api/stock";
+
+  @After
+  public void tearDown() {
+    RequestPolicy.setProxyEnabled(false);
+  }
+
+  @Test
+  public void probeHasShortTimeoutWithoutRetry() {
+    RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, PROBE_URL, 30);
+    assertEquals(5000, policy.getCurrentTimeout());
+    assertEquals(0, getRetryCount(policy));
+    assertTrue(RequestPolicy.isProbeHedged());
+  }
+
+  @Test
+  public void probeKeepsShorterTimeoutFromSettings() {
+    RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, PROBE_URL, 2);
+    assertEquals(2000, policy.getCurrentTimeout());
+  }
+
+  @Test
+  public void probeThroughProxyKeepsTimeoutAndIsNotHedged() {
+    RequestPolicy.setProxyEnabled(true);
+    RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, PROBE_URL, 30);
+    assertEquals(30000, policy.getCurrentTimeout());
+    assertFalse(RequestPolicy.isProbeHedged());
+  }
+
+  @Test
+  public void requestsWhichChangeDataAreNotRetried() {
+    for (int method : new int[]{Method.POST, Method.PUT, Method.DELETE}) {
+      RetryPolicy policy = RequestPolicy.getRetryPolicy(method, LIST_URL, 30);
+      assertEquals(30000, policy.getCurrentTimeout());
+      assertEquals(0, getRetryCount(policy));
+    }
+  }
+
+  @Test
+  public void listsHaveLongerTimeoutAndAreRetriedOnce() {
+    for (String url : new String[]{LIST_URL, LIST_URL + "?query%5B%5D=active%3D1",
+        STOCK_URL, STOCK_URL + "/volatile?due_soon_days=5"}) {
+      RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, url, 30);
+      assertEquals(url, 60000, policy.getCurrentTimeout());
+      assertEquals(url, 1, getRetryCount(policy));
+    }
+  }
+
+  @Test
+  public void singleObjectsKeepTimeoutAndAreRetriedOnce() {
+    for (String url : new String[]{LIST_URL + "/5", STOCK_URL + "/products/5"}) {
+      RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, url, 30);
+      assertEquals(url, 30000, policy.getCurrentTimeout());
+      assertEquals(url, 1, getRetryCount(policy));
+    }
+  }
+
+  @Test
+  public void firstListAttemptFitsInUpdateBudget() {
+    RetryPolicy policy = RequestPolicy.getRetryPolicy(Method.GET, LIST_URL, 30);
+    assertTrue(policy.getCurrentTimeout() < RequestPolicy.getUpdateBudget(30));
+  }
+
+  private static int getRetryCount(RetryPolicy policy) {
+    int retries = 0;
+    try {
+      while (retries < 10) {
+        policy.retry(new TimeoutError());
+        retries++;
+      }
+    } catch (VolleyError e) {
+      // no attempt remaining
+    }
+    return retries;
+  }
+}
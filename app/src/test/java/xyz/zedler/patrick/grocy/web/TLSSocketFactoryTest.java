@@ -0,0 +1,331 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Intent;
+import android.os.Looper;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.ConscryptMode;
+import org.robolectric.util.ReflectionHelpers;
+import org.robolectric.util.ReflectionHelpers.ClassParameter;
+import xyz.zedler.patrick.grocy.ssl.ikm.InteractiveKeyManager;
+import xyz.zedler.patrick.grocy.ssl.mtm.Decision;
+import xyz.zedler.patrick.grocy.ssl.mtm.MemorizingTrustManager;
+
+/**
+ * Handshakes with TLS servers on the loopback interface, which use the self-signed
+ * certificates of the MemorizingTrustManagerTest. Only the certificate of server A is trusted.
+ */
+@RunWith(RobolectricTestRunner.class)
+// the app keystore is empty, so its trust manager has to reject the chain like on a device
+@ConscryptMode(ConscryptMode.Mode.ON)
+public class TLSSocketFactoryTest {
+
+  private static final long TIMEOUT = 10_000;
+
+  private static final String CERT_A = "-----BEGIN CERTIFICATE-----\n"
+      + "MIIBhDCCASugAwIBAgIUX4UCvh1DpQ4gRvkRLSWqI8YLlkkwCgYIKoZIzj0EAwIw\n"
+      + "FzEVMBMGA1UEAwwMZ3JvY3ktYS50ZXN0MCAXDTI2MTAxOTEzNTg0MVoYDzIxMjYw\n"
+      + "OTI1MTM1ODQxWjAXMRUwEwYDVQQDDAxncm9jeS1hLnRlc3QwWTATBgcqhkjOPQIB\n"
+      + "BggqhkjOPQMBBwNCAAT40C+QPlZrMYrQM9KF5dH+i7ttCaFCfAsrAVdTVV9LpZzD\n"
+      + "dT1G3kCQJGISWBrJsMJ6CLhAl2yDhzcGZyfb7gC4o1MwUTAdBgNVHQ4EFgQUrpVM\n"
+      + "VPdhxApYlRYRAv3x2O0F+j0wHwYDVR0jBBgwFoAUrpVMVPdhxApYlRYRAv3x2O0F\n"
+      + "+j0wDwYDVR0TAQH/BAUwAwEB/zAKBggqhkjOPQQDAgNHADBEAiArMy2VUUEZ0Cwt\n"
+      + "4gvBE/d8Q2dUbH75ueB5PjUsTsSCpAIgftrO26F7rkomnh0fNtKa0XibErolpXyX\n"
+      + "nx8C+1YMpfg=\n"
+      + "-----END CERTIFICATE-----\n";
+  private static final String KEY_A =
+      "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgZj+4e3dIYZUXyncU"
+      + "P89JRwiC8a0kLF7952PMQ0W+Y6+hRANCAAT40C+QPlZrMYrQM9KF5dH+i7ttCaFC"
+      + "fAsrAVdTVV9LpZzDdT1G3kCQJGISWBrJsMJ6CLhAl2yDhzcGZyfb7gC4";
+  private static final String CERT_B = "-----BEGIN CERTIFICATE-----\n"
+      + "MIIBhTCCASugAwIBAgIUVtwuuG6GFEWKKCLJa1h71sl9MyAwCgYIKoZIzj0EAwIw\n"
+      + "FzEVMBMGA1UEAwwMZ3JvY3ktYi50ZXN0MCAXDTI2MTAxOTEzNTg0MVoYDzIxMjYw\n"
+      + "OTI1MTM1ODQxWjAXMRUwEwYDVQQDDAxncm9jeS1iLnRlc3QwWTATBgcqhkjOPQIB\n"
+      + "BggqhkjOPQMBBwNCAARFIcCE0oPmt60bEePT2YxtM+vSUg/sYHc0TWLPnTn00Tyl\n"
+      + "p+7+nFgRXEnTdN2xz7x2Y4lTm+0+stJdQELTtnrCo1MwUTAdBgNVHQ4EFgQUUrjN\n"
+      + "NtQyU6u8Ilk4qy3oZVhx2EswHwYDVR0jBBgwFoAUUrjNNtQyU6u8Ilk4qy3oZVhx\n"
+      + "2EswDwYDVR0TAQH/BAUwAwEB/zAKBggqhkjOPQQDAgNIADBFAiEAruWM+2U0Mz0D\n"
+      + "307XXYpy2bxrp6ci+Q9RrGMYQj7D0NMCIFpQS8CAOXfnlqnkkecE9oPax2zQeZUx\n"
+      + "hTKDU+KrcgiS\n"
+      + "-----END CERTIFICATE-----\n";
+  private static final String KEY_B =
+      "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgeP3no8LIWi1QYbdl"
+      + "0DBfqAYL+FBYg4rovZHGxB863AqhRANCAARFIcCE0oPmt60bEePT2YxtM+vSUg/s"
+      + "YHc0TWLPnTn00Tylp+7+nFgRXEnTdN2xz7x2Y4lTm+0+stJdQELTtnrC";
+
+  private final List<TestServer> servers = new ArrayList<>();
+  private Application application;
+  private CountingTrustManager defaultTrustManager;
+  private TLSSocketFactory socketFactory;
+
+  @Before
+  public void setUp() throws GeneralSecurityException, IOException {
+    application = ApplicationProvider.getApplicationContext();
+    // a real check, which only accepts server A, instead of the system certificates
+    KeyStore trusted = KeyStore.getInstance(KeyStore.getDefaultType());
+    trusted.load(null, null);
+    trusted.setCertificateEntry("a", parseCertificate(CERT_A));
+    defaultTrustManager = new CountingTrustManager(trusted);
+    socketFactory = new TLSSocketFactory(
+        new InteractiveKeyManager(application),
+        new MemorizingTrustManager(application, defaultTrustManager)
+    );
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    for (TestServer server : servers) {
+      server.close();
+    }
+  }
+
+  @Test
+  public void trustedServerIsAccepted() throws Exception {
+    TestServer server = startServer(CERT_A, KEY_A);
+
+    assertEquals("grocy-a.test", handshake(server));
+    assertEquals(1, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void secondHandshakeUsesCachedTrustDecision() throws Exception {
+    // same certificate on another port, so the second handshake can't resume the session
+    TestServer first = startServer(CERT_A, KEY_A);
+    TestServer second = startServer(CERT_A, KEY_A);
+
+    handshake(first);
+    handshake(second);
+    handshake(second);
+    assertEquals(1, defaultTrustManager.serverChecks);
+  }
+
+  @Test
+  public void unknownServerIsStillRejected() throws Exception {
+    TestServer trustedServer = startServer(CERT_A, KEY_A);
+    TestServer unknownServer = startServer(CERT_B, KEY_B);
+    handshake(trustedServer);
+
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      try {
+        handshake(unknownServer);
+      } catch (Exception e) {
+        failure.set(e);
+      }
+    });
+    thread.start();
+
+    // the unknown certificate is not taken from the cache, the user is asked instead
+    Intent intent = awaitDecisionIntent();
+    assertTrue(intent.getStringExtra(MemorizingTrustManager.DECISION_INTENT_CERT)
+        .contains("grocy-b.test"));
+    awaitWaiting(thread);
+    ReflectionHelpers.callStaticMethod(
+        MemorizingTrustManager.class, "interactResult",
+        ClassParameter.from(int.class, intent.getIntExtra(
+            MemorizingTrustManager.DECISION_INTENT_ID, -1
+        )),
+        ClassParameter.from(int.class, Decision.DECISION_ABORT)
+    );
+    thread.join(TIMEOUT);
+
+    assertTrue(failure.get() instanceof IOException);
+    assertEquals(2, defaultTrustManager.serverChecks);
+  }
+
+  /**
+   * Returns the common name of the server certificate after a successful handshake.
+   */
+  private String handshake(TestServer server) throws IOException {
+    try (SSLSocket socket = (SSLSocket) socketFactory.createSocket(
+        InetAddress.getLoopbackAddress(), server.getPort()
+    )) {
+      socket.setSoTimeout((int) TIMEOUT);
+      socket.startHandshake();
+      socket.getOutputStream().write(1);
+      assertEquals(1, socket.getInputStream().read());
+      X509Certificate cert = (X509Certificate) socket.getSession().getPeerCertificates()[0];
+      return cert.getSubjectX500Principal().getName().replace("CN=", "");
+    }
+  }
+
+  private Intent awaitDecisionIntent() throws InterruptedException {
+    long end = System.currentTimeMillis() + TIMEOUT;
+    while (System.currentTimeMillis() < end) {
+      // the dialog is started from the main thread
+      shadowOf(Looper.getMainLooper()).idle();
+      Intent intent = shadowOf(application).getNextStartedActivity();
+      if (intent != null) return intent;
+      Thread.sleep(10);
+    }
+    fail("no decision requested");
+    return null;
+  }
+
+  private static void awaitWaiting(Thread thread) throws InterruptedException {
+    long end = System.currentTimeMillis() + TIMEOUT;
+    while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+  }
+
+  private TestServer startServer(String cert, String key)
+      throws GeneralSecurityException, IOException {
+    TestServer server = new TestServer(parseCertificate(cert), parsePrivateKey(key));
+    servers.add(server);
+    return server;
+  }
+
+  private static X509Certificate parseCertificate(String pem) throws CertificateException {
+    return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+        new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII))
+    );
+  }
+
+  private static PrivateKey parsePrivateKey(String base64) throws GeneralSecurityException {
+    return KeyFactory.getInstance("EC").generatePrivate(
+        new PKCS8EncodedKeySpec(Base64.getDecoder().decode(base64))
+    );
+  }
+
+  /**
+   * Answers every byte with the same byte after the handshake, until it is closed.
+   */
+  private static class TestServer extends Thread {
+
+    private final SSLServerSocket serverSocket;
+
+    TestServer(X509Certificate cert, PrivateKey key)
+        throws GeneralSecurityException, IOException {
+      char[] password = "test".toCharArray();
+      KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+      keyStore.load(null, null);
+      keyStore.setKeyEntry("server", key, password, new X509Certificate[]{cert});
+      KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(
+          KeyManagerFactory.getDefaultAlgorithm()
+      );
+      keyManagerFactory.init(keyStore, password);
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+      serverSocket = (SSLServerSocket) sslContext.getServerSocketFactory().createServerSocket(
+          0, 10, InetAddress.getLoopbackAddress()
+      );
+      setDaemon(true);
+      start();
+    }
+
+    int getPort() {
+      return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void run() {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept()) {
+          int read = socket.getInputStream().read();
+          if (read != -1) socket.getOutputStream().write(read);
+        } catch (IOException e) {
+          // rejected handshakes and closing the server
+        }
+      }
+    }
+
+    void close() throws IOException {
+      serverSocket.close();
+    }
+  }
+
+  private static class CountingTrustManager implements X509TrustManager {
+
+    private final X509TrustManager trustManager;
+    private int serverChecks;
+
+    CountingTrustManager(KeyStore trusted) throws GeneralSecurityException {
+      TrustManagerFactory factory = TrustManagerFactory.getInstance(
+          TrustManagerFactory.getDefaultAlgorithm()
+      );
+      factory.init(trusted);
+      X509TrustManager found = null;
+      for (TrustManager trustManager : factory.getTrustManagers()) {
+        if (trustManager instanceof X509TrustManager) {
+          found = (X509TrustManager) trustManager;
+        }
+      }
+      assertNotNull(found);
+      trustManager = found;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType)
+        throws CertificateException {
+      trustManager.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public synchronized void checkServerTrusted(X509Certificate[] chain, String authType)
+        throws CertificateException {
+      serverChecks++;
+      trustManager.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+      return trustManager.getAcceptedIssuers();
+    }
+  }
+}
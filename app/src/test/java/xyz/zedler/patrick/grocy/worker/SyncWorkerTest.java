@@ -0,0 +1,84 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2024 by Patrick Zedler and Dominic Zedler
+ * Copyright (c) 2024-2025 by Patrick Zedler
+ */
+
+package xyz.zedler.patrick.grocy.worker;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.ListenableWorker.Result;
+import androidx.work.testing.TestWorkerBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+@RunWith(RobolectricTestRunner.class)
+public class SyncWorkerTest {
+
+  private Context context;
+  private SharedPreferences sharedPrefs;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    context = ApplicationProvider.getApplicationContext();
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void succeedsWithoutServer() {
+    SyncWorker worker = TestWorkerBuilder.from(context, SyncWorker.class, executor).build();
+    assertEquals(Result.success(), worker.doWork());
+  }
+
+  @Test
+  public void stoppedRunIsRetried() {
+    sharedPrefs.edit().putString(PREF.SERVER_URL, "https://grocy.example.com").commit();
+    SyncWorker worker = TestWorkerBuilder.from(context, SyncWorker.class, executor)
+        .setRunAttemptCount(3)
+        .build();
+    worker.onStopped();
+    assertEquals(Result.retry(), worker.doWork());
+  }
+
+  @Test
+  public void stoppedRunFailsAfterLastAttempt() {
+    sharedPrefs.edit().putString(PREF.SERVER_URL, "https://grocy.example.com").commit();
+    SyncWorker worker = TestWorkerBuilder.from(context, SyncWorker.class, executor)
+        .setRunAttemptCount(4)
+        .build();
+    worker.onStopped();
+    assertEquals(Result.failure(), worker.doWork());
+  }
+}